@@ -0,0 +1,197 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The float arithmetic handlers of {@link DispatchTable}, one run per operation.
+ * <br>
+ * <code>handler</code> runs the handler of the operation on {@link #SIZE} operands, pushing
+ * them on a {@link ValueStack} and popping the result as the interpreter does.
+ * <code>java</code> is the same loop written in Java, the speed to match.  Both sum the results
+ * so the work is not removed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloatBenchmark {
+
+	private static final int SIZE = 1024;
+
+	@Param({"0x8D", "0x8E", "0x8F", "0x90", "0x91", "0x92", "0x93", "0x94", "0x95", "0x96",
+		"0x97", "0x9B", "0x9C", "0x9D", "0x9E", "0x9F", "0xA0", "0xA1", "0xA2", "0xA3", "0xA4",
+		"0xA5"})
+	public String opcode;
+
+	private int code;
+	private boolean unary;
+	private boolean f32;
+
+	private WasmInstance instance;
+	private ValueStack stack;
+	private InstructionStream stream;
+	private OpcodeHandler handler;
+
+	private final float[] f32All1 = new float[SIZE];
+	private final float[] f32All2 = new float[SIZE];
+	private final double[] f64All1 = new double[SIZE];
+	private final double[] f64All2 = new double[SIZE];
+
+	@Setup
+	public void setUp() {
+		code = Integer.decode(opcode);
+		f32 = code <= 0x98;
+		// ceil, floor, trunc, nearest and sqrt take one operand.
+		unary = (code - (f32 ? 0x8D : 0x9B)) < 5;
+
+		instance = new WasmInstance(new WasmModule());
+		stack = instance.getValueStack();
+		stream = new InstructionStream(new int[]{code}, new long[0], new int[]{0});
+		handler = DispatchTable.get(code);
+
+		// positive values so sqrt does not give NaN.
+		Random random = new Random(42);
+		for (int i = 0; i < SIZE; i++) {
+			f64All1[i] = random.nextDouble() * 1000;
+			f64All2[i] = random.nextDouble() * 1000 + 1;
+			f32All1[i] = (float) f64All1[i];
+			f32All2[i] = (float) f64All2[i];
+		}
+	}
+
+	@Benchmark
+	public double handler() {
+		double sum = 0;
+		if (f32) {
+			for (int i = 0; i < SIZE; i++) {
+				stack.pushF32(f32All1[i]);
+				if (unary == false) {
+					stack.pushF32(f32All2[i]);
+				}
+				handler.execute(instance, stream, 0);
+				sum += stack.popF32();
+			}
+		} else {
+			for (int i = 0; i < SIZE; i++) {
+				stack.pushF64(f64All1[i]);
+				if (unary == false) {
+					stack.pushF64(f64All2[i]);
+				}
+				handler.execute(instance, stream, 0);
+				sum += stack.popF64();
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double java() {
+		final float[] x = f32All1;
+		final float[] y = f32All2;
+		final double[] u = f64All1;
+		final double[] v = f64All2;
+		double sum = 0;
+		switch (code) {
+			case 0x8D:
+				for (int i = 0; i < SIZE; i++) { sum += (float) Math.ceil(x[i]); }
+				break;
+			case 0x8E:
+				for (int i = 0; i < SIZE; i++) { sum += (float) Math.floor(x[i]); }
+				break;
+			case 0x8F:
+				// the operands are positive and small, a cast truncates them.
+				for (int i = 0; i < SIZE; i++) { sum += (float) (long) x[i]; }
+				break;
+			case 0x90:
+				for (int i = 0; i < SIZE; i++) { sum += (float) Math.rint(x[i]); }
+				break;
+			case 0x91:
+				for (int i = 0; i < SIZE; i++) { sum += (float) Math.sqrt(x[i]); }
+				break;
+			case 0x92:
+				for (int i = 0; i < SIZE; i++) { sum += x[i] + y[i]; }
+				break;
+			case 0x93:
+				for (int i = 0; i < SIZE; i++) { sum += x[i] - y[i]; }
+				break;
+			case 0x94:
+				for (int i = 0; i < SIZE; i++) { sum += x[i] * y[i]; }
+				break;
+			case 0x95:
+				for (int i = 0; i < SIZE; i++) { sum += x[i] / y[i]; }
+				break;
+			case 0x96:
+				for (int i = 0; i < SIZE; i++) { sum += Math.min(x[i], y[i]); }
+				break;
+			case 0x97:
+				for (int i = 0; i < SIZE; i++) { sum += Math.max(x[i], y[i]); }
+				break;
+			case 0x9B:
+				for (int i = 0; i < SIZE; i++) { sum += Math.ceil(u[i]); }
+				break;
+			case 0x9C:
+				for (int i = 0; i < SIZE; i++) { sum += Math.floor(u[i]); }
+				break;
+			case 0x9D:
+				for (int i = 0; i < SIZE; i++) { sum += (double) (long) u[i]; }
+				break;
+			case 0x9E:
+				for (int i = 0; i < SIZE; i++) { sum += Math.rint(u[i]); }
+				break;
+			case 0x9F:
+				for (int i = 0; i < SIZE; i++) { sum += Math.sqrt(u[i]); }
+				break;
+			case 0xA0:
+				for (int i = 0; i < SIZE; i++) { sum += u[i] + v[i]; }
+				break;
+			case 0xA1:
+				for (int i = 0; i < SIZE; i++) { sum += u[i] - v[i]; }
+				break;
+			case 0xA2:
+				for (int i = 0; i < SIZE; i++) { sum += u[i] * v[i]; }
+				break;
+			case 0xA3:
+				for (int i = 0; i < SIZE; i++) { sum += u[i] / v[i]; }
+				break;
+			case 0xA4:
+				for (int i = 0; i < SIZE; i++) { sum += Math.min(u[i], v[i]); }
+				break;
+			default:
+				for (int i = 0; i < SIZE; i++) { sum += Math.max(u[i], v[i]); }
+				break;
+		}
+		return sum;
+	}
+}
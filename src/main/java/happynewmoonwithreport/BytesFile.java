@@ -18,13 +18,23 @@ package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.utility.Hex;
 import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * An byte array with an index. Created by James Haring on 2017-07-18.
+ * <br>
+ * The <code>readVar</code> methods decode the LEB128 integers of the binary format straight to
+ * primitives.  One and two byte values, nearly all of them in a module, are read without a loop.
+ * A value that uses more bytes than its type allows, or sets bits that do not fit, is rejected.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/values.html#integers" target="_top">
+ * https://webassembly.github.io/spec/core/binary/values.html#integers
+ * </a>
  */
 public class BytesFile {
 	private byte[] bytesAll;
-	private Integer index = 0;
+	private int index = 0;
 
 	public BytesFile(byte[] bytesAll) {
 		this(bytesAll, 0);
@@ -45,6 +55,153 @@ public class BytesFile {
 		return result;
 	}
 
+	/**
+	 * Read an unsigned LEB128 value of at most 32 bits, a varuint32.
+	 *
+	 * @return the value, 0 to 2<sup>32</sup>-1.
+	 */
+	public long readVarU32() {
+		int b = bytesAll[index++];
+		if (b >= 0) {
+			return b;
+		}
+		int result = b & 0x7F;
+		b = bytesAll[index++];
+		if (b >= 0) {
+			return result | (b << 7);
+		}
+		return readVarU32Rest(result | ((b & 0x7F) << 7));
+	}
+
+	private long readVarU32Rest(long result) {
+		for (int shift = 14; shift < 28; shift += 7) {
+			int b = bytesAll[index++];
+			result |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return result;
+			}
+		}
+		// The fifth byte holds the top 4 bits.
+		int b = bytesAll[index++];
+		if (b < 0) {
+			throw new WasmRuntimeException(UUID.fromString("bac1da73-dc6a-43f5-b7ca-ce13b973c912"),
+				"varuint32 ending at byte %d: integer representation too long", index);
+		}
+		if ((b & 0x70) != 0) {
+			throw new WasmRuntimeException(UUID.fromString("1ef26400-8320-42fa-aabb-abbf7166d3c3"),
+				"varuint32 ending at byte %d: integer too large", index);
+		}
+		return result | (long) b << 28;
+	}
+
+	/**
+	 * Read a signed LEB128 value of at most 32 bits, a varint32.
+	 *
+	 * @return the value.
+	 */
+	public int readVarS32() {
+		int b = bytesAll[index++];
+		if (b >= 0) {
+			return (b << 25) >> 25;
+		}
+		int result = b & 0x7F;
+		b = bytesAll[index++];
+		if (b >= 0) {
+			return ((result | (b << 7)) << 18) >> 18;
+		}
+		return readVarS32Rest(result | ((b & 0x7F) << 7));
+	}
+
+	private int readVarS32Rest(int result) {
+		for (int shift = 14; shift < 28; shift += 7) {
+			int b = bytesAll[index++];
+			result |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				int unused = 32 - shift - 7;
+				return (result << unused) >> unused;
+			}
+		}
+		// The fifth byte holds the top 4 bits, the 3 bits above them must copy the sign.
+		int b = bytesAll[index++];
+		if (b < 0) {
+			throw new WasmRuntimeException(UUID.fromString("aa1a1d80-5722-4064-b116-c878b674363a"),
+				"varint32 ending at byte %d: integer representation too long", index);
+		}
+		if ((b & 0x78) != 0 && (b & 0x78) != 0x78) {
+			throw new WasmRuntimeException(UUID.fromString("38873379-9320-4659-aa4c-8d1a7764b07f"),
+				"varint32 ending at byte %d: integer too large", index);
+		}
+		return result | (b << 28);
+	}
+
+	/**
+	 * Read a signed LEB128 value of at most 64 bits, a varint64.
+	 *
+	 * @return the value.
+	 */
+	public long readVarS64() {
+		long b = bytesAll[index++];
+		if (b >= 0) {
+			return (b << 57) >> 57;
+		}
+		long result = b & 0x7F;
+		b = bytesAll[index++];
+		if (b >= 0) {
+			return ((result | (b << 7)) << 50) >> 50;
+		}
+		return readVarS64Rest(result | ((b & 0x7F) << 7));
+	}
+
+	private long readVarS64Rest(long result) {
+		for (int shift = 14; shift < 63; shift += 7) {
+			long b = bytesAll[index++];
+			result |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				int unused = 64 - shift - 7;
+				return (result << unused) >> unused;
+			}
+		}
+		// The tenth byte holds the top bit, the 6 bits above it must copy the sign.
+		long b = bytesAll[index++];
+		if (b < 0) {
+			throw new WasmRuntimeException(UUID.fromString("2ab2eb8c-d5b5-462b-acda-24588d7449c3"),
+				"varint64 ending at byte %d: integer representation too long", index);
+		}
+		if (b != 0 && b != 0x7F) {
+			throw new WasmRuntimeException(UUID.fromString("795d4681-66e6-4ed1-9770-ba7f56e87a58"),
+				"varint64 ending at byte %d: integer too large", index);
+		}
+		return result | (b << 63);
+	}
+
+	/**
+	 * Read a varuint1, one byte that is 0 or 1.
+	 *
+	 * @return 0 or 1.
+	 */
+	public int readVarU1() {
+		int b = bytesAll[index++];
+		if ((b & ~1) != 0) {
+			throw new WasmRuntimeException(UUID.fromString("fadca63d-b39e-4568-9eb7-c2264abf5945"),
+				"varuint1 at byte %d: expected 0 or 1 but was %d", index - 1, b & 0xFF);
+		}
+		return b;
+	}
+
+	/**
+	 * Read a varuint7, one byte below 0x80.
+	 *
+	 * @return the value, 0 to 127.
+	 */
+	public int readVarU7() {
+		int b = bytesAll[index++];
+		if (b < 0) {
+			throw new WasmRuntimeException(UUID.fromString("69673311-0d1b-43f8-bb22-b6acc39404dc"),
+				"varuint7 at byte %d: integer representation too long", index - 1);
+		}
+		return b;
+	}
+
 	public BytesFile copy(Integer length) {
 		byte[] tempBytesAll = getBytes(length);
 		return new BytesFile(tempBytesAll);
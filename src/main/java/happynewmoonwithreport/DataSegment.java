@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import happynewmoonwithreport.type.VarInt32;
+import happynewmoonwithreport.type.VarUInt32;
+import java.util.UUID;
+
+/**
+ * Data Segment - bytes to copy into a memory.
+ * <br>
+ * An active segment is copied into memory when the module is instantiated, at the offset its
+ * constant expression gives.  A passive segment is copied by <code>memory.init</code>.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/modules.html#data-section" target="_top">
+ * https://webassembly.github.io/spec/core/binary/modules.html#data-section
+ * </a>
+ */
+public class DataSegment {
+
+	private final boolean active;
+	private final int memoryIndex;
+	/**
+	 * The offset in memory of an active segment.
+	 */
+	private final int offset;
+	private final byte[] byteAll;
+
+	public DataSegment(BytesFile payload) {
+		int kind = new VarUInt32(payload).integerValue();
+		switch (kind) {
+			case 0:  // active, memory zero
+				active = true;
+				memoryIndex = 0;
+				offset = readOffset(payload);
+				break;
+			case 1:  // passive
+				active = false;
+				memoryIndex = 0;
+				offset = 0;
+				break;
+			case 2:  // active, memory index
+				active = true;
+				memoryIndex = new VarUInt32(payload).integerValue();
+				offset = readOffset(payload);
+				break;
+			default:
+				throw new WasmRuntimeException(UUID.fromString("6e8975de-4507-4876-a967-02bdf73818c1"),
+					"Data segment kind %d is not valid", kind);
+		}
+		int length = new VarUInt32(payload).integerValue();
+		byteAll = payload.getBytes(length);
+	}
+
+	/**
+	 * Read the offset expression of an active segment.  Only <code>i32.const</code> is
+	 * supported, imported globals are not.
+	 */
+	private static int readOffset(BytesFile payload) {
+		byte opcode = payload.readByte();
+		if (opcode != 0x41) {
+			throw new WasmRuntimeException(UUID.fromString("781d29ec-725b-4b8a-8a8a-0afa71cea7fa"),
+				"Data segment offset must be i32.const.  Opcode = 0x%02X", opcode);
+		}
+		int result = new VarInt32(payload).integerValue();
+		byte end = payload.readByte();
+		if (end != 0x0B) {
+			throw new WasmRuntimeException(UUID.fromString("19799398-166b-445e-8e55-c45ba6770aac"),
+				"Data segment offset expression does not end.  Byte = 0x%02X", end);
+		}
+		return result;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public int getMemoryIndex() {
+		return memoryIndex;
+	}
+
+	/**
+	 * The offset in memory, unsigned.  Only for an active segment.
+	 *
+	 * @return the offset.
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	public byte[] getBytes() {
+		return byteAll;
+	}
+}
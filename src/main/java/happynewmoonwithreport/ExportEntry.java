@@ -17,7 +17,6 @@
 package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.UInt32;
-import happynewmoonwithreport.type.VarUInt32;
 import happynewmoonwithreport.type.WasmString;
 
 /**
@@ -42,10 +41,10 @@ public class ExportEntry {
 	private UInt32 index;
 
 	public ExportEntry(BytesFile payload) {
-		fieldLength = new VarUInt32(payload);
+		fieldLength = new UInt32(payload.readVarU32());
 		fieldName = new WasmString(payload, fieldLength);
 		externalKind = new ExternalKind(payload);
-		index = new VarUInt32(payload);
+		index = new UInt32(payload.readVarU32());
 	}
 
 	public UInt32 getFieldLength() {
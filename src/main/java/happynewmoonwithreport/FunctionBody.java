@@ -17,7 +17,6 @@
 package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.UInt32;
-import happynewmoonwithreport.type.VarUInt32;
 import happynewmoonwithreport.type.WasmVector;
 
 /**
@@ -41,7 +40,8 @@ public class FunctionBody {
 	/**
 	 * Number of local entries.
 	 * <br>
-	 * Number of objects in localEntryAll.
+	 * Each entry declares a count of entryCount of one type, so localEntryAll has the sum of the
+	 * counts, not this number of objects.
 	 */
 	private UInt32 localCount;
 	/**
@@ -72,38 +72,33 @@ public class FunctionBody {
 
 	public FunctionBody(BytesFile payload) {
 		//* Body Size
-		bodySize = new VarUInt32(payload);
+		final long size = payload.readVarU32();
+		bodySize = new UInt32(size);
 
-		final Integer start = payload.getIndex();
+		final int start = payload.getIndex();
 
 		//* Count
-		localCount = new VarUInt32(payload);
+		final long entryCount = payload.readVarU32();
+		localCount = new UInt32(entryCount);
 
 
 		//* LocalAll
-		localEntryAll = new WasmVector<>(localCount.integerValue());
-		for (Integer index = 0; index < localCount.integerValue(); ) {
+		localEntryAll = new WasmVector<>((int) entryCount);
+		for (long entry = 0; entry < entryCount; entry++) {
 			LocalEntry localEntry = new LocalEntry(payload);
-			for (Integer localIndex = 0; localIndex < localEntry.getCount().integerValue();
-				 localIndex++) {
-				localEntryAll.add(index, localEntry.getValueType());
-				index++;
+			final long count = localEntry.getCount().longValue();
+			for (long localIndex = 0; localIndex < count; localIndex++) {
+				localEntryAll.add(localEntry.getValueType());
 			}
 		}
 
-		final Integer after = payload.getIndex();
+		final int consumedByLocals = payload.getIndex() - start;
 
-		final Integer consumedByLocals = after - start;
-
-		final Integer codeLength =
-			bodySize.integerValue() - consumedByLocals - 1;  // minus 1 for end byte.
+		final int codeLength = (int) size - consumedByLocals - 1;  // minus 1 for end byte.
 
 
 		//* Code
-		code = new byte[codeLength];
-		for (Integer i = 0; i < codeLength; i++) {
-			code[i] = payload.readByte();
-		}
+		code = payload.getBytes(codeLength);
 
 		//* Byte
 		end = payload.readByte();
@@ -69,11 +69,12 @@ public class FunctionType implements Validation {
 		assert (form.getValue().equals("func"));
 
 		//* Parameter Count
-		paramCount = new VarUInt32(payload);
+		final long params = payload.readVarU32();
+		paramCount = new UInt32(params);
 
 		//* Parameters Types
-		paramTypeAll = new WasmVector<>(paramCount.integerValue());
-		for (Integer count = 0; count < paramCount.integerValue(); count++) {
+		paramTypeAll = new WasmVector<>((int) params);
+		for (int count = 0; count < params; count++) {
 			ValueType paramType = new ValueType(payload);
 			paramTypeAll.add(count, paramType);
 		}
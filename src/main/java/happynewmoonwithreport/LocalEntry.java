@@ -17,7 +17,6 @@
 package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.UInt32;
-import happynewmoonwithreport.type.VarUInt32;
 
 /**
  * <h1>Local Entry</h1>
@@ -45,7 +44,7 @@ public class LocalEntry {
 	public LocalEntry(BytesFile payload) {
 
 		//* Count
-		count = new VarUInt32(payload);
+		count = new UInt32(payload.readVarU32());
 
 		//* Type
 		valueType = new ValueType(payload);
@@ -54,6 +54,9 @@ public class Memory {
 	/**
 	 * The grow_memory instruction grows memory by a given delta and returns the previous size, or
 	 * <code>-1</code> if enough memory cannot be allocated.
+	 * <br>
+	 * The array is at least doubled when it is too small, so growing a page at a time does not
+	 * copy the memory on every grow.
 	 *
 	 * @param additionalSize in page_size.
 	 * @return "previous size" in page size on success;   -1 on failure;
@@ -69,14 +72,20 @@ public class Memory {
 		if (maxPage.integerValue() < sizeNewInPages) {
 			throw new MemoryException();
 		}
-		try {
-			// increase the memory.
-			byte[] memoryNew =
-				Arrays.copyOfRange(memory, 0, sizeNewInPages * page_size.integerValue());
-			memory = memoryNew;
-		} catch (Exception exception) {
-			return failure;
+		long lengthNew = (long) sizeNewInPages * page_size.integerValue();
+		if (memory.length < lengthNew) {
+			try {
+				// increase the memory.
+				long capacity = Math.max(lengthNew, 2L * memory.length);
+				memory = Arrays.copyOf(memory, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+			} catch (Exception | OutOfMemoryError exception) {
+				return failure;
+			}
+			if (memory.length < lengthNew) {
+				return failure;
+			}
 		}
+		size = new UInt32(sizeNewInPages.longValue());
 
 		return previousSizeInPages;
 	}
@@ -58,6 +58,8 @@ public class Wasm {
 	private SectionExport sectionExport = new SectionExport();
 	private SectionStart sectionStart = null;
 	private SectionCode sectionCode = null;
+	private SectionDataCount sectionDataCount = new SectionDataCount();
+	private SectionData sectionData = new SectionData();
 
 	/**
 	 * <br>
@@ -127,7 +129,7 @@ public class Wasm {
 
 		fillExport(sectionExport);
 
-		fillFunction(sectionType, sectionCode);
+		fillFunction(sectionFunction, sectionCode);
 
 		module = new WasmModule(sectionType.getFunctionSignatures(), //
 			functionAll, //
@@ -135,7 +137,7 @@ public class Wasm {
 			sectionMemory.getMemoryTypeAll(),//
 			sectionGlobal.getGlobals(),
 			// to do element
-			// to do data
+			sectionData.getDataSegmentAll(),
 			sectionStart.getIndex(), sectionExport.getExports()
 			// to do import
 		);
@@ -195,6 +197,14 @@ public class Wasm {
 					sectionCode = new SectionCode();
 					sectionCode.instantiate(payload);
 					break;
+				case SectionName.DATA:
+					sectionData = new SectionData();
+					sectionData.instantiate(payload);
+					break;
+				case SectionName.DATA_COUNT:
+					sectionDataCount = new SectionDataCount();
+					sectionDataCount.instantiate(payload);
+					break;
 				default:
 					throw new WasmRuntimeException(
 						UUID.fromString("e737f67f-5935-4c61-a14f-eeb97e393178"),
@@ -269,12 +279,19 @@ public class Wasm {
 
 	private WasmVector<WasmFunction> functionAll;
 
-	private void fillFunction(SectionType type, SectionCode code) {
-		functionAll = new WasmVector<>(type.getCount().integerValue());
-		for (Integer index = 0; index < type.getCount().integerValue(); index++) {
-			WasmFunction function =
-				new WasmFunction(new UInt32(index), code.getFunctionAll().get(index));
-			functionAll.add(function);
+	/**
+	 * Pair each function declared in the function section with its body in the code section.
+	 * The function section holds the index of the type of each function.
+	 *
+	 * @param function the function section.
+	 * @param code     the code section.
+	 */
+	private void fillFunction(SectionFunction function, SectionCode code) {
+		functionAll = new WasmVector<>(function.getCount().integerValue());
+		for (Integer index = 0; index < function.getCount().integerValue(); index++) {
+			WasmFunction wasmFunction =
+				new WasmFunction(function.getTypes().get(index), code.getFunctionAll().get(index));
+			functionAll.add(wasmFunction);
 		}
 	}
 
@@ -16,8 +16,10 @@
  */
 package happynewmoonwithreport;
 
+import happynewmoonwithreport.interpreter.ValueStack;
 import happynewmoonwithreport.type.DataTypeNumber;
 import happynewmoonwithreport.type.WasmVector;
+import java.util.Arrays;
 
 /**
  * Activation frames carry the return arity of the respective function, hold the values of its
@@ -43,10 +45,35 @@ public class WasmFrame {
 	 */
 	private WasmVector<DataTypeNumber> localAll;
 
+	/**
+	 * Local variables including arguments as used by the interpreter.  Each slot holds the raw
+	 * bits of the value, in the same form as {@link ValueStack}, and slotTypeAll holds the type
+	 * tag.  slotAll is reused from call to call and only grows; slotCount is the number of
+	 * slots in use.  slotTypeAll is shared with the function.
+	 */
+	private long[] slotAll;
+	private byte[] slotTypeAll;
+	private int slotCount;
+
+	/**
+	 * The height of the operand stack when the function was entered.  Stack heights in the
+	 * {@link happynewmoonwithreport.interpreter.SideTable} are relative to it.
+	 */
+	private int stackBase;
+
+	/**
+	 * The function running in this frame.
+	 */
+	private WasmFunction function;
+
+	private int returnPc;
+
 	private WasmFrame() {
 		super();
 		localAll = new WasmVector<>();
 		returnTypeAll = new WasmVector<>();
+		slotAll = new long[16];
+		slotTypeAll = new byte[0];
 	}
 
 	public WasmFrame(WasmModule module) {
@@ -69,4 +96,88 @@ public class WasmFrame {
 	public void setLocalAll(WasmVector<DataTypeNumber> localAll) {
 		this.localAll = localAll;
 	}
+
+	/**
+	 * Set up the frame for a call.  The arguments are popped from the operand stack into the
+	 * first slots, the declared locals follow and are zero for their type, which is all bits zero
+	 * for i32, i64, f32 and f64.
+	 *
+	 * @param function the function being called.
+	 * @param stack    the operand stack with the arguments on top.
+	 */
+	public void enter(WasmFunction function, ValueStack stack) {
+		final byte[] typeAll = function.getSlotTypeAll();
+		final int paramCount = function.getParamCount();
+		final int count = typeAll.length;
+		if (slotAll.length < count) {
+			slotAll = new long[count];
+		}
+		for (int index = paramCount - 1; 0 <= index; index--) {
+			slotAll[index] = stack.popBits();
+		}
+		Arrays.fill(slotAll, paramCount, count, 0L);
+		slotTypeAll = typeAll;
+		slotCount = count;
+		stackBase = stack.size();
+		this.function = function;
+	}
+
+	public WasmFunction getFunction() {
+		return function;
+	}
+
+	/**
+	 * Where the caller continues when the function called from this frame returns.
+	 *
+	 * @return position in the instruction stream of this frame's function.
+	 */
+	public int getReturnPc() {
+		return returnPc;
+	}
+
+	public void setReturnPc(int returnPc) {
+		this.returnPc = returnPc;
+	}
+
+	public int getStackBase() {
+		return stackBase;
+	}
+
+	public void setStackBase(int stackBase) {
+		this.stackBase = stackBase;
+	}
+
+	public int slotCount() {
+		return slotCount;
+	}
+
+	/**
+	 * The raw bits of a local variable.
+	 *
+	 * @param index the local index.
+	 * @return raw bits.
+	 */
+	public long getSlot(int index) {
+		return slotAll[index];
+	}
+
+	/**
+	 * Set the raw bits of a local variable.  The type does not change.
+	 *
+	 * @param index the local index.
+	 * @param bits  raw bits.
+	 */
+	public void setSlot(int index, long bits) {
+		slotAll[index] = bits;
+	}
+
+	/**
+	 * The type tag of a local variable.
+	 *
+	 * @param index the local index.
+	 * @return one of the ValueStack type tags.
+	 */
+	public byte getSlotType(int index) {
+		return slotTypeAll[index];
+	}
 }
@@ -16,9 +16,12 @@
  */
 package happynewmoonwithreport;
 
+import happynewmoonwithreport.interpreter.InstructionStream;
+import happynewmoonwithreport.interpreter.RegisterCode;
 import happynewmoonwithreport.type.DataTypeNumber;
 import happynewmoonwithreport.type.UInt32;
 import happynewmoonwithreport.type.WasmVector;
+import java.lang.invoke.MethodHandle;
 
 /**
  * Web Assembly Function
@@ -37,6 +40,40 @@ public class WasmFunction {
 	private WasmVector<DataTypeNumber> locals;
 	private FunctionBody body;
 
+	/**
+	 * The body decoded for the interpreter.  Set when the module is instantiated.
+	 */
+	private InstructionStream instructionStream;
+
+	/**
+	 * The number of parameters and results, from the type of the function.
+	 */
+	private int paramCount;
+	private int resultCount;
+
+	/**
+	 * The type tag of each parameter followed by each local.
+	 * See {@link happynewmoonwithreport.interpreter.ValueStack}
+	 */
+	private byte[] slotTypeAll;
+
+	/**
+	 * The body translated to register code, or null when the function runs on the stack
+	 * interpreter.  See {@link happynewmoonwithreport.interpreter.RegisterCompiler}
+	 */
+	private RegisterCode registerCode;
+
+	/**
+	 * The register code compiled to a JVM method, or null while it is interpreted.
+	 * See {@link happynewmoonwithreport.jit.JitCompiler}
+	 */
+	private MethodHandle compiledCode;
+
+	/**
+	 * Calls plus loop iterations run by the register interpreter.  The function is compiled
+	 * when it reaches the JIT threshold of the instance.
+	 */
+	private int hotness;
 
 	public WasmFunction() {
 		super();
@@ -78,4 +115,60 @@ public class WasmFunction {
 	public WasmVector<ValueType> getLocalEntryAll() {
 		return body.getLocalEntryAll();
 	}
+
+	public InstructionStream getInstructionStream() {
+		return instructionStream;
+	}
+
+	public void setInstructionStream(InstructionStream instructionStream) {
+		this.instructionStream = instructionStream;
+	}
+
+	public int getParamCount() {
+		return paramCount;
+	}
+
+	public void setParamCount(int paramCount) {
+		this.paramCount = paramCount;
+	}
+
+	public int getResultCount() {
+		return resultCount;
+	}
+
+	public void setResultCount(int resultCount) {
+		this.resultCount = resultCount;
+	}
+
+	public byte[] getSlotTypeAll() {
+		return slotTypeAll;
+	}
+
+	public void setSlotTypeAll(byte[] slotTypeAll) {
+		this.slotTypeAll = slotTypeAll;
+	}
+
+	public RegisterCode getRegisterCode() {
+		return registerCode;
+	}
+
+	public void setRegisterCode(RegisterCode registerCode) {
+		this.registerCode = registerCode;
+	}
+
+	public MethodHandle getCompiledCode() {
+		return compiledCode;
+	}
+
+	public void setCompiledCode(MethodHandle compiledCode) {
+		this.compiledCode = compiledCode;
+	}
+
+	public int getHotness() {
+		return hotness;
+	}
+
+	public void setHotness(int hotness) {
+		this.hotness = hotness;
+	}
 }
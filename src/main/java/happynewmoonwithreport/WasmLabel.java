@@ -37,8 +37,11 @@ import happynewmoonwithreport.type.WasmVector;
 public class WasmLabel {
 
 	public WasmLabel(BytesFile code) {
+		this(new ValueType(code));
+	}
+
+	public WasmLabel(ValueType resultType) {
 		returnTypeAll = new WasmVector<>(1);
-		ValueType resultType = new ValueType(code);
 		returnTypeAll.add(resultType);
 	}
 
@@ -57,7 +57,7 @@ public class WasmModule {
 	private WasmVector<MemoryType> memoryAll;  // aka mems
 	private WasmVector<GlobalVariableType> globals;
 	// private WasmVector<> elementAll;  // todo  // aka elem
-	// private WasmVector<> dataAll // todo  // aka data
+	private WasmVector<DataSegment> dataSegmentAll;  // aka data
 	/**
 	 * index to start function. Optional
 	 **/
@@ -76,6 +76,7 @@ public class WasmModule {
 		tables = new WasmVector<>();
 		memoryAll = new WasmVector<>();
 		globals = new WasmVector<>();
+		dataSegmentAll = new WasmVector<>();
 		start = new UInt32(0); // todo ?
 		exportAll = new WasmVector<>();
 		store = new WasmStore(functionAll, tables, memoryAll, globals);
@@ -85,7 +86,7 @@ public class WasmModule {
 					  WasmVector<TableType> tables, WasmVector<MemoryType> memoryAll,
 					  WasmVector<GlobalVariableType> globals,
 					  // to do element
-					  // to do data
+					  WasmVector<DataSegment> dataSegmentAll,
 					  UInt32 start, WasmVector<ExportEntry> exportAll
 
 	) {
@@ -95,11 +96,27 @@ public class WasmModule {
 		this.tables = tables;
 		this.memoryAll = memoryAll;
 		this.globals = globals;
+		this.dataSegmentAll = dataSegmentAll;
 		this.start = start;
 		this.exportAll = exportAll;
 		store = new WasmStore(functionAll, tables, memoryAll, globals);
 	}
 
+	/**
+	 * A module that shares everything with this one except its memory, which is shared copy
+	 * on write.  The functions, types, tables and exports do not change while code runs.
+	 *
+	 * @return the copy.
+	 */
+	public WasmModule copyOnWrite() {
+		WasmVector<MemoryType> memoryCopyAll = new WasmVector<>();
+		for (MemoryType memoryType : memoryAll) {
+			memoryCopyAll.add(memoryType.copyOnWrite());
+		}
+		return new WasmModule(types, functionAll, tables, memoryCopyAll, globals, dataSegmentAll,
+			start, exportAll);
+	}
+
 	private void constructIndexAll() {
 		typeIndex = new UInt32(0);
 		functionIndex = new UInt32(0);
@@ -245,6 +262,10 @@ public class WasmModule {
 		return exportAll;
 	}
 
+	public WasmVector<DataSegment> getDataSegmentAll() {
+		return dataSegmentAll;
+	}
+
 	public WasmVector<MemoryType> getMemoryAll() {
 		return memoryAll;
 	}
@@ -0,0 +1,536 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Pass that proves some loads and stores are always in bounds and replaces them with the
+ * unchecked variant, see {@link Opcode#UNCHECKED_BASE}.
+ * <br>
+ * The memory never shrinks below the minimum of its limits, so an access whose effective
+ * address plus width is at most the minimum size is always in bounds.  The pass walks the
+ * function once and keeps an unsigned upper bound for each value on the operand stack:
+ * <ul>
+ * <li>a constant is its own bound,</li>
+ * <li><code>i32.add</code>, <code>i32.mul</code>, <code>i32.shl</code>, <code>i32.shr_u</code>,
+ * <code>i32.and</code> and <code>i32.rem_u</code> combine the bounds of their operands when
+ * the result can not wrap,</li>
+ * <li>a local has a bound after a guard that dominates the access, <code>if (x &lt;u K)</code>
+ * or <code>br_if (x &gt;=u K)</code>, or after it is set to a value with a bound.</li>
+ * </ul>
+ * A bound on a local holds until the block that established it ends or the local is set
+ * again.  A loop forgets the bound of every local set in its body, because the body runs again
+ * after the local was set.  The stack is forgotten at every control instruction.
+ * <br>
+ * An unchecked access is still checked by Java, an access the analysis got wrong throws an
+ * IndexOutOfBoundsException instead of a trap.  It can not touch anything outside the buffer
+ * that holds the memory.
+ * <br>
+ * Run on the decoded stream before {@link Fusion}.
+ */
+public final class BoundsCheckElision {
+
+	/**
+	 * Not known, any unsigned 32 bit value.
+	 */
+	private static final long UNKNOWN = 1L << 32;
+
+	private static final int NONE = -1;
+
+	private BoundsCheckElision() {
+		super();
+	}
+
+	/**
+	 * Replace the loads and stores that are always in bounds.
+	 *
+	 * @param stream      the decoded function.
+	 * @param minimumSize the minimum size in bytes of memory zero.
+	 * @return the number of instructions replaced.
+	 */
+	public static int elide(InstructionStream stream, long minimumSize) {
+		return new Pass(stream.getCode(), minimumSize).run();
+	}
+
+	/**
+	 * The number of bytes a load or store accesses.
+	 */
+	static int width(int opcode) {
+		switch (opcode) {
+			case 0x29:  // i64.load
+			case 0x2B:  // f64.load
+			case 0x37:  // i64.store
+			case 0x39:  // f64.store
+				return 8;
+			case 0x28:  // i32.load
+			case 0x2A:  // f32.load
+			case 0x34:  // i64.load32_s
+			case 0x35:  // i64.load32_u
+			case 0x36:  // i32.store
+			case 0x38:  // f32.store
+			case 0x3E:  // i64.store32
+				return 4;
+			case 0x2E:  // i32.load16_s
+			case 0x2F:  // i32.load16_u
+			case 0x32:  // i64.load16_s
+			case 0x33:  // i64.load16_u
+			case 0x3B:  // i32.store16
+			case 0x3D:  // i64.store16
+				return 2;
+			default:
+				return 1;
+		}
+	}
+
+	/**
+	 * The number of locals the code uses, one more than the highest index.
+	 */
+	private static int localCount(int[] code) {
+		int result = 0;
+		for (int pc = 0; pc < code.length; pc += InstructionStream.instructionLength(code, pc)) {
+			if (0x20 <= code[pc] && code[pc] <= 0x22) {
+				result = Math.max(result, code[pc + 1] + 1);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * For each <code>loop</code> the locals set inside its body, null for other positions.
+	 */
+	private static BitSet[] setInLoopAll(int[] code, int localCount) {
+		BitSet[] result = new BitSet[code.length];
+		BitSet[] openAll = new BitSet[8];
+		int openCount = 0;
+		for (int pc = 0; pc < code.length; pc += InstructionStream.instructionLength(code, pc)) {
+			switch (code[pc]) {
+				case 0x02:  // block
+				case 0x03:  // loop
+				case 0x04: {  // if
+					BitSet set = (code[pc] == 0x03) ? new BitSet(localCount) : null;
+					result[pc] = set;
+					if (openCount == openAll.length) {
+						openAll = Arrays.copyOf(openAll, openCount * 2);
+					}
+					openAll[openCount++] = set;
+					break;
+				}
+				case 0x0B:  // end
+					openCount = Math.max(openCount - 1, 0);
+					break;
+				case 0x21:  // set_local
+				case 0x22:  // tee_local
+					for (int i = 0; i < openCount; i++) {
+						if (openAll[i] != null) {
+							openAll[i].set(code[pc + 1]);
+						}
+					}
+					break;
+				default:
+					break;
+			}
+		}
+		return result;
+	}
+
+	private static final class Pass {
+
+		private final int[] code;
+		private final long minimumSize;
+		private final BitSet[] setInLoopAll;
+
+		/**
+		 * The bound of each local, UNKNOWN when there is none.  version counts the sets of
+		 * each local so a bound is not restored after the local changed.
+		 */
+		private final long[] localBoundAll;
+		private final int[] versionAll;
+
+		/**
+		 * The undo log of local bounds, three entries each: the local, its version, and the
+		 * old bound.  blockStartAll is the size of the log when each open block started.
+		 */
+		private long[] undoAll = new long[24];
+		private int undoSize;
+		private int[] blockStartAll = new int[8];
+		private int blockCount;
+
+		/**
+		 * The bound of the else branch of each open if, given by its guard.
+		 */
+		private int[] elseLocalAll = new int[8];
+		private long[] elseBoundAll = new long[8];
+
+		/**
+		 * The abstract operand stack.  For each value its bound, the local it was read from,
+		 * whether it is a constant, and if it is the result of a guard, the local, the bound,
+		 * and whether the bound holds when the value is not zero or when it is zero.
+		 */
+		private long[] boundAll = new long[16];
+		private int[] localAll = new int[16];
+		private boolean[] constantAll = new boolean[16];
+		private int[] guardLocalAll = new int[16];
+		private long[] guardBoundAll = new long[16];
+		private boolean[] guardWhenTrueAll = new boolean[16];
+		private int size;
+
+		private int count;
+
+		Pass(int[] code, long minimumSize) {
+			final int localCount = localCount(code);
+			this.code = code;
+			this.minimumSize = minimumSize;
+			this.setInLoopAll = setInLoopAll(code, localCount);
+			this.localBoundAll = new long[localCount];
+			this.versionAll = new int[localCount];
+			Arrays.fill(localBoundAll, UNKNOWN);
+		}
+
+		int run() {
+			int pc = 0;
+			while (pc < code.length) {
+				step(pc);
+				pc += InstructionStream.instructionLength(code, pc);
+			}
+			return count;
+		}
+
+		private void step(int pc) {
+			final int opcode = code[pc];
+			switch (opcode) {
+				case 0x02:  // block
+					size = 0;
+					enterBlock(NONE, UNKNOWN);
+					break;
+				case 0x03:  // loop
+					size = 0;
+					BitSet set = setInLoopAll[pc];
+					for (int local = set.nextSetBit(0); 0 <= local; local = set.nextSetBit(local + 1)) {
+						forget(local);
+					}
+					enterBlock(NONE, UNKNOWN);
+					break;
+				case 0x04: {  // if
+					int top = size - 1;
+					int guardLocal = (0 <= top) ? guardLocalAll[top] : NONE;
+					long guardBound = (0 <= top) ? guardBoundAll[top] : UNKNOWN;
+					boolean whenTrue = (0 <= top) && guardWhenTrueAll[top];
+					size = 0;
+					enterBlock(whenTrue ? NONE : guardLocal, guardBound);
+					if (whenTrue && guardLocal != NONE) {
+						setBound(guardLocal, guardBound);
+					}
+					break;
+				}
+				case 0x05: {  // else
+					size = 0;
+					int block = blockCount - 1;
+					undo(blockStartAll[block]);
+					if (elseLocalAll[block] != NONE) {
+						setBound(elseLocalAll[block], elseBoundAll[block]);
+					}
+					break;
+				}
+				case 0x0B:  // end
+					size = 0;
+					if (0 < blockCount) {
+						blockCount--;
+						undo(blockStartAll[blockCount]);
+					}
+					break;
+				case 0x0D: {  // br_if
+					int top = size - 1;
+					if (0 <= top && guardLocalAll[top] != NONE && guardWhenTrueAll[top] == false) {
+						// not taken, so the guard failed and the bound holds.
+						int guardLocal = guardLocalAll[top];
+						long guardBound = guardBoundAll[top];
+						size = 0;
+						setBound(guardLocal, guardBound);
+					}
+					size = 0;
+					break;
+				}
+				case 0x20:  // get_local
+					push(localBoundAll[code[pc + 1]]);
+					localAll[size - 1] = code[pc + 1];
+					break;
+				case 0x21: {  // set_local
+					long bound = pop();
+					forget(code[pc + 1]);
+					setBound(code[pc + 1], bound);
+					break;
+				}
+				case 0x22: {  // tee_local
+					long bound = pop();
+					forget(code[pc + 1]);
+					setBound(code[pc + 1], bound);
+					push(bound);
+					break;
+				}
+				case 0x41:  // i32.const
+					push(Integer.toUnsignedLong(code[pc + 1]) + 1);
+					constantAll[size - 1] = true;
+					break;
+				case 0x45: {  // i32.eqz
+					int top = size - 1;
+					if (0 <= top && guardLocalAll[top] != NONE) {
+						guardWhenTrueAll[top] = !guardWhenTrueAll[top];
+						boundAll[top] = 2;
+						localAll[top] = NONE;
+					} else {
+						pop();
+						push(2);
+					}
+					break;
+				}
+				case 0x49:  // i32.lt_u
+				case 0x4B:  // i32.gt_u
+				case 0x4D:  // i32.le_u
+				case 0x4F:  // i32.ge_u
+					compare(opcode);
+					break;
+				case 0x6A:  // i32.add
+				case 0x6C:  // i32.mul
+				case 0x70:  // i32.rem_u
+				case 0x71:  // i32.and
+				case 0x74:  // i32.shl
+				case 0x76:  // i32.shr_u
+					arithmetic(opcode);
+					break;
+				default:
+					if (0x28 <= opcode && opcode <= 0x3E) {
+						access(pc, opcode);
+					} else if (opcode <= 0x11) {  // br, br_table, return, call and the rest
+						size = 0;
+					} else {
+						for (int i = SideTable.popCount(opcode); 0 < i; i--) {
+							pop();
+						}
+						for (int i = SideTable.pushCount(opcode); 0 < i; i--) {
+							push(UNKNOWN);
+						}
+					}
+			}
+		}
+
+		private void access(int pc, int opcode) {
+			if (0x36 <= opcode) {
+				pop();  // the value stored
+			}
+			long bound = pop();
+			if (opcode <= 0x35) {
+				push(UNKNOWN);
+			}
+			long offset = Integer.toUnsignedLong(code[pc + 2]);
+			if ((bound - 1) + offset + width(opcode) <= minimumSize) {
+				code[pc] = Opcode.unchecked(opcode);
+				count++;
+			}
+		}
+
+		/**
+		 * An unsigned compare of a local and a constant is a guard.
+		 */
+		private void compare(int opcode) {
+			int right = size - 1;
+			int left = size - 2;
+			int guardLocal = NONE;
+			long guardBound = UNKNOWN;
+			boolean whenTrue = true;
+			if (0 <= left) {
+				boolean leftLocal = localAll[left] != NONE;
+				boolean rightConstant = isConstant(right);
+				if (leftLocal && rightConstant) {
+					// x op K
+					long k = boundAll[right] - 1;
+					guardLocal = localAll[left];
+					switch (opcode) {
+						case 0x49:  // x < K
+							guardBound = k;
+							break;
+						case 0x4D:  // x <= K
+							guardBound = k + 1;
+							break;
+						case 0x4F:  // x >= K, the bound holds when false.
+							guardBound = k;
+							whenTrue = false;
+							break;
+						default:  // x > K
+							guardBound = k + 1;
+							whenTrue = false;
+							break;
+					}
+				} else if (localAll[right] != NONE && isConstant(left)) {
+					// K op x
+					long k = boundAll[left] - 1;
+					guardLocal = localAll[right];
+					switch (opcode) {
+						case 0x4B:  // K > x
+							guardBound = k;
+							break;
+						case 0x4F:  // K >= x
+							guardBound = k + 1;
+							break;
+						case 0x4D:  // K <= x, the bound holds when false.
+							guardBound = k;
+							whenTrue = false;
+							break;
+						default:  // K < x
+							guardBound = k + 1;
+							whenTrue = false;
+							break;
+					}
+				}
+			}
+			pop();
+			pop();
+			push(2);
+			if (guardLocal != NONE) {
+				guardLocalAll[size - 1] = guardLocal;
+				// x <u 0 is never true, the code it guards does not run.
+				guardBoundAll[size - 1] = Math.max(guardBound, 1);
+				guardWhenTrueAll[size - 1] = whenTrue;
+			}
+		}
+
+		/**
+		 * The value was pushed by <code>i32.const</code>, its bound is the constant plus one.
+		 */
+		private boolean isConstant(int index) {
+			return 0 <= index && constantAll[index];
+		}
+
+		private void arithmetic(int opcode) {
+			boolean constantRight = isConstant(size - 1);
+			long b = pop();
+			long a = pop();
+			long result = UNKNOWN;
+			if (a <= UNKNOWN && b <= UNKNOWN) {
+				long maxA = a - 1;
+				long maxB = b - 1;
+				switch (opcode) {
+					case 0x6A:  // i32.add
+						result = maxA + maxB + 1;
+						break;
+					case 0x6C:  // i32.mul
+						if (maxA == 0 || maxB <= (UNKNOWN - 1) / maxA) {
+							result = maxA * maxB + 1;
+						}
+						break;
+					case 0x70:  // i32.rem_u, the result is below the divisor.
+						result = Math.min(a, maxB);
+						break;
+					case 0x71:  // i32.and
+						result = Math.min(a, b);
+						break;
+					case 0x74:  // i32.shl
+						if (constantRight && (maxA << (maxB & 31)) < UNKNOWN) {
+							result = (maxA << (maxB & 31)) + 1;
+						}
+						break;
+					default:  // i32.shr_u
+						result = constantRight ? (maxA >>> (maxB & 31)) + 1 : a;
+						break;
+				}
+			}
+			push(Math.min(Math.max(result, 1), UNKNOWN));
+		}
+
+		private void enterBlock(int elseLocal, long elseBound) {
+			if (blockCount == blockStartAll.length) {
+				blockStartAll = Arrays.copyOf(blockStartAll, blockCount * 2);
+				elseLocalAll = Arrays.copyOf(elseLocalAll, blockCount * 2);
+				elseBoundAll = Arrays.copyOf(elseBoundAll, blockCount * 2);
+			}
+			blockStartAll[blockCount] = undoSize;
+			elseLocalAll[blockCount] = elseLocal;
+			elseBoundAll[blockCount] = elseBound;
+			blockCount++;
+		}
+
+		/**
+		 * The local may have any value from here on.
+		 */
+		private void forget(int local) {
+			localBoundAll[local] = UNKNOWN;
+			versionAll[local]++;
+			for (int i = 0; i < size; i++) {
+				if (localAll[i] == local) {
+					localAll[i] = NONE;
+				}
+				if (guardLocalAll[i] == local) {
+					guardLocalAll[i] = NONE;
+				}
+			}
+		}
+
+		/**
+		 * The local is below bound until the current block ends.
+		 */
+		private void setBound(int local, long bound) {
+			if (localBoundAll[local] <= bound) {
+				return;
+			}
+			if (undoSize + 3 > undoAll.length) {
+				undoAll = Arrays.copyOf(undoAll, undoAll.length * 2);
+			}
+			undoAll[undoSize++] = local;
+			undoAll[undoSize++] = versionAll[local];
+			undoAll[undoSize++] = localBoundAll[local];
+			localBoundAll[local] = bound;
+		}
+
+		private void undo(int start) {
+			while (start < undoSize) {
+				long old = undoAll[--undoSize];
+				int version = (int) undoAll[--undoSize];
+				int local = (int) undoAll[--undoSize];
+				// a local set since keeps no bound.
+				localBoundAll[local] = (versionAll[local] == version) ? old : UNKNOWN;
+			}
+		}
+
+		private void push(long bound) {
+			if (size == boundAll.length) {
+				int length = size * 2;
+				boundAll = Arrays.copyOf(boundAll, length);
+				localAll = Arrays.copyOf(localAll, length);
+				guardLocalAll = Arrays.copyOf(guardLocalAll, length);
+				guardBoundAll = Arrays.copyOf(guardBoundAll, length);
+				guardWhenTrueAll = Arrays.copyOf(guardWhenTrueAll, length);
+				constantAll = Arrays.copyOf(constantAll, length);
+			}
+			boundAll[size] = bound;
+			localAll[size] = NONE;
+			guardLocalAll[size] = NONE;
+			constantAll[size] = false;
+			size++;
+		}
+
+		/**
+		 * Below the values known there may be more, they have no bound.
+		 */
+		private long pop() {
+			if (size == 0) {
+				return UNKNOWN;
+			}
+			return boundAll[--size];
+		}
+	}
+}
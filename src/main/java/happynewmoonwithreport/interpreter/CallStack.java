@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmTrapException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The frames of the functions being executed, the innermost frame on top.
+ * <br>
+ * Frames are created the first time a depth is reached and reused by every later call at that
+ * depth, so a call does not allocate.  The interpreter does not use the Java stack for Wasm
+ * calls, the depth is limited by <code>maxDepth</code> only.  Calling deeper than
+ * <code>maxDepth</code> traps.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#activations-and-frames"
+ * target="_top"> https://webassembly.github.io/spec/core/exec/runtime.html#activations-and-frames
+ * </a>
+ */
+public final class CallStack {
+
+	/**
+	 * The maximum depth used when none is given.
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 10000;
+
+	private static final int initialCapacity = 64;
+
+	private final WasmModule module;
+	private final int maxDepth;
+
+	private WasmFrame[] frameAll;
+	private int depth;
+
+	/**
+	 * @param module   the module of every frame.
+	 * @param maxDepth the maximum number of nested calls.
+	 */
+	public CallStack(WasmModule module, int maxDepth) {
+		this.module = module;
+		this.maxDepth = maxDepth;
+		frameAll = new WasmFrame[Math.min(initialCapacity, maxDepth)];
+		fill(0);
+	}
+
+	/**
+	 * Get the frame for a new call.  The frame must be set up with
+	 * {@link WasmFrame#enter(happynewmoonwithreport.WasmFunction, ValueStack)}.
+	 *
+	 * @return the frame, now on top.
+	 */
+	public WasmFrame push() {
+		if (depth == frameAll.length) {
+			if (depth == maxDepth) {
+				throw new WasmTrapException(UUID.fromString("da4e7cd7-e94d-437b-87f5-fa2dd191c3ee"),
+					"Call stack exhausted.  More than " + maxDepth + " nested calls.");
+			}
+			int oldLength = frameAll.length;
+			frameAll = Arrays.copyOf(frameAll, Math.min(oldLength * 2, maxDepth));
+			fill(oldLength);
+		}
+		return frameAll[depth++];
+	}
+
+	/**
+	 * Remove the frame on top.
+	 */
+	public void pop() {
+		depth--;
+	}
+
+	/**
+	 * The frame on top.
+	 *
+	 * @return the innermost frame.
+	 */
+	public WasmFrame top() {
+		return frameAll[depth - 1];
+	}
+
+	public int depth() {
+		return depth;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Remove every frame.
+	 */
+	public void clear() {
+		depth = 0;
+	}
+
+	private void fill(int from) {
+		for (int index = from; index < frameAll.length; index++) {
+			frameAll[index] = new WasmFrame(module);
+		}
+	}
+}
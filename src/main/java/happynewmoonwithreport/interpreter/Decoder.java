@@ -0,0 +1,267 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.utility.Hex;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Translate the bytes of a function body into an {@link InstructionStream}.
+ * <br>
+ * This is done once per function when the module is instantiated so the interpreter never has
+ * to read a LEB128 value while running.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/instructions.html" target="_top">
+ * https://webassembly.github.io/spec/core/binary/instructions.html
+ * </a>
+ */
+public final class Decoder {
+
+	private final BytesFile bytesFile;
+
+	private int[] code;
+	private int codeLength;
+	private int[] byteOffsetAll;
+
+	private long[] constantAll;
+	private int constantLength;
+
+	/**
+	 * The byte offset of the instruction being decoded.
+	 */
+	private int instructionOffset;
+
+	private Decoder(byte[] byteAll) {
+		bytesFile = new BytesFile(byteAll);
+		// most instructions are one or two bytes long and one or two ints long.
+		code = new int[Math.max(8, byteAll.length)];
+		byteOffsetAll = new int[code.length];
+		constantAll = new long[4];
+	}
+
+	/**
+	 * Decode a function body.
+	 *
+	 * @param byteAll the code of a function body.  See {@link happynewmoonwithreport.FunctionBody}
+	 * @return the decoded instruction stream.
+	 */
+	public static InstructionStream decode(byte[] byteAll) {
+		Decoder decoder = new Decoder(byteAll);
+		return decoder.decode();
+	}
+
+	private InstructionStream decode() {
+		while (bytesFile.atEndOfFile() == false) {
+			instructionOffset = bytesFile.getIndex();
+			int opcode = bytesFile.readByte() & 0xFF;
+			decodeInstruction(opcode);
+		}
+		return new InstructionStream(Arrays.copyOf(code, codeLength),
+			Arrays.copyOf(constantAll, constantLength), Arrays.copyOf(byteOffsetAll, codeLength));
+	}
+
+	private void decodeInstruction(int opcode) {
+		switch (opcode) {
+			case 0x02:  // block
+			case 0x03:  // loop
+			case 0x04: {  // if
+				emit(opcode);
+				emit(readVarInt32());   // block type
+				break;
+			}
+			case 0x0C:  // br
+			case 0x0D:  // br_if
+			case 0x10:  // call
+			case 0x20:  // get_local
+			case 0x21:  // set_local
+			case 0x22:  // tee_local
+			case 0x23:  // get_global
+			case 0x24: {  // set_global
+				emit(opcode);
+				emit(readVarUInt32());
+				break;
+			}
+			case 0x0E: {  // br_table
+				int count = readVarUInt32();
+				emit(opcode);
+				emit(count);
+				for (int i = 0; i < count; i++) {
+					emit(readVarUInt32());
+				}
+				emit(readVarUInt32());  // default label
+				break;
+			}
+			case 0x11: {  // call_indirect
+				emit(opcode);
+				emit(readVarUInt32());  // type index
+				bytesFile.readByte();   // reserved, table index zero
+				break;
+			}
+			case 0x3F:  // memory.size
+			case 0x40: {  // memory.grow
+				emit(opcode);
+				bytesFile.readByte();   // reserved, memory index zero
+				break;
+			}
+			case 0x41: {  // i32.const
+				emit(opcode);
+				emit(readVarInt32());
+				break;
+			}
+			case 0x42: {  // i64.const
+				emit(opcode);
+				emit(addConstant(bytesFile.readVarS64()));
+				break;
+			}
+			case 0x43: {  // f32.const  little endian, kept as raw bits.
+				emit(opcode);
+				emit((int) readLittleEndian(4));
+				break;
+			}
+			case 0x44: {  // f64.const  little endian, kept as raw bits.
+				emit(opcode);
+				emit(addConstant(readLittleEndian(8)));
+				break;
+			}
+			case Opcode.PREFIX_MISC: {
+				decodeMisc(readVarUInt32());
+				break;
+			}
+			default: {
+				if (0x28 <= opcode && opcode <= 0x3E) {  // load and store
+					emit(opcode);
+					emit(readVarUInt32());  // align
+					emit(readVarUInt32());  // offset
+				} else if (isWithoutImmediate(opcode)) {
+					emit(opcode);
+				} else {
+					throwUnknownOpcodeException(Hex.byteToHex((byte) opcode));
+				}
+			}
+		}
+	}
+
+	private void decodeMisc(int subOpcode) {
+		int opcode = Opcode.MISC_BASE + subOpcode;
+		switch (subOpcode) {
+			case 0x00:  // i32.trunc_sat_f32_s
+			case 0x01:  // i32.trunc_sat_f32_u
+			case 0x02:  // i32.trunc_sat_f64_s
+			case 0x03:  // i32.trunc_sat_f64_u
+			case 0x04:  // i64.trunc_sat_f32_s
+			case 0x05:  // i64.trunc_sat_f32_u
+			case 0x06:  // i64.trunc_sat_f64_s
+			case 0x07: {  // i64.trunc_sat_f64_u
+				emit(opcode);
+				break;
+			}
+			case 0x08: {  // memory.init
+				emit(opcode);
+				emit(readVarUInt32());  // data index
+				bytesFile.readByte();   // reserved, memory index zero
+				break;
+			}
+			case 0x09: {  // data.drop
+				emit(opcode);
+				emit(readVarUInt32());  // data index
+				break;
+			}
+			case 0x0A: {  // memory.copy
+				emit(opcode);
+				bytesFile.readByte();   // reserved, memory index zero
+				bytesFile.readByte();   // reserved, memory index zero
+				break;
+			}
+			case 0x0B: {  // memory.fill
+				emit(opcode);
+				bytesFile.readByte();   // reserved, memory index zero
+				break;
+			}
+			default:
+				throwUnknownOpcodeException(
+					Hex.byteToHex((byte) Opcode.PREFIX_MISC) + " " + Integer.toHexString(subOpcode));
+		}
+	}
+
+	/**
+	 * Opcodes that do not have any immediates.
+	 *
+	 * @param opcode opcode to check.
+	 * @return true if the opcode is one byte long.
+	 */
+	private static boolean isWithoutImmediate(int opcode) {
+		switch (opcode) {
+			case 0x00:  // unreachable
+			case 0x01:  // nop
+			case 0x05:  // else
+			case 0x0B:  // end
+			case 0x0F:  // return
+			case 0x1A:  // drop
+			case 0x1B:  // select
+				return true;
+			default:
+				// numeric instructions
+				return 0x45 <= opcode && opcode <= 0xC4;
+		}
+	}
+
+	private int readVarUInt32() {
+		return (int) bytesFile.readVarU32();
+	}
+
+	private int readVarInt32() {
+		return bytesFile.readVarS32();
+	}
+
+	private long readLittleEndian(int byteCount) {
+		long result = 0;
+		for (int i = 0; i < byteCount; i++) {
+			result |= ((long) bytesFile.readByte() & 0xFFL) << (8 * i);
+		}
+		return result;
+	}
+
+	private void emit(int value) {
+		if (codeLength == code.length) {
+			code = Arrays.copyOf(code, codeLength * 2);
+			byteOffsetAll = Arrays.copyOf(byteOffsetAll, codeLength * 2);
+		}
+		byteOffsetAll[codeLength] = instructionOffset;
+		code[codeLength++] = value;
+	}
+
+	private int addConstant(long value) {
+		if (constantLength == constantAll.length) {
+			constantAll = Arrays.copyOf(constantAll, constantLength * 2);
+		}
+		constantAll[constantLength] = value;
+		return constantLength++;
+	}
+
+	private void throwUnknownOpcodeException(String opcode) {
+		String message = "Wasm function body contains an opcode that is not defined. Unknown Opcode = "
+			+ opcode + " at byte number = " + instructionOffset + ". ";
+		String possibleSolutions =
+			"Verify the wasm file is valid.  Recompile Wasm File.  Contact " + "support.";
+		throw new WasmRuntimeException(UUID.fromString("3b0f4a6e-52d1-4c7a-9f0e-8d2b61a7c5e4"),
+			message, possibleSolutions);
+	}
+}
@@ -0,0 +1,1599 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.utility.Hex;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The handler for every opcode, indexed by opcode.
+ * <br>
+ * The handlers are created once, when this class is loaded, and shared by every instance.
+ * Executing an instruction does not create an opcode object.  The handlers work on the
+ * primitive {@link ValueStack}, so executing an instruction does not box a value either.
+ * <br>
+ * The numeric handlers compute with {@link NumericKernel}, as do the opcode classes in
+ * <code>happynewmoonwithreport.opcode</code>, so every tier gives the same result.
+ * <br>
+ * Source: <a href="https://webassembly.github.io/spec/core/appendix/index-instructions.html"
+ * target="_top"> https://webassembly.github.io/spec/core/appendix/index-instructions.html
+ * </a>
+ */
+public final class DispatchTable {
+
+	private static final OpcodeHandler[] handlerAll = new OpcodeHandler[Opcode.COUNT];
+
+	static {
+		Arrays.fill(handlerAll, (OpcodeHandler) DispatchTable::unknownOpcode);
+
+		registerControl();
+		registerVariable();
+		registerMemory();
+		registerUncheckedMemory();
+		registerNumeric();
+		registerFused();
+	}
+
+	private DispatchTable() {
+		super();
+	}
+
+	/**
+	 * Get the handler for an opcode.
+	 *
+	 * @param opcode the opcode as stored in an InstructionStream.  See {@link Opcode}
+	 * @return the handler.
+	 */
+	public static OpcodeHandler get(int opcode) {
+		return handlerAll[opcode];
+	}
+
+	private static void registerControl() {
+		handlerAll[0x00] = (instance, stream, pc) -> {  // unreachable
+			NumericKernel.unreachable();
+			return pc + 1;
+		};
+		handlerAll[0x01] = (instance, stream, pc) -> pc + 1;  // nop
+		// block, loop and end only mark where branches go, see SideTable.
+		handlerAll[0x02] = (instance, stream, pc) -> pc + 2;  // block
+		handlerAll[0x03] = (instance, stream, pc) -> pc + 2;  // loop
+		handlerAll[0x04] = (instance, stream, pc) -> {  // if
+			if (instance.getValueStack().popI32() != 0) {
+				return pc + 2;
+			}
+			return stream.getSideTable().target(pc + 1);
+		};
+		handlerAll[0x05] = (instance, stream, pc) -> {  // else, end of the then branch
+			return stream.getSideTable().target(pc);
+		};
+		handlerAll[0x0B] = (instance, stream, pc) -> pc + 1;  // end
+		handlerAll[0x0C] = (instance, stream, pc) -> {  // br
+			return branch(instance, stream.getSideTable(), pc + 1);
+		};
+		handlerAll[0x0D] = (instance, stream, pc) -> {  // br_if
+			if (instance.getValueStack().popI32() != 0) {
+				return branch(instance, stream.getSideTable(), pc + 1);
+			}
+			return pc + 2;
+		};
+		handlerAll[0x0E] = (instance, stream, pc) -> {  // br_table
+			int count = stream.getCode()[pc + 1];
+			int i = instance.getValueStack().popI32();
+			if (Integer.compareUnsigned(i, count) >= 0) {
+				i = count;  // default label
+			}
+			return branch(instance, stream.getSideTable(), pc + 2 + i);
+		};
+		handlerAll[0x0F] = (instance, stream, pc) -> {  // return
+			return branch(instance, stream.getSideTable(), pc);
+		};
+		handlerAll[0x10] = (instance, stream, pc) -> {  // call
+			return instance.callFunction(stream.getCode()[pc + 1], pc + 2);
+		};
+		//	0x11 Call Indirect, tables are not implemented.
+
+		handlerAll[0x1A] = (instance, stream, pc) -> {  // drop
+			instance.getValueStack().drop();
+			return pc + 1;
+		};
+		handlerAll[0x1B] = (instance, stream, pc) -> {  // select
+			ValueStack stack = instance.getValueStack();
+			int c = stack.popI32();
+			long value2 = stack.peekBits();
+			byte type2 = stack.peekType();
+			stack.drop();
+			if (c == 0) {
+				stack.drop();
+				stack.push(value2, type2);
+			}
+			return pc + 1;
+		};
+	}
+
+	private static void registerVariable() {
+		handlerAll[0x20] = (instance, stream, pc) -> {  // get_local
+			WasmFrame frame = instance.getCurrentFrame();
+			int index = stream.getCode()[pc + 1];
+			checkLocal(frame, index);
+			instance.getValueStack().push(frame.getSlot(index), frame.getSlotType(index));
+			return pc + 2;
+		};
+		handlerAll[0x21] = (instance, stream, pc) -> {  // set_local
+			WasmFrame frame = instance.getCurrentFrame();
+			ValueStack stack = instance.getValueStack();
+			int index = stream.getCode()[pc + 1];
+			checkLocal(frame, index);
+			frame.setSlot(index, stack.peekBits());
+			stack.drop();
+			return pc + 2;
+		};
+		handlerAll[0x22] = (instance, stream, pc) -> {  // tee_local
+			WasmFrame frame = instance.getCurrentFrame();
+			int index = stream.getCode()[pc + 1];
+			checkLocal(frame, index);
+			frame.setSlot(index, instance.getValueStack().peekBits());
+			return pc + 2;
+		};
+		//	0x23 Get Global, 0x24 Set Global
+	}
+
+	/**
+	 * Loads and stores work on the memory the instance resolved once, see
+	 * {@link WasmInstance#getMemory()}.  The offset immediate is read from the code and the
+	 * effective address is checked once.  F32 and F64 values are moved as raw bits so NaN
+	 * payloads are kept.
+	 * <br>
+	 * Source:
+	 * <a href="https://webassembly.github.io/spec/core/exec/instructions.html#memory-instructions"
+	 * target="_top">
+	 * https://webassembly.github.io/spec/core/exec/instructions.html#memory-instructions
+	 * </a>
+	 */
+	private static void registerMemory() {
+		handlerAll[0x28] = (instance, stream, pc) -> {  // i32.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			stack.pushI32(memory.getInt(ea));
+			return pc + 3;
+		};
+		handlerAll[0x29] = (instance, stream, pc) -> {  // i64.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 8);
+			stack.pushI64(memory.getLong(ea));
+			return pc + 3;
+		};
+		handlerAll[0x2A] = (instance, stream, pc) -> {  // f32.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			stack.pushF32Bits(memory.getInt(ea));
+			return pc + 3;
+		};
+		handlerAll[0x2B] = (instance, stream, pc) -> {  // f64.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 8);
+			stack.pushF64Bits(memory.getLong(ea));
+			return pc + 3;
+		};
+		handlerAll[0x2C] = (instance, stream, pc) -> {  // i32.load8_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 1);
+			stack.pushI32(memory.getByte(ea));
+			return pc + 3;
+		};
+		handlerAll[0x2D] = (instance, stream, pc) -> {  // i32.load8_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 1);
+			stack.pushI32(memory.getByte(ea) & 0xFF);
+			return pc + 3;
+		};
+		handlerAll[0x2E] = (instance, stream, pc) -> {  // i32.load16_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 2);
+			stack.pushI32(memory.getShort(ea));
+			return pc + 3;
+		};
+		handlerAll[0x2F] = (instance, stream, pc) -> {  // i32.load16_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 2);
+			stack.pushI32(memory.getShort(ea) & 0xFFFF);
+			return pc + 3;
+		};
+		handlerAll[0x30] = (instance, stream, pc) -> {  // i64.load8_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 1);
+			stack.pushI64(memory.getByte(ea));
+			return pc + 3;
+		};
+		handlerAll[0x31] = (instance, stream, pc) -> {  // i64.load8_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 1);
+			stack.pushI64(memory.getByte(ea) & 0xFFL);
+			return pc + 3;
+		};
+		handlerAll[0x32] = (instance, stream, pc) -> {  // i64.load16_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 2);
+			stack.pushI64(memory.getShort(ea));
+			return pc + 3;
+		};
+		handlerAll[0x33] = (instance, stream, pc) -> {  // i64.load16_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 2);
+			stack.pushI64(memory.getShort(ea) & 0xFFFFL);
+			return pc + 3;
+		};
+		handlerAll[0x34] = (instance, stream, pc) -> {  // i64.load32_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			stack.pushI64(memory.getInt(ea));
+			return pc + 3;
+		};
+		handlerAll[0x35] = (instance, stream, pc) -> {  // i64.load32_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			stack.pushI64(memory.getInt(ea) & 0xFFFF_FFFFL);
+			return pc + 3;
+		};
+		handlerAll[0x36] = (instance, stream, pc) -> {  // i32.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popI32();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			memory.putInt(ea, value);
+			return pc + 3;
+		};
+		handlerAll[0x37] = (instance, stream, pc) -> {  // i64.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 8);
+			memory.putLong(ea, value);
+			return pc + 3;
+		};
+		handlerAll[0x38] = (instance, stream, pc) -> {  // f32.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popF32Bits();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			memory.putInt(ea, value);
+			return pc + 3;
+		};
+		handlerAll[0x39] = (instance, stream, pc) -> {  // f64.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popF64Bits();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 8);
+			memory.putLong(ea, value);
+			return pc + 3;
+		};
+		handlerAll[0x3A] = (instance, stream, pc) -> {  // i32.store8
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popI32();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 1);
+			memory.putByte(ea, (byte) value);
+			return pc + 3;
+		};
+		handlerAll[0x3B] = (instance, stream, pc) -> {  // i32.store16
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popI32();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 2);
+			memory.putShort(ea, (short) value);
+			return pc + 3;
+		};
+		handlerAll[0x3C] = (instance, stream, pc) -> {  // i64.store8
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 1);
+			memory.putByte(ea, (byte) value);
+			return pc + 3;
+		};
+		handlerAll[0x3D] = (instance, stream, pc) -> {  // i64.store16
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 2);
+			memory.putShort(ea, (short) value);
+			return pc + 3;
+		};
+		handlerAll[0x3E] = (instance, stream, pc) -> {  // i64.store32
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = effectiveAddress(memory, stack.popI32(), stream, pc, 4);
+			memory.putInt(ea, (int) value);
+			return pc + 3;
+		};
+		handlerAll[0x3F] = (instance, stream, pc) -> {  // memory.size
+			instance.getValueStack().pushI32(instance.getMemory().pageCount());
+			return pc + 1;
+		};
+		handlerAll[0x40] = (instance, stream, pc) -> {  // memory.grow
+			ValueStack stack = instance.getValueStack();
+			int deltaPages = stack.popI32();
+			stack.pushI32(instance.getMemory().grow(deltaPages, instance.getMaxMemoryPages()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x08] = (instance, stream, pc) -> {  // memory.init
+			ValueStack stack = instance.getValueStack();
+			byte[] data = instance.getData(stream.getCode()[pc + 1]);
+			int n = stack.popI32();
+			int s = stack.popI32();
+			int d = stack.popI32();
+			MemoryType memory = instance.getMemory();
+			checkRange(s, n, data.length);
+			checkRange(d, n, memory.size());
+			memory.putBytes(d, data, s, n);
+			return pc + 2;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x09] = (instance, stream, pc) -> {  // data.drop
+			instance.dropData(stream.getCode()[pc + 1]);
+			return pc + 2;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x0A] = (instance, stream, pc) -> {  // memory.copy
+			ValueStack stack = instance.getValueStack();
+			int n = stack.popI32();
+			int s = stack.popI32();
+			int d = stack.popI32();
+			MemoryType memory = instance.getMemory();
+			checkRange(s, n, memory.size());
+			checkRange(d, n, memory.size());
+			memory.copyWithin(d, s, n);
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x0B] = (instance, stream, pc) -> {  // memory.fill
+			ValueStack stack = instance.getValueStack();
+			int n = stack.popI32();
+			int value = stack.popI32();
+			int d = stack.popI32();
+			MemoryType memory = instance.getMemory();
+			checkRange(d, n, memory.size());
+			memory.fill(d, n, (byte) value);
+			return pc + 1;
+		};
+	}
+
+	/**
+	 * The loads and stores {@link BoundsCheckElision} proved to be in bounds.  The same as the
+	 * checked ones without the trap, an address can not wrap because it is below the minimum
+	 * size of the memory.
+	 */
+	private static void registerUncheckedMemory() {
+		handlerAll[Opcode.UNCHECKED_BASE + 0x00] = (instance, stream, pc) -> {  // i32.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI32(memory.getInt(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x01] = (instance, stream, pc) -> {  // i64.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getLong(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x02] = (instance, stream, pc) -> {  // f32.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushF32Bits(memory.getInt(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x03] = (instance, stream, pc) -> {  // f64.load
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushF64Bits(memory.getLong(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x04] = (instance, stream, pc) -> {  // i32.load8_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI32(memory.getByte(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x05] = (instance, stream, pc) -> {  // i32.load8_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI32(memory.getByte(ea) & 0xFF);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x06] = (instance, stream, pc) -> {  // i32.load16_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI32(memory.getShort(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x07] = (instance, stream, pc) -> {  // i32.load16_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI32(memory.getShort(ea) & 0xFFFF);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x08] = (instance, stream, pc) -> {  // i64.load8_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getByte(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x09] = (instance, stream, pc) -> {  // i64.load8_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getByte(ea) & 0xFFL);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x0A] = (instance, stream, pc) -> {  // i64.load16_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getShort(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x0B] = (instance, stream, pc) -> {  // i64.load16_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getShort(ea) & 0xFFFFL);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x0C] = (instance, stream, pc) -> {  // i64.load32_s
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getInt(ea));
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x0D] = (instance, stream, pc) -> {  // i64.load32_u
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			stack.pushI64(memory.getInt(ea) & 0xFFFF_FFFFL);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x0E] = (instance, stream, pc) -> {  // i32.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popI32();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putInt(ea, value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x0F] = (instance, stream, pc) -> {  // i64.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putLong(ea, value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x10] = (instance, stream, pc) -> {  // f32.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popF32Bits();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putInt(ea, value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x11] = (instance, stream, pc) -> {  // f64.store
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popF64Bits();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putLong(ea, value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x12] = (instance, stream, pc) -> {  // i32.store8
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popI32();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putByte(ea, (byte) value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x13] = (instance, stream, pc) -> {  // i32.store16
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			int value = stack.popI32();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putShort(ea, (short) value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x14] = (instance, stream, pc) -> {  // i64.store8
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putByte(ea, (byte) value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x15] = (instance, stream, pc) -> {  // i64.store16
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putShort(ea, (short) value);
+			return pc + 3;
+		};
+		handlerAll[Opcode.UNCHECKED_BASE + 0x16] = (instance, stream, pc) -> {  // i64.store32
+			ValueStack stack = instance.getValueStack();
+			MemoryType memory = instance.getMemory();
+			long value = stack.popI64();
+			int ea = stack.popI32() + stream.getCode()[pc + 2];
+			memory.putInt(ea, (int) value);
+			return pc + 3;
+		};
+	}
+
+	/**
+	 * Trap unless the <code>length</code> bytes at <code>address</code>, both unsigned, are all
+	 * in a memory or data segment of <code>size</code> bytes.  A length of zero at the end is
+	 * in bounds.
+	 */
+	static void checkRange(int address, int length, int size) {
+		long end = Integer.toUnsignedLong(address) + Integer.toUnsignedLong(length);
+		if (size < end) {
+			throw new WasmRuntimeException(UUID.fromString("8442573d-9339-4c5c-a7fe-cbddae62e650"),
+				"Trap: out of bounds memory access.  Address = %d length = %d size = %d",
+				Integer.toUnsignedLong(address), Integer.toUnsignedLong(length), size);
+		}
+	}
+
+	/**
+	 * The effective address of a load or store, address plus the offset immediate, both
+	 * unsigned.  Traps when the <code>width</code> bytes are not all in the memory.
+	 */
+	static int effectiveAddress(MemoryType memory, int address, InstructionStream stream,
+								int pc, int width) {
+		return NumericKernel.effectiveAddress(memory, address, stream.getCode()[pc + 2], width);
+	}
+
+	private static void registerNumeric() {
+		handlerAll[0x41] = (instance, stream, pc) -> {  // i32.const
+			instance.getValueStack().pushI32(stream.getCode()[pc + 1]);
+			return pc + 2;
+		};
+		handlerAll[0x42] = (instance, stream, pc) -> {  // i64.const
+			long value = stream.getConstantAll()[stream.getCode()[pc + 1]];
+			instance.getValueStack().pushI64(value);
+			return pc + 2;
+		};
+		handlerAll[0x43] = (instance, stream, pc) -> {  // f32.const
+			instance.getValueStack().pushF32Bits(stream.getCode()[pc + 1]);
+			return pc + 2;
+		};
+		handlerAll[0x44] = (instance, stream, pc) -> {  // f64.const
+			long bits = stream.getConstantAll()[stream.getCode()[pc + 1]];
+			instance.getValueStack().pushF64Bits(bits);
+			return pc + 2;
+		};
+
+		handlerAll[0x45] = (instance, stream, pc) -> {  // i32.eqz
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32Eqz(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0x46] = (instance, stream, pc) -> {  // i32.eq
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Eq(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x47] = (instance, stream, pc) -> {  // i32.ne
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Ne(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x48] = (instance, stream, pc) -> {  // i32.lt_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32LtS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x49] = (instance, stream, pc) -> {  // i32.lt_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32LtU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x4A] = (instance, stream, pc) -> {  // i32.gt_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32GtS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x4B] = (instance, stream, pc) -> {  // i32.gt_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32GtU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x4C] = (instance, stream, pc) -> {  // i32.le_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32LeS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x4D] = (instance, stream, pc) -> {  // i32.le_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32LeU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x4E] = (instance, stream, pc) -> {  // i32.ge_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32GeS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x4F] = (instance, stream, pc) -> {  // i32.ge_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32GeU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x50] = (instance, stream, pc) -> {  // i64.eqz
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i64Eqz(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0x51] = (instance, stream, pc) -> {  // i64.eq
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64Eq(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x52] = (instance, stream, pc) -> {  // i64.ne
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64Ne(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x53] = (instance, stream, pc) -> {  // i64.lt_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64LtS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x54] = (instance, stream, pc) -> {  // i64.lt_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64LtU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x55] = (instance, stream, pc) -> {  // i64.gt_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64GtS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x56] = (instance, stream, pc) -> {  // i64.gt_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64GtU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x57] = (instance, stream, pc) -> {  // i64.le_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64LeS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x58] = (instance, stream, pc) -> {  // i64.le_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64LeU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x59] = (instance, stream, pc) -> {  // i64.ge_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64GeS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x5A] = (instance, stream, pc) -> {  // i64.ge_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI32(NumericKernel.i64GeU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x5B] = (instance, stream, pc) -> {  // f32.eq
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushI32(NumericKernel.f32Eq(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x5C] = (instance, stream, pc) -> {  // f32.ne
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushI32(NumericKernel.f32Ne(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x5D] = (instance, stream, pc) -> {  // f32.lt
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushI32(NumericKernel.f32Lt(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x5E] = (instance, stream, pc) -> {  // f32.gt
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushI32(NumericKernel.f32Gt(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x5F] = (instance, stream, pc) -> {  // f32.le
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushI32(NumericKernel.f32Le(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x60] = (instance, stream, pc) -> {  // f32.ge
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushI32(NumericKernel.f32Ge(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x61] = (instance, stream, pc) -> {  // f64.eq
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushI32(NumericKernel.f64Eq(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x62] = (instance, stream, pc) -> {  // f64.ne
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushI32(NumericKernel.f64Ne(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x63] = (instance, stream, pc) -> {  // f64.lt
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushI32(NumericKernel.f64Lt(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x64] = (instance, stream, pc) -> {  // f64.gt
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushI32(NumericKernel.f64Gt(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x65] = (instance, stream, pc) -> {  // f64.le
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushI32(NumericKernel.f64Le(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x66] = (instance, stream, pc) -> {  // f64.ge
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushI32(NumericKernel.f64Ge(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x67] = (instance, stream, pc) -> {  // i32.clz
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32Clz(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0x68] = (instance, stream, pc) -> {  // i32.ctz
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32Ctz(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0x69] = (instance, stream, pc) -> {  // i32.popcnt
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32Popcnt(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0x6A] = (instance, stream, pc) -> {  // i32.add
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Add(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x6B] = (instance, stream, pc) -> {  // i32.sub
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Sub(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x6C] = (instance, stream, pc) -> {  // i32.mul
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Mul(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x6D] = (instance, stream, pc) -> {  // i32.div_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32DivS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x6E] = (instance, stream, pc) -> {  // i32.div_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32DivU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x6F] = (instance, stream, pc) -> {  // i32.rem_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32RemS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x70] = (instance, stream, pc) -> {  // i32.rem_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32RemU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x71] = (instance, stream, pc) -> {  // i32.and
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32And(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x72] = (instance, stream, pc) -> {  // i32.or
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Or(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x73] = (instance, stream, pc) -> {  // i32.xor
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Xor(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x74] = (instance, stream, pc) -> {  // i32.shl
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Shl(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x75] = (instance, stream, pc) -> {  // i32.shr_s
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32ShrS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x76] = (instance, stream, pc) -> {  // i32.shr_u
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32ShrU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x77] = (instance, stream, pc) -> {  // i32.rotl
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Rotl(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x78] = (instance, stream, pc) -> {  // i32.rotr
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			stack.pushI32(NumericKernel.i32Rotr(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x79] = (instance, stream, pc) -> {  // i64.clz
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64Clz(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0x7A] = (instance, stream, pc) -> {  // i64.ctz
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64Ctz(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0x7B] = (instance, stream, pc) -> {  // i64.popcnt
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64Popcnt(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0x7C] = (instance, stream, pc) -> {  // i64.add
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Add(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x7D] = (instance, stream, pc) -> {  // i64.sub
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Sub(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x7E] = (instance, stream, pc) -> {  // i64.mul
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Mul(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x7F] = (instance, stream, pc) -> {  // i64.div_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64DivS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x80] = (instance, stream, pc) -> {  // i64.div_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64DivU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x81] = (instance, stream, pc) -> {  // i64.rem_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64RemS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x82] = (instance, stream, pc) -> {  // i64.rem_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64RemU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x83] = (instance, stream, pc) -> {  // i64.and
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64And(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x84] = (instance, stream, pc) -> {  // i64.or
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Or(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x85] = (instance, stream, pc) -> {  // i64.xor
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Xor(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x86] = (instance, stream, pc) -> {  // i64.shl
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Shl(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x87] = (instance, stream, pc) -> {  // i64.shr_s
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64ShrS(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x88] = (instance, stream, pc) -> {  // i64.shr_u
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64ShrU(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x89] = (instance, stream, pc) -> {  // i64.rotl
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Rotl(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x8A] = (instance, stream, pc) -> {  // i64.rotr
+			ValueStack stack = instance.getValueStack();
+			long c2 = stack.popI64();
+			long c1 = stack.popI64();
+			stack.pushI64(NumericKernel.i64Rotr(c1, c2));
+			return pc + 1;
+		};
+		handlerAll[0x8B] = (instance, stream, pc) -> {  // f32.abs
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32Bits(NumericKernel.f32Abs(stack.popF32Bits()));
+			return pc + 1;
+		};
+		handlerAll[0x8C] = (instance, stream, pc) -> {  // f32.neg
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32Bits(NumericKernel.f32Neg(stack.popF32Bits()));
+			return pc + 1;
+		};
+		handlerAll[0x8D] = (instance, stream, pc) -> {  // f32.ceil
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32Ceil(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[0x8E] = (instance, stream, pc) -> {  // f32.floor
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32Floor(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[0x8F] = (instance, stream, pc) -> {  // f32.trunc
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32Trunc(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[0x90] = (instance, stream, pc) -> {  // f32.nearest
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32Nearest(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[0x91] = (instance, stream, pc) -> {  // f32.sqrt
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32Sqrt(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[0x92] = (instance, stream, pc) -> {  // f32.add
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushF32(NumericKernel.f32Add(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x93] = (instance, stream, pc) -> {  // f32.sub
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushF32(NumericKernel.f32Sub(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x94] = (instance, stream, pc) -> {  // f32.mul
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushF32(NumericKernel.f32Mul(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x95] = (instance, stream, pc) -> {  // f32.div
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushF32(NumericKernel.f32Div(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x96] = (instance, stream, pc) -> {  // f32.min
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushF32(NumericKernel.f32Min(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x97] = (instance, stream, pc) -> {  // f32.max
+			ValueStack stack = instance.getValueStack();
+			float z2 = stack.popF32();
+			float z1 = stack.popF32();
+			stack.pushF32(NumericKernel.f32Max(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x98] = (instance, stream, pc) -> {  // f32.copysign
+			ValueStack stack = instance.getValueStack();
+			int z2 = stack.popF32Bits();
+			int z1 = stack.popF32Bits();
+			stack.pushF32Bits(NumericKernel.f32Copysign(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0x99] = (instance, stream, pc) -> {  // f64.abs
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64Bits(NumericKernel.f64Abs(stack.popF64Bits()));
+			return pc + 1;
+		};
+		handlerAll[0x9A] = (instance, stream, pc) -> {  // f64.neg
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64Bits(NumericKernel.f64Neg(stack.popF64Bits()));
+			return pc + 1;
+		};
+		handlerAll[0x9B] = (instance, stream, pc) -> {  // f64.ceil
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64Ceil(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[0x9C] = (instance, stream, pc) -> {  // f64.floor
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64Floor(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[0x9D] = (instance, stream, pc) -> {  // f64.trunc
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64Trunc(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[0x9E] = (instance, stream, pc) -> {  // f64.nearest
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64Nearest(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[0x9F] = (instance, stream, pc) -> {  // f64.sqrt
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64Sqrt(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[0xA0] = (instance, stream, pc) -> {  // f64.add
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushF64(NumericKernel.f64Add(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA1] = (instance, stream, pc) -> {  // f64.sub
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushF64(NumericKernel.f64Sub(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA2] = (instance, stream, pc) -> {  // f64.mul
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushF64(NumericKernel.f64Mul(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA3] = (instance, stream, pc) -> {  // f64.div
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushF64(NumericKernel.f64Div(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA4] = (instance, stream, pc) -> {  // f64.min
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushF64(NumericKernel.f64Min(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA5] = (instance, stream, pc) -> {  // f64.max
+			ValueStack stack = instance.getValueStack();
+			double z2 = stack.popF64();
+			double z1 = stack.popF64();
+			stack.pushF64(NumericKernel.f64Max(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA6] = (instance, stream, pc) -> {  // f64.copysign
+			ValueStack stack = instance.getValueStack();
+			long z2 = stack.popF64Bits();
+			long z1 = stack.popF64Bits();
+			stack.pushF64Bits(NumericKernel.f64Copysign(z1, z2));
+			return pc + 1;
+		};
+		handlerAll[0xA7] = (instance, stream, pc) -> {  // i32.wrap_i64
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32WrapI64(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xA8] = (instance, stream, pc) -> {  // i32.trunc_f32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncS(stack.popF32(), "i32.trunc_f32_s"));
+			return pc + 1;
+		};
+		handlerAll[0xA9] = (instance, stream, pc) -> {  // i32.trunc_f32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncU(stack.popF32(), "i32.trunc_f32_u"));
+			return pc + 1;
+		};
+		handlerAll[0xAA] = (instance, stream, pc) -> {  // i32.trunc_f64_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncS(stack.popF64(), "i32.trunc_f64_s"));
+			return pc + 1;
+		};
+		handlerAll[0xAB] = (instance, stream, pc) -> {  // i32.trunc_f64_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncU(stack.popF64(), "i32.trunc_f64_u"));
+			return pc + 1;
+		};
+		handlerAll[0xAC] = (instance, stream, pc) -> {  // i64.extend_i32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64ExtendI32S(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xAD] = (instance, stream, pc) -> {  // i64.extend_i32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64ExtendI32U(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xAE] = (instance, stream, pc) -> {  // i64.trunc_f32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncS(stack.popF32(), "i64.trunc_f32_s"));
+			return pc + 1;
+		};
+		handlerAll[0xAF] = (instance, stream, pc) -> {  // i64.trunc_f32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncU(stack.popF32(), "i64.trunc_f32_u"));
+			return pc + 1;
+		};
+		handlerAll[0xB0] = (instance, stream, pc) -> {  // i64.trunc_f64_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncS(stack.popF64(), "i64.trunc_f64_s"));
+			return pc + 1;
+		};
+		handlerAll[0xB1] = (instance, stream, pc) -> {  // i64.trunc_f64_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncU(stack.popF64(), "i64.trunc_f64_u"));
+			return pc + 1;
+		};
+		handlerAll[0xB2] = (instance, stream, pc) -> {  // f32.convert_i32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32ConvertI32S(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xB3] = (instance, stream, pc) -> {  // f32.convert_i32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32ConvertI32U(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xB4] = (instance, stream, pc) -> {  // f32.convert_i64_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32ConvertI64S(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xB5] = (instance, stream, pc) -> {  // f32.convert_i64_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32ConvertI64U(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xB6] = (instance, stream, pc) -> {  // f32.demote_f64
+			ValueStack stack = instance.getValueStack();
+			stack.pushF32(NumericKernel.f32DemoteF64(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[0xB7] = (instance, stream, pc) -> {  // f64.convert_i32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64ConvertI32S(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xB8] = (instance, stream, pc) -> {  // f64.convert_i32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64ConvertI32U(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xB9] = (instance, stream, pc) -> {  // f64.convert_i64_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64ConvertI64S(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xBA] = (instance, stream, pc) -> {  // f64.convert_i64_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64ConvertI64U(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xBB] = (instance, stream, pc) -> {  // f64.promote_f32
+			ValueStack stack = instance.getValueStack();
+			stack.pushF64(NumericKernel.f64PromoteF32(stack.popF32()));
+			return pc + 1;
+		};
+		// reinterpret keeps the bits, only the type changes.
+		handlerAll[0xBC] = (instance, stream, pc) -> {  // i32.reinterpret_f32
+			instance.getValueStack().retype(ValueStack.I32_TYPE);
+			return pc + 1;
+		};
+		handlerAll[0xBD] = (instance, stream, pc) -> {  // i64.reinterpret_f64
+			instance.getValueStack().retype(ValueStack.I64_TYPE);
+			return pc + 1;
+		};
+		handlerAll[0xBE] = (instance, stream, pc) -> {  // f32.reinterpret_i32
+			instance.getValueStack().retype(ValueStack.F32_TYPE);
+			return pc + 1;
+		};
+		handlerAll[0xBF] = (instance, stream, pc) -> {  // f64.reinterpret_i64
+			instance.getValueStack().retype(ValueStack.F64_TYPE);
+			return pc + 1;
+		};
+		handlerAll[0xC0] = (instance, stream, pc) -> {  // i32.extend8_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32Extend8S(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xC1] = (instance, stream, pc) -> {  // i32.extend16_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32Extend16S(stack.popI32()));
+			return pc + 1;
+		};
+		handlerAll[0xC2] = (instance, stream, pc) -> {  // i64.extend8_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64Extend8S(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xC3] = (instance, stream, pc) -> {  // i64.extend16_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64Extend16S(stack.popI64()));
+			return pc + 1;
+		};
+		handlerAll[0xC4] = (instance, stream, pc) -> {  // i64.extend32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64Extend32S(stack.popI64()));
+			return pc + 1;
+		};
+
+		// trunc_sat saturates instead of trapping, NaN gives 0.
+		handlerAll[Opcode.MISC_BASE + 0x00] = (instance, stream, pc) -> {  // i32.trunc_sat_f32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncSatS(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x01] = (instance, stream, pc) -> {  // i32.trunc_sat_f32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncSatU(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x02] = (instance, stream, pc) -> {  // i32.trunc_sat_f64_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncSatS(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x03] = (instance, stream, pc) -> {  // i32.trunc_sat_f64_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(NumericKernel.i32TruncSatU(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x04] = (instance, stream, pc) -> {  // i64.trunc_sat_f32_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncSatS(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x05] = (instance, stream, pc) -> {  // i64.trunc_sat_f32_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncSatU(stack.popF32()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x06] = (instance, stream, pc) -> {  // i64.trunc_sat_f64_s
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncSatS(stack.popF64()));
+			return pc + 1;
+		};
+		handlerAll[Opcode.MISC_BASE + 0x07] = (instance, stream, pc) -> {  // i64.trunc_sat_f64_u
+			ValueStack stack = instance.getValueStack();
+			stack.pushI64(NumericKernel.i64TruncSatU(stack.popF64()));
+			return pc + 1;
+		};
+	}
+
+	/**
+	 * Handlers for the fused opcodes, see {@link Fusion}.  Each one does the work of the
+	 * sequence it replaces and continues after the sequence.
+	 */
+	private static void registerFused() {
+		handlerAll[Opcode.LOCAL_LOCAL_I32_ADD] = (instance, stream, pc) -> {
+			WasmFrame frame = instance.getCurrentFrame();
+			int[] code = stream.getCode();
+			int a = code[pc + 1];
+			int b = code[pc + 3];
+			checkLocal(frame, a);
+			checkLocal(frame, b);
+			instance.getValueStack().pushI32((int) frame.getSlot(a) + (int) frame.getSlot(b));
+			return pc + 5;
+		};
+		handlerAll[Opcode.LOCAL_LOCAL_I32_SUB] = (instance, stream, pc) -> {
+			WasmFrame frame = instance.getCurrentFrame();
+			int[] code = stream.getCode();
+			int a = code[pc + 1];
+			int b = code[pc + 3];
+			checkLocal(frame, a);
+			checkLocal(frame, b);
+			instance.getValueStack().pushI32((int) frame.getSlot(a) - (int) frame.getSlot(b));
+			return pc + 5;
+		};
+		handlerAll[Opcode.LOCAL_I32_CONST_I32_ADD] = (instance, stream, pc) -> {
+			WasmFrame frame = instance.getCurrentFrame();
+			int[] code = stream.getCode();
+			int a = code[pc + 1];
+			checkLocal(frame, a);
+			instance.getValueStack().pushI32((int) frame.getSlot(a) + code[pc + 3]);
+			return pc + 5;
+		};
+		handlerAll[Opcode.I32_CONST_I32_ADD] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			stack.pushI32(stack.popI32() + stream.getCode()[pc + 1]);
+			return pc + 3;
+		};
+		final OpcodeHandler i32Load = handlerAll[0x28];
+		handlerAll[Opcode.LOCAL_I32_LOAD] = (instance, stream, pc) -> {
+			WasmFrame frame = instance.getCurrentFrame();
+			int a = stream.getCode()[pc + 1];
+			checkLocal(frame, a);
+			instance.getValueStack().pushI32((int) frame.getSlot(a));
+			return i32Load.execute(instance, stream, pc + 2);
+		};
+		handlerAll[Opcode.LOCAL_I32_EQZ_BR_IF] = (instance, stream, pc) -> {
+			WasmFrame frame = instance.getCurrentFrame();
+			int a = stream.getCode()[pc + 1];
+			checkLocal(frame, a);
+			if ((int) frame.getSlot(a) == 0) {
+				return branch(instance, stream.getSideTable(), pc + 4);
+			}
+			return pc + 5;
+		};
+		handlerAll[Opcode.I32_EQZ_BR_IF] = (instance, stream, pc) -> {
+			if (instance.getValueStack().popI32() == 0) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+		handlerAll[Opcode.I32_EQ_BR_IF] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			if (c1 == c2) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+		handlerAll[Opcode.I32_NE_BR_IF] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			if (c1 != c2) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+		handlerAll[Opcode.I32_LT_S_BR_IF] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			if (c1 < c2) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+		handlerAll[Opcode.I32_LT_U_BR_IF] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			if (Integer.compareUnsigned(c1, c2) < 0) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+		handlerAll[Opcode.I32_GT_S_BR_IF] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			if (c1 > c2) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+		handlerAll[Opcode.I32_GE_S_BR_IF] = (instance, stream, pc) -> {
+			ValueStack stack = instance.getValueStack();
+			int c2 = stack.popI32();
+			int c1 = stack.popI32();
+			if (c1 >= c2) {
+				return branch(instance, stream.getSideTable(), pc + 2);
+			}
+			return pc + 3;
+		};
+	}
+
+	/**
+	 * Take a branch: keep the values carried by the branch, truncate the operand stack to the
+	 * height of the label and continue at the label.
+	 *
+	 * @param instance the instance.
+	 * @param sideTable the side table of the running function.
+	 * @param key the key of the branch in the side table.
+	 * @return the position to continue at.
+	 */
+	private static int branch(WasmInstance instance, SideTable sideTable, int key) {
+		int height = instance.getCurrentFrame().getStackBase() + sideTable.height(key);
+		instance.getValueStack().unwind(height, sideTable.arity(key));
+		return sideTable.target(key);
+	}
+
+	private static void checkLocal(WasmFrame frame, int index) {
+		if ((0 <= index && index < frame.slotCount()) == false) {
+			throw new WasmRuntimeException(UUID.fromString("8a13e86b-023d-48db-b254-f07e4cd59840"),
+				"Local variable " + index + " does not exist");
+		}
+	}
+
+	private static int unknownOpcode(WasmInstance instance, InstructionStream stream, int pc) {
+		int opcode = stream.getCode()[pc];
+		String opcodeHex = Hex.byteToHex((byte) opcode);
+		if (Opcode.MISC_BASE <= opcode) {
+			opcodeHex = Hex.byteToHex((byte) Opcode.PREFIX_MISC) + " " + opcodeHex;
+		}
+		String message =
+			"Wasm tried to run an opcode that was not defined. Unknown Opcode = " + opcodeHex
+			+ " (0d" + opcode + ")";
+		message += " at byte number = " + stream.byteOffset(pc) + ". ";
+		String possibleSolutions =
+			"Verify the wasm file is valid.  Recompile Wasm File.  Contact " + "support.";
+		throw new WasmRuntimeException(UUID.fromString("6b5700ee-9642-4544-8850-22794071e848"),
+			message, possibleSolutions);
+	}
+}
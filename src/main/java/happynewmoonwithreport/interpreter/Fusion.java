@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * Peephole pass that replaces common instruction sequences with one fused instruction, so the
+ * interpreter dispatches once for the whole sequence.
+ * <br>
+ * Only the first opcode of a sequence is replaced.  The immediates and the opcodes that follow
+ * are left where they are and the fused handler reads its operands from them, then continues
+ * after the sequence.  Nothing moves, so the byte offsets and the {@link SideTable} stay valid.
+ * <br>
+ * A branch can not land inside a sequence.  Branch targets are the instruction after a
+ * <code>block</code>, <code>loop</code>, <code>if</code>, <code>else</code> or
+ * <code>end</code>, return positions are the instruction after a <code>call</code>, and none of
+ * those opcodes is part of a sequence except as the first instruction.
+ * <br>
+ * The sequences are the ones compilers emit most for address arithmetic and loop control.
+ *
+ * @see Opcode#FUSED_BASE
+ */
+public final class Fusion {
+
+	/**
+	 * The sequences, longest first so the longest match wins.  Each row is the fused opcode
+	 * followed by the opcodes of the sequence.
+	 */
+	private static final int[][] patternAll = {
+		{Opcode.LOCAL_LOCAL_I32_ADD, 0x20, 0x20, 0x6A},
+		{Opcode.LOCAL_LOCAL_I32_SUB, 0x20, 0x20, 0x6B},
+		{Opcode.LOCAL_I32_CONST_I32_ADD, 0x20, 0x41, 0x6A},
+		{Opcode.LOCAL_I32_EQZ_BR_IF, 0x20, 0x45, 0x0D},
+		{Opcode.LOCAL_I32_LOAD, 0x20, 0x28},
+		{Opcode.I32_CONST_I32_ADD, 0x41, 0x6A},
+		{Opcode.I32_EQZ_BR_IF, 0x45, 0x0D},
+		{Opcode.I32_EQ_BR_IF, 0x46, 0x0D},
+		{Opcode.I32_NE_BR_IF, 0x47, 0x0D},
+		{Opcode.I32_LT_S_BR_IF, 0x48, 0x0D},
+		{Opcode.I32_LT_U_BR_IF, 0x49, 0x0D},
+		{Opcode.I32_GT_S_BR_IF, 0x4A, 0x0D},
+		{Opcode.I32_GE_S_BR_IF, 0x4E, 0x0D},
+	};
+
+	/**
+	 * The length in ints of each fused instruction, indexed by <code>opcode -
+	 * FUSED_BASE</code>.
+	 */
+	private static final int[] lengthAll = new int[Opcode.COUNT - Opcode.FUSED_BASE];
+
+	static {
+		for (int[] pattern : patternAll) {
+			int length = 0;
+			for (int index = 1; index < pattern.length; index++) {
+				length += unfusedLength(pattern[index]);
+			}
+			lengthAll[pattern[0] - Opcode.FUSED_BASE] = length;
+		}
+	}
+
+	private Fusion() {
+		super();
+	}
+
+	/**
+	 * The length of a fused instruction.
+	 *
+	 * @param opcode a fused opcode.
+	 * @return the number of ints of the sequence the opcode replaces.
+	 */
+	public static int length(int opcode) {
+		return lengthAll[opcode - Opcode.FUSED_BASE];
+	}
+
+	/**
+	 * Replace the sequences in a stream.  The stream is changed in place.
+	 *
+	 * @param stream a decoded function body.
+	 * @return the number of sequences replaced.
+	 */
+	public static int fuse(InstructionStream stream) {
+		final int[] code = stream.getCode();
+		int count = 0;
+		int pc = 0;
+		while (pc < code.length) {
+			int[] pattern = match(code, pc);
+			if (pattern != null) {
+				code[pc] = pattern[0];
+				count++;
+			}
+			pc += InstructionStream.instructionLength(code, pc);
+		}
+		return count;
+	}
+
+	private static int[] match(int[] code, int pc) {
+		for (int[] pattern : patternAll) {
+			if (matches(code, pc, pattern)) {
+				return pattern;
+			}
+		}
+		return null;
+	}
+
+	private static boolean matches(int[] code, int pc, int[] pattern) {
+		int position = pc;
+		for (int index = 1; index < pattern.length; index++) {
+			if (code.length <= position || code[position] != pattern[index]) {
+				return false;
+			}
+			position += InstructionStream.instructionLength(code, position);
+		}
+		return true;
+	}
+
+	/**
+	 * Length of the opcodes that appear in a sequence.
+	 */
+	private static int unfusedLength(int opcode) {
+		switch (opcode) {
+			case 0x0D:  // br_if
+			case 0x20:  // get_local
+			case 0x41:  // i32.const
+				return 2;
+			case 0x28:  // i32.load
+				return 3;
+			default:
+				return 1;
+		}
+	}
+}
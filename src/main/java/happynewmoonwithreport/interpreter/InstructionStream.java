@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+
+/**
+ * A function body translated once into a compact form the interpreter can run directly.
+ * <br>
+ * Every instruction is stored as its opcode followed by its immediates, already decoded.  The
+ * immediates take one int each, with the exception of <code>br_table</code> which stores the
+ * label count followed by the labels and the default label.   64 bit constants
+ * (<code>i64.const</code> and <code>f64.const</code>) do not fit in an int so the int holds an
+ * index into <code>constantAll</code>.
+ * <br>
+ * <pre>
+ *     block, loop, if             opcode blockType
+ *     br, br_if                   opcode labelIndex
+ *     br_table                    opcode count label_0 ... label_count-1 defaultLabel
+ *     call                        opcode functionIndex
+ *     call_indirect               opcode typeIndex
+ *     get/set/tee_local, global   opcode index
+ *     load, store                 opcode align offset
+ *     i32.const                   opcode value
+ *     f32.const                   opcode bits
+ *     i64.const, f64.const        opcode constantIndex
+ *     memory.init                 opcode dataIndex
+ *     data.drop                   opcode dataIndex
+ *     everything else             opcode
+ * </pre>
+ * <br>
+ * A fused opcode (see {@link Fusion}) replaces the first opcode of the sequence it stands for.
+ * The rest of the sequence stays in place, so the fused instruction has the length of the
+ * sequence and positions in the stream do not change.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/instructions.html" target="_top">
+ * https://webassembly.github.io/spec/core/binary/instructions.html
+ * </a>
+ *
+ * @see Decoder
+ * @see Opcode
+ */
+public final class InstructionStream {
+
+	/**
+	 * opcodes and immediates.
+	 */
+	private final int[] code;
+
+	/**
+	 * 64 bit constants referenced by <code>i64.const</code> and <code>f64.const</code>
+	 */
+	private final long[] constantAll;
+
+	/**
+	 * For each index in <code>code</code> the byte offset in the function body of the
+	 * instruction that it belongs to.   Only used to build error messages.
+	 */
+	private final int[] byteOffsetAll;
+
+	/**
+	 * The branch targets.  Built when the module is instantiated.
+	 */
+	private SideTable sideTable;
+
+	public InstructionStream(int[] code, long[] constantAll, int[] byteOffsetAll) {
+		this.code = code;
+		this.constantAll = constantAll;
+		this.byteOffsetAll = byteOffsetAll;
+	}
+
+	public int[] getCode() {
+		return code;
+	}
+
+	public long[] getConstantAll() {
+		return constantAll;
+	}
+
+	public SideTable getSideTable() {
+		return sideTable;
+	}
+
+	public void setSideTable(SideTable sideTable) {
+		this.sideTable = sideTable;
+	}
+
+	/**
+	 * The number of ints in the stream.
+	 *
+	 * @return length of the stream.
+	 */
+	public int length() {
+		return code.length;
+	}
+
+	/**
+	 * The byte offset in the function body of the instruction at <code>pc</code>.
+	 *
+	 * @param pc index in the stream.
+	 * @return byte offset in the original function body.
+	 */
+	public int byteOffset(int pc) {
+		return byteOffsetAll[pc];
+	}
+
+	/**
+	 * The number of ints the instruction at <code>pc</code> occupies, opcode plus immediates.
+	 *
+	 * @param pc index of an opcode in the stream.
+	 * @return length of the instruction.
+	 */
+	public int instructionLength(int pc) {
+		return instructionLength(code, pc);
+	}
+
+	/**
+	 * The number of ints the instruction at <code>pc</code> occupies, opcode plus immediates.
+	 *
+	 * @param code the stream.
+	 * @param pc   index of an opcode in the stream.
+	 * @return length of the instruction.
+	 */
+	public static int instructionLength(int[] code, int pc) {
+		int opcode = code[pc];
+		switch (opcode) {
+			case 0x02:  // block
+			case 0x03:  // loop
+			case 0x04:  // if
+			case 0x0C:  // br
+			case 0x0D:  // br_if
+			case 0x10:  // call
+			case 0x11:  // call_indirect
+			case 0x20:  // get_local
+			case 0x21:  // set_local
+			case 0x22:  // tee_local
+			case 0x23:  // get_global
+			case 0x24:  // set_global
+			case 0x41:  // i32.const
+			case 0x42:  // i64.const
+			case 0x43:  // f32.const
+			case 0x44:  // f64.const
+			case Opcode.MISC_BASE + 0x08:  // memory.init
+			case Opcode.MISC_BASE + 0x09:  // data.drop
+				return 2;
+			case 0x0E:  // br_table
+				return 3 + code[pc + 1];
+			default:
+				if (0x28 <= opcode && opcode <= 0x3E) {  // load and store
+					return 3;
+				}
+				if (Opcode.UNCHECKED_BASE <= opcode) {
+					return 3;
+				}
+				if (Opcode.FUSED_BASE <= opcode) {
+					return Fusion.length(opcode);
+				}
+				return 1;
+		}
+	}
+}
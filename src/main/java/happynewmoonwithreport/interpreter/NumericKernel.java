@@ -0,0 +1,687 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmDivideByZeroException;
+import happynewmoonwithreport.WasmDivideOverflowException;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmTrapException;
+import happynewmoonwithreport.type.MemoryType;
+import java.util.UUID;
+
+/**
+ * The numeric instructions on primitive values.
+ * <br>
+ * Every tier computes with these methods: the handlers of {@link DispatchTable}, the
+ * {@link RegisterInterpreter}, code compiled by the JIT and the opcode classes in
+ * <code>happynewmoonwithreport.opcode</code>.  Nothing here allocates, values are
+ * <code>int</code>, <code>long</code>, <code>float</code> and <code>double</code>, and a
+ * boolean result is the i32 <code>1</code> or <code>0</code>.  The methods are small so the JVM
+ * inlines them, and most are a single JDK intrinsic.
+ * <br>
+ * i32 and i64 are kept in <code>int</code> and <code>long</code>, the unsigned operations
+ * reinterpret the bits.  A shift or rotate count is taken modulo the bit width, as Java already
+ * does.  Float abs, neg and copysign work on the bits, so they keep the payload and sign of a
+ * NaN.  The other float operations are the Java operators and the <code>Math</code> methods
+ * that HotSpot compiles to single instructions.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/numerics.html" target="_top">
+ * https://webassembly.github.io/spec/core/exec/numerics.html
+ * </a>
+ */
+public final class NumericKernel {
+
+	private NumericKernel() {
+		super();
+	}
+
+	private static int bool(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	// i32 test and compare.
+
+	public static int i32Eqz(int c1) {
+		return bool(c1 == 0);
+	}
+
+	public static int i32Eq(int c1, int c2) {
+		return bool(c1 == c2);
+	}
+
+	public static int i32Ne(int c1, int c2) {
+		return bool(c1 != c2);
+	}
+
+	public static int i32LtS(int c1, int c2) {
+		return bool(c1 < c2);
+	}
+
+	public static int i32LtU(int c1, int c2) {
+		return bool(Integer.compareUnsigned(c1, c2) < 0);
+	}
+
+	public static int i32GtS(int c1, int c2) {
+		return bool(c1 > c2);
+	}
+
+	public static int i32GtU(int c1, int c2) {
+		return bool(Integer.compareUnsigned(c1, c2) > 0);
+	}
+
+	public static int i32LeS(int c1, int c2) {
+		return bool(c1 <= c2);
+	}
+
+	public static int i32LeU(int c1, int c2) {
+		return bool(Integer.compareUnsigned(c1, c2) <= 0);
+	}
+
+	public static int i32GeS(int c1, int c2) {
+		return bool(c1 >= c2);
+	}
+
+	public static int i32GeU(int c1, int c2) {
+		return bool(Integer.compareUnsigned(c1, c2) >= 0);
+	}
+
+	// i64 test and compare, the result is an i32.
+
+	public static int i64Eqz(long c1) {
+		return bool(c1 == 0);
+	}
+
+	public static int i64Eq(long c1, long c2) {
+		return bool(c1 == c2);
+	}
+
+	public static int i64Ne(long c1, long c2) {
+		return bool(c1 != c2);
+	}
+
+	public static int i64LtS(long c1, long c2) {
+		return bool(c1 < c2);
+	}
+
+	public static int i64LtU(long c1, long c2) {
+		return bool(Long.compareUnsigned(c1, c2) < 0);
+	}
+
+	public static int i64GtS(long c1, long c2) {
+		return bool(c1 > c2);
+	}
+
+	public static int i64GtU(long c1, long c2) {
+		return bool(Long.compareUnsigned(c1, c2) > 0);
+	}
+
+	public static int i64LeS(long c1, long c2) {
+		return bool(c1 <= c2);
+	}
+
+	public static int i64LeU(long c1, long c2) {
+		return bool(Long.compareUnsigned(c1, c2) <= 0);
+	}
+
+	public static int i64GeS(long c1, long c2) {
+		return bool(c1 >= c2);
+	}
+
+	public static int i64GeU(long c1, long c2) {
+		return bool(Long.compareUnsigned(c1, c2) >= 0);
+	}
+
+	// Float compare.  Java compares as WebAssembly does: a NaN is not equal to anything and
+	// not ordered, and the two zeros are equal.
+
+	public static int f32Eq(float z1, float z2) {
+		return bool(z1 == z2);
+	}
+
+	public static int f32Ne(float z1, float z2) {
+		return bool(z1 != z2);
+	}
+
+	public static int f32Lt(float z1, float z2) {
+		return bool(z1 < z2);
+	}
+
+	public static int f32Gt(float z1, float z2) {
+		return bool(z1 > z2);
+	}
+
+	public static int f32Le(float z1, float z2) {
+		return bool(z1 <= z2);
+	}
+
+	public static int f32Ge(float z1, float z2) {
+		return bool(z1 >= z2);
+	}
+
+	public static int f64Eq(double z1, double z2) {
+		return bool(z1 == z2);
+	}
+
+	public static int f64Ne(double z1, double z2) {
+		return bool(z1 != z2);
+	}
+
+	public static int f64Lt(double z1, double z2) {
+		return bool(z1 < z2);
+	}
+
+	public static int f64Gt(double z1, double z2) {
+		return bool(z1 > z2);
+	}
+
+	public static int f64Le(double z1, double z2) {
+		return bool(z1 <= z2);
+	}
+
+	public static int f64Ge(double z1, double z2) {
+		return bool(z1 >= z2);
+	}
+
+	// i32 arithmetic.
+
+	public static int i32Clz(int c1) {
+		return Integer.numberOfLeadingZeros(c1);
+	}
+
+	public static int i32Ctz(int c1) {
+		return Integer.numberOfTrailingZeros(c1);
+	}
+
+	public static int i32Popcnt(int c1) {
+		return Integer.bitCount(c1);
+	}
+
+	public static int i32Add(int c1, int c2) {
+		return c1 + c2;
+	}
+
+	public static int i32Sub(int c1, int c2) {
+		return c1 - c2;
+	}
+
+	public static int i32Mul(int c1, int c2) {
+		return c1 * c2;
+	}
+
+	public static int i32DivS(int c1, int c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("2c6526b2-6f08-45c4-8343-579fc6cfe515"),
+				"i32.div_s: Divide by zero is not defined");
+		}
+		if (c1 == Integer.MIN_VALUE && c2 == -1) {
+			throw new WasmDivideOverflowException(UUID.fromString("4acf4694-fe77-4678-b37b-15b8391ee5fa"),
+				"i32.div_s: Divide result is not representable");
+		}
+		return c1 / c2;
+	}
+
+	public static int i32DivU(int c1, int c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("900174aa-3a9e-4a3a-b43e-3f5342aa867f"),
+				"i32.div_u: Divide by zero is not defined");
+		}
+		return Integer.divideUnsigned(c1, c2);
+	}
+
+	/**
+	 * The remainder has the sign of the dividend.  <code>MIN_VALUE % -1</code> is 0 in Java, as
+	 * WebAssembly defines it.
+	 */
+	public static int i32RemS(int c1, int c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("5b00bedc-f56e-4026-aa70-8ad526c71faa"),
+				"i32.rem_s: Remainder by zero is not defined");
+		}
+		return c1 % c2;
+	}
+
+	public static int i32RemU(int c1, int c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("fc12cf95-94b4-4780-984e-e02b74e72ffb"),
+				"i32.rem_u: Remainder by zero is not defined");
+		}
+		return Integer.remainderUnsigned(c1, c2);
+	}
+
+	public static int i32And(int c1, int c2) {
+		return c1 & c2;
+	}
+
+	public static int i32Or(int c1, int c2) {
+		return c1 | c2;
+	}
+
+	public static int i32Xor(int c1, int c2) {
+		return c1 ^ c2;
+	}
+
+	public static int i32Shl(int c1, int c2) {
+		return c1 << c2;
+	}
+
+	public static int i32ShrS(int c1, int c2) {
+		return c1 >> c2;
+	}
+
+	public static int i32ShrU(int c1, int c2) {
+		return c1 >>> c2;
+	}
+
+	public static int i32Rotl(int c1, int c2) {
+		return Integer.rotateLeft(c1, c2);
+	}
+
+	public static int i32Rotr(int c1, int c2) {
+		return Integer.rotateRight(c1, c2);
+	}
+
+	// i64 arithmetic.
+
+	public static long i64Clz(long c1) {
+		return Long.numberOfLeadingZeros(c1);
+	}
+
+	public static long i64Ctz(long c1) {
+		return Long.numberOfTrailingZeros(c1);
+	}
+
+	public static long i64Popcnt(long c1) {
+		return Long.bitCount(c1);
+	}
+
+	public static long i64Add(long c1, long c2) {
+		return c1 + c2;
+	}
+
+	public static long i64Sub(long c1, long c2) {
+		return c1 - c2;
+	}
+
+	public static long i64Mul(long c1, long c2) {
+		return c1 * c2;
+	}
+
+	public static long i64DivS(long c1, long c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("f2d3464a-f45d-4dbc-836a-6cd9020e138d"),
+				"i64.div_s: Divide by zero is not defined");
+		}
+		if (c1 == Long.MIN_VALUE && c2 == -1) {
+			throw new WasmDivideOverflowException(UUID.fromString("3160d190-0508-4a79-91aa-f0f290f2f254"),
+				"i64.div_s: Divide result is not representable");
+		}
+		return c1 / c2;
+	}
+
+	public static long i64DivU(long c1, long c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("96b09b8c-3950-47e8-a2b3-9dc7018a3339"),
+				"i64.div_u: Divide by zero is not defined");
+		}
+		return Long.divideUnsigned(c1, c2);
+	}
+
+	public static long i64RemS(long c1, long c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("d4fee389-19bc-4c46-9de6-765490991d78"),
+				"i64.rem_s: Remainder by zero is not defined");
+		}
+		return c1 % c2;
+	}
+
+	public static long i64RemU(long c1, long c2) {
+		if (c2 == 0) {
+			throw new WasmDivideByZeroException(UUID.fromString("668d8f31-6e66-4226-ba20-4d2dacafe3c9"),
+				"i64.rem_u: Remainder by zero is not defined");
+		}
+		return Long.remainderUnsigned(c1, c2);
+	}
+
+	public static long i64And(long c1, long c2) {
+		return c1 & c2;
+	}
+
+	public static long i64Or(long c1, long c2) {
+		return c1 | c2;
+	}
+
+	public static long i64Xor(long c1, long c2) {
+		return c1 ^ c2;
+	}
+
+	public static long i64Shl(long c1, long c2) {
+		return c1 << c2;
+	}
+
+	public static long i64ShrS(long c1, long c2) {
+		return c1 >> c2;
+	}
+
+	public static long i64ShrU(long c1, long c2) {
+		return c1 >>> c2;
+	}
+
+	public static long i64Rotl(long c1, long c2) {
+		return Long.rotateLeft(c1, (int) c2);
+	}
+
+	public static long i64Rotr(long c1, long c2) {
+		return Long.rotateRight(c1, (int) c2);
+	}
+
+	// Traps.
+
+	/**
+	 * The unreachable instruction, it always traps.  Compiled code calls it like the division
+	 * methods above.
+	 */
+	public static void unreachable() {
+		throw new WasmTrapException(UUID.fromString("e496383f-377d-4090-9cff-64bdfc50a32e"),
+			"Unreachable code tried to execute!");
+	}
+
+	/**
+	 * The effective address of a load or store, address plus the offset immediate, both
+	 * unsigned.  Traps when the <code>width</code> bytes are not all in the memory.
+	 */
+	public static int effectiveAddress(MemoryType memory, int address, int offset, int width) {
+		long ea = Integer.toUnsignedLong(address) + Integer.toUnsignedLong(offset);
+		if (memory.size() - width < ea) {
+			throw new WasmRuntimeException(UUID.fromString("1f416db6-305a-4c76-915d-edaa6bc0fdb5"),
+				"Trap: out of bounds memory access.  Effective address = %d width = %d "
+				+ "memory size = %d", ea, width, memory.size());
+		}
+		return (int) ea;
+	}
+
+	// Float arithmetic.  Java float and double arithmetic is IEEE 754 with round to nearest,
+	// as WebAssembly requires.  A float is rounded in double and narrowed: ceil, floor, rint and
+	// sqrt of a float are exact in double, so narrowing gives the correctly rounded float.
+	// Math.min and Math.max return a NaN if either operand is one and order -0 below +0.
+
+	public static float f32Ceil(float z1) {
+		return (float) Math.ceil(z1);
+	}
+
+	public static float f32Floor(float z1) {
+		return (float) Math.floor(z1);
+	}
+
+	public static float f32Trunc(float z1) {
+		// toward zero, a value that rounds to zero keeps its sign: -0.5 gives -0.
+		return (z1 < 0) ? (float) Math.ceil(z1) : (float) Math.floor(z1);
+	}
+
+	public static float f32Nearest(float z1) {
+		return (float) Math.rint(z1);
+	}
+
+	public static float f32Sqrt(float z1) {
+		return (float) Math.sqrt(z1);
+	}
+
+	public static float f32Add(float z1, float z2) {
+		return z1 + z2;
+	}
+
+	public static float f32Sub(float z1, float z2) {
+		return z1 - z2;
+	}
+
+	public static float f32Mul(float z1, float z2) {
+		return z1 * z2;
+	}
+
+	public static float f32Div(float z1, float z2) {
+		return z1 / z2;
+	}
+
+	public static float f32Min(float z1, float z2) {
+		return Math.min(z1, z2);
+	}
+
+	public static float f32Max(float z1, float z2) {
+		return Math.max(z1, z2);
+	}
+
+	public static double f64Ceil(double z1) {
+		return Math.ceil(z1);
+	}
+
+	public static double f64Floor(double z1) {
+		return Math.floor(z1);
+	}
+
+	public static double f64Trunc(double z1) {
+		// toward zero, a value that rounds to zero keeps its sign: -0.5 gives -0.
+		return (z1 < 0) ? Math.ceil(z1) : Math.floor(z1);
+	}
+
+	public static double f64Nearest(double z1) {
+		return Math.rint(z1);
+	}
+
+	public static double f64Sqrt(double z1) {
+		return Math.sqrt(z1);
+	}
+
+	public static double f64Add(double z1, double z2) {
+		return z1 + z2;
+	}
+
+	public static double f64Sub(double z1, double z2) {
+		return z1 - z2;
+	}
+
+	public static double f64Mul(double z1, double z2) {
+		return z1 * z2;
+	}
+
+	public static double f64Div(double z1, double z2) {
+		return z1 / z2;
+	}
+
+	public static double f64Min(double z1, double z2) {
+		return Math.min(z1, z2);
+	}
+
+	public static double f64Max(double z1, double z2) {
+		return Math.max(z1, z2);
+	}
+
+	// Float sign operations on the bits.
+
+	public static int f32Abs(int z1) {
+		return z1 & 0x7FFF_FFFF;
+	}
+
+	public static int f32Neg(int z1) {
+		return z1 ^ 0x8000_0000;
+	}
+
+	public static int f32Copysign(int z1, int z2) {
+		return (z1 & 0x7FFF_FFFF) | (z2 & 0x8000_0000);
+	}
+
+	public static long f64Abs(long z1) {
+		return z1 & 0x7FFF_FFFF_FFFF_FFFFL;
+	}
+
+	public static long f64Neg(long z1) {
+		return z1 ^ 0x8000_0000_0000_0000L;
+	}
+
+	public static long f64Copysign(long z1, long z2) {
+		return (z1 & 0x7FFF_FFFF_FFFF_FFFFL) | (z2 & 0x8000_0000_0000_0000L);
+	}
+
+	// Extension.
+
+	public static int i32Extend8S(int c1) {
+		return (byte) c1;
+	}
+
+	public static int i32Extend16S(int c1) {
+		return (short) c1;
+	}
+
+	public static long i64Extend8S(long c1) {
+		return (byte) c1;
+	}
+
+	public static long i64Extend16S(long c1) {
+		return (short) c1;
+	}
+
+	public static long i64Extend32S(long c1) {
+		return (int) c1;
+	}
+
+	public static long i64ExtendI32S(int c1) {
+		return c1;
+	}
+
+	public static long i64ExtendI32U(int c1) {
+		return Integer.toUnsignedLong(c1);
+	}
+
+	// Conversion.  An f32 operand is widened to double, which is exact, so one method serves f32
+	// and f64.  Java's (int) and (long) casts truncate toward zero, saturate, and give 0 for NaN,
+	// which is trunc_sat for the signed results.  The trapping truncations make one range
+	// comparison, which a NaN fails too, and then do the saturating conversion.
+
+	public static int i32WrapI64(long c1) {
+		return (int) c1;
+	}
+
+	public static int i32TruncS(double z1, String name) {
+		if ((-0x1p31 - 1 < z1 && z1 < 0x1p31) == false) {
+			throw truncTrap(z1, name);
+		}
+		return (int) z1;
+	}
+
+	public static int i32TruncU(double z1, String name) {
+		if ((-1 < z1 && z1 < 0x1p32) == false) {
+			throw truncTrap(z1, name);
+		}
+		return i32TruncSatU(z1);
+	}
+
+	public static long i64TruncS(double z1, String name) {
+		if ((-0x1p63 <= z1 && z1 < 0x1p63) == false) {
+			throw truncTrap(z1, name);
+		}
+		return (long) z1;
+	}
+
+	public static long i64TruncU(double z1, String name) {
+		if ((-1 < z1 && z1 < 0x1p64) == false) {
+			throw truncTrap(z1, name);
+		}
+		return i64TruncSatU(z1);
+	}
+
+	private static WasmTrapException truncTrap(double z1, String name) {
+		if (z1 != z1) {
+			return new WasmTrapException(UUID.fromString("18f97d96-2436-4820-b91e-9ad6a7d08243"),
+				name + ": Invalid conversion to integer, the value is NaN");
+		}
+		return new WasmTrapException(UUID.fromString("d8ea0428-caac-463d-84ed-40805b85a73d"),
+			name + ": Integer overflow, " + z1 + " is out of range");
+	}
+
+	public static int i32TruncSatS(double z1) {
+		return (int) z1;
+	}
+
+	public static int i32TruncSatU(double z1) {
+		return (int) Math.min(Math.max((long) z1, 0), 0xFFFF_FFFFL);
+	}
+
+	public static long i64TruncSatS(double z1) {
+		return (long) z1;
+	}
+
+	/**
+	 * From 2<sup>63</sup> the value is moved down by 2<sup>63</sup> and the top bit set.  A value
+	 * of 2<sup>64</sup> or more saturates to <code>MAX_VALUE</code> on the way, which gives all
+	 * ones.
+	 */
+	public static long i64TruncSatU(double z1) {
+		if (z1 >= 0x1p63) {
+			return (long) (z1 - 0x1p63) | Long.MIN_VALUE;
+		}
+		return Math.max((long) z1, 0);
+	}
+
+	public static float f32ConvertI32S(int c1) {
+		return c1;
+	}
+
+	public static float f32ConvertI32U(int c1) {
+		return Integer.toUnsignedLong(c1);
+	}
+
+	public static float f32ConvertI64S(long c1) {
+		return c1;
+	}
+
+	/**
+	 * An unsigned value with the top bit set is halved before it is converted, and doubled
+	 * after.  The bit shifted out is or-ed back in so the value still rounds the same way.
+	 */
+	public static float f32ConvertI64U(long c1) {
+		if (c1 >= 0) {
+			return c1;
+		}
+		return (float) ((c1 >>> 1) | (c1 & 1)) * 2;
+	}
+
+	public static double f64ConvertI32S(int c1) {
+		return c1;
+	}
+
+	public static double f64ConvertI32U(int c1) {
+		return Integer.toUnsignedLong(c1);
+	}
+
+	public static double f64ConvertI64S(long c1) {
+		return c1;
+	}
+
+	public static double f64ConvertI64U(long c1) {
+		if (c1 >= 0) {
+			return c1;
+		}
+		return (double) ((c1 >>> 1) | (c1 & 1)) * 2;
+	}
+
+	public static float f32DemoteF64(double z1) {
+		return (float) z1;
+	}
+
+	public static double f64PromoteF32(float z1) {
+		return z1;
+	}
+}
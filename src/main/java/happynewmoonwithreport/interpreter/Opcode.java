@@ -0,0 +1,143 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * Opcode numbers used in an {@link InstructionStream}.
+ * <br>
+ * The one byte Wasm opcodes keep their own value, <code>0x00</code> to <code>0xFF</code>.
+ * Opcodes that are written in the wasm file as a prefix byte followed by a second opcode, for
+ * example <code>0xFC 0x00 i32.trunc_sat_f32_s</code>, are folded into one number above
+ * <code>0xFF</code> so the interpreter can dispatch on a single int.
+ * <br>
+ * Above those are the fused opcodes created by {@link Fusion} and the loads and stores without
+ * a bounds check created by {@link BoundsCheckElision}.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/instructions.html" target="_top">
+ * https://webassembly.github.io/spec/core/binary/instructions.html
+ * </a>
+ */
+public final class Opcode {
+
+	/**
+	 * The prefix byte for the miscellaneous opcodes.  trunc_sat, memory.init, memory.copy ...
+	 */
+	public static final int PREFIX_MISC = 0xFC;
+
+	/**
+	 * <code>0xFC xx</code> is stored as <code>MISC_BASE + xx</code>
+	 */
+	public static final int MISC_BASE = 0x100;
+
+	/**
+	 * Fused opcodes, each one replaces a common sequence of instructions.  See {@link Fusion}.
+	 * They do not exist in a wasm file.
+	 */
+	public static final int FUSED_BASE = 0x200;
+
+	/**
+	 * <code>get_local a; get_local b; i32.add</code>
+	 */
+	public static final int LOCAL_LOCAL_I32_ADD = FUSED_BASE + 0x00;
+
+	/**
+	 * <code>get_local a; get_local b; i32.sub</code>
+	 */
+	public static final int LOCAL_LOCAL_I32_SUB = FUSED_BASE + 0x01;
+
+	/**
+	 * <code>get_local a; i32.const k; i32.add</code>
+	 */
+	public static final int LOCAL_I32_CONST_I32_ADD = FUSED_BASE + 0x02;
+
+	/**
+	 * <code>i32.const k; i32.add</code>
+	 */
+	public static final int I32_CONST_I32_ADD = FUSED_BASE + 0x03;
+
+	/**
+	 * <code>get_local a; i32.load offset</code>
+	 */
+	public static final int LOCAL_I32_LOAD = FUSED_BASE + 0x04;
+
+	/**
+	 * <code>get_local a; i32.eqz; br_if l</code>
+	 */
+	public static final int LOCAL_I32_EQZ_BR_IF = FUSED_BASE + 0x05;
+
+	/**
+	 * <code>i32.eqz; br_if l</code>
+	 */
+	public static final int I32_EQZ_BR_IF = FUSED_BASE + 0x06;
+
+	/**
+	 * <code>i32.eq; br_if l</code>
+	 */
+	public static final int I32_EQ_BR_IF = FUSED_BASE + 0x07;
+
+	/**
+	 * <code>i32.ne; br_if l</code>
+	 */
+	public static final int I32_NE_BR_IF = FUSED_BASE + 0x08;
+
+	/**
+	 * <code>i32.lt_s; br_if l</code>
+	 */
+	public static final int I32_LT_S_BR_IF = FUSED_BASE + 0x09;
+
+	/**
+	 * <code>i32.lt_u; br_if l</code>
+	 */
+	public static final int I32_LT_U_BR_IF = FUSED_BASE + 0x0A;
+
+	/**
+	 * <code>i32.gt_s; br_if l</code>
+	 */
+	public static final int I32_GT_S_BR_IF = FUSED_BASE + 0x0B;
+
+	/**
+	 * <code>i32.ge_s; br_if l</code>
+	 */
+	public static final int I32_GE_S_BR_IF = FUSED_BASE + 0x0C;
+
+	/**
+	 * Loads and stores proven to be in bounds, see {@link BoundsCheckElision}.  The load or
+	 * store <code>0x28 + n</code> becomes <code>UNCHECKED_BASE + n</code>, with the same
+	 * immediates.
+	 */
+	public static final int UNCHECKED_BASE = 0x240;
+
+	/**
+	 * The number of opcodes an InstructionStream may contain.  Used to size dispatch tables.
+	 */
+	public static final int COUNT = 0x260;
+
+	/**
+	 * The load or store without a bounds check.
+	 *
+	 * @param opcode a load or store, <code>0x28</code> to <code>0x3E</code>.
+	 * @return the unchecked opcode.
+	 */
+	public static int unchecked(int opcode) {
+		return UNCHECKED_BASE + (opcode - 0x28);
+	}
+
+	private Opcode() {
+		super();
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmInstance;
+
+/**
+ * Runs one instruction of an {@link InstructionStream}.
+ * <br>
+ * A handler keeps no state of its own.  Everything it needs is passed in, so one handler object
+ * per opcode is shared by every instance.  See {@link DispatchTable}.
+ */
+@FunctionalInterface
+public interface OpcodeHandler {
+
+	/**
+	 * Execute the instruction at <code>pc</code>.
+	 *
+	 * @param instance the instance that owns the stack, frame and store.
+	 * @param stream   the instruction stream being executed.
+	 * @param pc       index of the opcode in the stream.
+	 * @return index of the next instruction to execute.
+	 */
+	int execute(WasmInstance instance, InstructionStream stream, int pc);
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * A function body translated to register code, run by {@link RegisterInterpreter}.
+ * <br>
+ * Every value lives in a register, a slot of a <code>long[]</code> register file.  The first
+ * <code>localCount</code> registers are the parameters and the locals.  The registers after
+ * them are the operand stack slots, the slot at stack height <code>h</code> is register
+ * <code>localCount + h</code>.  Instructions name the registers they read and write, so nothing
+ * is pushed or popped at run time and reading a local costs nothing.
+ * <br>
+ * Integer operations, loads and stores keep their Wasm opcode.  The other instructions use
+ * opcodes above <code>0xFF</code>.  Every instruction is the opcode followed by its operands:
+ * <pre>
+ *     unary operation        opcode dst a
+ *     binary operation       opcode dst a b
+ *     load                   opcode dst address offset
+ *     store                  opcode address value offset
+ *     MOV                    MOV dst src
+ *     I32_CONST              I32_CONST dst value
+ *     I64_CONST              I64_CONST dst constantIndex
+ *     SELECT                 SELECT dst a b condition
+ *     BR                     BR target src dst count
+ *     BR_IF                  BR_IF condition target src dst count
+ *     BR_UNLESS              BR_UNLESS condition target
+ *     BR_TABLE               BR_TABLE index labelCount (target src dst count) * (labelCount + 1)
+ *     UNREACHABLE            UNREACHABLE
+ * </pre>
+ * A branch copies <code>count</code> registers from <code>src</code> to <code>dst</code>, the
+ * values carried to the label, then continues at <code>target</code>.  The function ends when
+ * it runs past the last instruction, its results are in the registers after the locals.
+ * <br>
+ * Loads and stores work on memory zero of the instance that runs the code, it is passed to
+ * each call.  Instances cloned from one template share their register code.
+ *
+ * @see RegisterCompiler
+ */
+public final class RegisterCode {
+
+	public static final int MOV = 0x100;
+	public static final int I32_CONST = 0x101;
+	public static final int I64_CONST = 0x102;
+	public static final int SELECT = 0x103;
+	public static final int BR = 0x104;
+	public static final int BR_IF = 0x105;
+	public static final int BR_UNLESS = 0x106;
+	public static final int BR_TABLE = 0x107;
+	public static final int UNREACHABLE = 0x108;
+
+	private final int[] code;
+	private final long[] constantAll;
+	private final int paramCount;
+	private final int localCount;
+	private final int registerCount;
+	private final byte[] resultTypeAll;
+	private final boolean memoryUsed;
+
+	public RegisterCode(int[] code, long[] constantAll, int paramCount, int localCount,
+						int registerCount, byte[] resultTypeAll, boolean memoryUsed) {
+		this.code = code;
+		this.constantAll = constantAll;
+		this.paramCount = paramCount;
+		this.localCount = localCount;
+		this.registerCount = registerCount;
+		this.resultTypeAll = resultTypeAll;
+		this.memoryUsed = memoryUsed;
+	}
+
+	public int[] getCode() {
+		return code;
+	}
+
+	public long[] getConstantAll() {
+		return constantAll;
+	}
+
+	public int getParamCount() {
+		return paramCount;
+	}
+
+	/**
+	 * The number of parameters and locals.
+	 *
+	 * @return number of registers that hold parameters and locals.
+	 */
+	public int getLocalCount() {
+		return localCount;
+	}
+
+	/**
+	 * The size of the register file needed to run the code.
+	 *
+	 * @return number of registers.
+	 */
+	public int getRegisterCount() {
+		return registerCount;
+	}
+
+	/**
+	 * The type tag of each result.  See {@link ValueStack}
+	 *
+	 * @return type tags.
+	 */
+	public byte[] getResultTypeAll() {
+		return resultTypeAll;
+	}
+
+	/**
+	 * Does the code load or store?
+	 *
+	 * @return true when the code needs a memory to run.
+	 */
+	public boolean isMemoryUsed() {
+		return memoryUsed;
+	}
+}
@@ -0,0 +1,555 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import java.util.Arrays;
+
+/**
+ * Translate the stack code of a function into {@link RegisterCode}.
+ * <br>
+ * The translation follows the operand stack at compile time.  Each entry of that stack is the
+ * register that holds the value: a local for <code>get_local</code>, or the stack slot register
+ * of its height for a value that was computed.  So <code>get_local</code> emits nothing, and an
+ * operation reads its operands straight from the locals.  A <code>set_local</code> of a value
+ * that was just computed writes the local directly instead of the stack slot.
+ * <br>
+ * Before an instruction where control flow joins or leaves, every value on the stack is moved to
+ * its own stack slot register, so all paths agree on where the values are.  The same is done for
+ * a stack entry that names a local just before that local is written.
+ * <br>
+ * Only functions that use integers, locals, integer loads and stores and structured control
+ * flow are translated.  Calls, globals, floating point and the other memory instructions stay
+ * with the stack interpreter, {@link #compile} returns null for them.
+ */
+public final class RegisterCompiler {
+
+	private static final int BLOCK = 0;
+	private static final int LOOP = 1;
+	private static final int IF = 2;
+	private static final int FUNCTION = 3;
+
+	/**
+	 * An open block, loop, if or the function itself.
+	 */
+	private static final class Control {
+		private final int kind;
+		private final int entryHeight;
+		private final int resultCount;
+
+		/**
+		 * For a loop, the position of the first instruction of the body.
+		 */
+		private int loopTarget;
+
+		/**
+		 * For an if, the position of the target of its BR_UNLESS until the else is found.
+		 */
+		private int elseFixup = -1;
+
+		/**
+		 * Positions of branch targets to set to the end of this block.
+		 */
+		private int[] fixupAll = new int[4];
+		private int fixupCount;
+
+		private Control(int kind, int entryHeight, int resultCount) {
+			this.kind = kind;
+			this.entryHeight = entryHeight;
+			this.resultCount = resultCount;
+		}
+
+		private int labelArity() {
+			return (kind == LOOP) ? 0 : resultCount;
+		}
+
+		private void addFixup(int position) {
+			if (fixupCount == fixupAll.length) {
+				fixupAll = Arrays.copyOf(fixupAll, fixupCount * 2);
+			}
+			fixupAll[fixupCount++] = position;
+		}
+	}
+
+	private final InstructionStream stream;
+	private final int localCount;
+
+	private int[] out = new int[64];
+	private int outLength;
+
+	private long[] constantAll = new long[4];
+	private int constantLength;
+
+	/**
+	 * The register of each value on the operand stack.
+	 */
+	private int[] stackRegisterAll = new int[16];
+	private int height;
+
+	/**
+	 * One more than the highest stack slot register used.
+	 */
+	private int maxHeight;
+
+	private Control[] controlAll = new Control[16];
+	private int controlSize;
+
+	/**
+	 * While greater than zero the code is unreachable, the number of blocks opened since.
+	 */
+	private int deadDepth;
+	private boolean dead;
+
+	/**
+	 * Position of the dst operand of the last instruction, if it wrote a stack slot and nothing
+	 * was emitted after it.  -1 otherwise.
+	 */
+	private int lastDstPosition = -1;
+
+	private boolean memoryUsed;
+
+	private RegisterCompiler(InstructionStream stream, int localCount) {
+		this.stream = stream;
+		this.localCount = localCount;
+	}
+
+	/**
+	 * Translate a function.
+	 *
+	 * @param stream        the decoded body of the function, before {@link Fusion}.
+	 * @param paramCount    the number of parameters.
+	 * @param slotTypeAll   the type tag of each parameter and local.
+	 * @param resultTypeAll the type tag of each result.
+	 * @return the register code or null if the function uses an instruction that is not
+	 * translated.
+	 */
+	public static RegisterCode compile(InstructionStream stream, int paramCount,
+									   byte[] slotTypeAll, byte[] resultTypeAll) {
+		if (isIntegerOnly(slotTypeAll) == false || isIntegerOnly(resultTypeAll) == false
+			|| isTranslated(stream) == false) {
+			return null;
+		}
+		RegisterCompiler compiler = new RegisterCompiler(stream, slotTypeAll.length);
+		return compiler.compile(paramCount, resultTypeAll);
+	}
+
+	private static boolean isIntegerOnly(byte[] typeAll) {
+		for (byte type : typeAll) {
+			if (type != ValueStack.I32_TYPE && type != ValueStack.I64_TYPE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isTranslated(InstructionStream stream) {
+		final int[] code = stream.getCode();
+		for (int pc = 0; pc < code.length; pc += stream.instructionLength(pc)) {
+			final int opcode = code[pc];
+			switch (opcode) {
+				case 0x02:  // block
+				case 0x03:  // loop
+				case 0x04:  // if
+					// block types that are a type index are not translated.
+					if (0 <= code[pc + 1] || isIntegerBlockType(code[pc + 1]) == false) {
+						return false;
+					}
+					break;
+				default:
+					if (isTranslated(opcode) == false) {
+						return false;
+					}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isIntegerBlockType(int blockType) {
+		return blockType == -0x40 || blockType == -0x01 || blockType == -0x02;
+	}
+
+	private static boolean isTranslated(int opcode) {
+		return opcode <= 0x01  // unreachable, nop
+			|| opcode == 0x05  // else
+			|| (0x0B <= opcode && opcode <= 0x0F)  // end, br, br_if, br_table, return
+			|| opcode == 0x1A || opcode == 0x1B  // drop, select
+			|| (0x20 <= opcode && opcode <= 0x22)  // get_local, set_local, tee_local
+			|| opcode == 0x28 || opcode == 0x29  // i32.load, i64.load
+			|| (0x2C <= opcode && opcode <= 0x37)  // narrow loads, i32.store, i64.store
+			|| (0x3A <= opcode && opcode <= 0x3E)  // narrow stores
+			|| opcode == 0x41 || opcode == 0x42  // i32.const, i64.const
+			|| (0x45 <= opcode && opcode <= 0x5A)  // integer compare
+			|| (0x67 <= opcode && opcode <= 0x8A)  // integer arithmetic
+			|| opcode == 0xA7  // i32.wrap_i64
+			|| opcode == 0xAC || opcode == 0xAD  // i64.extend_i32_s, i64.extend_i32_u
+			|| (0xC0 <= opcode && opcode <= 0xC4);  // sign extension
+	}
+
+	private RegisterCode compile(int paramCount, byte[] resultTypeAll) {
+		pushControl(new Control(FUNCTION, 0, resultTypeAll.length));
+		final int[] code = stream.getCode();
+		for (int pc = 0; pc < code.length; pc += stream.instructionLength(pc)) {
+			if (dead) {
+				skip(code, pc);
+			} else {
+				translate(code, pc);
+			}
+		}
+		// end of the function.
+		Control function = controlAll[0];
+		if (dead == false) {
+			materializeAll();
+		}
+		fixup(function, outLength);
+
+		return new RegisterCode(Arrays.copyOf(out, outLength),
+			Arrays.copyOf(constantAll, constantLength), paramCount, localCount,
+			localCount + Math.max(maxHeight, resultTypeAll.length), resultTypeAll, memoryUsed);
+	}
+
+	/**
+	 * Unreachable code is not translated, only the blocks are followed to find where the code
+	 * can be reached again.
+	 */
+	private void skip(int[] code, int pc) {
+		switch (code[pc]) {
+			case 0x02:  // block
+			case 0x03:  // loop
+			case 0x04:  // if
+				deadDepth++;
+				break;
+			case 0x05:  // else
+				if (deadDepth == 0) {
+					elseBranch();
+				}
+				break;
+			case 0x0B:  // end
+				if (deadDepth == 0) {
+					end();
+				} else {
+					deadDepth--;
+				}
+				break;
+			default:
+		}
+	}
+
+	private void translate(int[] code, int pc) {
+		final int opcode = code[pc];
+		switch (opcode) {
+			case 0x00:  // unreachable
+				emit(RegisterCode.UNREACHABLE);
+				setDead();
+				break;
+			case 0x01:  // nop
+				break;
+			case 0x02:  // block
+			case 0x03: {  // loop
+				materializeAll();
+				Control control = new Control(opcode == 0x02 ? BLOCK : LOOP, height,
+					resultCount(code[pc + 1]));
+				control.loopTarget = outLength;
+				pushControl(control);
+				break;
+			}
+			case 0x04: {  // if
+				int condition = pop();
+				materializeAll();
+				Control control = new Control(IF, height, resultCount(code[pc + 1]));
+				emit(RegisterCode.BR_UNLESS, condition, -1);
+				control.elseFixup = outLength - 1;
+				pushControl(control);
+				break;
+			}
+			case 0x05: {  // else
+				materializeAll();
+				Control control = controlAll[controlSize - 1];
+				emit(RegisterCode.BR, -1, 0, 0, 0);
+				control.addFixup(outLength - 4);
+				elseBranch();
+				break;
+			}
+			case 0x0B:  // end
+				materializeAll();
+				end();
+				break;
+			case 0x0C:  // br
+				materializeAll();
+				branch(code[pc + 1]);
+				setDead();
+				break;
+			case 0x0D: {  // br_if
+				int condition = pop();
+				materializeAll();
+				emit(RegisterCode.BR_IF, condition);
+				branchOperands(code[pc + 1]);
+				break;
+			}
+			case 0x0E: {  // br_table
+				int index = pop();
+				materializeAll();
+				final int count = code[pc + 1];
+				emit(RegisterCode.BR_TABLE, index, count);
+				for (int i = 0; i <= count; i++) {
+					branchOperands(code[pc + 2 + i]);
+				}
+				setDead();
+				break;
+			}
+			case 0x0F:  // return
+				materializeAll();
+				branch(controlSize - 1);
+				setDead();
+				break;
+			case 0x1A:  // drop
+				pop();
+				break;
+			case 0x1B: {  // select
+				int condition = pop();
+				int b = pop();
+				int a = pop();
+				emitResult(RegisterCode.SELECT, a, b, condition);
+				break;
+			}
+			case 0x20:  // get_local
+				push(code[pc + 1]);
+				break;
+			case 0x21:  // set_local
+				setLocal(code[pc + 1], pop());
+				break;
+			case 0x22: {  // tee_local
+				int local = code[pc + 1];
+				int value = pop();
+				setLocal(local, value);
+				push(local);
+				break;
+			}
+			case 0x28:  // i32.load
+			case 0x29:  // i64.load
+			case 0x2C:  // i32.load8_s
+			case 0x2D:  // i32.load8_u
+			case 0x2E:  // i32.load16_s
+			case 0x2F:  // i32.load16_u
+			case 0x30:  // i64.load8_s
+			case 0x31:  // i64.load8_u
+			case 0x32:  // i64.load16_s
+			case 0x33:  // i64.load16_u
+			case 0x34:  // i64.load32_s
+			case 0x35:  // i64.load32_u
+				// the align immediate is only a hint, the offset is kept.
+				emitResult(opcode, pop(), code[pc + 2]);
+				memoryUsed = true;
+				break;
+			case 0x36:  // i32.store
+			case 0x37:  // i64.store
+			case 0x3A:  // i32.store8
+			case 0x3B:  // i32.store16
+			case 0x3C:  // i64.store8
+			case 0x3D:  // i64.store16
+			case 0x3E: {  // i64.store32
+				int value = pop();
+				int address = pop();
+				emit(opcode, address, value, code[pc + 2]);
+				memoryUsed = true;
+				break;
+			}
+			case 0x41:  // i32.const
+				emitResult(RegisterCode.I32_CONST, code[pc + 1]);
+				break;
+			case 0x42:  // i64.const
+				emitResult(RegisterCode.I64_CONST,
+					addConstant(stream.getConstantAll()[code[pc + 1]]));
+				break;
+			default:
+				if (isUnary(opcode)) {
+					emitResult(opcode, pop());
+				} else {
+					int b = pop();
+					int a = pop();
+					emitResult(opcode, a, b);
+				}
+		}
+	}
+
+	private static boolean isUnary(int opcode) {
+		return opcode == 0x45 || opcode == 0x50  // eqz
+			|| (0x67 <= opcode && opcode <= 0x69)  // i32.clz, ctz, popcnt
+			|| (0x79 <= opcode && opcode <= 0x7B)  // i64.clz, ctz, popcnt
+			|| 0xA7 <= opcode;  // wrap, extend
+	}
+
+	private int resultCount(int blockType) {
+		return (blockType == -0x40) ? 0 : 1;
+	}
+
+	/**
+	 * Emit the operands of a branch to a label: target, src, dst and count.
+	 */
+	private void branch(int depth) {
+		emit(RegisterCode.BR);
+		branchOperands(depth);
+	}
+
+	private void branchOperands(int depth) {
+		Control control = controlAll[controlSize - 1 - depth];
+		int count = control.labelArity();
+		if (control.kind == LOOP) {
+			emit(control.loopTarget);
+		} else {
+			emit(-1);
+			control.addFixup(outLength - 1);
+		}
+		emit(slot(height - count), slot(control.entryHeight), count);
+	}
+
+	private void elseBranch() {
+		Control control = controlAll[controlSize - 1];
+		out[control.elseFixup] = outLength;
+		control.elseFixup = -1;
+		resetTo(control.entryHeight);
+	}
+
+	private void end() {
+		Control control = popControl();
+		if (control.elseFixup != -1) {
+			// if without else, false continues after the end.
+			out[control.elseFixup] = outLength;
+		}
+		fixup(control, outLength);
+		resetTo(control.entryHeight + control.resultCount);
+	}
+
+	private void fixup(Control control, int target) {
+		for (int i = 0; i < control.fixupCount; i++) {
+			out[control.fixupAll[i]] = target;
+		}
+	}
+
+	/**
+	 * The code that follows can not be reached until the end or else of the current block.
+	 */
+	private void setDead() {
+		dead = true;
+		deadDepth = 0;
+	}
+
+	/**
+	 * Continue at a join point.  The values on the stack are in their stack slot registers.
+	 */
+	private void resetTo(int newHeight) {
+		dead = false;
+		height = 0;
+		for (int p = 0; p < newHeight; p++) {
+			push(slot(p));
+		}
+		lastDstPosition = -1;
+	}
+
+	private void setLocal(int local, int value) {
+		materializeLocal(local);
+		if (lastDstPosition != -1 && value == slot(height) && out[lastDstPosition] == value) {
+			// the value was just computed, write it to the local directly.
+			out[lastDstPosition] = local;
+			lastDstPosition = -1;
+		} else if (value != local) {
+			emit(RegisterCode.MOV, local, value);
+		}
+	}
+
+	/**
+	 * Move the values on the stack that name <code>local</code> to their stack slot.
+	 */
+	private void materializeLocal(int local) {
+		for (int p = 0; p < height; p++) {
+			if (stackRegisterAll[p] == local) {
+				materialize(p);
+			}
+		}
+	}
+
+	private void materializeAll() {
+		for (int p = 0; p < height; p++) {
+			materialize(p);
+		}
+		lastDstPosition = -1;
+	}
+
+	private void materialize(int p) {
+		if (stackRegisterAll[p] != slot(p)) {
+			emit(RegisterCode.MOV, slot(p), stackRegisterAll[p]);
+			stackRegisterAll[p] = slot(p);
+			maxHeight = Math.max(maxHeight, p + 1);
+		}
+	}
+
+	private int slot(int stackHeight) {
+		return localCount + stackHeight;
+	}
+
+	/**
+	 * Emit an instruction that writes the stack slot on top of the stack.
+	 */
+	private void emitResult(int opcode, int... operandAll) {
+		int dst = slot(height);
+		emit(opcode, dst);
+		emit(operandAll);
+		lastDstPosition = outLength - operandAll.length - 1;
+		push(dst);
+	}
+
+	private void push(int register) {
+		if (height == stackRegisterAll.length) {
+			stackRegisterAll = Arrays.copyOf(stackRegisterAll, height * 2);
+		}
+		stackRegisterAll[height++] = register;
+		if (register == slot(height - 1)) {
+			maxHeight = Math.max(maxHeight, height);
+		}
+	}
+
+	private int pop() {
+		return stackRegisterAll[--height];
+	}
+
+	private void pushControl(Control control) {
+		if (controlSize == controlAll.length) {
+			controlAll = Arrays.copyOf(controlAll, controlSize * 2);
+		}
+		controlAll[controlSize++] = control;
+	}
+
+	private Control popControl() {
+		return controlAll[--controlSize];
+	}
+
+	private void emit(int... valueAll) {
+		for (int value : valueAll) {
+			if (outLength == out.length) {
+				out = Arrays.copyOf(out, outLength * 2);
+			}
+			out[outLength++] = value;
+		}
+		lastDstPosition = -1;
+	}
+
+	private int addConstant(long value) {
+		if (constantLength == constantAll.length) {
+			constantAll = Arrays.copyOf(constantAll, constantLength * 2);
+		}
+		constantAll[constantLength] = value;
+		return constantLength++;
+	}
+}
@@ -0,0 +1,520 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.MemoryType;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Run {@link RegisterCode}.
+ * <br>
+ * One interpreter belongs to one instance and keeps the register file between calls.  Register
+ * code does not call other functions, so a call always runs to the end before the next one
+ * starts and the register file is never shared.
+ * <br>
+ * An i32 is kept in a register sign extended to a long, the same as on the {@link ValueStack}.
+ * The semantics of each operation are the same as the handlers in {@link DispatchTable}.
+ */
+public final class RegisterInterpreter {
+
+	private long[] registerAll = new long[64];
+
+	public RegisterInterpreter() {
+		super();
+	}
+
+	/**
+	 * Call a function.  The arguments are popped from the stack and the results are pushed to
+	 * the stack.
+	 *
+	 * @param registerCode the code of the function.
+	 * @param stack        the operand stack of the caller.
+	 * @param memory       the memory the loads and stores work on.
+	 * @return the number of backward branches taken, the loop iterations.
+	 */
+	public int call(RegisterCode registerCode, ValueStack stack, MemoryType memory) {
+		if (registerAll.length < registerCode.getRegisterCount()) {
+			registerAll = new long[Math.max(registerCode.getRegisterCount(),
+				registerAll.length * 2)];
+		}
+		final long[] r = registerAll;
+		final int paramCount = registerCode.getParamCount();
+		for (int i = paramCount - 1; 0 <= i; i--) {
+			r[i] = stack.popBits();
+		}
+		Arrays.fill(r, paramCount, registerCode.getLocalCount(), 0L);
+
+		final int backEdgeCount =
+			run(registerCode.getCode(), registerCode.getConstantAll(), r, memory);
+
+		final byte[] resultTypeAll = registerCode.getResultTypeAll();
+		final int localCount = registerCode.getLocalCount();
+		for (int i = 0; i < resultTypeAll.length; i++) {
+			stack.push(r[localCount + i], resultTypeAll[i]);
+		}
+		return backEdgeCount;
+	}
+
+	private static int run(int[] code, long[] constantAll, long[] r, MemoryType memory) {
+		int backEdgeCount = 0;
+		int pc = 0;
+		while (pc < code.length) {
+			final int opcode = code[pc];
+			switch (opcode) {
+				case RegisterCode.MOV:
+					r[code[pc + 1]] = r[code[pc + 2]];
+					pc += 3;
+					break;
+				case RegisterCode.I32_CONST:
+					r[code[pc + 1]] = code[pc + 2];
+					pc += 3;
+					break;
+				case RegisterCode.I64_CONST:
+					r[code[pc + 1]] = constantAll[code[pc + 2]];
+					pc += 3;
+					break;
+				case RegisterCode.SELECT:
+					r[code[pc + 1]] = ((int) r[code[pc + 4]] != 0) ? r[code[pc + 2]] : r[code[pc + 3]];
+					pc += 5;
+					break;
+				case RegisterCode.BR: {
+					final int target = branch(code, pc + 1, r);
+					if (target < pc) {
+						backEdgeCount++;
+					}
+					pc = target;
+					break;
+				}
+				case RegisterCode.BR_IF:
+					if ((int) r[code[pc + 1]] != 0) {
+						final int target = branch(code, pc + 2, r);
+						if (target < pc) {
+							backEdgeCount++;
+						}
+						pc = target;
+					} else {
+						pc += 6;
+					}
+					break;
+				case RegisterCode.BR_UNLESS:
+					if ((int) r[code[pc + 1]] == 0) {
+						pc = code[pc + 2];
+					} else {
+						pc += 3;
+					}
+					break;
+				case RegisterCode.BR_TABLE: {
+					final int labelCount = code[pc + 2];
+					int index = (int) r[code[pc + 1]];
+					if (Integer.compareUnsigned(index, labelCount) >= 0) {
+						index = labelCount;
+					}
+					final int target = branch(code, pc + 3 + index * 4, r);
+					if (target < pc) {
+						backEdgeCount++;
+					}
+					pc = target;
+					break;
+				}
+				case RegisterCode.UNREACHABLE:
+					NumericKernel.unreachable();
+					break;
+
+				case 0x28:  // i32.load
+				case 0x34: {  // i64.load32_s
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 4);
+					r[code[pc + 1]] = memory.getInt(ea);
+					pc += 4;
+					break;
+				}
+				case 0x29: {  // i64.load
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 8);
+					r[code[pc + 1]] = memory.getLong(ea);
+					pc += 4;
+					break;
+				}
+				case 0x2C:  // i32.load8_s
+				case 0x30: {  // i64.load8_s
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 1);
+					r[code[pc + 1]] = memory.getByte(ea);
+					pc += 4;
+					break;
+				}
+				case 0x2D:  // i32.load8_u
+				case 0x31: {  // i64.load8_u
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 1);
+					r[code[pc + 1]] = memory.getByte(ea) & 0xFF;
+					pc += 4;
+					break;
+				}
+				case 0x2E:  // i32.load16_s
+				case 0x32: {  // i64.load16_s
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 2);
+					r[code[pc + 1]] = memory.getShort(ea);
+					pc += 4;
+					break;
+				}
+				case 0x2F:  // i32.load16_u
+				case 0x33: {  // i64.load16_u
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 2);
+					r[code[pc + 1]] = memory.getShort(ea) & 0xFFFF;
+					pc += 4;
+					break;
+				}
+				case 0x35: {  // i64.load32_u
+					final int ea = address(memory, r[code[pc + 2]], code[pc + 3], 4);
+					r[code[pc + 1]] = Integer.toUnsignedLong(memory.getInt(ea));
+					pc += 4;
+					break;
+				}
+				case 0x36:  // i32.store
+				case 0x3E: {  // i64.store32
+					final int ea = address(memory, r[code[pc + 1]], code[pc + 3], 4);
+					memory.putInt(ea, (int) r[code[pc + 2]]);
+					pc += 4;
+					break;
+				}
+				case 0x37: {  // i64.store
+					final int ea = address(memory, r[code[pc + 1]], code[pc + 3], 8);
+					memory.putLong(ea, r[code[pc + 2]]);
+					pc += 4;
+					break;
+				}
+				case 0x3A:  // i32.store8
+				case 0x3C: {  // i64.store8
+					final int ea = address(memory, r[code[pc + 1]], code[pc + 3], 1);
+					memory.putByte(ea, (byte) r[code[pc + 2]]);
+					pc += 4;
+					break;
+				}
+				case 0x3B:  // i32.store16
+				case 0x3D: {  // i64.store16
+					final int ea = address(memory, r[code[pc + 1]], code[pc + 3], 2);
+					memory.putShort(ea, (short) r[code[pc + 2]]);
+					pc += 4;
+					break;
+				}
+
+				case 0x45:  // i32.eqz
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] == 0) ? 1 : 0;
+					pc += 3;
+					break;
+				case 0x46:  // i32.eq
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] == (int) r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x47:  // i32.ne
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] != (int) r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x48:  // i32.lt_s
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] < (int) r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x49:  // i32.lt_u
+					r[code[pc + 1]] = (Integer.compareUnsigned((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]) < 0) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x4A:  // i32.gt_s
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] > (int) r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x4B:  // i32.gt_u
+					r[code[pc + 1]] = (Integer.compareUnsigned((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]) > 0) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x4C:  // i32.le_s
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] <= (int) r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x4D:  // i32.le_u
+					r[code[pc + 1]] = (Integer.compareUnsigned((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]) <= 0) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x4E:  // i32.ge_s
+					r[code[pc + 1]] = ((int) r[code[pc + 2]] >= (int) r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x4F:  // i32.ge_u
+					r[code[pc + 1]] = (Integer.compareUnsigned((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]) >= 0) ? 1 : 0;
+					pc += 4;
+					break;
+
+				case 0x50:  // i64.eqz
+					r[code[pc + 1]] = (r[code[pc + 2]] == 0) ? 1 : 0;
+					pc += 3;
+					break;
+				case 0x51:  // i64.eq
+					r[code[pc + 1]] = (r[code[pc + 2]] == r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x52:  // i64.ne
+					r[code[pc + 1]] = (r[code[pc + 2]] != r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x53:  // i64.lt_s
+					r[code[pc + 1]] = (r[code[pc + 2]] < r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x54:  // i64.lt_u
+					r[code[pc + 1]] = (Long.compareUnsigned(r[code[pc + 2]], r[code[pc + 3]]) < 0)
+						? 1 : 0;
+					pc += 4;
+					break;
+				case 0x55:  // i64.gt_s
+					r[code[pc + 1]] = (r[code[pc + 2]] > r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x56:  // i64.gt_u
+					r[code[pc + 1]] = (Long.compareUnsigned(r[code[pc + 2]], r[code[pc + 3]]) > 0)
+						? 1 : 0;
+					pc += 4;
+					break;
+				case 0x57:  // i64.le_s
+					r[code[pc + 1]] = (r[code[pc + 2]] <= r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x58:  // i64.le_u
+					r[code[pc + 1]] = (Long.compareUnsigned(r[code[pc + 2]], r[code[pc + 3]]) <= 0)
+						? 1 : 0;
+					pc += 4;
+					break;
+				case 0x59:  // i64.ge_s
+					r[code[pc + 1]] = (r[code[pc + 2]] >= r[code[pc + 3]]) ? 1 : 0;
+					pc += 4;
+					break;
+				case 0x5A:  // i64.ge_u
+					r[code[pc + 1]] = (Long.compareUnsigned(r[code[pc + 2]], r[code[pc + 3]]) >= 0)
+						? 1 : 0;
+					pc += 4;
+					break;
+
+				case 0x67:  // i32.clz
+					r[code[pc + 1]] = Integer.numberOfLeadingZeros((int) r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0x68:  // i32.ctz
+					r[code[pc + 1]] = Integer.numberOfTrailingZeros((int) r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0x69:  // i32.popcnt
+					r[code[pc + 1]] = Integer.bitCount((int) r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0x6A:  // i32.add
+					r[code[pc + 1]] = (int) r[code[pc + 2]] + (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x6B:  // i32.sub
+					r[code[pc + 1]] = (int) r[code[pc + 2]] - (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x6C:  // i32.mul
+					r[code[pc + 1]] = (int) r[code[pc + 2]] * (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x6D:  // i32.div_s
+					r[code[pc + 1]] = NumericKernel.i32DivS((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x6E:  // i32.div_u
+					r[code[pc + 1]] = NumericKernel.i32DivU((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x6F:  // i32.rem_s
+					r[code[pc + 1]] = NumericKernel.i32RemS((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x70:  // i32.rem_u
+					r[code[pc + 1]] = NumericKernel.i32RemU((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x71:  // i32.and
+					r[code[pc + 1]] = (int) r[code[pc + 2]] & (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x72:  // i32.or
+					r[code[pc + 1]] = (int) r[code[pc + 2]] | (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x73:  // i32.xor
+					r[code[pc + 1]] = (int) r[code[pc + 2]] ^ (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x74:  // i32.shl
+					r[code[pc + 1]] = (int) r[code[pc + 2]] << (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x75:  // i32.shr_s
+					r[code[pc + 1]] = (int) r[code[pc + 2]] >> (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x76:  // i32.shr_u
+					r[code[pc + 1]] = (int) r[code[pc + 2]] >>> (int) r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x77:  // i32.rotl
+					r[code[pc + 1]] = Integer.rotateLeft((int) r[code[pc + 2]], (int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x78:  // i32.rotr
+					r[code[pc + 1]] = Integer.rotateRight((int) r[code[pc + 2]],
+						(int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+
+				case 0x79:  // i64.clz
+					r[code[pc + 1]] = Long.numberOfLeadingZeros(r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0x7A:  // i64.ctz
+					r[code[pc + 1]] = Long.numberOfTrailingZeros(r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0x7B:  // i64.popcnt
+					r[code[pc + 1]] = Long.bitCount(r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0x7C:  // i64.add
+					r[code[pc + 1]] = r[code[pc + 2]] + r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x7D:  // i64.sub
+					r[code[pc + 1]] = r[code[pc + 2]] - r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x7E:  // i64.mul
+					r[code[pc + 1]] = r[code[pc + 2]] * r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x7F:  // i64.div_s
+					r[code[pc + 1]] = NumericKernel.i64DivS(r[code[pc + 2]], r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x80:  // i64.div_u
+					r[code[pc + 1]] = NumericKernel.i64DivU(r[code[pc + 2]], r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x81:  // i64.rem_s
+					r[code[pc + 1]] = NumericKernel.i64RemS(r[code[pc + 2]], r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x82:  // i64.rem_u
+					r[code[pc + 1]] = NumericKernel.i64RemU(r[code[pc + 2]], r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x83:  // i64.and
+					r[code[pc + 1]] = r[code[pc + 2]] & r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x84:  // i64.or
+					r[code[pc + 1]] = r[code[pc + 2]] | r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x85:  // i64.xor
+					r[code[pc + 1]] = r[code[pc + 2]] ^ r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x86:  // i64.shl
+					r[code[pc + 1]] = r[code[pc + 2]] << r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x87:  // i64.shr_s
+					r[code[pc + 1]] = r[code[pc + 2]] >> r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x88:  // i64.shr_u
+					r[code[pc + 1]] = r[code[pc + 2]] >>> r[code[pc + 3]];
+					pc += 4;
+					break;
+				case 0x89:  // i64.rotl
+					r[code[pc + 1]] = Long.rotateLeft(r[code[pc + 2]], (int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+				case 0x8A:  // i64.rotr
+					r[code[pc + 1]] = Long.rotateRight(r[code[pc + 2]], (int) r[code[pc + 3]]);
+					pc += 4;
+					break;
+
+				case 0xAC:  // i64.extend_i32_s
+					r[code[pc + 1]] = (int) r[code[pc + 2]];
+					pc += 3;
+					break;
+				case 0xAD:  // i64.extend_i32_u
+					r[code[pc + 1]] = Integer.toUnsignedLong((int) r[code[pc + 2]]);
+					pc += 3;
+					break;
+				case 0xC0:  // i32.extend8_s
+				case 0xC2:  // i64.extend8_s
+					r[code[pc + 1]] = (byte) r[code[pc + 2]];
+					pc += 3;
+					break;
+				case 0xC1:  // i32.extend16_s
+				case 0xC3:  // i64.extend16_s
+					r[code[pc + 1]] = (short) r[code[pc + 2]];
+					pc += 3;
+					break;
+				case 0xA7:  // i32.wrap_i64
+				case 0xC4:  // i64.extend32_s
+					r[code[pc + 1]] = (int) r[code[pc + 2]];
+					pc += 3;
+					break;
+				default:
+					throw new WasmRuntimeException(UUID.fromString("f111d7b9-0c2d-4ac6-903a-3f5d98e32cb4"),
+						"Register code opcode " + opcode + " is not known");
+			}
+		}
+		return backEdgeCount;
+	}
+
+	/**
+	 * The effective address of a load or store.  Traps when it is out of bounds.
+	 *
+	 * @param address the address register, an i32.
+	 * @param offset  the offset operand.
+	 * @param width   the number of bytes accessed.
+	 */
+	private static int address(MemoryType memory, long address, int offset, int width) {
+		return NumericKernel.effectiveAddress(memory, (int) address, offset, width);
+	}
+
+	/**
+	 * Copy the values carried to the label and return the target.
+	 *
+	 * @param code     the register code.
+	 * @param operands position of the target, src, dst and count operands of the branch.
+	 * @param r        the register file.
+	 * @return the target.
+	 */
+	private static int branch(int[] code, int operands, long[] r) {
+		final int count = code[operands + 3];
+		if (count != 0) {
+			System.arraycopy(r, code[operands + 1], r, code[operands + 2], count);
+		}
+		return code[operands];
+	}
+}
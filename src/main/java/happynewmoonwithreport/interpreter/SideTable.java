@@ -0,0 +1,424 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Where every branch goes, computed once per function before it runs.
+ * <br>
+ * A pass over the instruction stream matches each <code>block</code>, <code>loop</code>,
+ * <code>if</code> and <code>else</code> with its <code>end</code>, and tracks the height of the
+ * operand stack the same way validation does.  For each branch it records:
+ * <ul>
+ * <li>target, the position in the stream to continue at,</li>
+ * <li>arity, the number of values the branch carries,</li>
+ * <li>height, the height of the operand stack at the label, relative to the bottom of the
+ * current frame.</li>
+ * </ul>
+ * At run time a branch keeps the top <code>arity</code> values, truncates the operand stack to
+ * <code>height</code> and jumps to <code>target</code>.  <code>block</code>, <code>loop</code>
+ * and <code>end</code> do nothing at run time.
+ * <br>
+ * Entries are indexed by a position in the stream, the key:
+ * <pre>
+ *     br, br_if        position of the label index
+ *     br_table         position of each label index and of the default label
+ *     if               position of the block type, the target is the else branch or the end
+ *     else, return     position of the opcode
+ * </pre>
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/appendix/algorithm.html" target="_top">
+ * https://webassembly.github.io/spec/core/appendix/algorithm.html
+ * </a>
+ */
+public final class SideTable {
+
+	private static final int BLOCK = 0;
+	private static final int LOOP = 1;
+	private static final int IF = 2;
+	private static final int FUNCTION = 3;
+
+	/**
+	 * Operand stack effect of instructions that do not depend on a type, indexed by opcode.
+	 */
+	private static final byte[] popCountAll = new byte[Opcode.COUNT];
+	private static final byte[] pushCountAll = new byte[Opcode.COUNT];
+
+	static {
+		effect(0x1A, 0x1A, 1, 0);   // drop
+		effect(0x1B, 0x1B, 3, 1);   // select
+		effect(0x20, 0x20, 0, 1);   // get_local
+		effect(0x21, 0x21, 1, 0);   // set_local
+		effect(0x22, 0x22, 1, 1);   // tee_local
+		effect(0x23, 0x23, 0, 1);   // get_global
+		effect(0x24, 0x24, 1, 0);   // set_global
+		effect(0x28, 0x35, 1, 1);   // load
+		effect(0x36, 0x3E, 2, 0);   // store
+		effect(0x3F, 0x3F, 0, 1);   // memory.size
+		effect(0x40, 0x40, 1, 1);   // memory.grow
+		effect(0x41, 0x44, 0, 1);   // const
+		effect(0x45, 0x45, 1, 1);   // i32.eqz
+		effect(0x46, 0x4F, 2, 1);   // i32 compare
+		effect(0x50, 0x50, 1, 1);   // i64.eqz
+		effect(0x51, 0x66, 2, 1);   // i64, f32, f64 compare
+		effect(0x67, 0x69, 1, 1);   // i32 unary
+		effect(0x6A, 0x78, 2, 1);   // i32 binary
+		effect(0x79, 0x7B, 1, 1);   // i64 unary
+		effect(0x7C, 0x8A, 2, 1);   // i64 binary
+		effect(0x8B, 0x91, 1, 1);   // f32 unary
+		effect(0x92, 0x98, 2, 1);   // f32 binary
+		effect(0x99, 0x9F, 1, 1);   // f64 unary
+		effect(0xA0, 0xA6, 2, 1);   // f64 binary
+		effect(0xA7, 0xC4, 1, 1);   // conversions and sign extension
+		effect(Opcode.MISC_BASE, Opcode.MISC_BASE + 0x07, 1, 1);   // trunc_sat
+		effect(Opcode.MISC_BASE + 0x08, Opcode.MISC_BASE + 0x08, 3, 0);   // memory.init
+		effect(Opcode.MISC_BASE + 0x0A, Opcode.MISC_BASE + 0x0B, 3, 0);   // memory.copy, fill
+	}
+
+	private final int[] targetAll;
+	private final int[] arityAll;
+	private final int[] heightAll;
+
+	private SideTable(int length) {
+		targetAll = new int[length];
+		arityAll = new int[length];
+		heightAll = new int[length];
+	}
+
+	private static void effect(int first, int last, int popCount, int pushCount) {
+		for (int opcode = first; opcode <= last; opcode++) {
+			popCountAll[opcode] = (byte) popCount;
+			pushCountAll[opcode] = (byte) pushCount;
+		}
+	}
+
+	/**
+	 * The number of operands an instruction pops, for instructions whose effect does not
+	 * depend on a type.
+	 */
+	static int popCount(int opcode) {
+		return popCountAll[opcode];
+	}
+
+	/**
+	 * The number of values an instruction pushes.  See {@link #popCount(int)}
+	 */
+	static int pushCount(int opcode) {
+		return pushCountAll[opcode];
+	}
+
+	/**
+	 * The position in the stream to continue at.
+	 *
+	 * @param key see the class description.
+	 * @return position in the stream.
+	 */
+	public int target(int key) {
+		return targetAll[key];
+	}
+
+	/**
+	 * The number of values carried by the branch.
+	 *
+	 * @param key see the class description.
+	 * @return arity of the label.
+	 */
+	public int arity(int key) {
+		return arityAll[key];
+	}
+
+	/**
+	 * The height of the operand stack at the label relative to the bottom of the frame.
+	 *
+	 * @param key see the class description.
+	 * @return height of the operand stack.
+	 */
+	public int height(int key) {
+		return heightAll[key];
+	}
+
+	/**
+	 * Build the side table of a function.
+	 *
+	 * @param stream      the decoded body of the function.
+	 * @param resultCount the number of results of the function.
+	 * @param module      the module, used for the types of called functions and of blocks that
+	 *                    use a type index.  May be null if the function has neither.
+	 * @return the side table.
+	 */
+	public static SideTable build(InstructionStream stream, int resultCount, WasmModule module) {
+		return new Builder(stream, resultCount, module).build();
+	}
+
+	/**
+	 * An open block, loop, if or the function itself.
+	 */
+	private static final class Control {
+		private final int kind;
+		private final int entryHeight;
+		private final int paramCount;
+		private final int resultCount;
+
+		/**
+		 * For a loop, the position of the first instruction of the body.
+		 */
+		private int loopTarget;
+
+		/**
+		 * For an if, the key of the if until its else is found.
+		 */
+		private int ifKey = -1;
+
+		/**
+		 * Keys of branches to the end of this block.
+		 */
+		private int[] pendingKeyAll = new int[4];
+		private int pendingCount;
+
+		private Control(int kind, int entryHeight, int paramCount, int resultCount) {
+			this.kind = kind;
+			this.entryHeight = entryHeight;
+			this.paramCount = paramCount;
+			this.resultCount = resultCount;
+		}
+
+		private int labelArity() {
+			return (kind == LOOP) ? paramCount : resultCount;
+		}
+
+		private void addPending(int key) {
+			if (pendingCount == pendingKeyAll.length) {
+				pendingKeyAll = Arrays.copyOf(pendingKeyAll, pendingCount * 2);
+			}
+			pendingKeyAll[pendingCount++] = key;
+		}
+	}
+
+	private static final class Builder {
+		private final InstructionStream stream;
+		private final WasmModule module;
+		private final SideTable sideTable;
+
+		private Control[] controlAll = new Control[16];
+		private int controlSize;
+
+		/**
+		 * Height of the operand stack relative to the bottom of the frame.
+		 */
+		private int height;
+
+		private Builder(InstructionStream stream, int resultCount, WasmModule module) {
+			this.stream = stream;
+			this.module = module;
+			sideTable = new SideTable(stream.length());
+			pushControl(new Control(FUNCTION, 0, 0, resultCount));
+		}
+
+		private SideTable build() {
+			final int[] code = stream.getCode();
+			int pc = 0;
+			while (pc < code.length) {
+				step(code, pc);
+				pc += stream.instructionLength(pc);
+			}
+			// the body does not include the final end, the function label is after the last
+			// instruction.
+			if (controlSize != 1) {
+				throw new WasmRuntimeException(UUID.fromString("ed251439-6638-4b47-89f0-b45ea238ab76"),
+					"Function body has " + (controlSize - 1) + " block(s) without an end");
+			}
+			resolvePending(controlAll[0], code.length);
+			return sideTable;
+		}
+
+		private void step(int[] code, int pc) {
+			final int opcode = code[pc];
+			switch (opcode) {
+				case 0x00:  // unreachable
+					setUnreachable();
+					break;
+				case 0x02:  // block
+				case 0x03:  // loop
+					enter(opcode == 0x02 ? BLOCK : LOOP, code[pc + 1], pc);
+					break;
+				case 0x04: {  // if
+					pop(1);
+					Control control = enter(IF, code[pc + 1], pc);
+					control.ifKey = pc + 1;
+					break;
+				}
+				case 0x05: {  // else
+					Control control = top();
+					// the then branch continues after the end.
+					setEntry(pc, 0, control.resultCount, control.entryHeight);
+					control.addPending(pc);
+					// the else branch starts after the else.
+					setEntry(control.ifKey, pc + 1, 0, control.entryHeight);
+					control.ifKey = -1;
+					height = control.entryHeight + control.paramCount;
+					break;
+				}
+				case 0x0B: {  // end
+					Control control = popControl();
+					if (control.ifKey != -1) {
+						// if without else, false continues after the end.
+						setEntry(control.ifKey, pc + 1, 0, control.entryHeight);
+					}
+					resolvePending(control, pc + 1);
+					height = control.entryHeight + control.resultCount;
+					break;
+				}
+				case 0x0C:  // br
+					branch(pc + 1, code[pc + 1]);
+					setUnreachable();
+					break;
+				case 0x0D:  // br_if
+					pop(1);
+					branch(pc + 1, code[pc + 1]);
+					break;
+				case 0x0E: {  // br_table
+					pop(1);
+					final int count = code[pc + 1];
+					for (int i = 0; i <= count; i++) {
+						branch(pc + 2 + i, code[pc + 2 + i]);
+					}
+					setUnreachable();
+					break;
+				}
+				case 0x0F:  // return
+					branch(pc, controlSize - 1);
+					setUnreachable();
+					break;
+				case 0x10: {  // call
+					FunctionType type = functionType(code[pc + 1]);
+					pop(type.getParamCount().integerValue());
+					height += type.getReturnCount().integerValue();
+					break;
+				}
+				case 0x11: {  // call_indirect
+					FunctionType type = type(code[pc + 1]);
+					pop(type.getParamCount().integerValue() + 1);
+					height += type.getReturnCount().integerValue();
+					break;
+				}
+				default:
+					pop(popCountAll[opcode]);
+					height += pushCountAll[opcode];
+			}
+		}
+
+		private Control enter(int kind, int blockType, int pc) {
+			int paramCount = 0;
+			int resultCount = 0;
+			if (blockType >= 0) {
+				FunctionType type = type(blockType);
+				paramCount = type.getParamCount().integerValue();
+				resultCount = type.getReturnCount().integerValue();
+			} else if (blockType != -0x40) {
+				resultCount = 1;
+			}
+			pop(paramCount);
+			Control control = new Control(kind, height, paramCount, resultCount);
+			if (kind == LOOP) {
+				control.loopTarget = pc + 2;
+			}
+			height += paramCount;
+			pushControl(control);
+			return control;
+		}
+
+		private void branch(int key, int depth) {
+			if ((0 <= depth && depth < controlSize) == false) {
+				throw new WasmRuntimeException(UUID.fromString("c4a79536-a96e-484b-b885-563caab3245b"),
+					"Branch to label " + depth + " but only " + controlSize + " label(s) exist");
+			}
+			Control control = controlAll[controlSize - 1 - depth];
+			setEntry(key, control.loopTarget, control.labelArity(), control.entryHeight);
+			if (control.kind != LOOP) {
+				control.addPending(key);
+			}
+		}
+
+		private void resolvePending(Control control, int target) {
+			for (int i = 0; i < control.pendingCount; i++) {
+				sideTable.targetAll[control.pendingKeyAll[i]] = target;
+			}
+		}
+
+		private void setEntry(int key, int target, int arity, int entryHeight) {
+			sideTable.targetAll[key] = target;
+			sideTable.arityAll[key] = arity;
+			sideTable.heightAll[key] = entryHeight;
+		}
+
+		/**
+		 * The rest of the block can not be reached, the stack is polymorphic until the end.
+		 */
+		private void setUnreachable() {
+			height = top().entryHeight;
+		}
+
+		private void pop(int count) {
+			// in unreachable code the stack may be popped below the block.
+			height = Math.max(height - count, top().entryHeight);
+		}
+
+		private Control top() {
+			return controlAll[controlSize - 1];
+		}
+
+		private void pushControl(Control control) {
+			if (controlSize == controlAll.length) {
+				controlAll = Arrays.copyOf(controlAll, controlSize * 2);
+			}
+			controlAll[controlSize++] = control;
+		}
+
+		private Control popControl() {
+			if (controlSize == 1) {
+				throw new WasmRuntimeException(UUID.fromString("0d9ac9f4-1913-42be-b394-f43720139672"),
+					"Function body has an end without a block");
+			}
+			return controlAll[--controlSize];
+		}
+
+		private FunctionType functionType(int functionIndex) {
+			checkModule();
+			WasmFunction function = module.getFunctionAll().get(functionIndex);
+			return type(function.getTypeIndex().integerValue());
+		}
+
+		private FunctionType type(int typeIndex) {
+			checkModule();
+			return module.getTypes().get(typeIndex);
+		}
+
+		private void checkModule() {
+			if (module == null) {
+				throw new WasmRuntimeException(UUID.fromString("6d8371bc-6a90-4a66-bff4-dbc08f70a06d"),
+					"The module is needed to find the type of a call or a block");
+			}
+		}
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.F32;
+import happynewmoonwithreport.type.F64;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The operand stack used by the interpreter.
+ * <br>
+ * Values are stored as raw bits in a <code>long[]</code>, with a one byte type tag per slot.
+ * i32 values are stored sign extended, f32 and f64 values are stored as their IEEE 754 bits so
+ * NaN payloads are kept.  Nothing is boxed and nothing is synchronized.
+ * <br>
+ * There are no labels on the stack.  Where each branch goes, how many values it carries and
+ * the height to truncate the stack to are found before the function runs, see
+ * {@link SideTable}.
+ * <br>
+ * {@link happynewmoonwithreport.WasmStack} is still used by the opcode classes and by code
+ * that wants boxed values.  {@link #push(Object)} and {@link #pop()} convert at that boundary.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#stack" target="_top">
+ * https://webassembly.github.io/spec/core/exec/runtime.html#stack
+ * </a>
+ */
+public final class ValueStack {
+
+	public static final byte I32_TYPE = 1;
+	public static final byte I64_TYPE = 2;
+	public static final byte F32_TYPE = 3;
+	public static final byte F64_TYPE = 4;
+
+	private static final int initialCapacity = 1024;
+
+	private long[] valueAll;
+	private byte[] typeAll;
+	private int size;
+
+	public ValueStack() {
+		valueAll = new long[initialCapacity];
+		typeAll = new byte[initialCapacity];
+	}
+
+	public void pushI32(int value) {
+		push(value, I32_TYPE);
+	}
+
+	public int popI32() {
+		return (int) valueAll[--size];
+	}
+
+	public int peekI32() {
+		return (int) valueAll[size - 1];
+	}
+
+	public void pushI64(long value) {
+		push(value, I64_TYPE);
+	}
+
+	public long popI64() {
+		return valueAll[--size];
+	}
+
+	public void pushF32(float value) {
+		pushF32Bits(Float.floatToRawIntBits(value));
+	}
+
+	public float popF32() {
+		return Float.intBitsToFloat(popF32Bits());
+	}
+
+	public void pushF32Bits(int bits) {
+		push(bits, F32_TYPE);
+	}
+
+	public int popF32Bits() {
+		return (int) valueAll[--size];
+	}
+
+	public void pushF64(double value) {
+		pushF64Bits(Double.doubleToRawLongBits(value));
+	}
+
+	public double popF64() {
+		return Double.longBitsToDouble(popF64Bits());
+	}
+
+	public void pushF64Bits(long bits) {
+		push(bits, F64_TYPE);
+	}
+
+	public long popF64Bits() {
+		return valueAll[--size];
+	}
+
+	/**
+	 * Push raw bits with a type tag.
+	 *
+	 * @param bits the value.
+	 * @param type one of I32_TYPE, I64_TYPE, F32_TYPE, F64_TYPE
+	 */
+	public void push(long bits, byte type) {
+		if (size == valueAll.length) {
+			grow();
+		}
+		valueAll[size] = bits;
+		typeAll[size] = type;
+		size++;
+	}
+
+	/**
+	 * Pop the raw bits of the value on the top of the stack, whatever its type.
+	 *
+	 * @return raw bits.
+	 */
+	public long popBits() {
+		return valueAll[--size];
+	}
+
+	/**
+	 * The raw bits of the value on the top of the stack.
+	 *
+	 * @return raw bits.
+	 */
+	public long peekBits() {
+		return valueAll[size - 1];
+	}
+
+	/**
+	 * The type tag of the value on the top of the stack.
+	 *
+	 * @return type tag.
+	 */
+	public byte peekType() {
+		return typeAll[size - 1];
+	}
+
+	/**
+	 * Change the type tag of the value on the top of the stack and keep its bits.  This is
+	 * reinterpret: i32 and f32 are both stored sign extended, so the bits need no change.
+	 *
+	 * @param type one of I32_TYPE, I64_TYPE, F32_TYPE, F64_TYPE
+	 */
+	public void retype(byte type) {
+		typeAll[size - 1] = type;
+	}
+
+	/**
+	 * Remove the value on the top of the stack.
+	 */
+	public void drop() {
+		size--;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove values until the stack has <code>newSize</code> values.
+	 *
+	 * @param newSize the number of values to keep.
+	 */
+	public void truncate(int newSize) {
+		size = newSize;
+	}
+
+	/**
+	 * Remove all values.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Branch: keep the top <code>arity</code> values and remove the values below them down to
+	 * <code>height</code>.
+	 *
+	 * @param height the height of the stack at the label.
+	 * @param arity  the number of values carried by the branch.
+	 */
+	public void unwind(int height, int arity) {
+		final int from = size - arity;
+		if (from != height) {
+			System.arraycopy(valueAll, from, valueAll, height, arity);
+			System.arraycopy(typeAll, from, typeAll, height, arity);
+		}
+		size = height + arity;
+	}
+
+	/**
+	 * Push a boxed value.
+	 *
+	 * @param value an I32, I64, F32 or F64 (or a subclass).
+	 */
+	public void push(Object value) {
+		push(toBits(value), typeOf(value));
+	}
+
+	/**
+	 * Pop the value on the top of the stack as a boxed value.
+	 *
+	 * @return an I32, I64, F32 or F64.
+	 */
+	public Object pop() {
+		byte type = peekType();
+		return toBoxed(valueAll[--size], type);
+	}
+
+	/**
+	 * The type tag of a boxed value.
+	 *
+	 * @param value an I32, I64, F32 or F64 (or a subclass).
+	 * @return one of I32_TYPE, I64_TYPE, F32_TYPE, F64_TYPE
+	 */
+	public static byte typeOf(Object value) {
+		byte result;
+		if (value instanceof I32) {
+			result = I32_TYPE;
+		} else if (value instanceof I64) {
+			result = I64_TYPE;
+		} else if (value instanceof F32) {
+			result = F32_TYPE;
+		} else if (value instanceof F64) {
+			result = F64_TYPE;
+		} else {
+			throw new WasmRuntimeException(UUID.fromString("04b866aa-77bf-4ca6-a7bb-66f639b62b9b"),
+				"ValueStack: Value type is incorrect. Value must be I32, I64, F32 or F64 but was "
+				+ value);
+		}
+		return result;
+	}
+
+	/**
+	 * The raw bits of a boxed value, in the form they are kept on the stack.
+	 *
+	 * @param value an I32, I64, F32 or F64 (or a subclass).
+	 * @return raw bits.
+	 */
+	public static long toBits(Object value) {
+		long result;
+		switch (typeOf(value)) {
+			case I32_TYPE:
+				result = ((I32) value).integerValue();
+				break;
+			case I64_TYPE:
+				result = ((I64) value).longValue();
+				break;
+			case F32_TYPE:
+				result = ((F32) value).getBits();
+				break;
+			default:
+				result = ((F64) value).getBits();
+				break;
+		}
+		return result;
+	}
+
+	/**
+	 * Box raw bits.
+	 *
+	 * @param bits raw bits.
+	 * @param type one of I32_TYPE, I64_TYPE, F32_TYPE, F64_TYPE
+	 * @return an I32, I64, F32 or F64.
+	 */
+	public static Object toBoxed(long bits, byte type) {
+		Object result;
+		switch (type) {
+			case I32_TYPE:
+				result = new I32((int) bits);
+				break;
+			case I64_TYPE:
+				result = new I64(bits);
+				break;
+			case F32_TYPE:
+				result = F32.fromBits((int) bits);
+				break;
+			case F64_TYPE:
+				result = F64.fromBits(bits);
+				break;
+			default:
+				throw new WasmRuntimeException(UUID.fromString("41d1f1eb-dd0c-48bc-b491-45674f12bb6c"),
+					"ValueStack: Unknown type tag " + type);
+		}
+		return result;
+	}
+
+	/**
+	 * The type tag of a value type.
+	 *
+	 * @param valueType int32, int64, f32 or f64.
+	 * @return one of I32_TYPE, I64_TYPE, F32_TYPE, F64_TYPE
+	 */
+	public static byte typeOf(ValueType valueType) {
+		byte result;
+		switch (valueType.getType()) {
+			case -0x01:
+				result = I32_TYPE;
+				break;
+			case -0x02:
+				result = I64_TYPE;
+				break;
+			case -0x03:
+				result = F32_TYPE;
+				break;
+			case -0x04:
+				result = F64_TYPE;
+				break;
+			default:
+				throw new WasmRuntimeException(UUID.fromString("c916051d-2561-4a0a-b8af-defbb447c79e"),
+					"ValueStack: Value type " + valueType + " is not a number type");
+		}
+		return result;
+	}
+
+	private void grow() {
+		valueAll = Arrays.copyOf(valueAll, valueAll.length * 2);
+		typeAll = Arrays.copyOf(typeAll, typeAll.length * 2);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("ValueStack{");
+		sb.append("size=").append(size);
+		sb.append('}');
+		return sb.toString();
+	}
+}
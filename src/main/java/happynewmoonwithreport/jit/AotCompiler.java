@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.jit;
+
+import happynewmoonwithreport.ExportEntry;
+import happynewmoonwithreport.ExternalKind;
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Translate the exported functions of a module to a Java class ahead of time.
+ * <br>
+ * Each exported function that has register code becomes a public static method with the name
+ * of the export.  It takes the parameters of the function, an i32 as an int and an i64 as a
+ * long, and returns its result the same way.  The class needs only this project on the class
+ * path at run time, the module is not read, decoded or validated again.
+ * <br>
+ * A function that loads or stores takes the memory as its first argument, a
+ * {@link happynewmoonwithreport.type.MemoryType} the caller creates, for example the memory of a
+ * {@link WasmInstance} of the module.  So the caller decides where the memory is kept and what
+ * it holds, the data segments are not written by the class.
+ * <br>
+ * Functions without register code, for example functions that read globals or call other
+ * functions, are not translated and are reported.  A module where no export is translated is
+ * an error, so the Gradle task fails instead of writing an empty class.
+ * <br>
+ * Usage:
+ * <pre>
+ *     java happynewmoonwithreport.jit.AotCompiler module.wasm outputDirectory com.example.Module
+ * </pre>
+ * The Gradle task <code>aotCompile</code> runs it, see build.gradle.
+ */
+public final class AotCompiler {
+
+	private AotCompiler() {
+		super();
+	}
+
+	public static void main(String[] argumentAll) throws IOException {
+		if (argumentAll.length != 3) {
+			System.err.println("Usage: AotCompiler <module.wasm> <output directory> <class name>");
+			System.exit(1);
+		}
+		Wasm wasm = new Wasm(argumentAll[0]);
+		WasmModule module = wasm.instantiate();
+		if (wasm.validate() == false) {
+			throw new WasmRuntimeException(UUID.fromString("ec750a2d-2bb0-4475-9b45-8890bffb533b"),
+				"Module " + argumentAll[0] + " is not valid");
+		}
+		final String className = argumentAll[2];
+		List<String> skippedAll = new ArrayList<>();
+		byte[] classFile = compile(module, className, skippedAll);
+
+		File file = new File(argumentAll[1], className.replace('.', File.separatorChar) + ".class");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), classFile);
+		for (String skipped : skippedAll) {
+			System.err.println("Not translated: " + skipped);
+		}
+	}
+
+	/**
+	 * Translate the exported functions of a module.
+	 *
+	 * @param module     the module.
+	 * @param className  the name of the class to write, with dots.
+	 * @param skippedAll the names of the exports that were not translated are added to it.
+	 * @return the class file.
+	 * @throws WasmRuntimeException when no export is translated.
+	 */
+	public static byte[] compile(WasmModule module, String className, List<String> skippedAll) {
+		// the instance translates every function to register code.
+		new WasmInstance(module);
+
+		final ExternalKind function = new ExternalKind(ExternalKind.function);
+		ClassFileWriter classFile = new ClassFileWriter();
+		Set<String> methodNameAll = new HashSet<>();
+		for (ExportEntry exportEntry : module.getExportAll()) {
+			if (exportEntry.getExternalKind().equals(function) == false) {
+				continue;
+			}
+			final String name = exportEntry.getFieldName().getValue();
+			final String methodName = methodName(name);
+			WasmFunction wasmFunction =
+				module.getFunctionAll().get(exportEntry.getIndex().integerValue());
+			boolean translated = wasmFunction.getRegisterCode() != null
+				&& methodNameAll.contains(methodName) == false
+				&& JitCompiler.addTypedMethod(classFile, methodName,
+				wasmFunction.getRegisterCode(), Arrays.copyOf(wasmFunction.getSlotTypeAll(),
+					wasmFunction.getParamCount()));
+			if (translated) {
+				methodNameAll.add(methodName);
+			} else {
+				skippedAll.add(name);
+			}
+		}
+		if (methodNameAll.isEmpty()) {
+			throw new WasmRuntimeException(UUID.fromString("faf97e46-7369-4110-9709-fd5063c89a0b"),
+				"No exported function of the module can be translated.  Not translated: "
+				+ skippedAll);
+		}
+		return classFile.toByteArray(className.replace('.', '/'));
+	}
+
+	/**
+	 * An export name may have characters that a JVM method name may not.
+	 */
+	static String methodName(String exportName) {
+		StringBuilder result = new StringBuilder(exportName.length());
+		for (char c : exportName.toCharArray()) {
+			result.append((".;[/<>".indexOf(c) == -1) ? c : '_');
+		}
+		if (result.length() == 0) {
+			result.append('_');
+		}
+		return result.toString();
+	}
+}
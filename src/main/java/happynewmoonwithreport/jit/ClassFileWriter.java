@@ -0,0 +1,243 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.jit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Write a class file with public static methods and no fields.
+ * <br>
+ * The class file version is 49, so the JVM checks the code with the type inference verifier
+ * and the methods need no StackMapTable.
+ * <br>
+ * Source: <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html"
+ * target="_top"> https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html
+ * </a>
+ */
+final class ClassFileWriter {
+
+	private static final int VERSION = 49;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_METHOD_REF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_STATIC = 0x0008;
+	private static final int ACC_SUPER = 0x0020;
+
+	private final ByteVector pool = new ByteVector();
+	private int poolCount = 1;
+	private final Map<String, Integer> indexAll = new HashMap<>();
+
+	private final ByteVector methodAll = new ByteVector();
+	private int methodCount;
+
+	ClassFileWriter() {
+		super();
+	}
+
+	int utf8(String value) {
+		Integer index = indexAll.get("U" + value);
+		if (index == null) {
+			byte[] byteAll = value.getBytes(StandardCharsets.UTF_8);
+			pool.u1(CONSTANT_UTF8).u2(byteAll.length).bytes(byteAll, byteAll.length);
+			index = add("U" + value, 1);
+		}
+		return index;
+	}
+
+	int classRef(String internalName) {
+		Integer index = indexAll.get("C" + internalName);
+		if (index == null) {
+			int name = utf8(internalName);
+			pool.u1(CONSTANT_CLASS).u2(name);
+			index = add("C" + internalName, 1);
+		}
+		return index;
+	}
+
+	int methodRef(String owner, String name, String descriptor) {
+		final String key = "M" + owner + "." + name + descriptor;
+		Integer index = indexAll.get(key);
+		if (index == null) {
+			int ownerIndex = classRef(owner);
+			int nameAndType = nameAndType(name, descriptor);
+			pool.u1(CONSTANT_METHOD_REF).u2(ownerIndex).u2(nameAndType);
+			index = add(key, 1);
+		}
+		return index;
+	}
+
+	int integerConstant(int value) {
+		Integer index = indexAll.get("I" + value);
+		if (index == null) {
+			pool.u1(CONSTANT_INTEGER).u4(value);
+			index = add("I" + value, 1);
+		}
+		return index;
+	}
+
+	/**
+	 * A long constant for <code>ldc2_w</code>.  It takes two entries of the constant pool.
+	 */
+	int longConstant(long value) {
+		Integer index = indexAll.get("J" + value);
+		if (index == null) {
+			pool.u1(CONSTANT_LONG).u4((int) (value >>> 32)).u4((int) value);
+			index = add("J" + value, 2);
+		}
+		return index;
+	}
+
+	private int nameAndType(String name, String descriptor) {
+		final String key = "N" + name + descriptor;
+		Integer index = indexAll.get(key);
+		if (index == null) {
+			int nameIndex = utf8(name);
+			int descriptorIndex = utf8(descriptor);
+			pool.u1(CONSTANT_NAME_AND_TYPE).u2(nameIndex).u2(descriptorIndex);
+			index = add(key, 1);
+		}
+		return index;
+	}
+
+	private int add(String key, int size) {
+		int index = poolCount;
+		poolCount += size;
+		indexAll.put(key, index);
+		return index;
+	}
+
+	/**
+	 * Add a public static method.
+	 *
+	 * @param name       the name of the method.
+	 * @param descriptor the descriptor of the method.
+	 * @param code       the bytecode of the method.
+	 * @param maxStack   the maximum depth of the JVM operand stack.
+	 * @param maxLocals  the number of JVM local variable slots, parameters included.
+	 */
+	void addMethod(String name, String descriptor, ByteVector code, int maxStack,
+				   int maxLocals) {
+		final int nameIndex = utf8(name);
+		final int descriptorIndex = utf8(descriptor);
+		final int codeName = utf8("Code");
+
+		methodAll.u2(ACC_PUBLIC | ACC_STATIC).u2(nameIndex).u2(descriptorIndex);
+		methodAll.u2(1);  // method attributes
+		methodAll.u2(codeName).u4(12 + code.length);
+		methodAll.u2(maxStack).u2(maxLocals);
+		methodAll.u4(code.length).bytes(code.byteAll, code.length);
+		methodAll.u2(0);  // exception table
+		methodAll.u2(0);  // code attributes
+		methodCount++;
+	}
+
+	/**
+	 * Write the class.
+	 *
+	 * @param className the internal name of the class, with slashes.
+	 * @return the class file.
+	 */
+	byte[] toByteArray(String className) {
+		// every constant must be in the pool before it is written.
+		final int thisClass = classRef(className);
+		final int superClass = classRef("java/lang/Object");
+
+		ByteVector out = new ByteVector();
+		out.u4(0xCAFEBABE).u2(0).u2(VERSION);
+		out.u2(poolCount).bytes(pool.byteAll, pool.length);
+		out.u2(ACC_PUBLIC | ACC_SUPER).u2(thisClass).u2(superClass);
+		out.u2(0);  // interfaces
+		out.u2(0);  // fields
+		out.u2(methodCount).bytes(methodAll.byteAll, methodAll.length);
+		out.u2(0);  // class attributes
+		return Arrays.copyOf(out.byteAll, out.length);
+	}
+
+	/**
+	 * A growing array of bytes written big endian.
+	 */
+	static final class ByteVector {
+		private byte[] byteAll = new byte[256];
+		private int length;
+
+		int length() {
+			return length;
+		}
+
+		ByteVector u1(int value) {
+			ensure(1);
+			byteAll[length++] = (byte) value;
+			return this;
+		}
+
+		ByteVector u2(int value) {
+			ensure(2);
+			byteAll[length++] = (byte) (value >>> 8);
+			byteAll[length++] = (byte) value;
+			return this;
+		}
+
+		ByteVector u4(int value) {
+			ensure(4);
+			byteAll[length++] = (byte) (value >>> 24);
+			byteAll[length++] = (byte) (value >>> 16);
+			byteAll[length++] = (byte) (value >>> 8);
+			byteAll[length++] = (byte) value;
+			return this;
+		}
+
+		ByteVector bytes(byte[] value, int count) {
+			ensure(count);
+			System.arraycopy(value, 0, byteAll, length, count);
+			length += count;
+			return this;
+		}
+
+		/**
+		 * Overwrite two bytes already written.
+		 */
+		void putU2(int position, int value) {
+			byteAll[position] = (byte) (value >>> 8);
+			byteAll[position + 1] = (byte) value;
+		}
+
+		/**
+		 * Overwrite four bytes already written.
+		 */
+		void putU4(int position, int value) {
+			byteAll[position] = (byte) (value >>> 24);
+			byteAll[position + 1] = (byte) (value >>> 16);
+			byteAll[position + 2] = (byte) (value >>> 8);
+			byteAll[position + 3] = (byte) value;
+		}
+
+		private void ensure(int count) {
+			if (byteAll.length < length + count) {
+				byteAll = Arrays.copyOf(byteAll, Math.max(byteAll.length * 2, length + count));
+			}
+		}
+	}
+}
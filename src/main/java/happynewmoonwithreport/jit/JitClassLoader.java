@@ -0,0 +1,34 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.jit;
+
+/**
+ * Load the classes made by {@link JitCompiler}.
+ * <br>
+ * The classes of the interpreter are found through the parent.  A class is unloaded when its
+ * loader is, so each instance that compiles functions has its own loader.
+ */
+final class JitClassLoader extends ClassLoader {
+
+	JitClassLoader(ClassLoader parent) {
+		super(parent);
+	}
+
+	Class<?> define(String name, byte[] classFile) {
+		return defineClass(name, classFile, 0, classFile.length);
+	}
+}
@@ -0,0 +1,1026 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.jit;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.interpreter.RegisterCode;
+import happynewmoonwithreport.interpreter.ValueStack;
+import happynewmoonwithreport.jit.ClassFileWriter.ByteVector;
+import happynewmoonwithreport.type.MemoryType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compile {@link RegisterCode} to a JVM class so the JIT compiler of the JVM can optimize it
+ * like any other Java code.
+ * <br>
+ * Every register becomes a JVM local of type long, an i32 is kept sign extended the same as in
+ * the {@link happynewmoonwithreport.interpreter.RegisterInterpreter}.  Register code branches
+ * only when the JVM operand stack is empty and every local always holds a long, so all paths
+ * that meet agree on the types and the code is easy to verify.
+ * <br>
+ * The generated class has one method,
+ * <code>public static void invoke(ValueStack, MemoryType)</code>.  It pops the arguments, runs
+ * the function and pushes the results, the same as
+ * {@link happynewmoonwithreport.interpreter.RegisterInterpreter#call}.  {@link AotCompiler}
+ * uses the same translation for methods that take and return Java values.
+ * <br>
+ * A load or store checks the address with
+ * {@link happynewmoonwithreport.interpreter.NumericKernel#effectiveAddress} and then calls the
+ * accessor of the memory, for example <code>MemoryType.getInt</code>.  The memory is an
+ * argument and not a constant of the class, so the clones of an instance share the compiled
+ * code.
+ */
+public final class JitCompiler {
+
+	/**
+	 * The number of calls plus loop iterations a function runs in the interpreter before it is
+	 * compiled.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1000;
+
+	private static final String METHOD_NAME = "invoke";
+	private static final String VALUE_STACK = "happynewmoonwithreport/interpreter/ValueStack";
+	private static final String NUMERIC_KERNEL = "happynewmoonwithreport/interpreter/NumericKernel";
+	private static final String MEMORY_TYPE = "happynewmoonwithreport/type/MemoryType";
+
+	private static final MethodType INVOKE_TYPE =
+		MethodType.methodType(void.class, ValueStack.class, MemoryType.class);
+
+	// JVM opcodes
+	private static final int LCONST_0 = 0x09;
+	private static final int LCONST_1 = 0x0A;
+	private static final int BIPUSH = 0x10;
+	private static final int SIPUSH = 0x11;
+	private static final int LDC = 0x12;
+	private static final int LDC_W = 0x13;
+	private static final int LDC2_W = 0x14;
+	private static final int ILOAD = 0x15;
+	private static final int LLOAD = 0x16;
+	private static final int ALOAD = 0x19;
+	private static final int ALOAD_0 = 0x2A;
+	private static final int LSTORE = 0x37;
+	private static final int IAND = 0x7E;
+	private static final int LAND = 0x7F;
+	private static final int I2L = 0x85;
+	private static final int L2I = 0x88;
+	private static final int I2B = 0x91;
+	private static final int I2S = 0x93;
+	private static final int LCMP = 0x94;
+	private static final int IFEQ = 0x99;
+	private static final int IFNE = 0x9A;
+	private static final int IFLT = 0x9B;
+	private static final int IFGE = 0x9C;
+	private static final int IFGT = 0x9D;
+	private static final int IFLE = 0x9E;
+	private static final int IF_ICMPEQ = 0x9F;
+	private static final int IF_ICMPNE = 0xA0;
+	private static final int IF_ICMPLT = 0xA1;
+	private static final int IF_ICMPGE = 0xA2;
+	private static final int IF_ICMPGT = 0xA3;
+	private static final int IF_ICMPLE = 0xA4;
+	private static final int GOTO = 0xA7;
+	private static final int TABLESWITCH = 0xAA;
+	private static final int IRETURN = 0xAC;
+	private static final int LRETURN = 0xAD;
+	private static final int RETURN = 0xB1;
+	private static final int INVOKEVIRTUAL = 0xB6;
+	private static final int INVOKESTATIC = 0xB8;
+	private static final int WIDE = 0xC4;
+
+	private static final int MAX_STACK = 6;
+
+	private final JitClassLoader classLoader;
+	private int classCount;
+
+	public JitCompiler() {
+		classLoader = new JitClassLoader(JitCompiler.class.getClassLoader());
+	}
+
+	/**
+	 * Compile and load a function.
+	 *
+	 * @param registerCode the function.
+	 * @return a handle of type <code>(ValueStack, MemoryType)void</code> or null when the
+	 * function is too large for one JVM method.
+	 */
+	public MethodHandle compile(RegisterCode registerCode) {
+		final String className = "happynewmoonwithreport.jit.Function" + classCount++;
+		byte[] classFile = toClassFile(registerCode, className.replace('.', '/'));
+		if (classFile == null) {
+			return null;
+		}
+		Class<?> compiled = classLoader.define(className, classFile);
+		try {
+			return MethodHandles.lookup().findStatic(compiled, METHOD_NAME, INVOKE_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new WasmRuntimeException(UUID.fromString("7bef3805-e622-46d3-a050-ecf133f68e49"),
+				"Compiled function " + className + " can not be called: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Call a compiled function.
+	 *
+	 * @param compiledCode the handle returned by {@link #compile}
+	 * @param stack        the operand stack with the arguments.  The results are pushed to it.
+	 * @param memory       the memory the loads and stores work on.
+	 */
+	public static void invoke(MethodHandle compiledCode, ValueStack stack, MemoryType memory) {
+		try {
+			compiledCode.invokeExact(stack, memory);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable throwable) {
+			throw new WasmRuntimeException(UUID.fromString("5863d1ff-9b2a-44b2-9208-3b8eaa2475ad"),
+				"Compiled function failed: " + throwable);
+		}
+	}
+
+	/**
+	 * Translate a function to a class file.
+	 *
+	 * @param registerCode the function.
+	 * @param className    the internal name of the class to write.
+	 * @return the class file or null when the function is too large for one JVM method.
+	 */
+	static byte[] toClassFile(RegisterCode registerCode, String className) {
+		ClassFileWriter classFile = new ClassFileWriter();
+		Translation translation = new Translation(registerCode, classFile, null);
+		ByteVector code = translation.translate();
+		if (code == null) {
+			return null;
+		}
+		classFile.addMethod(METHOD_NAME, "(L" + VALUE_STACK + ";L" + MEMORY_TYPE + ";)V", code,
+			MAX_STACK, translation.maxLocals());
+		return classFile.toByteArray(className);
+	}
+
+	/**
+	 * Translate a function to a static method that takes its parameters as Java arguments and
+	 * returns its result, an i32 as an int and an i64 as a long.  A function that loads or
+	 * stores takes the MemoryType to work on as its first argument.
+	 *
+	 * @param classFile    the class to add the method to.
+	 * @param name         the name of the method.
+	 * @param registerCode the function.
+	 * @param paramTypeAll the type tag of each parameter.  See {@link ValueStack}
+	 * @return false when the function is too large or has more than one result.
+	 */
+	static boolean addTypedMethod(ClassFileWriter classFile, String name,
+								  RegisterCode registerCode, byte[] paramTypeAll) {
+		final byte[] resultTypeAll = registerCode.getResultTypeAll();
+		if (1 < resultTypeAll.length) {
+			return false;
+		}
+		Translation translation = new Translation(registerCode, classFile, paramTypeAll);
+		ByteVector code = translation.translate();
+		if (code == null) {
+			return false;
+		}
+		StringBuilder descriptor = new StringBuilder("(");
+		if (registerCode.isMemoryUsed()) {
+			descriptor.append("L").append(MEMORY_TYPE).append(';');
+		}
+		for (byte type : paramTypeAll) {
+			descriptor.append(descriptor(type));
+		}
+		descriptor.append(')');
+		descriptor.append(resultTypeAll.length == 0 ? "V" : descriptor(resultTypeAll[0]));
+		classFile.addMethod(name, descriptor.toString(), code, MAX_STACK,
+			translation.maxLocals());
+		return true;
+	}
+
+	private static String descriptor(byte type) {
+		return (type == ValueStack.I64_TYPE) ? "J" : "I";
+	}
+
+	/**
+	 * The translation of one function.
+	 */
+	private static final class Translation {
+		private final RegisterCode registerCode;
+		private final ClassFileWriter classFile;
+		private final int[] ir;
+		private final ByteVector out = new ByteVector();
+
+		/**
+		 * The type of each Java parameter, or null when the method takes a ValueStack.
+		 */
+		private final byte[] paramTypeAll;
+
+		/**
+		 * The JVM local of register zero, after the parameters of the method.
+		 */
+		private final int registerBase;
+
+		/**
+		 * The JVM local that holds the MemoryType, or -1 when the method has none.  A typed
+		 * method has it only when the function uses memory, as its first parameter.
+		 */
+		private final int memoryLocal;
+
+		/**
+		 * The bytecode offset of each register code position, and of the end.
+		 */
+		private final int[] offsetAll;
+
+		/**
+		 * Branches to register code positions, patched when every offset is known.  Each is
+		 * the offset of the branch opcode, where its jump offset is written, its width and the
+		 * register code target.
+		 */
+		private int[] fixupAll = new int[32];
+		private int fixupLength;
+
+		private Translation(RegisterCode registerCode, ClassFileWriter classFile,
+							byte[] paramTypeAll) {
+			this.registerCode = registerCode;
+			this.classFile = classFile;
+			this.ir = registerCode.getCode();
+			this.offsetAll = new int[ir.length + 1];
+			this.paramTypeAll = paramTypeAll;
+			// the ValueStack and the MemoryType.
+			int parameterSize = 2;
+			int memory = 1;
+			if (paramTypeAll != null) {
+				parameterSize = 0;
+				memory = -1;
+				if (registerCode.isMemoryUsed()) {
+					parameterSize = 1;
+					memory = 0;
+				}
+				for (byte type : paramTypeAll) {
+					parameterSize += (type == ValueStack.I64_TYPE) ? 2 : 1;
+				}
+			}
+			this.registerBase = parameterSize;
+			this.memoryLocal = memory;
+		}
+
+		private int maxLocals() {
+			return registerBase + 2 * registerCode.getRegisterCount();
+		}
+
+		private ByteVector translate() {
+			if (Short.MAX_VALUE < maxLocals()) {
+				return null;
+			}
+			if (paramTypeAll == null) {
+				prologue();
+			} else {
+				typedPrologue();
+			}
+			int pc = 0;
+			while (pc < ir.length) {
+				offsetAll[pc] = out.length();
+				pc = instruction(pc);
+			}
+			offsetAll[ir.length] = out.length();
+			if (paramTypeAll == null) {
+				epilogue();
+			} else {
+				typedEpilogue();
+			}
+
+			if (Short.MAX_VALUE < out.length()) {
+				// a jump offset might not fit in two bytes.
+				return null;
+			}
+			for (int i = 0; i < fixupLength; i += 4) {
+				final int opcodeOffset = fixupAll[i];
+				final int jump = offsetAll[fixupAll[i + 3]] - opcodeOffset;
+				if (fixupAll[i + 2] == 2) {
+					out.putU2(fixupAll[i + 1], jump);
+				} else {
+					out.putU4(fixupAll[i + 1], jump);
+				}
+			}
+			return out;
+		}
+
+		/**
+		 * Pop the arguments into their locals and set the other locals to zero.
+		 */
+		private void prologue() {
+			final int popBits = classFile.methodRef(VALUE_STACK, "popBits", "()J");
+			for (int i = registerCode.getParamCount() - 1; 0 <= i; i--) {
+				out.u1(ALOAD_0);
+				out.u1(INVOKEVIRTUAL).u2(popBits);
+				store(i);
+			}
+			for (int i = registerCode.getParamCount(); i < registerCode.getRegisterCount(); i++) {
+				out.u1(LCONST_0);
+				store(i);
+			}
+		}
+
+		/**
+		 * Push the results.
+		 */
+		private void epilogue() {
+			final int push = classFile.methodRef(VALUE_STACK, "push", "(JB)V");
+			final byte[] resultTypeAll = registerCode.getResultTypeAll();
+			for (int i = 0; i < resultTypeAll.length; i++) {
+				out.u1(ALOAD_0);
+				load(registerCode.getLocalCount() + i);
+				out.u1(BIPUSH).u1(resultTypeAll[i]);
+				out.u1(INVOKEVIRTUAL).u2(push);
+			}
+			out.u1(RETURN);
+		}
+
+		/**
+		 * Copy the Java arguments to their registers and set the other locals to zero.
+		 */
+		private void typedPrologue() {
+			int slot = (memoryLocal == 0) ? 1 : 0;
+			for (int i = 0; i < paramTypeAll.length; i++) {
+				if (paramTypeAll[i] == ValueStack.I64_TYPE) {
+					jvmLocal(LLOAD, slot);
+					slot += 2;
+				} else {
+					jvmLocal(ILOAD, slot);
+					out.u1(I2L);
+					slot += 1;
+				}
+				store(i);
+			}
+			for (int i = paramTypeAll.length; i < registerCode.getRegisterCount(); i++) {
+				out.u1(LCONST_0);
+				store(i);
+			}
+		}
+
+		/**
+		 * Return the result, if there is one.
+		 */
+		private void typedEpilogue() {
+			final byte[] resultTypeAll = registerCode.getResultTypeAll();
+			if (resultTypeAll.length == 0) {
+				out.u1(RETURN);
+			} else if (resultTypeAll[0] == ValueStack.I64_TYPE) {
+				load(registerCode.getLocalCount());
+				out.u1(LRETURN);
+			} else {
+				loadI32(registerCode.getLocalCount());
+				out.u1(IRETURN);
+			}
+		}
+
+		/**
+		 * Translate the instruction at <code>pc</code>.
+		 *
+		 * @return the position of the next instruction.
+		 */
+		private int instruction(int pc) {
+			final int opcode = ir[pc];
+			switch (opcode) {
+				case RegisterCode.MOV:
+					move(ir[pc + 2], ir[pc + 1]);
+					return pc + 3;
+				case RegisterCode.I32_CONST:
+					constant(ir[pc + 2]);
+					store(ir[pc + 1]);
+					return pc + 3;
+				case RegisterCode.I64_CONST:
+					constant(registerCode.getConstantAll()[ir[pc + 2]]);
+					store(ir[pc + 1]);
+					return pc + 3;
+				case RegisterCode.SELECT: {
+					load(ir[pc + 4]);
+					out.u1(L2I);
+					int ifZero = jump(IFEQ);
+					load(ir[pc + 2]);
+					int toEnd = jump(GOTO);
+					patch(ifZero);
+					load(ir[pc + 3]);
+					patch(toEnd);
+					store(ir[pc + 1]);
+					return pc + 5;
+				}
+				case RegisterCode.BR:
+					branch(pc + 1);
+					return pc + 5;
+				case RegisterCode.BR_IF: {
+					load(ir[pc + 1]);
+					out.u1(L2I);
+					int notTaken = jump(IFEQ);
+					branch(pc + 2);
+					patch(notTaken);
+					return pc + 6;
+				}
+				case RegisterCode.BR_UNLESS:
+					load(ir[pc + 1]);
+					out.u1(L2I);
+					jumpTo(IFEQ, ir[pc + 2]);
+					return pc + 3;
+				case RegisterCode.BR_TABLE:
+					return branchTable(pc);
+				case RegisterCode.UNREACHABLE:
+					invokeStatic(NUMERIC_KERNEL, "unreachable", "()V");
+					return pc + 1;
+				case 0x28:  // i32.load
+				case 0x29:  // i64.load
+				case 0x2C:  // i32.load8_s
+				case 0x2D:  // i32.load8_u
+				case 0x2E:  // i32.load16_s
+				case 0x2F:  // i32.load16_u
+				case 0x30:  // i64.load8_s
+				case 0x31:  // i64.load8_u
+				case 0x32:  // i64.load16_s
+				case 0x33:  // i64.load16_u
+				case 0x34:  // i64.load32_s
+				case 0x35:  // i64.load32_u
+					return memoryLoad(pc);
+				case 0x36:  // i32.store
+				case 0x37:  // i64.store
+				case 0x3A:  // i32.store8
+				case 0x3B:  // i32.store16
+				case 0x3C:  // i64.store8
+				case 0x3D:  // i64.store16
+				case 0x3E:  // i64.store32
+					return memoryStore(pc);
+				default:
+					return numeric(pc);
+			}
+		}
+
+		private int numeric(int pc) {
+			final int opcode = ir[pc];
+			final int dst = ir[pc + 1];
+			final int a = ir[pc + 2];
+			switch (opcode) {
+				case 0x45:  // i32.eqz
+					loadI32(a);
+					return compare(IFEQ, dst, pc + 3);
+				case 0x46:  // i32.eq
+				case 0x47:  // i32.ne
+				case 0x48:  // i32.lt_s
+				case 0x4A:  // i32.gt_s
+				case 0x4C:  // i32.le_s
+				case 0x4E:  // i32.ge_s
+					loadI32(a);
+					loadI32(ir[pc + 3]);
+					return compare(i32Compare(opcode), dst, pc + 4);
+				case 0x49:  // i32.lt_u
+				case 0x4B:  // i32.gt_u
+				case 0x4D:  // i32.le_u
+				case 0x4F:  // i32.ge_u
+					loadI32(a);
+					loadI32(ir[pc + 3]);
+					invokeStatic("java/lang/Integer", "compareUnsigned", "(II)I");
+					return compare(signCompare(opcode - 0x49), dst, pc + 4);
+				case 0x50:  // i64.eqz
+					load(a);
+					out.u1(LCONST_0);
+					out.u1(LCMP);
+					return compare(IFEQ, dst, pc + 3);
+				case 0x51:  // i64.eq
+					load(a);
+					load(ir[pc + 3]);
+					out.u1(LCMP);
+					return compare(IFEQ, dst, pc + 4);
+				case 0x52:  // i64.ne
+					load(a);
+					load(ir[pc + 3]);
+					out.u1(LCMP);
+					return compare(IFNE, dst, pc + 4);
+				case 0x53:  // i64.lt_s
+				case 0x55:  // i64.gt_s
+				case 0x57:  // i64.le_s
+				case 0x59:  // i64.ge_s
+					load(a);
+					load(ir[pc + 3]);
+					out.u1(LCMP);
+					return compare(signCompare(opcode - 0x53), dst, pc + 4);
+				case 0x54:  // i64.lt_u
+				case 0x56:  // i64.gt_u
+				case 0x58:  // i64.le_u
+				case 0x5A:  // i64.ge_u
+					load(a);
+					load(ir[pc + 3]);
+					invokeStatic("java/lang/Long", "compareUnsigned", "(JJ)I");
+					return compare(signCompare(opcode - 0x54), dst, pc + 4);
+
+				case 0x67:  // i32.clz
+					return i32Unary("java/lang/Integer", "numberOfLeadingZeros", dst, a, pc);
+				case 0x68:  // i32.ctz
+					return i32Unary("java/lang/Integer", "numberOfTrailingZeros", dst, a, pc);
+				case 0x69:  // i32.popcnt
+					return i32Unary("java/lang/Integer", "bitCount", dst, a, pc);
+				case 0x6A:  // i32.add
+					return i32Binary(0x60, dst, a, pc);
+				case 0x6B:  // i32.sub
+					return i32Binary(0x64, dst, a, pc);
+				case 0x6C:  // i32.mul
+					return i32Binary(0x68, dst, a, pc);
+				case 0x6D:  // i32.div_s
+					return i32Helper("i32DivS", dst, a, pc);
+				case 0x6E:  // i32.div_u
+					return i32Helper("i32DivU", dst, a, pc);
+				case 0x6F:  // i32.rem_s
+					return i32Helper("i32RemS", dst, a, pc);
+				case 0x70:  // i32.rem_u
+					return i32Helper("i32RemU", dst, a, pc);
+				case 0x71:  // i32.and
+					return i32Binary(0x7E, dst, a, pc);
+				case 0x72:  // i32.or
+					return i32Binary(0x80, dst, a, pc);
+				case 0x73:  // i32.xor
+					return i32Binary(0x82, dst, a, pc);
+				case 0x74:  // i32.shl
+					return i32Binary(0x78, dst, a, pc);
+				case 0x75:  // i32.shr_s
+					return i32Binary(0x7A, dst, a, pc);
+				case 0x76:  // i32.shr_u
+					return i32Binary(0x7C, dst, a, pc);
+				case 0x77:  // i32.rotl
+					loadI32(a);
+					loadI32(ir[pc + 3]);
+					invokeStatic("java/lang/Integer", "rotateLeft", "(II)I");
+					return storeI32(dst, pc + 4);
+				case 0x78:  // i32.rotr
+					loadI32(a);
+					loadI32(ir[pc + 3]);
+					invokeStatic("java/lang/Integer", "rotateRight", "(II)I");
+					return storeI32(dst, pc + 4);
+
+				case 0x79:  // i64.clz
+					load(a);
+					invokeStatic("java/lang/Long", "numberOfLeadingZeros", "(J)I");
+					return storeI32(dst, pc + 3);
+				case 0x7A:  // i64.ctz
+					load(a);
+					invokeStatic("java/lang/Long", "numberOfTrailingZeros", "(J)I");
+					return storeI32(dst, pc + 3);
+				case 0x7B:  // i64.popcnt
+					load(a);
+					invokeStatic("java/lang/Long", "bitCount", "(J)I");
+					return storeI32(dst, pc + 3);
+				case 0x7C:  // i64.add
+					return i64Binary(0x61, dst, a, pc);
+				case 0x7D:  // i64.sub
+					return i64Binary(0x65, dst, a, pc);
+				case 0x7E:  // i64.mul
+					return i64Binary(0x69, dst, a, pc);
+				case 0x7F:  // i64.div_s
+					return i64Helper("i64DivS", dst, a, pc);
+				case 0x80:  // i64.div_u
+					return i64Helper("i64DivU", dst, a, pc);
+				case 0x81:  // i64.rem_s
+					return i64Helper("i64RemS", dst, a, pc);
+				case 0x82:  // i64.rem_u
+					return i64Helper("i64RemU", dst, a, pc);
+				case 0x83:  // i64.and
+					return i64Binary(0x7F, dst, a, pc);
+				case 0x84:  // i64.or
+					return i64Binary(0x81, dst, a, pc);
+				case 0x85:  // i64.xor
+					return i64Binary(0x83, dst, a, pc);
+				case 0x86:  // i64.shl
+					return i64Shift(0x79, dst, a, pc);
+				case 0x87:  // i64.shr_s
+					return i64Shift(0x7B, dst, a, pc);
+				case 0x88:  // i64.shr_u
+					return i64Shift(0x7D, dst, a, pc);
+				case 0x89:  // i64.rotl
+					load(a);
+					loadI32(ir[pc + 3]);
+					invokeStatic("java/lang/Long", "rotateLeft", "(JI)J");
+					store(dst);
+					return pc + 4;
+				case 0x8A:  // i64.rotr
+					load(a);
+					loadI32(ir[pc + 3]);
+					invokeStatic("java/lang/Long", "rotateRight", "(JI)J");
+					store(dst);
+					return pc + 4;
+
+				case 0xA7:  // i32.wrap_i64
+				case 0xAC:  // i64.extend_i32_s
+				case 0xC4:  // i64.extend32_s
+					loadI32(a);
+					return storeI32(dst, pc + 3);
+				case 0xAD:  // i64.extend_i32_u
+					load(a);
+					constant(0xFFFF_FFFFL);
+					out.u1(0x7F);  // land
+					store(dst);
+					return pc + 3;
+				case 0xC0:  // i32.extend8_s
+				case 0xC2:  // i64.extend8_s
+					loadI32(a);
+					out.u1(I2B);
+					return storeI32(dst, pc + 3);
+				case 0xC1:  // i32.extend16_s
+				case 0xC3:  // i64.extend16_s
+					loadI32(a);
+					out.u1(I2S);
+					return storeI32(dst, pc + 3);
+				default:
+					throw new WasmRuntimeException(
+						UUID.fromString("14d9c68e-8231-4008-a81d-d115d6e89964"),
+						"Register code opcode " + opcode + " can not be compiled");
+			}
+		}
+
+		/**
+		 * Load from memory to the dst register, an i32 sign extended the same as the other
+		 * results.
+		 */
+		private int memoryLoad(int pc) {
+			final int opcode = ir[pc];
+			effectiveAddress(ir[pc + 2], ir[pc + 3], accessWidth(opcode));
+			switch (opcode) {
+				case 0x29:  // i64.load
+					invokeVirtual(MEMORY_TYPE, "getLong", "(I)J");
+					store(ir[pc + 1]);
+					return pc + 4;
+				case 0x35:  // i64.load32_u
+					invokeVirtual(MEMORY_TYPE, "getInt", "(I)I");
+					out.u1(I2L);
+					constant(0xFFFF_FFFFL);
+					out.u1(LAND);
+					store(ir[pc + 1]);
+					return pc + 4;
+				case 0x2C:  // i32.load8_s
+				case 0x30:  // i64.load8_s
+					invokeVirtual(MEMORY_TYPE, "getByte", "(I)B");
+					break;
+				case 0x2D:  // i32.load8_u
+				case 0x31:  // i64.load8_u
+					invokeVirtual(MEMORY_TYPE, "getByte", "(I)B");
+					intConstant(0xFF);
+					out.u1(IAND);
+					break;
+				case 0x2E:  // i32.load16_s
+				case 0x32:  // i64.load16_s
+					invokeVirtual(MEMORY_TYPE, "getShort", "(I)S");
+					break;
+				case 0x2F:  // i32.load16_u
+				case 0x33:  // i64.load16_u
+					invokeVirtual(MEMORY_TYPE, "getShort", "(I)S");
+					intConstant(0xFFFF);
+					out.u1(IAND);
+					break;
+				default:  // i32.load, i64.load32_s
+					invokeVirtual(MEMORY_TYPE, "getInt", "(I)I");
+			}
+			return storeI32(ir[pc + 1], pc + 4);
+		}
+
+		/**
+		 * Store the low bytes of the value register to memory.
+		 */
+		private int memoryStore(int pc) {
+			final int opcode = ir[pc];
+			effectiveAddress(ir[pc + 1], ir[pc + 3], accessWidth(opcode));
+			switch (opcode) {
+				case 0x37:  // i64.store
+					load(ir[pc + 2]);
+					invokeVirtual(MEMORY_TYPE, "putLong", "(IJ)V");
+					break;
+				case 0x3A:  // i32.store8
+				case 0x3C:  // i64.store8
+					loadI32(ir[pc + 2]);
+					out.u1(I2B);
+					invokeVirtual(MEMORY_TYPE, "putByte", "(IB)V");
+					break;
+				case 0x3B:  // i32.store16
+				case 0x3D:  // i64.store16
+					loadI32(ir[pc + 2]);
+					out.u1(I2S);
+					invokeVirtual(MEMORY_TYPE, "putShort", "(IS)V");
+					break;
+				default:  // i32.store, i64.store32
+					loadI32(ir[pc + 2]);
+					invokeVirtual(MEMORY_TYPE, "putInt", "(II)V");
+			}
+			return pc + 4;
+		}
+
+		/**
+		 * Push the memory, the receiver of the access, and the checked effective address.
+		 */
+		private void effectiveAddress(int addressRegister, int offset, int width) {
+			jvmLocal(ALOAD, memoryLocal);
+			jvmLocal(ALOAD, memoryLocal);
+			loadI32(addressRegister);
+			intConstant(offset);
+			intConstant(width);
+			invokeStatic(NUMERIC_KERNEL, "effectiveAddress", "(L" + MEMORY_TYPE + ";III)I");
+		}
+
+		private static int accessWidth(int opcode) {
+			switch (opcode) {
+				case 0x29:  // i64.load
+				case 0x37:  // i64.store
+					return 8;
+				case 0x2C:  // load8
+				case 0x2D:
+				case 0x30:
+				case 0x31:
+				case 0x3A:  // store8
+				case 0x3C:
+					return 1;
+				case 0x2E:  // load16
+				case 0x2F:
+				case 0x32:
+				case 0x33:
+				case 0x3B:  // store16
+				case 0x3D:
+					return 2;
+				default:
+					return 4;
+			}
+		}
+
+		private static int i32Compare(int opcode) {
+			switch (opcode) {
+				case 0x46:
+					return IF_ICMPEQ;
+				case 0x47:
+					return IF_ICMPNE;
+				case 0x48:
+					return IF_ICMPLT;
+				case 0x4A:
+					return IF_ICMPGT;
+				case 0x4C:
+					return IF_ICMPLE;
+				default:
+					return IF_ICMPGE;
+			}
+		}
+
+		/**
+		 * The jump that tests the sign of a compare result.  The lt, gt, le and ge opcodes of
+		 * each group are two apart.
+		 */
+		private static int signCompare(int offsetInGroup) {
+			switch (offsetInGroup) {
+				case 0:
+					return IFLT;
+				case 2:
+					return IFGT;
+				case 4:
+					return IFLE;
+				default:
+					return IFGE;
+			}
+		}
+
+		/**
+		 * Store 1 when the condition holds and 0 otherwise.  The operands of the condition are
+		 * on the JVM stack.
+		 */
+		private int compare(int jumpOpcode, int dst, int next) {
+			int whenTrue = jump(jumpOpcode);
+			out.u1(LCONST_0);
+			int toEnd = jump(GOTO);
+			patch(whenTrue);
+			out.u1(LCONST_1);
+			patch(toEnd);
+			store(dst);
+			return next;
+		}
+
+		private int i32Unary(String owner, String name, int dst, int a, int pc) {
+			loadI32(a);
+			invokeStatic(owner, name, "(I)I");
+			return storeI32(dst, pc + 3);
+		}
+
+		private int i32Binary(int jvmOpcode, int dst, int a, int pc) {
+			loadI32(a);
+			loadI32(ir[pc + 3]);
+			out.u1(jvmOpcode);
+			return storeI32(dst, pc + 4);
+		}
+
+		private int i32Helper(String name, int dst, int a, int pc) {
+			loadI32(a);
+			loadI32(ir[pc + 3]);
+			invokeStatic(NUMERIC_KERNEL, name, "(II)I");
+			return storeI32(dst, pc + 4);
+		}
+
+		private int i64Binary(int jvmOpcode, int dst, int a, int pc) {
+			load(a);
+			load(ir[pc + 3]);
+			out.u1(jvmOpcode);
+			store(dst);
+			return pc + 4;
+		}
+
+		private int i64Shift(int jvmOpcode, int dst, int a, int pc) {
+			load(a);
+			loadI32(ir[pc + 3]);
+			out.u1(jvmOpcode);
+			store(dst);
+			return pc + 4;
+		}
+
+		private int i64Helper(String name, int dst, int a, int pc) {
+			load(a);
+			load(ir[pc + 3]);
+			invokeStatic(NUMERIC_KERNEL, name, "(JJ)J");
+			store(dst);
+			return pc + 4;
+		}
+
+		/**
+		 * Copy the values carried to the label, then jump to the target.
+		 *
+		 * @param operands position of the target, src, dst and count operands of the branch.
+		 */
+		private void branch(int operands) {
+			copy(operands);
+			jumpTo(GOTO, ir[operands]);
+		}
+
+		private void copy(int operands) {
+			final int src = ir[operands + 1];
+			final int dst = ir[operands + 2];
+			if (src != dst) {
+				for (int i = 0; i < ir[operands + 3]; i++) {
+					move(src + i, dst + i);
+				}
+			}
+		}
+
+		private boolean copies(int operands) {
+			return ir[operands + 3] != 0 && ir[operands + 1] != ir[operands + 2];
+		}
+
+		/**
+		 * A tableswitch over the labels.  A label that carries no values jumps straight to its
+		 * target, the others go through a copy first.
+		 */
+		private int branchTable(int pc) {
+			final int labelCount = ir[pc + 2];
+			final int next = pc + 3 + (labelCount + 1) * 4;
+			if (labelCount == 0) {
+				branch(pc + 3);
+				return next;
+			}
+			load(ir[pc + 1]);
+			out.u1(L2I);
+
+			final int switchOffset = out.length();
+			out.u1(TABLESWITCH);
+			while (out.length() % 4 != 0) {
+				out.u1(0);
+			}
+			final int defaultPosition = out.length();
+			out.u4(0);
+			out.u4(0);
+			out.u4(labelCount - 1);
+			final int firstPosition = out.length();
+			for (int i = 0; i < labelCount; i++) {
+				out.u4(0);
+			}
+			// entries for indexes from 0 to labelCount - 1, the others are the default.
+			for (int i = 0; i <= labelCount; i++) {
+				final int operands = pc + 3 + i * 4;
+				final int position = (i == labelCount) ? defaultPosition : firstPosition + i * 4;
+				if (copies(operands)) {
+					out.putU4(position, out.length() - switchOffset);
+					branch(operands);
+				} else {
+					addFixup(switchOffset, position, 4, ir[operands]);
+				}
+			}
+			return next;
+		}
+
+		private void move(int src, int dst) {
+			load(src);
+			store(dst);
+		}
+
+		private void constant(long value) {
+			if (value == 0L) {
+				out.u1(LCONST_0);
+			} else if (value == 1L) {
+				out.u1(LCONST_1);
+			} else {
+				out.u1(LDC2_W).u2(classFile.longConstant(value));
+			}
+		}
+
+		private void intConstant(int value) {
+			if (-1 <= value && value <= 5) {
+				out.u1(0x03 + value);  // iconst_<value>
+			} else if (value == (byte) value) {
+				out.u1(BIPUSH).u1(value);
+			} else if (value == (short) value) {
+				out.u1(SIPUSH).u2(value);
+			} else {
+				final int index = classFile.integerConstant(value);
+				if (index <= 0xFF) {
+					out.u1(LDC).u1(index);
+				} else {
+					out.u1(LDC_W).u2(index);
+				}
+			}
+		}
+
+		private void loadI32(int register) {
+			load(register);
+			out.u1(L2I);
+		}
+
+		private int storeI32(int register, int next) {
+			out.u1(I2L);
+			store(register);
+			return next;
+		}
+
+		private void load(int register) {
+			local(LLOAD, register);
+		}
+
+		private void store(int register) {
+			local(LSTORE, register);
+		}
+
+		/**
+		 * Register <code>r</code> is the JVM local <code>registerBase + 2 * r</code>.
+		 */
+		private void local(int jvmOpcode, int register) {
+			jvmLocal(jvmOpcode, registerBase + 2 * register);
+		}
+
+		private void jvmLocal(int jvmOpcode, int index) {
+			if (index <= 0xFF) {
+				out.u1(jvmOpcode).u1(index);
+			} else {
+				out.u1(WIDE).u1(jvmOpcode).u2(index);
+			}
+		}
+
+		private void invokeStatic(String owner, String name, String descriptor) {
+			out.u1(INVOKESTATIC).u2(classFile.methodRef(owner, name, descriptor));
+		}
+
+		private void invokeVirtual(String owner, String name, String descriptor) {
+			out.u1(INVOKEVIRTUAL).u2(classFile.methodRef(owner, name, descriptor));
+		}
+
+		/**
+		 * Emit a jump inside the translation of one instruction.
+		 *
+		 * @return the offset of the jump, for {@link #patch}
+		 */
+		private int jump(int jvmOpcode) {
+			final int offset = out.length();
+			out.u1(jvmOpcode).u2(0);
+			return offset;
+		}
+
+		/**
+		 * Make a jump from {@link #jump} go to the current offset.
+		 */
+		private void patch(int jumpOffset) {
+			out.putU2(jumpOffset + 1, out.length() - jumpOffset);
+		}
+
+		/**
+		 * Emit a jump to a register code position.
+		 */
+		private void jumpTo(int jvmOpcode, int target) {
+			final int offset = out.length();
+			out.u1(jvmOpcode).u2(0);
+			addFixup(offset, offset + 1, 2, target);
+		}
+
+		private void addFixup(int opcodeOffset, int position, int width, int target) {
+			if (fixupLength + 4 > fixupAll.length) {
+				fixupAll = Arrays.copyOf(fixupAll, fixupAll.length * 2);
+			}
+			fixupAll[fixupLength++] = opcodeOffset;
+			fixupAll[fixupLength++] = position;
+			fixupAll[fixupLength++] = width;
+			fixupAll[fixupLength++] = target;
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A linear memory kept in a ByteBuffer, ordered little endian.
+ */
+public abstract class BufferMemory extends LinearMemory {
+
+	/**
+	 * The buffer of a closed memory.  Every access throws IndexOutOfBoundsException.
+	 */
+	static final ByteBuffer CLOSED = ByteBuffer.allocate(0);
+
+	protected ByteBuffer buffer;
+
+	protected BufferMemory(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public int size() {
+		return buffer.capacity();
+	}
+
+	@Override
+	public byte getByte(int address) {
+		return buffer.get(address);
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		buffer.put(address, value);
+	}
+
+	@Override
+	public short getShort(int address) {
+		return buffer.getShort(address);
+	}
+
+	@Override
+	public void putShort(int address, short value) {
+		buffer.putShort(address, value);
+	}
+
+	@Override
+	public int getInt(int address) {
+		return buffer.getInt(address);
+	}
+
+	@Override
+	public void putInt(int address, int value) {
+		buffer.putInt(address, value);
+	}
+
+	@Override
+	public long getLong(int address) {
+		return buffer.getLong(address);
+	}
+
+	@Override
+	public void putLong(int address, long value) {
+		buffer.putLong(address, value);
+	}
+
+	@Override
+	public float getFloat(int address) {
+		return buffer.getFloat(address);
+	}
+
+	@Override
+	public void putFloat(int address, float value) {
+		buffer.putFloat(address, value);
+	}
+
+	@Override
+	public double getDouble(int address) {
+		return buffer.getDouble(address);
+	}
+
+	@Override
+	public void putDouble(int address, double value) {
+		buffer.putDouble(address, value);
+	}
+
+	/**
+	 * Drop the buffer, a view of it keeps it until the view is collected.
+	 */
+	@Override
+	public void release() {
+		buffer = CLOSED;
+	}
+
+	@Override
+	public ByteBuffer view(int address, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.limit(address + length);
+		view.position(address);
+		return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * A little endian duplicate of the buffer positioned at address.
+	 */
+	private ByteBuffer at(int address) {
+		ByteBuffer result = buffer.duplicate();
+		result.position(address);
+		return result.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public void getInts(int address, int[] destination, int offset, int length) {
+		at(address).asIntBuffer().get(destination, offset, length);
+	}
+
+	@Override
+	public void putInts(int address, int[] source, int offset, int length) {
+		at(address).asIntBuffer().put(source, offset, length);
+	}
+
+	@Override
+	public void getLongs(int address, long[] destination, int offset, int length) {
+		at(address).asLongBuffer().get(destination, offset, length);
+	}
+
+	@Override
+	public void putLongs(int address, long[] source, int offset, int length) {
+		at(address).asLongBuffer().put(source, offset, length);
+	}
+
+	@Override
+	public void getDoubles(int address, double[] destination, int offset, int length) {
+		at(address).asDoubleBuffer().get(destination, offset, length);
+	}
+
+	@Override
+	public void putDoubles(int address, double[] source, int offset, int length) {
+		at(address).asDoubleBuffer().put(source, offset, length);
+	}
+
+	@Override
+	public void getBytes(int address, byte[] destination, int offset, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(address);
+		view.get(destination, offset, length);
+	}
+
+	@Override
+	public void putBytes(int address, byte[] source, int offset, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(address);
+		view.put(source, offset, length);
+	}
+}
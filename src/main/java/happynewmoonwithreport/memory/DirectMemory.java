@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A linear memory in a direct ByteBuffer, outside of the Java heap.
+ * <br>
+ * The garbage collector does not mark or copy the bytes, only the small buffer object.  The
+ * bytes are freed by {@link #close()}, or by the garbage collector when the memory was not
+ * closed.  The buffer left behind by {@link #grow(int)} is always left to the garbage
+ * collector, a view the host still holds keeps it reachable.
+ */
+public class DirectMemory extends BufferMemory {
+
+	public DirectMemory(int size) {
+		super(ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	/**
+	 * Allocate a larger buffer and copy the bytes.  The old buffer is not freed here: the guest
+	 * grows the memory whenever it likes, and a view the host took before still points into the
+	 * old buffer.  The garbage collector frees it once no view is left.
+	 */
+	@Override
+	public void grow(int size) {
+		ByteBuffer old = buffer;
+		ByteBuffer larger = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer source = old.duplicate();
+		source.clear();
+		larger.put(source);
+		larger.clear();
+		buffer = larger;
+	}
+
+	/**
+	 * Free the bytes now.  Every access after traps with an IndexOutOfBoundsException.
+	 */
+	@Override
+	public void close() {
+		ByteBuffer released = buffer;
+		buffer = CLOSED;
+		if (released != CLOSED) {
+			free(released);
+		}
+	}
+
+	/**
+	 * Run the cleaner of a direct buffer.  Java 8 and Java 9 and later do it differently.  When
+	 * neither is possible the garbage collector frees the buffer.
+	 */
+	static void free(ByteBuffer direct) {
+		try {
+			// Java 9 and later.
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			invokeCleaner.invoke(theUnsafe.get(null), direct);
+		} catch (ReflectiveOperationException | RuntimeException java9) {
+			try {
+				// Java 8.
+				Method cleanerMethod = direct.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(direct);
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			} catch (ReflectiveOperationException | RuntimeException java8) {
+				// the garbage collector frees it.
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A linear memory in a <code>byte[]</code> on the Java heap.  This is the default.
+ */
+public class HeapMemory extends BufferMemory {
+
+	private byte[] byteAll;
+
+	public HeapMemory(int size) {
+		this(new byte[size]);
+	}
+
+	private HeapMemory(byte[] byteAll) {
+		super(wrap(byteAll));
+		this.byteAll = byteAll;
+	}
+
+	private static ByteBuffer wrap(byte[] byteAll) {
+		return ByteBuffer.wrap(byteAll).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public void grow(int size) {
+		byteAll = Arrays.copyOf(byteAll, size);
+		buffer = wrap(byteAll);
+	}
+
+	@Override
+	public int size() {
+		return byteAll.length;
+	}
+
+	@Override
+	public byte getByte(int address) {
+		return byteAll[address];
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		byteAll[address] = value;
+	}
+
+	@Override
+	public void getBytes(int address, byte[] destination, int offset, int length) {
+		System.arraycopy(byteAll, address, destination, offset, length);
+	}
+
+	@Override
+	public void putBytes(int address, byte[] source, int offset, int length) {
+		System.arraycopy(source, offset, byteAll, address, length);
+	}
+
+	@Override
+	public void copyWithin(int destination, int source, int length) {
+		System.arraycopy(byteAll, source, byteAll, destination, length);
+	}
+
+	@Override
+	public void fill(int address, int length, byte value) {
+		Arrays.fill(byteAll, address, address + length, value);
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The bytes of a linear memory.
+ * <br>
+ * Multi-byte values are read and written little endian, as WebAssembly defines.  The address
+ * must be in the memory, the caller checks the bounds and traps.  An address outside of the
+ * memory throws IndexOutOfBoundsException.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances" target="_top">
+ * https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances
+ * </a>
+ *
+ * @see happynewmoonwithreport.type.MemoryType
+ */
+public abstract class LinearMemory implements AutoCloseable {
+
+	/**
+	 * Creates the linear memory of an instance.
+	 */
+	public interface Factory {
+		/**
+		 * Create a memory of at least size bytes.  A new memory is filled with zero, a memory
+		 * kept in a file holds what was saved.
+		 *
+		 * @param size the size in bytes.
+		 * @return the memory.
+		 */
+		LinearMemory create(int size);
+	}
+
+	/**
+	 * The size of the memory in bytes.
+	 *
+	 * @return number of bytes.
+	 */
+	public abstract int size();
+
+	/**
+	 * Grow the memory.  The bytes already in the memory are kept, the new bytes are zero.
+	 *
+	 * @param size the new size in bytes.  It may not be smaller than the current size.
+	 */
+	public abstract void grow(int size);
+
+	/**
+	 * Does the memory hold bytes saved by an earlier instance?  The module already ran on such a
+	 * memory, so the instance does not write the active data segments again.
+	 *
+	 * @return true when the memory was restored, false for a new memory.
+	 */
+	public boolean isRestored() {
+		return false;
+	}
+
+	/**
+	 * Is the memory kept after the instance, size and all?  Such a memory grows to exactly the
+	 * size asked for: bytes reserved for a later grow would be saved as pages of the memory.
+	 *
+	 * @return true when the size of the memory is saved with its bytes.
+	 */
+	public boolean isPersistent() {
+		return false;
+	}
+
+	public abstract byte getByte(int address);
+
+	public abstract void putByte(int address, byte value);
+
+	public abstract short getShort(int address);
+
+	public abstract void putShort(int address, short value);
+
+	public abstract int getInt(int address);
+
+	public abstract void putInt(int address, int value);
+
+	public abstract long getLong(int address);
+
+	public abstract void putLong(int address, long value);
+
+	public float getFloat(int address) {
+		return Float.intBitsToFloat(getInt(address));
+	}
+
+	public void putFloat(int address, float value) {
+		putInt(address, Float.floatToRawIntBits(value));
+	}
+
+	public double getDouble(int address) {
+		return Double.longBitsToDouble(getLong(address));
+	}
+
+	public void putDouble(int address, double value) {
+		putLong(address, Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Copy bytes out of the memory.
+	 *
+	 * @param address     the first byte to copy.
+	 * @param destination the array to copy to.
+	 * @param offset      where in the destination the first byte goes.
+	 * @param length      the number of bytes.
+	 */
+	public abstract void getBytes(int address, byte[] destination, int offset, int length);
+
+	/**
+	 * Copy bytes into the memory.
+	 *
+	 * @param address the first byte to write.
+	 * @param source  the array to copy from.
+	 * @param offset  where in the source the first byte is.
+	 * @param length  the number of bytes.
+	 */
+	public abstract void putBytes(int address, byte[] source, int offset, int length);
+
+	/**
+	 * A little endian view of part of the memory that reads and writes the memory itself, for
+	 * the host to exchange large arrays without copying.  After the memory grows or is released
+	 * the view keeps the bytes it had but no longer reads or writes the memory.  The view may not
+	 * be used after the memory is closed.
+	 * <br>
+	 * A memory that can not give a view of the range gives a read-only copy of it instead, see
+	 * {@link #readOnlyCopy(int, int)}.
+	 *
+	 * @param address the first byte of the view.
+	 * @param length  the number of bytes.
+	 * @return the view.  Position zero is <code>address</code>.
+	 */
+	public ByteBuffer view(int address, int length) {
+		return readOnlyCopy(address, length);
+	}
+
+	/**
+	 * A little endian copy of part of the memory, read only so a write does not get lost
+	 * silently.  The host writes such a range with {@link #putBytes} or the bulk copies below.
+	 *
+	 * @param address the first byte of the copy.
+	 * @param length  the number of bytes.
+	 * @return the copy.  Position zero is <code>address</code>.
+	 */
+	protected final ByteBuffer readOnlyCopy(int address, int length) {
+		byte[] byteAll = new byte[length];
+		getBytes(address, byteAll, 0, length);
+		return ByteBuffer.wrap(byteAll).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	// Bulk copies of arrays of values, little endian.
+
+	public void getInts(int address, int[] destination, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			destination[offset + i] = getInt(address + 4 * i);
+		}
+	}
+
+	public void putInts(int address, int[] source, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			putInt(address + 4 * i, source[offset + i]);
+		}
+	}
+
+	public void getLongs(int address, long[] destination, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			destination[offset + i] = getLong(address + 8 * i);
+		}
+	}
+
+	public void putLongs(int address, long[] source, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			putLong(address + 8 * i, source[offset + i]);
+		}
+	}
+
+	public void getDoubles(int address, double[] destination, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			destination[offset + i] = getDouble(address + 8 * i);
+		}
+	}
+
+	public void putDoubles(int address, double[] source, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			putDouble(address + 8 * i, source[offset + i]);
+		}
+	}
+
+	/**
+	 * Copy bytes from one place in the memory to another, <code>memory.copy</code>.  The two
+	 * ranges may overlap.
+	 *
+	 * @param destination the first byte to write.
+	 * @param source      the first byte to copy.
+	 * @param length      the number of bytes.
+	 */
+	public void copyWithin(int destination, int source, int length) {
+		byte[] chunk = new byte[Math.min(length, 1 << 16)];
+		if (destination <= source) {
+			for (int done = 0; done < length; done += chunk.length) {
+				int count = Math.min(chunk.length, length - done);
+				getBytes(source + done, chunk, 0, count);
+				putBytes(destination + done, chunk, 0, count);
+			}
+		} else {
+			// copy from the end so a byte is read before it is overwritten.
+			for (int remaining = length; 0 < remaining; ) {
+				int count = Math.min(chunk.length, remaining);
+				remaining -= count;
+				getBytes(source + remaining, chunk, 0, count);
+				putBytes(destination + remaining, chunk, 0, count);
+			}
+		}
+	}
+
+	/**
+	 * Set bytes to a value, <code>memory.fill</code>.
+	 *
+	 * @param address the first byte to set.
+	 * @param length  the number of bytes.
+	 * @param value   the value of every byte.
+	 */
+	public void fill(int address, int length, byte value) {
+		byte[] chunk = new byte[Math.min(length, 1 << 16)];
+		Arrays.fill(chunk, value);
+		for (int done = 0; done < length; done += chunk.length) {
+			putBytes(address + done, chunk, 0, Math.min(chunk.length, length - done));
+		}
+	}
+
+	/**
+	 * Copy all of another memory to the start of this one.
+	 *
+	 * @param source the memory to copy.  It may not be larger than this one.
+	 */
+	public void copyFrom(LinearMemory source) {
+		byte[] chunk = new byte[Math.min(source.size(), 1 << 16)];
+		for (int address = 0; address < source.size(); address += chunk.length) {
+			int length = Math.min(chunk.length, source.size() - address);
+			source.getBytes(address, chunk, 0, length);
+			putBytes(address, chunk, 0, length);
+		}
+	}
+
+	/**
+	 * Let go of the memory once its bytes were moved to another memory.  Unlike
+	 * {@link #close()} nothing is freed now: a view the host took before keeps valid bytes
+	 * until the garbage collector frees them.  The memory may not be used after.
+	 */
+	public void release() {
+	}
+
+	/**
+	 * Release what the memory holds outside of the Java heap.  The memory may not be used
+	 * after.  Memory on the Java heap has nothing to release.
+	 */
+	@Override
+	public void close() {
+	}
+}
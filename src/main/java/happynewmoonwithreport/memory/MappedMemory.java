@@ -0,0 +1,168 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * A linear memory kept in a file and mapped into the address space.
+ * <br>
+ * The operating system pages the bytes in and out, so the memory may be larger than the Java
+ * heap.  What is written stays in the file: the next instance made with the same file starts
+ * with the bytes of the last one instead of running the module again to build them.
+ * <br>
+ * The file is never shorter than the memory.  When the file is longer, because the memory grew
+ * before, the memory has the size of the file.  A file that was not empty is restored, the
+ * instance keeps its bytes and does not write the active data segments over them.
+ */
+public class MappedMemory extends BufferMemory {
+
+	private final Path path;
+	private FileChannel channel;
+	private boolean restored;
+
+	/**
+	 * Open or create the file of the memory.
+	 *
+	 * @param path the file.
+	 * @param size the least size in bytes.  A shorter file is extended with zero.
+	 */
+	public MappedMemory(Path path, int size) {
+		super(CLOSED);
+		this.path = path;
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+			restored = 0 < channel.size();
+			buffer = map((int) Math.max(size, channel.size()));
+		} catch (IOException | RuntimeException exception) {
+			closeChannel();
+			throw new WasmRuntimeException(UUID.fromString("27808556-53f1-4e09-8965-c93704d58a0f"),
+				"Memory file " + path + " could not be mapped", exception);
+		}
+	}
+
+	/**
+	 * Every memory the factory creates is kept in the same file.  A module has at most one
+	 * memory.
+	 *
+	 * @param path the file.
+	 * @return the factory.
+	 */
+	public static LinearMemory.Factory factory(Path path) {
+		return size -> new MappedMemory(path, size);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @return true when the file held the bytes of an earlier memory.
+	 */
+	@Override
+	public boolean isRestored() {
+		return restored;
+	}
+
+	/**
+	 * @return true, the size of the file is the size of the memory.
+	 */
+	@Override
+	public boolean isPersistent() {
+		return true;
+	}
+
+	private ByteBuffer map(int size) throws IOException {
+		return channel.map(MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Extend the file and map it again.  The old mapping is not released here, a view the host
+	 * took before may still point into it.  The garbage collector unmaps it once no view is
+	 * left.
+	 */
+	@Override
+	public void grow(int size) {
+		try {
+			buffer = map(size);
+		} catch (IOException exception) {
+			throw new WasmRuntimeException(UUID.fromString("594996d2-c486-4b15-9af0-664cd58dc477"),
+				"Memory file " + path + " could not grow to " + size + " bytes", exception);
+		}
+	}
+
+	/**
+	 * Write the changed bytes to the file.  The operating system does it anyway, this makes it
+	 * happen before the call returns.
+	 */
+	public void force() {
+		if (buffer instanceof MappedByteBuffer) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	/**
+	 * Write the changed bytes and close the file.  The mapping is left to the garbage collector,
+	 * a view of it keeps it.
+	 */
+	@Override
+	public void release() {
+		if (buffer == CLOSED) {
+			return;
+		}
+		force();
+		super.release();
+		closeChannel();
+	}
+
+	/**
+	 * Write the changed bytes, unmap the file and close it.  Every access after traps with an
+	 * IndexOutOfBoundsException.
+	 */
+	@Override
+	public void close() {
+		ByteBuffer released = buffer;
+		if (released == CLOSED) {
+			return;
+		}
+		force();
+		buffer = CLOSED;
+		DirectMemory.free(released);
+		closeChannel();
+	}
+
+	private void closeChannel() {
+		try {
+			if (channel != null) {
+				channel.close();
+			}
+		} catch (IOException exception) {
+			throw new WasmRuntimeException(UUID.fromString("4fe91781-859a-4514-a650-90f64e9fc58f"),
+				"Memory file " + path + " could not be closed", exception);
+		}
+	}
+}
@@ -0,0 +1,338 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A linear memory kept in pages of 64 KiB that are shared copy on write.
+ * <br>
+ * {@link #copy()} shares every page with the copy, so it costs one reference per page no matter
+ * how many bytes the memory holds.  A shared page is copied the first time either memory
+ * writes to it.  A page that was never written is not allocated and reads as zero.
+ * <br>
+ * A page the host has a {@link #view} of is written in place by the view, so it is never
+ * shared: {@link #copy()} gives the copy a page of its own and the view keeps writing this
+ * memory only.
+ * <br>
+ * Copying a memory while another thread writes to it is not supported.
+ */
+public class PagedMemory extends LinearMemory {
+
+	public static final int PAGE_SHIFT = 16;
+	public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	private int size;
+
+	/**
+	 * The pages.  Null is a page of zero that was never written.
+	 */
+	private byte[][] pageAll;
+
+	/**
+	 * True when the page belongs to this memory only and may be written in place.
+	 */
+	private boolean[] ownedAll;
+
+	/**
+	 * True when the host was given a view of the page.  The page is owned and stays owned.
+	 */
+	private boolean[] viewedAll;
+
+	public PagedMemory(int size) {
+		this(size, new byte[pageCount(size)][], new boolean[pageCount(size)]);
+	}
+
+	private PagedMemory(int size, byte[][] pageAll, boolean[] ownedAll) {
+		this.size = size;
+		this.pageAll = pageAll;
+		this.ownedAll = ownedAll;
+		this.viewedAll = new boolean[pageAll.length];
+	}
+
+	private static int pageCount(int size) {
+		return (int) (((long) size + PAGE_MASK) >>> PAGE_SHIFT);
+	}
+
+	/**
+	 * Does a range cross a page boundary.  Such a range has no {@link #view}.
+	 *
+	 * @param address the first byte.
+	 * @param length  the number of bytes.
+	 * @return true if the range is in more than one page.
+	 */
+	public static boolean crossesPage(int address, int length) {
+		return 0 < length && PAGE_SIZE - length < (address & PAGE_MASK);
+	}
+
+	/**
+	 * Copy another memory into pages.  Pages of zero are not allocated.
+	 *
+	 * @param source the memory to copy.
+	 * @return the paged copy.
+	 */
+	public static PagedMemory of(LinearMemory source) {
+		if (source instanceof PagedMemory) {
+			return ((PagedMemory) source).copy();
+		}
+		PagedMemory result = new PagedMemory(source.size());
+		byte[] page = new byte[PAGE_SIZE];
+		for (int index = 0; index < result.pageAll.length; index++) {
+			int address = index << PAGE_SHIFT;
+			int length = Math.min(PAGE_SIZE, source.size() - address);
+			source.getBytes(address, page, 0, length);
+			if (isZero(page, length) == false) {
+				result.pageAll[index] = Arrays.copyOf(page, PAGE_SIZE);
+				result.ownedAll[index] = true;
+			}
+		}
+		return result;
+	}
+
+	private static boolean isZero(byte[] page, int length) {
+		for (int i = 0; i < length; i++) {
+			if (page[i] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A copy that shares every page with this memory.  Both memories copy a shared page before
+	 * they write to it.  A page with a view is copied now instead, so the view does not write
+	 * the copy.
+	 *
+	 * @return the copy.
+	 */
+	public PagedMemory copy() {
+		byte[][] copyPageAll = pageAll.clone();
+		boolean[] copyOwnedAll = new boolean[ownedAll.length];
+		for (int index = 0; index < pageAll.length; index++) {
+			if (viewedAll[index]) {
+				copyPageAll[index] = pageAll[index].clone();
+				copyOwnedAll[index] = true;
+			} else {
+				ownedAll[index] = false;
+			}
+		}
+		return new PagedMemory(size, copyPageAll, copyOwnedAll);
+	}
+
+	/**
+	 * The number of pages this memory has copied or allocated for itself.
+	 *
+	 * @return number of pages.
+	 */
+	public int ownedPageCount() {
+		int count = 0;
+		for (boolean owned : ownedAll) {
+			if (owned) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void grow(int size) {
+		int count = pageCount(size);
+		pageAll = Arrays.copyOf(pageAll, count);
+		ownedAll = Arrays.copyOf(ownedAll, count);
+		viewedAll = Arrays.copyOf(viewedAll, count);
+		this.size = size;
+	}
+
+	private void checkBounds(int address, int length) {
+		if (address < 0 || length < 0 || size - length < address) {
+			throw new IndexOutOfBoundsException(
+				"address = " + address + " length = " + length + " size = " + size);
+		}
+	}
+
+	/**
+	 * The page to write to, copied first if it is shared.
+	 */
+	private byte[] writablePage(int index) {
+		if (ownedAll[index] == false) {
+			byte[] page = pageAll[index];
+			pageAll[index] = (page == null) ? new byte[PAGE_SIZE] : page.clone();
+			ownedAll[index] = true;
+		}
+		return pageAll[index];
+	}
+
+	/**
+	 * Read a little endian value of <code>width</code> bytes.
+	 */
+	private long read(int address, int width) {
+		checkBounds(address, width);
+		int offset = address & PAGE_MASK;
+		long result = 0;
+		if (offset <= PAGE_SIZE - width) {
+			byte[] page = pageAll[address >>> PAGE_SHIFT];
+			if (page == null) {
+				return 0;
+			}
+			for (int i = width - 1; 0 <= i; i--) {
+				result = (result << 8) | (page[offset + i] & 0xFF);
+			}
+		} else {
+			// the value is split over two pages.
+			for (int i = width - 1; 0 <= i; i--) {
+				result = (result << 8) | (getByte(address + i) & 0xFF);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Write the low <code>width</code> bytes of a value little endian.
+	 */
+	private void write(int address, int width, long value) {
+		checkBounds(address, width);
+		int offset = address & PAGE_MASK;
+		if (offset <= PAGE_SIZE - width) {
+			byte[] page = writablePage(address >>> PAGE_SHIFT);
+			for (int i = 0; i < width; i++) {
+				page[offset + i] = (byte) (value >>> (8 * i));
+			}
+		} else {
+			// the value is split over two pages.
+			for (int i = 0; i < width; i++) {
+				putByte(address + i, (byte) (value >>> (8 * i)));
+			}
+		}
+	}
+
+	@Override
+	public byte getByte(int address) {
+		checkBounds(address, 1);
+		byte[] page = pageAll[address >>> PAGE_SHIFT];
+		return (page == null) ? 0 : page[address & PAGE_MASK];
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		checkBounds(address, 1);
+		writablePage(address >>> PAGE_SHIFT)[address & PAGE_MASK] = value;
+	}
+
+	@Override
+	public short getShort(int address) {
+		return (short) read(address, 2);
+	}
+
+	@Override
+	public void putShort(int address, short value) {
+		write(address, 2, value);
+	}
+
+	@Override
+	public int getInt(int address) {
+		return (int) read(address, 4);
+	}
+
+	@Override
+	public void putInt(int address, int value) {
+		write(address, 4, value);
+	}
+
+	@Override
+	public long getLong(int address) {
+		return read(address, 8);
+	}
+
+	@Override
+	public void putLong(int address, long value) {
+		write(address, 8, value);
+	}
+
+	@Override
+	public void getBytes(int address, byte[] destination, int offset, int length) {
+		checkBounds(address, length);
+		while (0 < length) {
+			int pageOffset = address & PAGE_MASK;
+			int chunk = Math.min(length, PAGE_SIZE - pageOffset);
+			byte[] page = pageAll[address >>> PAGE_SHIFT];
+			if (page == null) {
+				Arrays.fill(destination, offset, offset + chunk, (byte) 0);
+			} else {
+				System.arraycopy(page, pageOffset, destination, offset, chunk);
+			}
+			address += chunk;
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	@Override
+	public void putBytes(int address, byte[] source, int offset, int length) {
+		checkBounds(address, length);
+		while (0 < length) {
+			int pageOffset = address & PAGE_MASK;
+			int chunk = Math.min(length, PAGE_SIZE - pageOffset);
+			System.arraycopy(source, offset, writablePage(address >>> PAGE_SHIFT), pageOffset,
+				chunk);
+			address += chunk;
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	/**
+	 * A view of a range in one page.  The page is copied first if it is shared, so writes
+	 * through the view stay in this memory, and it is not shared again by {@link #copy()}.
+	 * <br>
+	 * The pages are separate arrays, so a range that crosses a page boundary has no view.  It
+	 * gets a read-only copy instead.  {@link happynewmoonwithreport.type.MemoryType#view} moves
+	 * such a memory to one block first.
+	 */
+	@Override
+	public ByteBuffer view(int address, int length) {
+		checkBounds(address, length);
+		if (length == 0) {
+			return ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		if (crossesPage(address, length)) {
+			return readOnlyCopy(address, length);
+		}
+		int offset = address & PAGE_MASK;
+		byte[] page = writablePage(address >>> PAGE_SHIFT);
+		viewedAll[address >>> PAGE_SHIFT] = true;
+		return ByteBuffer.wrap(page, offset, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Drop the pages.  Every access after traps with an IndexOutOfBoundsException.
+	 */
+	@Override
+	public void close() {
+		size = 0;
+		pageAll = new byte[0][];
+		ownedAll = new boolean[0];
+		viewedAll = new boolean[0];
+	}
+}
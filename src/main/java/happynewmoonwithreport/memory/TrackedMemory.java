@@ -0,0 +1,462 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A linear memory that remembers which parts were written, so a checkpoint copies only what
+ * changed since the last one.
+ * <br>
+ * The memory is split in granules of <code>1 &lt;&lt; granuleShift</code> bytes, by default a
+ * WebAssembly page of 64 KiB.  Every write sets the bit of each granule it touches: stores,
+ * bulk writes, <code>memory.copy</code>, <code>memory.fill</code>, <code>memory.init</code> and
+ * writes by the host.  {@link #snapshot()} copies the granules with the bit set and clears the
+ * bits.  The first snapshot copies every granule, the ones after copy what changed since.
+ * {@link #restore(Snapshot...)} writes a base snapshot and the snapshots after it back.
+ * <br>
+ * A snapshot holds the bytes below a size, by default the size of this memory.  A memory that
+ * reserves more than it uses passes the size in use, see
+ * {@link happynewmoonwithreport.type.MemoryType#snapshot()}.  Granules at or above the size of
+ * the previous snapshot are always copied, so bytes a memory gained by growing are in the next
+ * snapshot even when they are still zero.
+ * <br>
+ * A view writes the memory directly, so the range of a view is marked when the view is made
+ * and the view must be made again after each snapshot.  Taking a snapshot while another thread
+ * writes to the memory is not supported.  An instance cloned from a template does not share
+ * the tracking, it has a memory of its own.
+ */
+public class TrackedMemory extends LinearMemory {
+
+	public static final int DEFAULT_GRANULE_SHIFT = PagedMemory.PAGE_SHIFT;
+
+	private final LinearMemory memory;
+	private final int granuleShift;
+
+	/**
+	 * One bit for each granule, set when the granule was written since the last snapshot.
+	 */
+	private long[] dirtyAll;
+
+	/**
+	 * True until the first snapshot, which copies every granule.
+	 */
+	private boolean full = true;
+
+	/**
+	 * The size of the last snapshot.
+	 */
+	private int snapshotSize;
+
+	/**
+	 * The granules that changed between two snapshots, or every granule for the first.  A
+	 * granule of zero is not kept.
+	 */
+	public static final class Snapshot {
+		private final int size;
+		private final int granuleShift;
+		private final boolean full;
+		private final int[] indexAll;
+		private final byte[][] granuleAll;
+
+		private Snapshot(int size, int granuleShift, boolean full, int[] indexAll,
+						 byte[][] granuleAll) {
+			this.size = size;
+			this.granuleShift = granuleShift;
+			this.full = full;
+			this.indexAll = indexAll;
+			this.granuleAll = granuleAll;
+		}
+
+		/**
+		 * The size of the memory in bytes when the snapshot was taken.
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * True when the snapshot holds every granule and may be restored on its own.
+		 */
+		public boolean isFull() {
+			return full;
+		}
+
+		/**
+		 * The number of granules in the snapshot.
+		 */
+		public int granuleCount() {
+			return indexAll.length;
+		}
+
+		/**
+		 * The number of bytes the snapshot holds.  Granules of zero hold none.
+		 */
+		public long byteCount() {
+			long result = 0;
+			for (byte[] granule : granuleAll) {
+				result += (granule == null) ? 0 : granule.length;
+			}
+			return result;
+		}
+	}
+
+	public TrackedMemory(LinearMemory memory) {
+		this(memory, DEFAULT_GRANULE_SHIFT);
+	}
+
+	/**
+	 * @param memory       the memory to track.
+	 * @param granuleShift log2 of the granule size, from 6 for 64 bytes to 30.
+	 */
+	public TrackedMemory(LinearMemory memory, int granuleShift) {
+		if (granuleShift < 6 || 30 < granuleShift) {
+			throw new IllegalArgumentException("granuleShift = " + granuleShift);
+		}
+		this.memory = memory;
+		this.granuleShift = granuleShift;
+		this.dirtyAll = new long[wordCount(memory.size())];
+	}
+
+	/**
+	 * Track each memory the other factory creates.
+	 *
+	 * @param factory      creates the memory to track, for example <code>HeapMemory::new</code>.
+	 * @param granuleShift log2 of the granule size.
+	 * @return the factory.
+	 */
+	public static LinearMemory.Factory factory(LinearMemory.Factory factory, int granuleShift) {
+		return size -> new TrackedMemory(factory.create(size), granuleShift);
+	}
+
+	public LinearMemory getMemory() {
+		return memory;
+	}
+
+	public int getGranuleShift() {
+		return granuleShift;
+	}
+
+	private int granuleCount(int size) {
+		return (int) (((long) size + (1L << granuleShift) - 1) >>> granuleShift);
+	}
+
+	private int wordCount(int size) {
+		return (granuleCount(size) + 63) >>> 6;
+	}
+
+	/**
+	 * Mark the granules of <code>length</code> bytes at <code>address</code>, after the memory
+	 * accepted the write.
+	 */
+	private void mark(int address, int length) {
+		if (length <= 0) {
+			return;
+		}
+		int first = address >>> granuleShift;
+		int last = (int) ((Integer.toUnsignedLong(address) + length - 1) >>> granuleShift);
+		for (int granule = first; granule <= last; granule++) {
+			dirtyAll[granule >>> 6] |= 1L << granule;
+		}
+	}
+
+	/**
+	 * True when the granule must be in the next snapshot of <code>size</code> bytes.
+	 */
+	private boolean isDirty(int granule) {
+		return full || (snapshotSize >>> granuleShift) <= granule
+			|| (dirtyAll[granule >>> 6] & (1L << granule)) != 0;
+	}
+
+	/**
+	 * The number of granules the next snapshot copies.
+	 *
+	 * @param size the size in bytes of the snapshot.
+	 * @return number of granules.
+	 */
+	public int dirtyCount(int size) {
+		int count = 0;
+		for (int granule = 0; granule < granuleCount(size); granule++) {
+			if (isDirty(granule)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Copy the granules written since the last snapshot, or every granule the first time, and
+	 * start tracking again.
+	 *
+	 * @return the snapshot of the whole memory.
+	 */
+	public Snapshot snapshot() {
+		return snapshot(size());
+	}
+
+	/**
+	 * Copy the granules below <code>size</code> written since the last snapshot, or every
+	 * granule the first time, and start tracking again.  The bytes at and above size must be
+	 * zero.
+	 *
+	 * @param size the size in bytes to keep, no more than the size of the memory.
+	 * @return the snapshot.
+	 */
+	public Snapshot snapshot(int size) {
+		if (size < 0 || size() < size) {
+			throw new IndexOutOfBoundsException("size = " + size + " memory size = " + size());
+		}
+		final int granuleSize = 1 << granuleShift;
+		final int count = dirtyCount(size);
+		int[] indexAll = new int[count];
+		byte[][] granuleAll = new byte[count][];
+		int index = 0;
+		for (int granule = 0; granule < granuleCount(size); granule++) {
+			if (isDirty(granule)) {
+				int address = granule << granuleShift;
+				byte[] byteAll = new byte[Math.min(granuleSize, size - address)];
+				memory.getBytes(address, byteAll, 0, byteAll.length);
+				indexAll[index] = granule;
+				granuleAll[index] = isZero(byteAll) ? null : byteAll;
+				index++;
+			}
+		}
+		Snapshot result = new Snapshot(size, granuleShift, full, indexAll, granuleAll);
+		Arrays.fill(dirtyAll, 0L);
+		full = false;
+		snapshotSize = size;
+		return result;
+	}
+
+	/**
+	 * Take a full snapshot of the whole memory, a new base for the snapshots after it.
+	 *
+	 * @return the snapshot.
+	 */
+	public Snapshot fullSnapshot() {
+		return fullSnapshot(size());
+	}
+
+	/**
+	 * Take a full snapshot, a new base for the snapshots after it.
+	 *
+	 * @param size the size in bytes to keep, see {@link #snapshot(int)}.
+	 * @return the snapshot.
+	 */
+	public Snapshot fullSnapshot(int size) {
+		full = true;
+		return snapshot(size);
+	}
+
+	private static boolean isZero(byte[] byteAll) {
+		for (byte value : byteAll) {
+			if (value != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write back a full snapshot followed by the snapshots taken after it, in the order they
+	 * were taken.  The memory grows to the size of the last snapshot if it is smaller, the bytes
+	 * at and above that size are not written.  The next snapshot holds what is written after
+	 * the restore.
+	 *
+	 * @param snapshotAll a full snapshot then zero or more snapshots.
+	 * @throws IllegalArgumentException when the first snapshot is not full or a snapshot has a
+	 *                                  different granule size.
+	 */
+	public void restore(Snapshot... snapshotAll) {
+		if (snapshotAll.length == 0 || snapshotAll[0].isFull() == false) {
+			throw new IllegalArgumentException("The first snapshot must be a full snapshot");
+		}
+		final int size = snapshotAll[snapshotAll.length - 1].getSize();
+		for (Snapshot snapshot : snapshotAll) {
+			if (snapshot.granuleShift != granuleShift) {
+				throw new IllegalArgumentException("Snapshot granule shift "
+					+ snapshot.granuleShift + " is not " + granuleShift);
+			}
+		}
+		if (size() < size) {
+			grow(size);
+		}
+		for (Snapshot snapshot : snapshotAll) {
+			for (int i = 0; i < snapshot.indexAll.length; i++) {
+				int address = snapshot.indexAll[i] << granuleShift;
+				byte[] granule = snapshot.granuleAll[i];
+				if (granule == null) {
+					memory.fill(address, Math.min(1 << granuleShift, snapshot.size - address),
+						(byte) 0);
+				} else {
+					memory.putBytes(address, granule, 0, granule.length);
+				}
+			}
+		}
+		Arrays.fill(dirtyAll, 0L);
+		full = false;
+		snapshotSize = size;
+	}
+
+	@Override
+	public int size() {
+		return memory.size();
+	}
+
+	@Override
+	public void grow(int size) {
+		memory.grow(size);
+		dirtyAll = Arrays.copyOf(dirtyAll, wordCount(size));
+	}
+
+	@Override
+	public boolean isRestored() {
+		return memory.isRestored();
+	}
+
+	@Override
+	public boolean isPersistent() {
+		return memory.isPersistent();
+	}
+
+	@Override
+	public byte getByte(int address) {
+		return memory.getByte(address);
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		memory.putByte(address, value);
+		dirtyAll[address >>> (granuleShift + 6)] |= 1L << (address >>> granuleShift);
+	}
+
+	@Override
+	public short getShort(int address) {
+		return memory.getShort(address);
+	}
+
+	@Override
+	public void putShort(int address, short value) {
+		memory.putShort(address, value);
+		mark(address, 2);
+	}
+
+	@Override
+	public int getInt(int address) {
+		return memory.getInt(address);
+	}
+
+	@Override
+	public void putInt(int address, int value) {
+		memory.putInt(address, value);
+		mark(address, 4);
+	}
+
+	@Override
+	public long getLong(int address) {
+		return memory.getLong(address);
+	}
+
+	@Override
+	public void putLong(int address, long value) {
+		memory.putLong(address, value);
+		mark(address, 8);
+	}
+
+	@Override
+	public void getBytes(int address, byte[] destination, int offset, int length) {
+		memory.getBytes(address, destination, offset, length);
+	}
+
+	@Override
+	public void putBytes(int address, byte[] source, int offset, int length) {
+		memory.putBytes(address, source, offset, length);
+		mark(address, length);
+	}
+
+	/**
+	 * The range is marked now, writes through the view after the next snapshot are not seen.
+	 */
+	@Override
+	public ByteBuffer view(int address, int length) {
+		ByteBuffer result = memory.view(address, length);
+		mark(address, length);
+		return result;
+	}
+
+	@Override
+	public void getInts(int address, int[] destination, int offset, int length) {
+		memory.getInts(address, destination, offset, length);
+	}
+
+	@Override
+	public void putInts(int address, int[] source, int offset, int length) {
+		memory.putInts(address, source, offset, length);
+		mark(address, 4 * length);
+	}
+
+	@Override
+	public void getLongs(int address, long[] destination, int offset, int length) {
+		memory.getLongs(address, destination, offset, length);
+	}
+
+	@Override
+	public void putLongs(int address, long[] source, int offset, int length) {
+		memory.putLongs(address, source, offset, length);
+		mark(address, 8 * length);
+	}
+
+	@Override
+	public void getDoubles(int address, double[] destination, int offset, int length) {
+		memory.getDoubles(address, destination, offset, length);
+	}
+
+	@Override
+	public void putDoubles(int address, double[] source, int offset, int length) {
+		memory.putDoubles(address, source, offset, length);
+		mark(address, 8 * length);
+	}
+
+	@Override
+	public void copyWithin(int destination, int source, int length) {
+		memory.copyWithin(destination, source, length);
+		mark(destination, length);
+	}
+
+	@Override
+	public void fill(int address, int length, byte value) {
+		memory.fill(address, length, value);
+		mark(address, length);
+	}
+
+	@Override
+	public void copyFrom(LinearMemory source) {
+		memory.copyFrom(source);
+		mark(0, source.size());
+	}
+
+	@Override
+	public void release() {
+		memory.release();
+	}
+
+	@Override
+	public void close() {
+		memory.close();
+	}
+}
@@ -36,7 +36,7 @@ import java.util.UUID;
 public class Drop {
 	private WasmInstanceInterface instance;
 
-	private Drop() {
+	public Drop() {
 		super();
 	}
 
@@ -50,6 +50,15 @@ public class Drop {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		// 1 Assert: due to validation, a value is on the top of the stack.
 		WasmStack<Object> stack = instance.stack();
 		if (stack.empty() == true) {
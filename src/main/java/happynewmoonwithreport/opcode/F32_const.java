@@ -39,7 +39,7 @@ import happynewmoonwithreport.type.F32;
 public class F32_const {
 	private WasmInstanceInterface instance;
 
-	private F32_const() {
+	public F32_const() {
 		super();
 	}
 
@@ -54,6 +54,16 @@ public class F32_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(F32 value) {
+		execute(instance, value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 * @param value the constant to push.
+	 */
+	public void execute(WasmInstanceInterface instance, F32 value) {
 		instance.stack().push(value);
 
 	}
@@ -39,7 +39,7 @@ import happynewmoonwithreport.type.F64;
 public class F64_const {
 	private WasmInstanceInterface instance;
 
-	private F64_const() {
+	public F64_const() {
 		super();
 	}
 
@@ -54,6 +54,16 @@ public class F64_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(F64 value) {
+		execute(instance, value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 * @param value the constant to push.
+	 */
+	public void execute(WasmInstanceInterface instance, F64 value) {
 
 		// 1. Push the value t.const c to the stack.
 		instance.stack().push(value);
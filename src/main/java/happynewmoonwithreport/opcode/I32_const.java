@@ -39,7 +39,7 @@ import happynewmoonwithreport.type.I32;
 public class I32_const {
 	private WasmInstanceInterface instance;
 
-	private I32_const() {
+	public I32_const() {
 		super();
 	}
 
@@ -54,6 +54,16 @@ public class I32_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(I32 value) {
+		execute(instance, value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 * @param value the constant to push.
+	 */
+	public void execute(WasmInstanceInterface instance, I32 value) {
 		instance.stack().push(value);
 
 	}
@@ -39,7 +39,7 @@ import happynewmoonwithreport.type.I64;
 public class I64_const {
 	private WasmInstanceInterface instance;
 
-	private I64_const() {
+	public I64_const() {
 		super();
 	}
 
@@ -54,6 +54,16 @@ public class I64_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(I64 value) {
+		execute(instance, value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 * @param value the constant to push.
+	 */
+	public void execute(WasmInstanceInterface instance, I64 value) {
 		instance.stack().push(value);
 
 	}
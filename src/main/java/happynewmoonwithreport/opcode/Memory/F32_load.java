@@ -100,7 +100,7 @@ import happynewmoonwithreport.type.U32;
 public class F32_load extends LoadBase {
 
 
-	private F32_load() {
+	public F32_load() {
 		super();
 	}
 
@@ -119,8 +119,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class F32_store extends StoreBase {
 
-	private F32_store() {
+	public F32_store() {
 		super();
+		N = null;
 	}
 
 	/**
@@ -140,7 +141,8 @@ public class F32_store extends StoreBase {
 
 	/*package_private */
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		F32 c = (F32) value;
 		ByteUnsigned[] result = new ByteUnsigned[4];
 		result = c.getBytes();
 
@@ -175,16 +177,4 @@ public class F32_store extends StoreBase {
 		return new U32(32);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private F32 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (F32) c;
-	}
-
 }
@@ -101,7 +101,7 @@ import happynewmoonwithreport.type.U32;
 public class F64_load extends LoadBase {
 
 
-	private F64_load() {
+	public F64_load() {
 		super();
 	}
 
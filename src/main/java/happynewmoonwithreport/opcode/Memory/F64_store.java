@@ -119,8 +119,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class F64_store extends happynewmoonwithreport.opcode.Memory.StoreBase {
 
-	private F64_store() {
+	public F64_store() {
 		super();
+		N = null;
 	}
 
 	/**
@@ -140,7 +141,8 @@ public class F64_store extends happynewmoonwithreport.opcode.Memory.StoreBase {
 
 	/*package_private */
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		F64 c = (F64) value;
 		ByteUnsigned[] result = new ByteUnsigned[8];
 		result = c.getBytes();
 
@@ -180,16 +182,4 @@ public class F64_store extends happynewmoonwithreport.opcode.Memory.StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private F64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (F64) c;
-	}
-
 }
@@ -105,7 +105,7 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 public class I32_load extends LoadBase {
 
 
-	private I32_load() {
+	public I32_load() {
 		super();
 	}
 
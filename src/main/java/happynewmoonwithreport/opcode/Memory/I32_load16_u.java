@@ -102,7 +102,7 @@ public class I32_load16_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I32_load16_u() {
+	public I32_load16_u() {
 		super();
 		signExtension = false;
 		N = new U32(16L);
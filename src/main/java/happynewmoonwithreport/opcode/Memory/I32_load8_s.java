@@ -102,7 +102,7 @@ public class I32_load8_s extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I32_load8_s() {
+	public I32_load8_s() {
 		super();
 		signExtension = true;
 		N = new U32(8L);
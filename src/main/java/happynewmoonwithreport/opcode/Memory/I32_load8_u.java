@@ -95,7 +95,7 @@ public class I32_load8_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I32_load8_u() {
+	public I32_load8_u() {
 		super();
 		signExtension = false;
 		N = new U32(8L);
@@ -128,8 +128,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class I32_store extends StoreBase {
 
-	private I32_store() {
+	public I32_store() {
 		super();
+		N = null;
 	}
 
 	public I32_store(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
@@ -141,7 +142,8 @@ public class I32_store extends StoreBase {
 
 	/*package_private */
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		I32 c = (I32) value;
 		ByteUnsigned[] result = new ByteUnsigned[4];
 		result = c.getBytes();
 
@@ -176,16 +178,4 @@ public class I32_store extends StoreBase {
 		return new U32(32);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private I32 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I32) c;
-	}
-
 }
@@ -126,8 +126,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class I32_store16 extends StoreBase {
 
-	private I32_store16() {
+	public I32_store16() {
 		super();
+		N = new U32(16);
 	}
 
 	public I32_store16(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
@@ -139,7 +140,8 @@ public class I32_store16 extends StoreBase {
 
 	/* package_private */
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		I32 c = (I32) value;
 		ByteUnsigned[] result = new ByteUnsigned[4];
 		ByteUnsigned[] baC = c.getBytes();
 
@@ -176,17 +178,4 @@ public class I32_store16 extends StoreBase {
 		return new U32(32);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private I32 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I32) c;
-	}
-
-
 }
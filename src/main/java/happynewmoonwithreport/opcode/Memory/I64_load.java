@@ -105,7 +105,7 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 public class I64_load extends LoadBase {
 
 
-	private I64_load() {
+	public I64_load() {
 		super();
 	}
 
@@ -102,7 +102,7 @@ public class I64_load16_s extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I64_load16_s() {
+	public I64_load16_s() {
 		super();
 		signExtension = true;
 		N = new U32(16L);
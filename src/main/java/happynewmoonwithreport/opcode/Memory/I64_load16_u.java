@@ -102,7 +102,7 @@ public class I64_load16_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I64_load16_u() {
+	public I64_load16_u() {
 		super();
 		signExtension = false;
 		N = new U32(16L);
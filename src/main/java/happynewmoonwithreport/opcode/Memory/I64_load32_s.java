@@ -101,7 +101,7 @@ public class I64_load32_s extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I64_load32_s() {
+	public I64_load32_s() {
 		super();
 		signExtension = true;
 		N = new U32(32L);
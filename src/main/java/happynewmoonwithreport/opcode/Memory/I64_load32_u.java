@@ -101,7 +101,7 @@ public class I64_load32_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I64_load32_u() {
+	public I64_load32_u() {
 		super();
 		signExtension = false;
 		N = new U32(32L);
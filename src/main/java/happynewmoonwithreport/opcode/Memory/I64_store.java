@@ -128,8 +128,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class I64_store extends StoreBase {
 
-	private I64_store() {
+	public I64_store() {
 		super();
+		N = null;
 	}
 
 	public I64_store(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
@@ -141,7 +142,8 @@ public class I64_store extends StoreBase {
 
 	/*package_private */
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		I64 c = (I64) value;
 		ByteUnsigned[] result = new ByteUnsigned[8];
 		result = c.getBytes();
 
@@ -180,17 +182,4 @@ public class I64_store extends StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * the value to store.  <code>'c'</code> is the the value to store in memory.
-	 */
-	private I64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I64) c;
-	}
-
-
 }
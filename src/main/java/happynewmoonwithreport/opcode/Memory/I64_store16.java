@@ -128,8 +128,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class I64_store16 extends StoreBase {
 
-	private I64_store16() {
+	public I64_store16() {
 		super();
+		N = new U32(16);
 	}
 
 	public I64_store16(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
@@ -140,7 +141,8 @@ public class I64_store16 extends StoreBase {
 	}
 
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		I64 c = (I64) value;
 		ByteUnsigned[] result = new ByteUnsigned[8];
 		ByteUnsigned[] baC = c.getBytes();
 
@@ -181,17 +183,4 @@ public class I64_store16 extends StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * the value to store.  <code>'c'</code> is the the value to store in memory.
-	 */
-	private I64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I64) c;
-	}
-
-
 }
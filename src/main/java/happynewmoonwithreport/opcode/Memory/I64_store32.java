@@ -128,8 +128,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class I64_store32 extends StoreBase {
 
-	private I64_store32() {
+	public I64_store32() {
 		super();
+		N = new U32(32);
 	}
 
 	public I64_store32(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
@@ -140,7 +141,8 @@ public class I64_store32 extends StoreBase {
 	}
 
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
+	ByteUnsigned[] step13_convert_C_toByteArray(Object value) {
+		I64 c = (I64) value;
 		ByteUnsigned[] result = new ByteUnsigned[8];
 		ByteUnsigned[] baC = c.getBytes();
 
@@ -183,17 +185,4 @@ public class I64_store32 extends StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * the value to store.  <code>'c'</code> is the the value to store in memory.
-	 */
-	private I64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I64) c;
-	}
-
-
 }
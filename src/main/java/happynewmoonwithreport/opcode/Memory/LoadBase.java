@@ -34,14 +34,14 @@ public abstract class LoadBase {
 	MemoryArgument memoryArgument;
 	WasmFrame frame;
 	WasmStore store;
-	WasmStack stack;
+	WasmStack<Object> stack;
 
 	/* package_private */ LoadBase() {
 		super();
 	}
 
 	/* package_private */ LoadBase(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-								   WasmStack stack) {
+								   WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -68,8 +68,22 @@ public abstract class LoadBase {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(memoryArgument, frame, store, stack);
+	}
+
+	/**
+	 * Execute the opcode.  Nothing is kept between calls so one object may be used for every load
+	 * of this type.
+	 *
+	 * @param memoryArgument the memarg immediate, the offset and alignment.
+	 * @param frame          the current frame.
+	 * @param store          the store that contains the memory.
+	 * @param stack          the stack to pop the address from and push the value to.
+	 */
+	public void execute(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
+						WasmStack<Object> stack) {
 		// 1. Let F be the current frame.
-		// Frame set in constructor.
+		// Frame is a parameter.
 
 		// 2. Assert: due to validation, F.module.memaddrs[0] exists.
 		UInt32 memoryIndex = new UInt32(0);
@@ -129,7 +129,7 @@ public abstract class StoreBase {
 	MemoryArgument memoryArgument;
 	WasmFrame frame;
 	WasmStore store;
-	WasmStack stack;
+	WasmStack<Object> stack;
 
 	/* package_private */ StoreBase() {
 		super();
@@ -137,7 +137,7 @@ public abstract class StoreBase {
 
 	/* package_private */ StoreBase(MemoryArgument memoryArgument, WasmFrame frame,
 									WasmStore store,
-									WasmStack stack) {
+									WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -145,7 +145,6 @@ public abstract class StoreBase {
 		this.stack = stack;
 	}
 
-	/* package_private */ UInt32 memoryIndex;
 	/* package_private */ U32 N;
 	private Boolean nPartofTheInstruction;
 
@@ -165,13 +164,27 @@ public abstract class StoreBase {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		setnPartofTheInstruction(N != null);
+		execute(memoryArgument, frame, store, stack);
+	}
+
+	/**
+	 * Execute the opcode.  Nothing is kept between calls so one object may be used for every
+	 * store of this type.
+	 *
+	 * @param memoryArgument the memarg immediate, the offset and alignment.
+	 * @param frame          the current frame.
+	 * @param store          the store that contains the memory.
+	 * @param stack          the stack to pop the value and the address from.
+	 */
+	public void execute(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
+						WasmStack<Object> stack) {
+		setnPartofTheInstruction(this.N != null);
 
 		// 1. Let F be the current frame.
-		// Frame set in constructor.
+		// Frame is a parameter.
 
 		// 2. Assert: due to validation, F.module.memaddrs[0] exists.
-		memoryIndex = new UInt32(0);
+		UInt32 memoryIndex = new UInt32(0);
 		final Boolean memoryExists = frame.getModule().memoryExists(memoryIndex);
 		if (memoryExists == false) {
 			throw new WasmRuntimeException(UUID.fromString("1b1ccfdc-892c-4d12-b6a8-f15e5986f0a4"),
@@ -202,7 +215,7 @@ public abstract class StoreBase {
 		}
 
 		// 7. Pop the value t.const c from the stack
-		setC(stack.pop());
+		Object c = stack.pop();
 
 		// 8. Assert: due to validation, a value of value type I32 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
@@ -221,6 +234,7 @@ public abstract class StoreBase {
 
 		// 11. If N is NOT part of the instruction, then:
 		//        a: Let N be the bit width |t| of value type t .
+		U32 N = this.N;
 		if (isN_NOT_PartofTheInstruction()) {
 			N = getWidthOfExpectedType();
 		}
@@ -242,7 +256,7 @@ public abstract class StoreBase {
 		//    b. Let b∗ be the byte sequence bytesiN(n).
 		// 14.  Else
 		//  a. Let b∗ be the byte sequence bytes t (c).
-		bytes = step13_convert_C_toByteArray();
+		bytes = step13_convert_C_toByteArray(c);
 
 		// 15. Replace the bytes mem.data[ea:N/8] with b*.
 		step15_ReplaceBytes(mem, ea, bytes);
@@ -261,12 +275,13 @@ public abstract class StoreBase {
 
 
 	/**
-	 * The value to store.  <code>'c'</code> is the the value to store in memory.
+	 * Convert the value to store to bytes.
+	 *
+	 * @param c The value to store.  <code>'c'</code> is the the value to store in memory.
+	 * @return the bytes to store.
 	 */
-	abstract void setC(Object c);
-
 	/* package_private */
-	abstract ByteUnsigned[] step13_convert_C_toByteArray();
+	abstract ByteUnsigned[] step13_convert_C_toByteArray(Object c);
 
 	/* package_private */
 	abstract void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes);
@@ -56,7 +56,7 @@ import java.util.UUID;
 public class Select {
 	private WasmInstanceInterface instance;
 
-	private Select() {
+	public Select() {
 		super();
 	}
 
@@ -70,6 +70,15 @@ public class Select {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		// 1 Assert: due to validation, a value of value type i32 is on the top of the stack.
 		WasmStack<Object> stack = instance.stack();
 		Object value = stack.peek();
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitshift;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -86,7 +87,7 @@ public class I32_rotl {
 
 	private WasmInstanceInterface instance;
 
-	private I32_rotl() {
+	public I32_rotl() {
 		super();
 	}
 
@@ -99,6 +100,15 @@ public class I32_rotl {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		//Pop the value t.const value2 from the stack.
@@ -115,15 +125,10 @@ public class I32_rotl {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// Let c(i.e. result) be a possible result of computing binopt(value1,value2).
-
-		// Let k be i2 modulo N.
-		Integer k = value2.integerValue() % N;
-
-		// Return the result of shifting i1 right  by k bits, modulo 2^N
-		I32 result = new I32(Integer.rotateLeft(value1.integerValue(), k));
+		// Let c be the result of computing i32.rotl(value1, value2).
+		I32 c = new I32(NumericKernel.i32Rotl(value1.integerValue(), value2.integerValue()));
 
-		// Push the value t.const c(i.e. result) to the stack.
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitshift;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -85,7 +86,7 @@ public class I32_rotr {
 
 	private WasmInstanceInterface instance;
 
-	private I32_rotr() {
+	public I32_rotr() {
 		super();
 	}
 
@@ -98,6 +99,15 @@ public class I32_rotr {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		//Pop the value t.const value2 from the stack.
@@ -114,15 +124,10 @@ public class I32_rotr {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// Let c(i.e. result) be a possible result of computing binopt(value1,value2).
-
-		// Let k be i2 modulo N.
-		Integer k = value2.integerValue() % N;
-
-		// Return the result of shifting i1 right  by k bits, modulo 2^N
-		I32 result = new I32(Integer.rotateRight(value1.integerValue(), k));
+		// Let c be the result of computing i32.rotr(value1, value2).
+		I32 c = new I32(NumericKernel.i32Rotr(value1.integerValue(), value2.integerValue()));
 
-		// Push the value t.const c(i.e. result) to the stack.
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
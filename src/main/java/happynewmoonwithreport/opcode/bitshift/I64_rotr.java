@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitshift;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -85,7 +86,7 @@ public class I64_rotr {
 
 	private WasmInstanceInterface instance;
 
-	private I64_rotr() {
+	public I64_rotr() {
 		super();
 	}
 
@@ -98,6 +99,15 @@ public class I64_rotr {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		//Pop the value t.const value2 from the stack.
@@ -114,19 +124,10 @@ public class I64_rotr {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		// Let c(i.e. result) be a possible result of computing binopt(value1,value2).
-
-		// Let k be i2 modulo N.
-		// Do the modulo division (%) with Long values
-		Long k_long = value2.longValue() % N;
-		// After the modulo we know the value of k is less than N and thus can be converted to an
-		// Integer with out loss.
-		Integer k = k_long.intValue();
-
-		// Return the result of shifting i1 right  by k bits, modulo 2^N
-		I64 result = new I64(Long.rotateRight(value1.longValue(), k));
+		// Let c be the result of computing i64.rotr(value1, value2).
+		I64 c = new I64(NumericKernel.i64Rotr(value1.longValue(), value2.longValue()));
 
-		// Push the value t.const c(i.e. result) to the stack.
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitwise.F32;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.F32;
 import java.util.UUID;
 
@@ -47,7 +48,7 @@ public class F32_copysign {
 
 	private WasmInstanceInterface instance;
 
-	private F32_copysign() {
+	public F32_copysign() {
 		super();
 	}
 
@@ -61,6 +62,15 @@ public class F32_copysign {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
@@ -99,7 +109,7 @@ public class F32_copysign {
 		// 4. If binopt(c1,c2) is defined, then:
 
 		// 4a. Let c be a possible result of computing binopt(c1,c2).
-		F32 c = value1.copysign(value2);
+		F32 c = F32.fromBits(NumericKernel.f32Copysign(value1.getBits(), value2.getBits()));
 
 		// 4b. Push the value f32.const c to the stack.
 		stack.push(c);
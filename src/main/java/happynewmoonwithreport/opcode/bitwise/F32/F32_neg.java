@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitwise.F32;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.F32;
 import java.util.UUID;
 
@@ -77,7 +78,7 @@ public class F32_neg {
 
 	private WasmInstanceInterface instance;
 
-	private F32_neg() {
+	public F32_neg() {
 		super();
 	}
 
@@ -90,6 +91,15 @@ public class F32_neg {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
@@ -105,7 +115,7 @@ public class F32_neg {
 		F32 c1 = (F32) stack.pop();
 
 		//Let c be a possible result of computing unopt(c1).
-		F32 c = c1.negWasm();
+		F32 c = F32.fromBits(NumericKernel.f32Neg(c1.getBits()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitwise.F64;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.F64;
 import java.util.UUID;
 
@@ -77,7 +78,7 @@ public class F64_abs {
 
 	private WasmInstanceInterface instance;
 
-	private F64_abs() {
+	public F64_abs() {
 		super();
 	}
 
@@ -90,6 +91,15 @@ public class F64_abs {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
@@ -105,7 +115,7 @@ public class F64_abs {
 		F64 c1 = (F64) stack.pop();
 
 		//Let c be a possible result of computing unopt(c1).
-		F64 c = c1.absWasm();
+		F64 c = F64.fromBits(NumericKernel.f64Abs(c1.getBits()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.bitwise.F64;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.F64;
 import happynewmoonwithreport.type.F64;
 import java.util.UUID;
@@ -49,7 +50,7 @@ public class F64_copysign {
 
 	private WasmInstanceInterface instance;
 
-	private F64_copysign() {
+	public F64_copysign() {
 		super();
 	}
 
@@ -63,6 +64,15 @@ public class F64_copysign {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
@@ -91,7 +101,7 @@ public class F64_copysign {
 		// 4. If binopt(c1,c2) is defined, then:
 
 		// 4a. Let c be a possible result of computing binopt(c1,c2).
-		F64 c =  value1.copysign(value2);
+		F64 c = F64.fromBits(NumericKernel.f64Copysign(value1.getBits(), value2.getBits()));
 
 		// 4b. Push the value F64.const c to the stack.
 		stack.push(c);
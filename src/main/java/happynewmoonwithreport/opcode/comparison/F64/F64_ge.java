@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison.F64;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.F64;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
@@ -56,7 +57,7 @@ import java.util.UUID;
 public class F64_ge {
 	private WasmInstanceInterface instance;
 
-	private F64_ge() {
+	public F64_ge() {
 		super();
 	}
 
@@ -70,6 +71,15 @@ public class F64_ge {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// 1. Assert: due to validation, two values of value type t are on the top of the stack.
@@ -88,10 +98,10 @@ public class F64_ge {
 		// 3. Pop the value t.const c1 from the stack.
 		F64 value1 = (F64) stack.pop();
 
-		// 4. Let c be the result of computing relopt(c1,c2).
-		I32 c = value1.greaterThaEqualnWasm(value2);
+		// Let c be the result of computing f64.ge(value1, value2).
+		I32 c = new I32(NumericKernel.f64Ge(value1.doubleValue(), value2.doubleValue()));
 
-		// 5. Push the value f64.const c to the stack.
+		// Push the value t.const c to the stack.
 		stack.push(c);
 	}
 
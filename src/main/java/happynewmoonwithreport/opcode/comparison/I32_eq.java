@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -55,7 +56,7 @@ import java.util.UUID;
 public class I32_eq {
 	private WasmInstanceInterface instance;
 
-	private I32_eq() {
+	public I32_eq() {
 		super();
 	}
 
@@ -69,6 +70,15 @@ public class I32_eq {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("03da0147-6ed0-4039-8f54-a7cab2477b6f"),
@@ -82,15 +92,11 @@ public class I32_eq {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		Integer iResult;
-		if (value1.equals(value2)) {
-			iResult = 1;
-		} else {
-			iResult = 0;
-		}
-		I32 result = new I32(iResult);
+		// Let c be the result of computing i32.eq(value1, value2).
+		I32 c = new I32(NumericKernel.i32Eq(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
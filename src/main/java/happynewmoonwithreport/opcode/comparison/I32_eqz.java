@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -40,7 +41,7 @@ import java.util.UUID;
 public class I32_eqz {
 	private WasmInstanceInterface instance;
 
-	private I32_eqz() {
+	public I32_eqz() {
 		super();
 	}
 
@@ -54,6 +55,15 @@ public class I32_eqz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("2278f5a2-debe-4e0d-a1ff-9a040297359c"),
@@ -61,15 +71,11 @@ public class I32_eqz {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		Integer iResult;
-		if (new I32(0).equals(value1)) {
-			iResult = 1;
-		} else {
-			iResult = 0;
-		}
-		I32 result = new I32(iResult);
+		// Let c be the result of computing i32.eqz(value1).
+		I32 c = new I32(NumericKernel.i32Eqz(value1.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
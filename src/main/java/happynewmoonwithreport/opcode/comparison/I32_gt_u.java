@@ -19,8 +19,8 @@ package happynewmoonwithreport.opcode.comparison;
 
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.U32;
 import java.util.UUID;
 
 /**
@@ -56,7 +56,7 @@ public class I32_gt_u {
 
 	private WasmStack<Object> stack;
 
-	private I32_gt_u() {
+	public I32_gt_u() {
 		super();
 	}
 
@@ -70,6 +70,15 @@ public class I32_gt_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the stack to operate on.
+	 */
+	public void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("b422e802-6418-4b81-9eba-cff76bcdefb2"),
 				"i32_gt_u: Value2 type is incorrect");
@@ -82,15 +91,11 @@ public class I32_gt_u {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// these values are unsigned values
-		U32 value2Unsigned = value2.unsignedValue();
-		U32 value1Unsigned = value1.unsignedValue();
-
-		// Do the comparison.
-		I32 result = value1Unsigned.greaterThan(value2Unsigned);
-
+		// Let c be the result of computing i32.gt_u(value1, value2).
+		I32 c = new I32(NumericKernel.i32GtU(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
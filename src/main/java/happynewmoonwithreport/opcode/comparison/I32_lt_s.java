@@ -20,8 +20,8 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.S32;
 import java.util.UUID;
 
 /**
@@ -56,7 +56,7 @@ import java.util.UUID;
 public class I32_lt_s {
 	private WasmInstanceInterface instance;
 
-	private I32_lt_s() {
+	public I32_lt_s() {
 		super();
 	}
 
@@ -70,6 +70,15 @@ public class I32_lt_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("81896be1-ede4-4aa6-b170-d81a431bfe06"),
@@ -83,14 +92,11 @@ public class I32_lt_s {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// these values are signed (positive/negative) values
-		S32 value2Signed = value2.signedValue();
-		S32 value1Signed = value1.signedValue();
-
-		// Do the comparison.
-		I32 result = value1Signed.lessThan(value2Signed);
+		// Let c be the result of computing i32.lt_s(value1, value2).
+		I32 c = new I32(NumericKernel.i32LtS(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
@@ -20,8 +20,8 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.U32;
 import java.util.UUID;
 
 /**
@@ -56,7 +56,7 @@ import java.util.UUID;
 public class I32_lt_u {
 	private WasmInstanceInterface instance;
 
-	private I32_lt_u() {
+	public I32_lt_u() {
 		super();
 	}
 
@@ -70,6 +70,15 @@ public class I32_lt_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("cb177362-ff56-4f17-800d-023c699a510e"),
@@ -83,14 +92,11 @@ public class I32_lt_u {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// these values are unsigned values and thus we use UInt32
-		U32 value2Unsigned = value2.unsignedValue();
-		U32 value1Unsigned = value1.unsignedValue();
-
-		// Do the comparison.
-		I32 result = value1Unsigned.lessThan(value2Unsigned);
+		// Let c be the result of computing i32.lt_u(value1, value2).
+		I32 c = new I32(NumericKernel.i32LtU(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
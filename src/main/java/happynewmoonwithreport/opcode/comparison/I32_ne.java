@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -55,7 +56,7 @@ import java.util.UUID;
 public class I32_ne {
 	private WasmInstanceInterface instance;
 
-	private I32_ne() {
+	public I32_ne() {
 		super();
 	}
 
@@ -69,6 +70,15 @@ public class I32_ne {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("c0567b29-8821-4db4-82f0-58780682c917"),
@@ -82,15 +92,11 @@ public class I32_ne {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		Integer iResult;
-		if (value1.equals(value2) == false) {
-			iResult = 1;
-		} else {
-			iResult = 0;
-		}
-		I32 result = new I32(iResult);
+		// Let c be the result of computing i32.ne(value1, value2).
+		I32 c = new I32(NumericKernel.i32Ne(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
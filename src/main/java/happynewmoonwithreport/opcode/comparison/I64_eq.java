@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
@@ -52,7 +53,7 @@ import java.util.UUID;
 public class I64_eq {
 	private WasmInstanceInterface instance;
 
-	private I64_eq() {
+	public I64_eq() {
 		super();
 	}
 
@@ -67,6 +68,15 @@ public class I64_eq {
 	 */
 
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("e9b2cccf-1977-4a6b-9cb2-00d101c1203c"),
@@ -80,15 +90,11 @@ public class I64_eq {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		Integer iResult;
-		if (value2.equals(value1)) {
-			iResult = 1;
-		} else {
-			iResult = 0;
-		}
-		I32 result = new I32(iResult);
+		// Let c be the result of computing i64.eq(value1, value2).
+		I32 c = new I32(NumericKernel.i64Eq(value1.longValue(), value2.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
@@ -41,7 +42,7 @@ import java.util.UUID;
 public class I64_eqz {
 	private WasmInstanceInterface instance;
 
-	private I64_eqz() {
+	public I64_eqz() {
 		super();
 	}
 
@@ -55,6 +56,15 @@ public class I64_eqz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("d33cbf32-66c8-4b8c-9fa5-81e8e195d1bc"),
@@ -62,15 +72,11 @@ public class I64_eqz {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		Integer iResult;
-		if (new I64(0).equals(value1)) {
-			iResult = 1;
-		} else {
-			iResult = 0;
-		}
-		I32 result = new I32(iResult);
+		// Let c be the result of computing i64.eqz(value1).
+		I32 c = new I32(NumericKernel.i64Eqz(value1.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
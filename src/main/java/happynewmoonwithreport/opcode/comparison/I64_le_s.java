@@ -20,9 +20,9 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.S64;
 import java.util.UUID;
 
 /**
@@ -56,7 +56,7 @@ import java.util.UUID;
 public class I64_le_s {
 	private WasmInstanceInterface instance;
 
-	private I64_le_s() {
+	public I64_le_s() {
 		super();
 	}
 
@@ -70,6 +70,15 @@ public class I64_le_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("b130e5a2-3cbd-4ebc-a2be-d36bb40297b6"),
@@ -83,14 +92,11 @@ public class I64_le_s {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		// these values are signed (positive/negative) values
-		S64 value2Signed = value2.signedValue();
-		S64 value1Signed = value1.signedValue();
-
-		// Do the comparison.
-		I32 result = value1Signed.lessThanEqual(value2Signed);
+		// Let c be the result of computing i64.le_s(value1, value2).
+		I32 c = new I32(NumericKernel.i64LeS(value1.longValue(), value2.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
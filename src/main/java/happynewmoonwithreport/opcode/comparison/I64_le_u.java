@@ -20,9 +20,9 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.U64;
 import java.util.UUID;
 
 /**
@@ -56,7 +56,7 @@ import java.util.UUID;
 public class I64_le_u {
 	private WasmInstanceInterface instance;
 
-	private I64_le_u() {
+	public I64_le_u() {
 		super();
 	}
 
@@ -70,6 +70,15 @@ public class I64_le_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("bb35e895-dc00-45d9-a5fa-9e19032569ab"),
@@ -83,14 +92,11 @@ public class I64_le_u {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		// these values are unsigned (positive/negative) values
-		U64 value2Unsigned = value2.unsignedValue();
-		U64 value1Unsigned = value1.unsignedValue();
-
-		// Do the comparison.
-		I32 result = value1Unsigned.lessThanEqual(value2Unsigned);
+		// Let c be the result of computing i64.le_u(value1, value2).
+		I32 c = new I32(NumericKernel.i64LeU(value1.longValue(), value2.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
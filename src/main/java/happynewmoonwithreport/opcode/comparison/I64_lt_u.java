@@ -20,9 +20,9 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.U64;
 import java.util.UUID;
 
 /**
@@ -44,7 +44,7 @@ import java.util.UUID;
 public class I64_lt_u {
 	private WasmInstanceInterface instance;
 
-	private I64_lt_u() {
+	public I64_lt_u() {
 		super();
 	}
 
@@ -58,6 +58,15 @@ public class I64_lt_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("513578cf-b2c6-4c15-9aeb-c10e6201298f"),
@@ -71,14 +80,11 @@ public class I64_lt_u {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		// these values are signed (positive/negative) values
-		U64 value2Unsigned = value2.unsignedValue();
-		U64 value1Unsigned = value1.unsignedValue();
-
-		// Do the comparison.
-		I32 result = value1Unsigned.lessThan(value2Unsigned);
+		// Let c be the result of computing i64.lt_u(value1, value2).
+		I32 c = new I32(NumericKernel.i64LtU(value1.longValue(), value2.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
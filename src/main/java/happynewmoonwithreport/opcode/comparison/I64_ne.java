@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.comparison;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
@@ -41,7 +42,7 @@ import java.util.UUID;
 public class I64_ne {
 	private WasmInstanceInterface instance;
 
-	private I64_ne() {
+	public I64_ne() {
 		super();
 	}
 
@@ -56,6 +57,15 @@ public class I64_ne {
 	 */
 
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("35101325-10e5-41c3-86e1-b79dd7eac7c6"),
@@ -69,15 +79,11 @@ public class I64_ne {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		Integer iResult;
-		if (value1.equals(value2) == false) {
-			iResult = 1;
-		} else {
-			iResult = 0;
-		}
-		I32 result = new I32(iResult);
+		// Let c be the result of computing i64.ne(value1, value2).
+		I32 c = new I32(NumericKernel.i64Ne(value1.longValue(), value2.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 
 
@@ -49,7 +49,7 @@ public class Block {
 	private WasmInstanceInterface instance;
 	private final String opCodeName = getClass().getName();
 
-	private Block() {
+	public Block() {
 		super();
 	}
 
@@ -59,9 +59,38 @@ public class Block {
 	}
 
 	/**
-	 * Execute the opcode.
+	 * Execute the opcode.  The block type is read from the code.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
+		BytesFile code = instance.getCode();
+		execute(instance, new ValueType(code));
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param blockType the block type immediate, already decoded.
+	 */
+	public void execute(ValueType blockType) {
+		execute(instance, blockType);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance  the instance that owns the stack.
+	 * @param blockType the block type immediate, already decoded.
+	 */
+	public void execute(WasmInstanceInterface instance, ValueType blockType) {
 		// Assert: due to validation expand<sub>F</sub>(Blocktype) is defined.
 		// I am not sure what this means.  @TODO
 
@@ -86,9 +115,7 @@ public class Block {
 			stack.pop();
 		}
 
-		BytesFile code = instance.getCode();
-
-		WasmLabel label = new WasmLabel(code);
+		WasmLabel label = new WasmLabel(blockType);
 
 		// Entering Blocks
 		// See:  https://webassembly.github.io/spec/core/exec/instructions.html#blocks
@@ -35,7 +35,7 @@ public class End {
 	private final String opCodeName = getClass().getName();
 
 
-	private End() {
+	public End() {
 		super();
 	}
 
@@ -48,6 +48,15 @@ public class End {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		// Exiting Blocks
 		// See:  https://webassembly.github.io/spec/core/exec/instructions.html#blocks
@@ -34,7 +34,7 @@ import happynewmoonwithreport.WasmInstanceInterface;
 public class Nop {
 	private WasmInstanceInterface instance;
 
-	private Nop() {
+	public Nop() {
 		super();
 	}
 
@@ -47,6 +47,15 @@ public class Nop {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		// Do Nothing!
 	}
 }
@@ -18,8 +18,7 @@ package happynewmoonwithreport.opcode.control;
 
 
 import happynewmoonwithreport.WasmInstanceInterface;
-import happynewmoonwithreport.WasmTrapException;
-import java.util.UUID;
+import happynewmoonwithreport.interpreter.NumericKernel;
 
 /**
  * Unreachable
@@ -37,7 +36,7 @@ import java.util.UUID;
 public class Unreachable {
 	private WasmInstanceInterface instance;
 
-	private Unreachable() {
+	public Unreachable() {
 		super();
 	}
 
@@ -50,7 +49,15 @@ public class Unreachable {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		throw new WasmTrapException(UUID.fromString("e496383f-377d-4090-9cff-64bdfc50a32e"),
-			"Unreachable code tried to execute!");
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
+		NumericKernel.unreachable();
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.convert;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -70,11 +71,10 @@ import java.util.UUID;
 public class I32_extend16_s {
 	private final String opCodeName = getClass().getName();
 	private final String t1Type = "I32";
-	private final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
-	private I32_extend16_s() {
+	public I32_extend16_s() {
 		super();
 	}
 
@@ -87,6 +87,15 @@ public class I32_extend16_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
@@ -97,8 +106,8 @@ public class I32_extend16_s {
 		// Pop the value t1.const c1 from the stack.
 		I32 c1 = (I32) stack.pop();
 
-		//Let c be a possible result of computing unopt(c1).
-		I32 c = c1.extend16To32Signed();
+		// Let c be the result of computing i32.extend16_s(c1).
+		I32 c = new I32(NumericKernel.i32Extend16S(c1.integerValue()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
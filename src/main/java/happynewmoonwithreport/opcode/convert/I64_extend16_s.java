@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.convert;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -70,11 +71,10 @@ import java.util.UUID;
 public class I64_extend16_s {
 	private final String opCodeName = getClass().getName();
 	private final String t1Type = "I64";
-	private final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
-	private I64_extend16_s() {
+	public I64_extend16_s() {
 		super();
 	}
 
@@ -87,6 +87,15 @@ public class I64_extend16_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
@@ -97,8 +106,8 @@ public class I64_extend16_s {
 		// Pop the value t1.const c1 from the stack.
 		I64 c1 = (I64) stack.pop();
 
-		//Let c be a possible result of computing unopt(c1).
-		I64 c = c1.extend16To64Signed();
+		// Let c be the result of computing i64.extend16_s(c1).
+		I64 c = new I64(NumericKernel.i64Extend16S(c1.longValue()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.convert;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
@@ -69,11 +70,10 @@ import java.util.UUID;
 public class I64_extend_I32_u {
 	private final String opCodeName = "I64_extend_I32_u";
 	private final String t1Type = "I32";
-	private final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
-	private I64_extend_I32_u() {
+	public I64_extend_I32_u() {
 		super();
 	}
 
@@ -86,6 +86,15 @@ public class I64_extend_I32_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
@@ -96,11 +105,11 @@ public class I64_extend_I32_u {
 		// Pop the value t1.const c1 from the stack.
 		I32 value1 = (I32) stack.pop();
 
-		//Let c2 be a possible result of computing cvtopsx?t1,t2(c1).
-		I64 c2 = value1.toI64Unsigned();
+		// Let c be the result of computing i64.extend_i32_u(value1).
+		I64 c = new I64(NumericKernel.i64ExtendI32U(value1.integerValue()));
 
-		// Push the value t2.const c2 to the stack.
-		stack.push(c2);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 
 		// No need to trap as I32 may always be converted to I64.
 	}
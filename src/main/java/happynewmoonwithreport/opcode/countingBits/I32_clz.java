@@ -19,6 +19,7 @@ package happynewmoonwithreport.opcode.countingBits;
 
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -75,7 +76,7 @@ public class I32_clz {
 
 	private WasmStack<Object> stack;
 
-	private I32_clz() {
+	public I32_clz() {
 		super();
 	}
 
@@ -88,6 +89,15 @@ public class I32_clz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the stack to operate on.
+	 */
+	public void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
@@ -97,8 +107,8 @@ public class I32_clz {
 		// Pop the value t1.const c1 from the stack.
 		I32 c1 = (I32) stack.pop();
 
-		//Let c be a possible result of computing unopt(c1).
-		I32 c = c1.countLeadingZeros();
+		// Let c be the result of computing i32.clz(c1).
+		I32 c = new I32(NumericKernel.i32Clz(c1.integerValue()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
@@ -19,6 +19,7 @@ package happynewmoonwithreport.opcode.countingBits;
 
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -76,7 +77,7 @@ public class I32_ctz {
 
 	private WasmStack<Object> stack;
 
-	private I32_ctz() {
+	public I32_ctz() {
 		super();
 	}
 
@@ -89,6 +90,15 @@ public class I32_ctz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the stack to operate on.
+	 */
+	public void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
@@ -98,8 +108,8 @@ public class I32_ctz {
 		// Pop the value t1.const c1 from the stack.
 		I32 c1 = (I32) stack.pop();
 
-		//Let c be a possible result of computing unopt(c1).
-		I32 c = c1.countTrailingZeros();
+		// Let c be the result of computing i32.ctz(c1).
+		I32 c = new I32(NumericKernel.i32Ctz(c1.integerValue()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
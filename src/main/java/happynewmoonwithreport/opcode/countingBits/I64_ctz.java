@@ -19,7 +19,7 @@ package happynewmoonwithreport.opcode.countingBits;
 
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
-import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -77,7 +77,7 @@ public class I64_ctz {
 
 	private WasmStack<Object> stack;
 
-	private I64_ctz() {
+	public I64_ctz() {
 		super();
 	}
 
@@ -90,6 +90,15 @@ public class I64_ctz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the stack to operate on.
+	 */
+	public void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I64) == false) {
@@ -99,8 +108,8 @@ public class I64_ctz {
 		// Pop the value t1.const c1 from the stack.
 		I64 c1 = (I64) stack.pop();
 
-		//Let c be a possible result of computing unopt(c1).
-		I32 c = c1.countTrailingZeros();
+		// Let c be the result of computing i64.ctz(c1).
+		I64 c = new I64(NumericKernel.i64Ctz(c1.longValue()));
 
 		// Push the value t.const c to the stack.
 		stack.push(c);
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.logic;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -88,7 +89,7 @@ public class I32_or {
 
 	private WasmInstanceInterface instance;
 
-	private I32_or() {
+	public I32_or() {
 		super();
 	}
 
@@ -101,6 +102,15 @@ public class I32_or {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		//Pop the value t.const value2 from the stack.
@@ -117,13 +127,10 @@ public class I32_or {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// Let c(i.e. result) be a possible result of computing binopt(value1,value2).
-
-		// Note the Wasm Specification dictates the uses of the bitwise or '|' operator in the
-		// formal definition, not the logical or "||" operator.
-		I32 result = new I32(value1.integerValue() | value2.integerValue());
+		// Let c be the result of computing i32.or(value1, value2).
+		I32 c = new I32(NumericKernel.i32Or(value1.integerValue(), value2.integerValue()));
 
-		// Push the value t.const c(i.e. result) to the stack.
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.logic;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -86,7 +87,7 @@ public class I32_xor {
 
 	private WasmInstanceInterface instance;
 
-	private I32_xor() {
+	public I32_xor() {
 		super();
 	}
 
@@ -99,6 +100,15 @@ public class I32_xor {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		//Pop the value t.const value2 from the stack.
@@ -115,10 +125,10 @@ public class I32_xor {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// Let c(i.e. result) be a possible result of computing binopt(value1,value2).
-		I32 result = new I32(value1.integerValue() ^ value2.integerValue());
+		// Let c be the result of computing i32.xor(value1, value2).
+		I32 c = new I32(NumericKernel.i32Xor(value1.integerValue(), value2.integerValue()));
 
-		// Push the value t.const c(i.e. result) to the stack.
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.logic;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -88,7 +89,7 @@ public class I64_or {
 
 	private WasmInstanceInterface instance;
 
-	private I64_or() {
+	public I64_or() {
 		super();
 	}
 
@@ -101,6 +102,15 @@ public class I64_or {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 
 		//Pop the value t.const value2 from the stack.
@@ -117,13 +127,10 @@ public class I64_or {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		// Let c(i.e. result) be a possible result of computing binopt(value1,value2).
-
-		// Note the Wasm Specification dictates the uses of the bitwise or '|' operator in the
-		// formal definition, not the logical or "||" operator.
-		I64 result = new I64(value1.integerValue() | value2.integerValue());
+		// Let c be the result of computing i64.or(value1, value2).
+		I64 c = new I64(NumericKernel.i64Or(value1.longValue(), value2.longValue()));
 
-		// Push the value t.const c(i.e. result) to the stack.
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.math;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -79,7 +80,7 @@ public class I32_add {
 
 	private WasmInstanceInterface instance;
 
-	private I32_add() {
+	public I32_add() {
 		super();
 	}
 
@@ -92,6 +93,15 @@ public class I32_add {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("59c20edb-690b-4260-b5cf-704cd509ac07"),
@@ -105,9 +115,10 @@ public class I32_add {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		// does not need modulo because java is already handling
-		I32 result = new I32(value1.integerValue() + value2.integerValue());
+		// Let c be the result of computing i32.add(value1, value2).
+		I32 c = new I32(NumericKernel.i32Add(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -18,8 +18,8 @@ package happynewmoonwithreport.opcode.math;
 
 
 import happynewmoonwithreport.*;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.S32;
 import java.util.UUID;
 
 /**
@@ -97,7 +97,7 @@ public class I32_div_s {
 
 	private WasmInstanceInterface instance;
 
-	private I32_div_s() {
+	public I32_div_s() {
 		super();
 	}
 
@@ -110,6 +110,15 @@ public class I32_div_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("12a6126e-d632-4486-94a5-20f9c974c1de"),
@@ -123,30 +132,11 @@ public class I32_div_s {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		// Let c be the result of computing i32.div_s(value1, value2).
+		// Traps on a divide by zero or overflow.
+		I32 c = new I32(NumericKernel.i32DivS(value1.integerValue(), value2.integerValue()));
 
-		// Let j1 be the signed interpretation of i1.
-		S32 j1 = new S32(value1);
-		// Let j2 be the signed interpretation of i2.
-		S32 j2 = new S32(value2);
-
-		//If j2 is 0, then the result is undefined.
-		if (j2.integerValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("2c6526b2-6f08-45c4-8343-579fc6cfe515"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		// Else if j1 divided by j2 is 2N-1, then the result is undefined.
-		// Hackers Delight Section 2-13 states this is the only overflow condition.
-		if (j1.integerValue() == 0x8000_0000 && j2.integerValue() == 0xFFFF_FFFF) {
-			throw new WasmDivideOverflowException(
-				UUID.fromString("4acf4694-fe77-4678-b37b-15b8391ee5fa"),
-				opcodeName + "Integer divide Overflow");
-		}
-
-		//return the result of dividing j1 by j2, truncated toward zero.
-		I32 result = new I32(j1.integerValue() / j2.integerValue());
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -17,10 +17,10 @@
 package happynewmoonwithreport.opcode.math;
 
 
-import happynewmoonwithreport.WasmDivideByZeroException;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -89,7 +89,7 @@ public class I32_div_u {
 
 	private WasmInstanceInterface instance;
 
-	private I32_div_u() {
+	public I32_div_u() {
 		super();
 	}
 
@@ -102,6 +102,15 @@ public class I32_div_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("019f337f-8297-4228-a81f-be816ae3de34"),
@@ -115,17 +124,11 @@ public class I32_div_u {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		// Let c be the result of computing i32.div_u(value1, value2).
+		// Traps on a divide by zero.
+		I32 c = new I32(NumericKernel.i32DivU(value1.integerValue(), value2.integerValue()));
 
-		//If j2 is 0, then the result is undefined.
-		if (value2.integerValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("900174aa-3a9e-4a3a-b43e-3f5342aa867f"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		//return the result of dividing j1 by j2, truncated toward zero.
-		I32 result = new I32(Integer.divideUnsigned(value1.integerValue(), value2.integerValue()));
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
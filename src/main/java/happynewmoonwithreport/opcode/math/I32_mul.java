@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.math;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -79,7 +80,7 @@ public class I32_mul {
 
 	private WasmInstanceInterface instance;
 
-	private I32_mul() {
+	public I32_mul() {
 		super();
 	}
 
@@ -92,6 +93,15 @@ public class I32_mul {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("847fe99b-56ea-407c-ac94-1cf13c1936f1"),
@@ -105,8 +115,10 @@ public class I32_mul {
 		}
 		I32 value1 = (I32) stack.pop();
 
-		I32 result = new I32(value1.integerValue() * value2.integerValue());
+		// Let c be the result of computing i32.mul(value1, value2).
+		I32 c = new I32(NumericKernel.i32Mul(value1.integerValue(), value2.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -17,12 +17,11 @@
 package happynewmoonwithreport.opcode.math;
 
 
-import happynewmoonwithreport.WasmDivideByZeroException;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.S32;
 import java.util.UUID;
 
 /**
@@ -101,7 +100,7 @@ public class I32_rem_s {
 
 	private WasmInstanceInterface instance;
 
-	private I32_rem_s() {
+	public I32_rem_s() {
 		super();
 	}
 
@@ -114,6 +113,15 @@ public class I32_rem_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("48441ff5-2e20-4e67-bbed-365b251b19e7"),
@@ -127,22 +135,11 @@ public class I32_rem_s {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		// Let c be the result of computing i32.rem_s(value1, value2).
+		// Traps on a divide by zero.
+		I32 c = new I32(NumericKernel.i32RemS(value1.integerValue(), value2.integerValue()));
 
-		// Let j1 be the signed interpretation of i1.
-		S32 j1 = new S32(value1);
-		// Let j2 be the signed interpretation of i2.
-		S32 j2 = new S32(value2);
-
-		//If j2 is 0, then the result is undefined.
-		if (j2.integerValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("5b00bedc-f56e-4026-aa70-8ad526c71faa"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		//return the result of dividing j1 by j2, truncated toward zero.
-		I32 result = new I32(j1.integerValue() % j2.integerValue());
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -17,10 +17,10 @@
 package happynewmoonwithreport.opcode.math;
 
 
-import happynewmoonwithreport.WasmDivideByZeroException;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -94,7 +94,7 @@ public class I32_rem_u {
 
 	private WasmInstanceInterface instance;
 
-	private I32_rem_u() {
+	public I32_rem_u() {
 		super();
 	}
 
@@ -107,6 +107,15 @@ public class I32_rem_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("41adb2fd-04a7-446b-be32-ef7dcf7e8a8c"),
@@ -120,18 +129,11 @@ public class I32_rem_u {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		// Let c be the result of computing i32.rem_u(value1, value2).
+		// Traps on a divide by zero.
+		I32 c = new I32(NumericKernel.i32RemU(value1.integerValue(), value2.integerValue()));
 
-		//If j2 is 0, then the result is undefined.
-		if (value2.integerValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("fc12cf95-94b4-4780-984e-e02b74e72ffb"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		//return the remainder of dividing i1 by i2, with the sign of the dividend i1.
-		I32 result =
-			new I32(Integer.remainderUnsigned(value1.integerValue(), value2.integerValue()));
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.math;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I32;
 import java.util.UUID;
 
@@ -79,7 +80,7 @@ public class I32_sub {
 
 	private WasmInstanceInterface instance;
 
-	private I32_sub() {
+	public I32_sub() {
 		super();
 	}
 
@@ -92,6 +93,15 @@ public class I32_sub {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("ed5b6703-894c-4d1e-8ddc-4aab7ed1f4dd"),
@@ -105,9 +115,10 @@ public class I32_sub {
 		}
 		I32 value2 = (I32) stack.pop();
 
-		// does not need modulo because java is already handling
-		I32 result = new I32(value2.integerValue() - value1.integerValue());
+		// Let c be the result of computing i32.sub(value2, value1).
+		I32 c = new I32(NumericKernel.i32Sub(value2.integerValue(), value1.integerValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.math;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -78,7 +79,7 @@ public class I64_add {
 
 	private WasmInstanceInterface instance;
 
-	private I64_add() {
+	public I64_add() {
 		super();
 	}
 
@@ -91,6 +92,15 @@ public class I64_add {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("a846eb0e-2ff2-4ffd-b570-da1f4bea8604"),
@@ -104,9 +114,10 @@ public class I64_add {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		// Let c be the result of computing i64.add(value1, value2).
+		I64 c = new I64(NumericKernel.i64Add(value1.longValue(), value2.longValue()));
 
-		I64 result = new I64(value1.longValue() + value2.longValue());
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
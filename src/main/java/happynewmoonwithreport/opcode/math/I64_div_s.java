@@ -18,8 +18,8 @@ package happynewmoonwithreport.opcode.math;
 
 
 import happynewmoonwithreport.*;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.S64;
 import java.util.UUID;
 
 /**
@@ -97,7 +97,7 @@ public class I64_div_s {
 
 	private WasmInstanceInterface instance;
 
-	private I64_div_s() {
+	public I64_div_s() {
 		super();
 	}
 
@@ -110,6 +110,15 @@ public class I64_div_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("a3dd4634-f7fa-41ca-a355-0611ed0bfca7"),
@@ -123,30 +132,11 @@ public class I64_div_s {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		// Let c be the result of computing i64.div_s(value1, value2).
+		// Traps on a divide by zero or overflow.
+		I64 c = new I64(NumericKernel.i64DivS(value1.longValue(), value2.longValue()));
 
-		// Let j1 be the signed interpretation of i1.
-		S64 j1 = new S64(value1);
-		// Let j2 be the signed interpretation of i2.
-		S64 j2 = new S64(value2);
-
-		//If j2 is 0, then the result is undefined.
-		if (j2.longValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("f2d3464a-f45d-4dbc-836a-6cd9020e138d"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		// Else if j1 divided by j2 is 2N-1, then the result is undefined.
-		// Hackers Delight Section 2-13 states this is the only overflow condition.
-		if (j1.longValue() == 0x8000_0000_0000_0000L && j2.longValue() == 0xFFFF_FFFF_FFFF_FFFFL) {
-			throw new WasmDivideOverflowException(
-				UUID.fromString("3160d190-0508-4a79-91aa-f0f290f2f254"),
-				opcodeName + "Integer divide Overflow");
-		}
-
-		//return the result of dividing j1 by j2, truncated toward zero.
-		I64 result = new I64(j1.longValue() / j2.longValue());
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -17,10 +17,10 @@
 package happynewmoonwithreport.opcode.math;
 
 
-import happynewmoonwithreport.WasmDivideByZeroException;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -89,7 +89,7 @@ public class I64_div_u {
 
 	private WasmInstanceInterface instance;
 
-	private I64_div_u() {
+	public I64_div_u() {
 		super();
 	}
 
@@ -102,6 +102,15 @@ public class I64_div_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("9d9586e6-2635-4c41-8aa1-3aa72ec3c2fb"),
@@ -115,17 +124,11 @@ public class I64_div_u {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		// Let c be the result of computing i64.div_u(value1, value2).
+		// Traps on a divide by zero.
+		I64 c = new I64(NumericKernel.i64DivU(value1.longValue(), value2.longValue()));
 
-		//If j2 is 0, then the result is undefined.
-		if (value2.longValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("96b09b8c-3950-47e8-a2b3-9dc7018a3339"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		//return the result of dividing j1 by j2, truncated toward zero.
-		I64 result = new I64(Long.divideUnsigned(value1.longValue(), value2.longValue()));
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
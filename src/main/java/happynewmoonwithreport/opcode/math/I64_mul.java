@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.math;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -79,7 +80,7 @@ public class I64_mul {
 
 	private WasmInstanceInterface instance;
 
-	private I64_mul() {
+	public I64_mul() {
 		super();
 	}
 
@@ -92,6 +93,15 @@ public class I64_mul {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("81a80536-eb28-4910-bc07-1b5123173882"),
@@ -105,8 +115,10 @@ public class I64_mul {
 		}
 		I64 value1 = (I64) stack.pop();
 
-		I64 result = new I64(value1.longValue() * value2.longValue());
+		// Let c be the result of computing i64.mul(value1, value2).
+		I64 c = new I64(NumericKernel.i64Mul(value1.longValue(), value2.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -17,12 +17,11 @@
 package happynewmoonwithreport.opcode.math;
 
 
-import happynewmoonwithreport.WasmDivideByZeroException;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.S64;
 import java.util.UUID;
 
 /**
@@ -101,7 +100,7 @@ public class I64_rem_s {
 
 	private WasmInstanceInterface instance;
 
-	private I64_rem_s() {
+	public I64_rem_s() {
 		super();
 	}
 
@@ -114,6 +113,15 @@ public class I64_rem_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("b02e2bbb-0127-4969-a61d-39fb9734a2e1"),
@@ -127,22 +135,11 @@ public class I64_rem_s {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		// Let c be the result of computing i64.rem_s(value1, value2).
+		// Traps on a divide by zero.
+		I64 c = new I64(NumericKernel.i64RemS(value1.longValue(), value2.longValue()));
 
-		// Let j1 be the signed interpretation of i1.
-		S64 j1 = new S64(value1);
-		// Let j2 be the signed interpretation of i2.
-		S64 j2 = new S64(value2);
-
-		//If j2 is 0, then the result is undefined.
-		if (j2.longValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("d4fee389-19bc-4c46-9de6-765490991d78"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		//return the result of dividing j1 by j2, truncated toward zero.
-		I64 result = new I64(j1.longValue() % j2.longValue());
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -17,10 +17,10 @@
 package happynewmoonwithreport.opcode.math;
 
 
-import happynewmoonwithreport.WasmDivideByZeroException;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -94,7 +94,7 @@ public class I64_rem_u {
 
 	private WasmInstanceInterface instance;
 
-	private I64_rem_u() {
+	public I64_rem_u() {
 		super();
 	}
 
@@ -107,6 +107,15 @@ public class I64_rem_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("5a5e465e-a559-4240-a4bf-052cb519ee8b"),
@@ -120,17 +129,11 @@ public class I64_rem_u {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		// Let c be the result of computing i64.rem_u(value1, value2).
+		// Traps on a divide by zero.
+		I64 c = new I64(NumericKernel.i64RemU(value1.longValue(), value2.longValue()));
 
-		//If j2 is 0, then the result is undefined.
-		if (value2.longValue() == 0) {
-			throw new WasmDivideByZeroException(
-				UUID.fromString("668d8f31-6e66-4226-ba20-4d2dacafe3c9"),
-				opcodeName + "Divide by zero is not defined");
-		}
-
-		//return the remainder of dividing i1 by i2, with the sign of the dividend i1.
-		I64 result = new I64(Long.remainderUnsigned(value1.longValue(), value2.longValue()));
-
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -20,6 +20,7 @@ package happynewmoonwithreport.opcode.math;
 import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.interpreter.NumericKernel;
 import happynewmoonwithreport.type.I64;
 import java.util.UUID;
 
@@ -79,7 +80,7 @@ public class I64_sub {
 
 	private WasmInstanceInterface instance;
 
-	private I64_sub() {
+	public I64_sub() {
 		super();
 	}
 
@@ -92,6 +93,15 @@ public class I64_sub {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param instance the instance that owns the stack.
+	 */
+	public void execute(WasmInstanceInterface instance) {
 		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("d2fc139f-1481-4585-a291-0b72ca6fe253"),
@@ -105,9 +115,10 @@ public class I64_sub {
 		}
 		I64 value2 = (I64) stack.pop();
 
-		// does not need modulo because java is already handling
-		I64 result = new I64(value2.longValue() - value1.longValue());
+		// Let c be the result of computing i64.sub(value2, value1).
+		I64 c = new I64(NumericKernel.i64Sub(value2.longValue(), value1.longValue()));
 
-		stack.push(result);
+		// Push the value t.const c to the stack.
+		stack.push(c);
 	}
 }
@@ -19,7 +19,6 @@ package happynewmoonwithreport.section;
 import happynewmoonwithreport.BytesFile;
 import happynewmoonwithreport.FunctionBody;
 import happynewmoonwithreport.type.UInt32;
-import happynewmoonwithreport.type.VarUInt32;
 import java.util.ArrayList;
 
 /**
@@ -53,13 +52,14 @@ public class SectionCode implements Section {
 	public void instantiate(BytesFile payload) {
 
 		//* FunctionBody Count
-		count = new VarUInt32(payload);
+		final long functionCount = payload.readVarU32();
+		count = new UInt32(functionCount);
 
 		//* Functions
-		functionAll = new ArrayList<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
+		functionAll = new ArrayList<>((int) functionCount);
+		for (int index = 0; index < functionCount; index++) {
 			FunctionBody function = new FunctionBody(payload);
-			functionAll.add(index, function);
+			functionAll.add(function);
 		}
 	}
 
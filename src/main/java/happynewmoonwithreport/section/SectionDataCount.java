@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.section;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.VarUInt32;
+
+/**
+ * The encoding of the data count section, the number of data segments.  It comes before the
+ * code section so <code>memory.init</code> and <code>data.drop</code> can be validated in one
+ * pass.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/modules.html#data-count-section"
+ * target="_top"> https://webassembly.github.io/spec/core/binary/modules.html#data-count-section
+ * </a>
+ */
+public class SectionDataCount implements Section {
+
+	private UInt32 count;
+
+	public SectionDataCount() {
+		count = new UInt32(0);
+	}
+
+	/**
+	 * @param payload the input BytesFile.
+	 */
+	@Override
+	public void instantiate(BytesFile payload) {
+		count = new VarUInt32(payload);
+	}
+
+	public UInt32 getCount() {
+		return count;
+	}
+}
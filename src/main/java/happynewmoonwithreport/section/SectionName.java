@@ -62,6 +62,7 @@ public class SectionName {
 	public static final String ELEMENT = "element";
 	public static final String CODE = "code";
 	public static final String DATA = "data";
+	public static final String DATA_COUNT = "data count";
 
 	private SectionName() {
 	}
@@ -128,6 +129,7 @@ public class SectionName {
 		mapAll.put(9, ELEMENT);
 		mapAll.put(10, CODE);
 		mapAll.put(11, DATA);
+		mapAll.put(12, DATA_COUNT);
 	}
 
 
@@ -18,10 +18,7 @@ package happynewmoonwithreport.section;
 
 import happynewmoonwithreport.BytesFile;
 import happynewmoonwithreport.FunctionType;
-import happynewmoonwithreport.ValueType;
 import happynewmoonwithreport.type.UInt32;
-import happynewmoonwithreport.type.VarUInt1;
-import happynewmoonwithreport.type.VarUInt32;
 import happynewmoonwithreport.type.WasmVector;
 
 
@@ -51,17 +48,14 @@ public class SectionType implements Section {
 	@Override
 	public void instantiate(BytesFile payload) {
 
-		ValueType form;
-		UInt32 paramCount;
-		VarUInt1 varReturnCount;
-
 		// Type Count
-		count = new VarUInt32(payload);
+		final long typeCount = payload.readVarU32();
+		count = new UInt32(typeCount);
 
-		functionSignatures = new WasmVector<>(count.integerValue());
+		functionSignatures = new WasmVector<>((int) typeCount);
 
 		FunctionType functionType;
-		for (Integer countFT = 0; countFT < count.integerValue(); countFT++) {
+		for (int countFT = 0; countFT < typeCount; countFT++) {
 			functionType = new FunctionType(payload);
 			functionSignatures.add(countFT, functionType);
 		}
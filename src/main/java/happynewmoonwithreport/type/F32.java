@@ -26,7 +26,9 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
  * A class that implements an F32 data type.
  *
  * <h2>Java Implementation</h2>
- * This uses a {@code Float} type.  Floats and F32 are the same IEEE 754.
+ * The value is kept as its raw IEEE 754 bits in an {@code int}, so a NaN keeps its sign and
+ * payload when it is loaded, stored, copied or reinterpreted.  The bits are turned into a
+ * {@code float} only to compare or to do arithmetic.
  * <p>
  * See:
  * <br><a href="https://docs.oracle.com/javase/tutorial/java/nutsandbolts/datatypes.html">
@@ -40,7 +42,10 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
  * </a>
  */
 public class F32 implements DataTypeNumberFloat {
-	protected final Float value;
+	/**
+	 * The raw bits.
+	 */
+	private final int bits;
 
 	public static final F32 ZERO_POSITIVE = new F32(0.0F);
 	// Java stores a negative zero correctly,  Groovy/Spock has issues.
@@ -48,17 +53,28 @@ public class F32 implements DataTypeNumberFloat {
 	public static final F32 POSITIVE_INFINITY = new F32(Float.POSITIVE_INFINITY);
 	public static final F32 NEGATIVE_INFINITY = new F32(Float.NEGATIVE_INFINITY);
 	public static final F32 NAN = new F32(Float.NaN);  // Not a number
-	// Java does not allow a Negative NAN.  It converts it to NAN.
-	// public static final F32 NAN_NEGATIVE = F32.valueOf(Float.intBitsToFloat(0xffc00000));  //
 	// negative Not a number
-
+	public static final F32 NAN_NEGATIVE = fromBits(0xFFC0_0000);
 
 	public F32() {
-		this.value = 0F;
+		this.bits = 0;
 	}
 
 	public F32(Float value) {
-		this.value = value;
+		this.bits = Float.floatToRawIntBits(value);
+	}
+
+	/**
+	 * Create a F32 holding the raw bits.  Use {@code F32.fromBits(int)}.
+	 * <p>
+	 * Groovy ignores {@code private}, so a lone {@code int} parameter would be chosen over
+	 * {@code F32(Float)} for {@code new F32(3)}.  The unused {@code raw} parameter keeps them apart.
+	 *
+	 * @param bits the IEEE 754 bits.
+	 * @param raw  not used.
+	 */
+	private F32(int bits, boolean raw) {
+		this.bits = bits;
 	}
 
 	/**
@@ -95,28 +111,36 @@ public class F32 implements DataTypeNumberFloat {
 	 * @see Float#valueOf(String)
 	 */
 	public static F32 valueOf(String s) throws NumberFormatException {
-		Float val;
+		F32 result;
 
 		switch (s) {
 			case ("-inf"):
-				val = Float.NEGATIVE_INFINITY;
+				result = NEGATIVE_INFINITY;
 				break;
 			case ("inf"):
-				val = Float.POSITIVE_INFINITY;
+				result = POSITIVE_INFINITY;
 				break;
 			case ("nan"):
-			case ("nan:0x200000"):    // TODO figure out what "nan:0x200000" is trying to express.
-				val = Float.NaN;
+				result = NAN;
 				break;
 			case ("-nan"):
-			case ("-nan:0x200000"):  // TODO figure out what "-nan:0x200000" is trying to express.
-				val = Float.NaN;
+				result = NAN_NEGATIVE;
 				break;
 			default:
-				val = Float.valueOf(s);
+				if (s.startsWith("nan:0x") || s.startsWith("-nan:0x")) {
+					// The text format gives a NaN with its payload, e.g. "nan:0x200000".
+					String payload = s.substring(s.indexOf("0x") + 2);
+					int bitsValue = Integer.parseUnsignedInt(payload, 16) & 0x007F_FFFF;
+					bitsValue |= 0x7F80_0000;
+					if (s.startsWith("-")) {
+						bitsValue |= 0x8000_0000;
+					}
+					result = fromBits(bitsValue);
+				} else {
+					result = new F32(Float.valueOf(s));
+				}
 		}
 
-		F32 result = new F32(val);
 		return result;
 	}
 
@@ -134,6 +158,27 @@ public class F32 implements DataTypeNumberFloat {
 		return result;
 	}
 
+	/**
+	 * Create a F32 instance given its raw bits.  Every bit is kept, including the sign and
+	 * payload of a NaN.
+	 *
+	 * @param bits the IEEE 754 bits.
+	 * @return a F32 holding those bits.
+	 */
+	public static F32 fromBits(int bits) {
+		F32 result = new F32(bits, true);
+		return result;
+	}
+
+	/**
+	 * The raw IEEE 754 bits.
+	 *
+	 * @return the bits, exactly as they were created.
+	 */
+	public int getBits() {
+		return bits;
+	}
+
 	/**
 	 * The value converted to a byte type.
 	 *
@@ -141,7 +186,7 @@ public class F32 implements DataTypeNumberFloat {
 	 */
 	@Override
 	public Byte byteValue() {
-		return value.byteValue();
+		return floatValue().byteValue();
 	}
 
 	/**
@@ -151,7 +196,25 @@ public class F32 implements DataTypeNumberFloat {
 	 */
 	@Override
 	public Integer integerValue() {
-		return value.intValue();
+		return floatValue().intValue();
+	}
+
+	/**
+	 * The value as a Float.
+	 *
+	 * @return value as a Float.
+	 */
+	public Float floatValue() {
+		return Float.intBitsToFloat(bits);
+	}
+
+	/**
+	 * The value as a Float.  The same as {@code floatValue()}.
+	 *
+	 * @return value as a Float.
+	 */
+	public Float getValue() {
+		return floatValue();
 	}
 
 	/**
@@ -161,7 +224,7 @@ public class F32 implements DataTypeNumberFloat {
 	 */
 	@Override
 	public Long longValue() {
-		return value.longValue();
+		return floatValue().longValue();
 	}
 
 	/**
@@ -235,15 +298,11 @@ public class F32 implements DataTypeNumberFloat {
 	 * The complement is F32(ByteUnsigned []) constructor.
 	 * <br>
 	 * <b>Java implementation</b>
-	 * This uses <code>Float.floatToIntBits(float)</code> to covert to an <code>Integer</code>.
+	 * The raw bits are used as they are, so a NaN payload is kept.
 	 *
 	 * @return an array of ByteUnsigned
 	 */
 	public ByteUnsigned[] getBytes() {
-		// consider using floatToIntBits(value);
-		Integer bits = Float.floatToRawIntBits(value);
-
-		// Integer to ByteUnsigned array
 		ByteUnsigned[] byteAll = getByteUnsigned(bits);
 
 		return byteAll;
@@ -284,7 +343,7 @@ public class F32 implements DataTypeNumberFloat {
 		valueInteger += byteAll[2].intValue() << 8;
 		valueInteger += byteAll[3].intValue() << 0;
 
-		value = Float.intBitsToFloat(valueInteger);
+		bits = valueInteger;
 	}
 
 	/**
@@ -312,7 +371,7 @@ public class F32 implements DataTypeNumberFloat {
 		valueInteger += (((int) bytesFile.readByte() & 0xFF) << 16);
 		valueInteger += (((int) bytesFile.readByte() & 0xFF) << 24); // Most Significant Byte
 
-		F32 result = new F32(Float.intBitsToFloat(valueInteger));
+		F32 result = fromBits(valueInteger);
 		return result;
 	}
 
@@ -340,26 +399,8 @@ public class F32 implements DataTypeNumberFloat {
 	 * @return the absolute value
 	 */
 	public F32 absWasm() {
-		Float z = value;
-		// If z is a NaN, then return z with positive sign.
-		// Java Implementation Note:  Java does not implement negative non a number -NAN.
-		if (z.isNaN()) {
-			return F32.NAN;
-		}
-		// if z is an infinity, then return positive infinity.
-		if (z.isInfinite()) {
-			return F32.POSITIVE_INFINITY;
-		}
-		// if z is a zero, then return positive zero.
-		if (z == 0F || z == -0F) {
-			return F32.ZERO_POSITIVE;
-		}
-		// Else if z is a positive value, then z.
-		if (0F < z) {
-			return this;
-		} else {
-			return new F32(-value);
-		}
+		// Each case of the specification only clears the sign bit, a NaN keeps its payload.
+		return fromBits(bits & 0x7FFF_FFFF);
 	}
 
 	public static F32 negWasm(F32 z1) {
@@ -389,29 +430,8 @@ public class F32 implements DataTypeNumberFloat {
 	 * @return the negative value
 	 */
 	public F32 negWasm() {
-		Float z = value;
-		// If z is a NaN, then return z with negated sign.
-		// Java Implementation Note:  Java does not implement negative non a number -NAN.
-		if (z.isNaN()) {
-			return F32.NAN;
-		}
-		// if z is an infinity, then return that infinity negated.
-		if (z.equals(Float.POSITIVE_INFINITY)) {
-			return F32.NEGATIVE_INFINITY;
-		}
-		if (z.equals(Float.NEGATIVE_INFINITY)) {
-			return F32.POSITIVE_INFINITY;
-		}
-		// if z is a zero, then return that zero negated.
-		if (Float.floatToIntBits(z) == Float.floatToIntBits(F32.ZERO_NEGATIVE.value)) {
-			return F32.ZERO_POSITIVE;
-		}
-		if (Float.floatToIntBits(z) == Float.floatToIntBits(F32.ZERO_POSITIVE.value)) {
-			return F32.ZERO_NEGATIVE;
-		}
-
-		// Else return z negate
-		return new F32(-value);
+		// Each case of the specification only flips the sign bit, a NaN keeps its payload.
+		return fromBits(bits ^ 0x8000_0000);
 	}
 
 	/**
@@ -455,7 +475,7 @@ public class F32 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z1.value.isNaN()) {
+		if (z1.floatValue().isNaN() || z2.floatValue().isNaN()) {
 			result = 0;
 		} else
 			// Else if both z1 and z2 are zeroes, then return 1
@@ -469,7 +489,7 @@ public class F32 implements DataTypeNumberFloat {
 				result = 1;
 			} else {
 				// Else if both z1 and z2 are the same value, then return 1<br>
-				if (z1.value.equals(z2.value)) {
+				if (z1.floatValue().equals(z2.floatValue())) {
 					result = 1;
 				}
 			}
@@ -523,7 +543,7 @@ public class F32 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.floatValue().isNaN() || z2.floatValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 0
@@ -558,7 +578,7 @@ public class F32 implements DataTypeNumberFloat {
 			return I32.one;
 		}
 		// 8 Else if z1 is larger than z2, then return 1
-		if (z1.value > z2.value) {
+		if (z1.floatValue() > z2.floatValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -614,7 +634,7 @@ public class F32 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.floatValue().isNaN() || z2.floatValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 0
@@ -649,7 +669,7 @@ public class F32 implements DataTypeNumberFloat {
 			return I32.zero;
 		}
 		// 8 Else if z1 is larger than z2, then return 1
-		if (z1.value > z2.value) {
+		if (z1.floatValue() > z2.floatValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -703,7 +723,7 @@ public class F32 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.floatValue().isNaN() || z2.floatValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 1
@@ -738,7 +758,7 @@ public class F32 implements DataTypeNumberFloat {
 			return I32.one;
 		}
 		// 8 Else if z1 is smaller than z2, then return 1
-		if (z1.value <= z2.value) {
+		if (z1.floatValue() <= z2.floatValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -793,7 +813,7 @@ public class F32 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.floatValue().isNaN() || z2.floatValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 0
@@ -828,7 +848,7 @@ public class F32 implements DataTypeNumberFloat {
 			return I32.zero;
 		}
 		// 8 Else if z1 is smaller than z2, then return 1
-		if (z1.value < z2.value) {
+		if (z1.floatValue() < z2.floatValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -848,9 +868,7 @@ public class F32 implements DataTypeNumberFloat {
 	 * Zero can be both positive or negative
 	 */
 	public Boolean isPositive() {
-		Integer bits = Float.floatToIntBits(value);
-		Integer mask = bits & 0x8000_0000;
-		Boolean result = (0 == mask);
+		Boolean result = (0 == (bits & 0x8000_0000));
 		return result;
 	}
 
@@ -883,16 +901,13 @@ public class F32 implements DataTypeNumberFloat {
 	@Override
 	public String toString() {
 		final StringBuffer sb = new StringBuffer("F32{");
-		sb.append("value=").append(value);
-		if (value != null) {
-			Integer bits = Float.floatToIntBits(value);
-			ByteUnsigned[] bytesAll = getByteUnsigned(bits);
-			sb.append(" hex =  0x");
-			sb.append(bytesAll[0]).append(' ');
-			sb.append(bytesAll[1]).append(' ');
-			sb.append(bytesAll[2]).append(' ');
-			sb.append(bytesAll[3]).append(' ');
-		}
+		sb.append("value=").append(floatValue());
+		ByteUnsigned[] bytesAll = getByteUnsigned(bits);
+		sb.append(" hex =  0x");
+		sb.append(bytesAll[0]).append(' ');
+		sb.append(bytesAll[1]).append(' ');
+		sb.append(bytesAll[2]).append(' ');
+		sb.append(bytesAll[3]).append(' ');
 		sb.append('}');
 		return sb.toString();
 	}
@@ -904,11 +919,13 @@ public class F32 implements DataTypeNumberFloat {
 
 		F32 f32 = (F32) o;
 
-		return value.equals(f32.value);
+		// Like Float.equals() every NaN is equal to every other NaN.  Compare getBits() to tell
+		// them apart.
+		return floatValue().equals(f32.floatValue());
 	}
 
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		return floatValue().hashCode();
 	}
 }
@@ -25,7 +25,9 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
  * A class that implements an F64 data type.
  *
  * <b>Java Implementation</b>
- * This uses a <code>Double</code> type.  Doubles and F64 are the same IEEE 754.
+ * The value is kept as its raw IEEE 754 bits in a {@code long}, so a NaN keeps its sign and
+ * payload when it is loaded, stored, copied or reinterpreted.  The bits are turned into a
+ * {@code double} only to compare or to do arithmetic.
  * <p>
  * See:
  * <br><a href="https://docs.oracle.com/javase/tutorial/java/nutsandbolts/datatypes.html">
@@ -37,7 +39,10 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
  * </a>
  */
 public class F64 implements DataTypeNumberFloat {
-	protected final Double value;
+	/**
+	 * The raw bits.
+	 */
+	private final long bits;
 
 	public static final F64 ZERO_POSITIVE = new F64(0.0D);
 	// Java stores a negative zero correctly,  Groovy/Spock has issues.
@@ -45,16 +50,28 @@ public class F64 implements DataTypeNumberFloat {
 	public static final F64 POSITIVE_INFINITY = new F64(Double.POSITIVE_INFINITY);
 	public static final F64 NEGATIVE_INFINITY = new F64(Double.NEGATIVE_INFINITY);
 	public static final F64 NAN = new F64(Double.NaN);  // Not a number
-
-	// Java does not allow a Negative NAN.  It converts it to NAN.
-	// public static final F64 NAN_NEGATIVE = F64.valueOf(Double.intBitsToDouble(0xffc00000));  //
 	// negative Not a number
+	public static final F64 NAN_NEGATIVE = fromBits(0xFFF8_0000_0000_0000L);
+
 	public F64() {
-		this.value = 0D;
+		this.bits = 0;
 	}
 
 	public F64(Double value) {
-		this.value = value;
+		this.bits = Double.doubleToRawLongBits(value);
+	}
+
+	/**
+	 * Create a F64 holding the raw bits.  Use {@code F64.fromBits(long)}.
+	 * <p>
+	 * Groovy ignores {@code private}, so a lone {@code long} parameter would be chosen over
+	 * {@code F64(Double)} for {@code new F64(3)}.  The unused {@code raw} parameter keeps them apart.
+	 *
+	 * @param bits the IEEE 754 bits.
+	 * @param raw  not used.
+	 */
+	private F64(long bits, boolean raw) {
+		this.bits = bits;
 	}
 
 	/**
@@ -72,28 +89,36 @@ public class F64 implements DataTypeNumberFloat {
 	 * @see Double#valueOf(String)
 	 */
 	public static F64 valueOf(String s) throws NumberFormatException {
-		Double val;
+		F64 result;
 
 		switch (s) {
 			case ("-inf"):
-				val = Double.NEGATIVE_INFINITY;
+				result = NEGATIVE_INFINITY;
 				break;
 			case ("inf"):
-				val = Double.POSITIVE_INFINITY;
+				result = POSITIVE_INFINITY;
 				break;
 			case ("nan"):
-			case ("nan:0x4000000000000"):
-				val = Double.NaN;
+				result = NAN;
 				break;
 			case ("-nan"):
-			case ("-nan:0x4000000000000"):
-				val = Double.NaN;
+				result = NAN_NEGATIVE;
 				break;
 			default:
-				val = Double.valueOf(s);
+				if (s.startsWith("nan:0x") || s.startsWith("-nan:0x")) {
+					// The text format gives a NaN with its payload, e.g. "nan:0x4000000000000".
+					String payload = s.substring(s.indexOf("0x") + 2);
+					long bitsValue = Long.parseUnsignedLong(payload, 16) & 0x000F_FFFF_FFFF_FFFFL;
+					bitsValue |= 0x7FF0_0000_0000_0000L;
+					if (s.startsWith("-")) {
+						bitsValue |= 0x8000_0000_0000_0000L;
+					}
+					result = fromBits(bitsValue);
+				} else {
+					result = new F64(Double.valueOf(s));
+				}
 		}
 
-		F64 result = new F64(val);
 		return result;
 	}
 
@@ -111,6 +136,27 @@ public class F64 implements DataTypeNumberFloat {
 		return result;
 	}
 
+	/**
+	 * Create a F64 instance given its raw bits.  Every bit is kept, including the sign and
+	 * payload of a NaN.
+	 *
+	 * @param bits the IEEE 754 bits.
+	 * @return a F64 holding those bits.
+	 */
+	public static F64 fromBits(long bits) {
+		F64 result = new F64(bits, true);
+		return result;
+	}
+
+	/**
+	 * The raw IEEE 754 bits.
+	 *
+	 * @return the bits, exactly as they were created.
+	 */
+	public long getBits() {
+		return bits;
+	}
+
 	/**
 	 * The value converted to a byte type.
 	 *
@@ -118,7 +164,7 @@ public class F64 implements DataTypeNumberFloat {
 	 */
 	@Override
 	public Byte byteValue() {
-		return value.byteValue();
+		return doubleValue().byteValue();
 	}
 
 	/**
@@ -128,7 +174,25 @@ public class F64 implements DataTypeNumberFloat {
 	 */
 	@Override
 	public Integer integerValue() {
-		return value.intValue();
+		return doubleValue().intValue();
+	}
+
+	/**
+	 * The value as a Double.
+	 *
+	 * @return value as a Double.
+	 */
+	public Double doubleValue() {
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * The value as a Double.  The same as {@code doubleValue()}.
+	 *
+	 * @return value as a Double.
+	 */
+	public Double getValue() {
+		return doubleValue();
 	}
 
 	/**
@@ -138,7 +202,7 @@ public class F64 implements DataTypeNumberFloat {
 	 */
 	@Override
 	public Long longValue() {
-		return value.longValue();
+		return doubleValue().longValue();
 	}
 
 	/**
@@ -212,17 +276,11 @@ public class F64 implements DataTypeNumberFloat {
 	 * The complement is F64(ByteUnsigned []) constructor.
 	 * <br>
 	 * <b>Java implementation</b>
-	 * This uses <code>Double.doubleToIntBits(double)</code> to covert to an <code>Integer</code>.
+	 * The raw bits are used as they are, so a NaN payload is kept.
 	 *
 	 * @return an array of ByteUnsigned
 	 */
 	public ByteUnsigned[] getBytes() {
-
-
-		// consider using floatToIntBits(value);
-		Long bits = Double.doubleToRawLongBits(value);
-
-		// Integer to ByteUnsigned array
 		ByteUnsigned[] byteAll = getByteUnsigned(bits);
 
 		return byteAll;
@@ -272,7 +330,7 @@ public class F64 implements DataTypeNumberFloat {
 		valueLong += byteAll[6].longValue() << 8;
 		valueLong += byteAll[7].longValue() << 0;
 
-		value = Double.longBitsToDouble(valueLong);
+		bits = valueLong;
 	}
 
 	/**
@@ -305,7 +363,7 @@ public class F64 implements DataTypeNumberFloat {
 		valueLong += (((long) bytesFile.readByte() & 0xFFL) << 48);
 		valueLong += (((long) bytesFile.readByte() & 0xFFL) << 56); // Most Significant Byte
 
-		F64 result = new F64(Double.longBitsToDouble(valueLong));
+		F64 result = fromBits(valueLong);
 		return result;
 	}
 
@@ -333,26 +391,8 @@ public class F64 implements DataTypeNumberFloat {
 	 * @return the absolute value
 	 */
 	public F64 absWasm() {
-		Double z = value;
-		// If z is a NaN, then return z with positive sign.
-		// Java Implementation Note:  Java does not implement negative non a number -NAN.
-		if (z.isNaN()) {
-			return F64.NAN;
-		}
-		// if z is an infinity, then return positive infinity.
-		if (z.isInfinite()) {
-			return F64.POSITIVE_INFINITY;
-		}
-		// if z is a zero, then return positive zero.
-		if (z == 0F || z == -0F) {
-			return F64.ZERO_POSITIVE;
-		}
-		// Else if z is a positive value, then z.
-		if (0F < z) {
-			return this;
-		} else {
-			return new F64(-value);
-		}
+		// Each case of the specification only clears the sign bit, a NaN keeps its payload.
+		return fromBits(bits & 0x7FFF_FFFF_FFFF_FFFFL);
 	}
 
 	public static F64 negWasm(F64 z1) {
@@ -382,33 +422,10 @@ public class F64 implements DataTypeNumberFloat {
 	 * @return the negative value
 	 */
 	public F64 negWasm() {
-		Double z = value;
-		// If z is a NaN, then return z with negated sign.
-		// Java Implementation Note:  Java does not implement negative non a number -NAN.
-		if (z.isNaN()) {
-			return F64.NAN;
-		}
-		// if z is an infinity, then return that infinity negated.
-		if (z.equals(Float.POSITIVE_INFINITY)) {
-			return F64.NEGATIVE_INFINITY;
-		}
-		if (z.equals(Float.NEGATIVE_INFINITY)) {
-			return F64.POSITIVE_INFINITY;
-		}
-		// if z is a zero, then return that zero negated.
-		if (Double.doubleToLongBits(z) == Double.doubleToLongBits(F64.ZERO_NEGATIVE.value)) {
-			return F64.ZERO_POSITIVE;
-		}
-		if (Double.doubleToLongBits(z) == Double.doubleToLongBits(F64.ZERO_POSITIVE.value)) {
-			return F64.ZERO_NEGATIVE;
-		}
-
-		// Else return z negate
-		return new F64(-value);
+		// Each case of the specification only flips the sign bit, a NaN keeps its payload.
+		return fromBits(bits ^ 0x8000_0000_0000_0000L);
 	}
 
-
-
 	/**
 	 * Equals according to the Wasm specification.
 	 * <pre>F64 F64 -> I32</pre>
@@ -450,7 +467,7 @@ public class F64 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z1.value.isNaN()) {
+		if (z1.doubleValue().isNaN() || z2.doubleValue().isNaN()) {
 			result = 0;
 		} else
 			// Else if both z1 and z2 are zeroes, then return 1
@@ -464,7 +481,7 @@ public class F64 implements DataTypeNumberFloat {
 				result = 1;
 			} else {
 				// Else if both z1 and z2 are the same value, then return 1<br>
-				if (z1.value.equals(z2.value)) {
+				if (z1.doubleValue().equals(z2.doubleValue())) {
 					result = 1;
 				}
 			}
@@ -518,7 +535,7 @@ public class F64 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.doubleValue().isNaN() || z2.doubleValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 0
@@ -553,7 +570,7 @@ public class F64 implements DataTypeNumberFloat {
 			return I32.one;
 		}
 		// 8 Else if z1 is larger than z2, then return 1
-		if (z1.value > z2.value) {
+		if (z1.doubleValue() > z2.doubleValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -609,7 +626,7 @@ public class F64 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.doubleValue().isNaN() || z2.doubleValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 0
@@ -644,7 +661,7 @@ public class F64 implements DataTypeNumberFloat {
 			return I32.zero;
 		}
 		// 8 Else if z1 is larger than z2, then return 1
-		if (z1.value > z2.value) {
+		if (z1.doubleValue() > z2.doubleValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -698,7 +715,7 @@ public class F64 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.doubleValue().isNaN() || z2.doubleValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 1
@@ -733,14 +750,13 @@ public class F64 implements DataTypeNumberFloat {
 			return I32.one;
 		}
 		// 8 Else if z1 is smaller than z2, then return 1
-		if (z1.value <= z2.value) {
+		if (z1.doubleValue() <= z2.doubleValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
 		return I32.zero;
 	}
 
-
 	/**
 	 * lessThan according to the Wasm specification.
 	 * <pre>F32 F32 -> I32</pre>
@@ -789,7 +805,7 @@ public class F64 implements DataTypeNumberFloat {
 		Integer result = 0;
 
 		// 1 If either z1 or z2 is a NaN, then return 0<br>
-		if (z1.value.isNaN() || z2.value.isNaN()) {
+		if (z1.doubleValue().isNaN() || z2.doubleValue().isNaN()) {
 			return I32.zero;
 		}
 		// 2 Else if z1 and z2 are the same value, then return 0
@@ -824,7 +840,7 @@ public class F64 implements DataTypeNumberFloat {
 			return I32.zero;
 		}
 		// 8 Else if z1 is smaller than z2, then return 1
-		if (z1.value < z2.value) {
+		if (z1.doubleValue() < z2.doubleValue()) {
 			return I32.one;
 		}
 		// 9 Else return 0
@@ -844,9 +860,7 @@ public class F64 implements DataTypeNumberFloat {
 	 * Zero can be both positive or negative
 	 */
 	public Boolean isPositive() {
-		Long bits = Double.doubleToLongBits(value);
-		Long mask = bits & 0x8000_0000_0000_0000L;
-		Boolean result = (0 == mask);
+		Boolean result = (0 == (bits & 0x8000_0000_0000_0000L));
 		return result;
 	}
 
@@ -879,20 +893,17 @@ public class F64 implements DataTypeNumberFloat {
 	@Override
 	public String toString() {
 		final StringBuffer sb = new StringBuffer("F64{");
-		sb.append("value=").append(value);
-		if (value != null) {
-			Long bits = Double.doubleToRawLongBits(value);
-			ByteUnsigned[] bytesAll = getByteUnsigned(bits);
-			sb.append(" hex =  0x");
-			sb.append(bytesAll[0]).append(' ');
-			sb.append(bytesAll[1]).append(' ');
-			sb.append(bytesAll[2]).append(' ');
-			sb.append(bytesAll[3]).append(' ');
-			sb.append(bytesAll[4]).append(' ');
-			sb.append(bytesAll[5]).append(' ');
-			sb.append(bytesAll[6]).append(' ');
-			sb.append(bytesAll[7]).append(' ');
-		}
+		sb.append("value=").append(doubleValue());
+		ByteUnsigned[] bytesAll = getByteUnsigned(bits);
+		sb.append(" hex =  0x");
+		sb.append(bytesAll[0]).append(' ');
+		sb.append(bytesAll[1]).append(' ');
+		sb.append(bytesAll[2]).append(' ');
+		sb.append(bytesAll[3]).append(' ');
+		sb.append(bytesAll[4]).append(' ');
+		sb.append(bytesAll[5]).append(' ');
+		sb.append(bytesAll[6]).append(' ');
+		sb.append(bytesAll[7]).append(' ');
 		sb.append('}');
 		return sb.toString();
 	}
@@ -904,11 +915,13 @@ public class F64 implements DataTypeNumberFloat {
 
 		F64 f64 = (F64) o;
 
-		return value.equals(f64.value);
+		// Like Double.equals() every NaN is equal to every other NaN.  Compare getBits() to tell
+		// them apart.
+		return doubleValue().equals(f64.doubleValue());
 	}
 
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		return doubleValue().hashCode();
 	}
 }
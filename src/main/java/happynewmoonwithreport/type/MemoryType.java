@@ -19,7 +19,14 @@ package happynewmoonwithreport.type;
 
 import happynewmoonwithreport.BytesFile;
 import happynewmoonwithreport.Validation;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.memory.HeapMemory;
+import happynewmoonwithreport.memory.LinearMemory;
+import happynewmoonwithreport.memory.PagedMemory;
+import happynewmoonwithreport.memory.TrackedMemory;
 import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import java.nio.ByteBuffer;
+import java.util.UUID;
 
 /**
  * Memory Type,
@@ -37,38 +44,197 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
  * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances" target="_top">
  * https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances
  * </a>
+ * <br>
+ * The bytes are kept in a {@link LinearMemory}, on the Java heap unless an instance replaces
+ * it.  Multi-byte values are read and written little endian, as WebAssembly defines.
+ * <code>get</code> and <code>set</code> of a <code>ByteUnsigned</code> remain for the opcode
+ * classes, they do not allocate.
  */
 public class MemoryType implements Validation {
 
 	private LimitType limit;
+
 	/**
-	 * a vector of bytes;
-	 *
-	 * @TODO change to WasmVector
+	 * the vector of bytes.  It may be larger than <code>size</code>, the bytes after
+	 * <code>size</code> are reserved for <code>grow</code> and stay zero.
+	 */
+	private LinearMemory memory;
+
+	/**
+	 * The size in bytes, a whole number of pages.
 	 */
-	private ByteUnsigned[] byteAll;
+	private int size;
 
 	public static final Integer _64Ki = 65536;
 	public static final Integer pageSize = _64Ki;
 
+	/**
+	 * The largest number of pages.  Memory is addressed with an <code>int</code>, so it is
+	 * limited to 2 GiB.
+	 */
+	public static final int MAX_PAGES = Integer.MAX_VALUE / _64Ki;
+
+	/**
+	 * Every ByteUnsigned value, so <code>get</code> does not allocate.
+	 */
+	private static final ByteUnsigned[] byteUnsignedAll = new ByteUnsigned[256];
+
+	static {
+		for (int i = 0; i < byteUnsignedAll.length; i++) {
+			byteUnsignedAll[i] = new ByteUnsigned(i);
+		}
+	}
+
 	public MemoryType(UInt8 hasMaximum, UInt32 minimum, UInt32 maximum) {
 		limit = new LimitType(hasMaximum, minimum, maximum);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
 	}
 
 	public MemoryType(UInt8 hasMaximum, UInt32 minimum) {
 		limit = new LimitType(hasMaximum, minimum);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
 	}
 
 	public MemoryType(U32 hasMaximum, U32 minimum) {
 		limit = new LimitType(hasMaximum, minimum);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
 	}
 
 	public MemoryType(BytesFile payload) {
 		limit = new LimitType(payload);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
+	}
+
+	private MemoryType(LimitType limit, LinearMemory memory, int size) {
+		this.limit = limit;
+		this.memory = memory;
+		this.size = size;
+	}
+
+	private void allocate() {
+		size = pageSize.intValue() * limit.minimum().integerValue();
+		memory = new HeapMemory(size);
+	}
+
+	public LinearMemory getLinearMemory() {
+		return memory;
+	}
+
+	/**
+	 * Replace where the bytes are kept.  The size becomes the size of the new memory, a memory
+	 * kept in a file may have grown before.
+	 *
+	 * @param memory the new bytes, a whole number of pages no more than the maximum.  The
+	 *               caller copies the old bytes if they are needed.
+	 */
+	public void setLinearMemory(LinearMemory memory) {
+		int sizeNew = memory.size();
+		if (sizeNew % pageSize != 0) {
+			throw new WasmRuntimeException(UUID.fromString("4506f183-fe08-48ff-a41c-fb60e719d96a"),
+				"Memory of %d bytes is not a whole number of pages", sizeNew);
+		}
+		if (maxPageCount() < sizeNew / pageSize) {
+			throw new WasmRuntimeException(UUID.fromString("6a8fd959-def6-4564-9a9a-f61bef9aac14"),
+				"Memory of %d pages is larger than the maximum of %d pages", sizeNew / pageSize,
+				maxPageCount());
+		}
+		this.memory = memory;
+		this.size = sizeNew;
+	}
+
+	/**
+	 * A memory with the same limits and bytes that shares its pages with this one copy on
+	 * write.  The first copy moves this memory to {@link PagedMemory} pages, every copy after
+	 * costs one reference per page.  A view of the memory from before the first copy is cut off
+	 * from it, see {@link LinearMemory#release()}.  A later {@link #view} across pages moves
+	 * this memory back to one block, the copies keep the pages.
+	 * <br>
+	 * A persistent memory would stop saving to its file once moved to pages, and a
+	 * {@link TrackedMemory} would stop taking snapshots, so neither may be copied.
+	 *
+	 * @return the copy.
+	 */
+	public MemoryType copyOnWrite() {
+		if (memory.isPersistent() || memory instanceof TrackedMemory) {
+			throw new WasmRuntimeException(UUID.fromString("6f10de9e-0c56-4bd5-8667-1984b21a7741"),
+				"Memory %s is saved to a file or tracked, it can not be shared with a copy",
+				memory.getClass().getSimpleName());
+		}
+		if ((memory instanceof PagedMemory) == false) {
+			LinearMemory old = memory;
+			memory = PagedMemory.of(old);
+			old.release();
+		}
+		return new MemoryType(limit, ((PagedMemory) memory).copy(), size);
+	}
+
+	/**
+	 * A view of part of the memory that reads and writes the memory itself, see
+	 * {@link LinearMemory#view}.
+	 * <br>
+	 * A {@link PagedMemory} has no view of a range that crosses a page boundary.  For such a
+	 * range the memory first moves to one block on the Java heap, which stops sharing its pages
+	 * with the copies.  Like a grow, the move cuts off the views from before.
+	 *
+	 * @param address the first byte of the view.
+	 * @param length  the number of bytes.
+	 * @return the view.  Position zero is <code>address</code>.
+	 */
+	public ByteBuffer view(int address, int length) {
+		if (memory instanceof PagedMemory && PagedMemory.crossesPage(address, length)) {
+			LinearMemory old = memory;
+			memory = new HeapMemory(old.size());
+			memory.copyFrom(old);
+			old.release();
+		}
+		return memory.view(address, length);
+	}
+
+	/**
+	 * Copy the pages written since the last snapshot.  The memory must be a
+	 * {@link TrackedMemory}, create the instance with {@link TrackedMemory#factory}.
+	 *
+	 * @return the snapshot of the pages in use.
+	 */
+	public TrackedMemory.Snapshot snapshot() {
+		return trackedMemory().snapshot(size);
+	}
+
+	/**
+	 * Copy every page in use, a new base for the snapshots after it.
+	 *
+	 * @return the snapshot of the pages in use.
+	 */
+	public TrackedMemory.Snapshot fullSnapshot() {
+		return trackedMemory().fullSnapshot(size);
+	}
+
+	/**
+	 * Write back a full snapshot followed by the snapshots taken after it.  The memory grows
+	 * to the size of the last snapshot.
+	 *
+	 * @param snapshotAll a full snapshot then zero or more snapshots, in the order they were
+	 *                    taken.
+	 */
+	public void restore(TrackedMemory.Snapshot... snapshotAll) {
+		TrackedMemory tracked = trackedMemory();
+		int sizeNew = (snapshotAll.length == 0) ? size : snapshotAll[snapshotAll.length - 1]
+			.getSize();
+		if (sizeNew < size) {
+			throw new WasmRuntimeException(UUID.fromString("a521a161-8721-4721-af0b-92ebf49f68e4"),
+				"Memory of %d bytes can not shrink to a snapshot of %d bytes", size, sizeNew);
+		}
+		tracked.restore(snapshotAll);
+		size = sizeNew;
+	}
+
+	private TrackedMemory trackedMemory() {
+		if ((memory instanceof TrackedMemory) == false) {
+			throw new WasmRuntimeException(UUID.fromString("d88dca47-2dc8-4d4d-a876-86f1a81d4722"),
+				"Memory %s is not tracked, it can not take a snapshot",
+				memory.getClass().getSimpleName());
+		}
+		return (TrackedMemory) memory;
 	}
 
 	/**
@@ -125,18 +291,154 @@ public class MemoryType implements Validation {
 	}
 
 	public ByteUnsigned get(Integer address) {
-		return byteAll[address];
+		return byteUnsignedAll[memory.getByte(address) & 0xFF];
 	}
 
 	public void set(Integer address, ByteUnsigned value) {
-		byteAll[address] = value;
+		memory.putByte(address, (byte) value.intValue());
 	}
 
 	public U32 getSize() {
-		Integer sizeInt = byteAll.length;
+		Integer sizeInt = size;
 		return new U32(sizeInt);
 	}
 
+	/**
+	 * The size of the memory in bytes.
+	 *
+	 * @return number of bytes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * The size of the memory in pages, the result of <code>memory.size</code>.
+	 *
+	 * @return number of pages.
+	 */
+	public int pageCount() {
+		return size / pageSize;
+	}
+
+	/**
+	 * The most pages the memory may have, the maximum of the limits if there is one.
+	 *
+	 * @return number of pages.
+	 */
+	public int maxPageCount() {
+		if (hasMaximumBoolean()) {
+			return (int) Math.min(maximum().longValue(), MAX_PAGES);
+		}
+		return MAX_PAGES;
+	}
+
+	/**
+	 * Grow the memory, <code>memory.grow</code>.
+	 * <br>
+	 * Most calls only change the size.  When the bytes reserved are not enough the reserve is
+	 * doubled, up to the maximum, so a module that grows one page at a time does not copy the
+	 * memory on every grow.  A persistent memory has no reserve, its size is saved with it.
+	 * <br>
+	 * Source:
+	 * <a href="https://webassembly.github.io/spec/core/exec/instructions.html#exec-memory-grow"
+	 * target="_top"> https://webassembly.github.io/spec/core/exec/instructions.html#exec-memory-grow
+	 * </a>
+	 *
+	 * @param deltaPages the number of pages to add, unsigned.
+	 * @param pageLimit  the most pages the instance allows, below the maximum of the limits.
+	 * @return the previous number of pages, or -1 when the memory can not grow.
+	 */
+	public int grow(int deltaPages, int pageLimit) {
+		int previous = pageCount();
+		long pages = previous + Integer.toUnsignedLong(deltaPages);
+		int limitPages = Math.min(maxPageCount(), pageLimit);
+		if (limitPages < pages) {
+			return -1;
+		}
+		int sizeNew = (int) pages * pageSize;
+		if (memory.size() < sizeNew) {
+			long reserve = Math.max(sizeNew, 2L * memory.size());
+			if (memory.isPersistent()) {
+				reserve = sizeNew;
+			}
+			reserve = Math.min(reserve, (long) limitPages * pageSize);
+			try {
+				memory.grow((int) reserve);
+			} catch (OutOfMemoryError error) {
+				return -1;
+			}
+		}
+		size = sizeNew;
+		return previous;
+	}
+
+	// The accessors below read and write little endian.  See LinearMemory.
+
+	public byte getByte(int address) {
+		return memory.getByte(address);
+	}
+
+	public void putByte(int address, byte value) {
+		memory.putByte(address, value);
+	}
+
+	public short getShort(int address) {
+		return memory.getShort(address);
+	}
+
+	public void putShort(int address, short value) {
+		memory.putShort(address, value);
+	}
+
+	public int getInt(int address) {
+		return memory.getInt(address);
+	}
+
+	public void putInt(int address, int value) {
+		memory.putInt(address, value);
+	}
+
+	public long getLong(int address) {
+		return memory.getLong(address);
+	}
+
+	public void putLong(int address, long value) {
+		memory.putLong(address, value);
+	}
+
+	public float getFloat(int address) {
+		return memory.getFloat(address);
+	}
+
+	public void putFloat(int address, float value) {
+		memory.putFloat(address, value);
+	}
+
+	public double getDouble(int address) {
+		return memory.getDouble(address);
+	}
+
+	public void putDouble(int address, double value) {
+		memory.putDouble(address, value);
+	}
+
+
+	public void getBytes(int address, byte[] destination, int offset, int length) {
+		memory.getBytes(address, destination, offset, length);
+	}
+
+	public void putBytes(int address, byte[] source, int offset, int length) {
+		memory.putBytes(address, source, offset, length);
+	}
+
+	public void copyWithin(int destination, int source, int length) {
+		memory.copyWithin(destination, source, length);
+	}
+
+	public void fill(int address, int length, byte value) {
+		memory.fill(address, length, value);
+	}
 
 	@Override
 	public String toString() {
@@ -146,7 +448,7 @@ public class MemoryType implements Validation {
 		if (limit.hasMaximum().booleanValue()) {
 			sb.append(", maximum=").append(maximum());
 		}
-		sb.append(", current size = ").append(byteAll.length);
+		sb.append(", current size = ").append(size);
 		sb.append('}');
 		return sb.toString();
 	}
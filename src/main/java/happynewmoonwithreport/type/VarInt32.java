@@ -87,8 +87,7 @@ public final class VarInt32 extends SInt32 {
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
-		return maxBytes;
+		return (maxBits() + 6) / 7;
 	}
 
 	@Override
@@ -97,24 +96,7 @@ public final class VarInt32 extends SInt32 {
 	}
 
 	public Integer convert(BytesFile bytesFile) {
-		Integer cur;
-		Integer count = 0;
-		Integer result = 0;
-		Integer signBits = -1;
-
-		do {
-			cur = bytesFile.readByte() & 0xff;
-			result |= (cur & 0x7f) << (count * 7);
-			signBits <<= 7;
-			count++;
-		} while (((cur & 0x80) != 0) && count < maxBytes());
-
-		// Sign extend if appropriate
-		if (((signBits >> 1) & result) != 0) {
-			result |= signBits;
-		}
-
-		return result;
+		return bytesFile.readVarS32();
 	}
 
 	/**
@@ -86,8 +86,7 @@ public final class VarInt64 extends S64 {
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
-		return maxBytes;
+		return (maxBits() + 6) / 7;
 	}
 
 	@Override
@@ -96,24 +95,7 @@ public final class VarInt64 extends S64 {
 	}
 
 	public Long convert(BytesFile bytesFile) {
-		Integer cur;
-		Integer count = 0;
-		Long result = 0L;
-		Long signBits = -1L;
-
-		do {
-			cur = bytesFile.readByte() & 0xff;
-			result |= ((long) (cur & 0x7f)) << (count * 7);
-			signBits <<= 7;
-			count++;
-		} while (((cur & 0x80) != 0) && count < maxBytes());
-
-		// Sign extend if appropriate
-		if (((signBits >> 1) & result) != 0) {
-			result |= signBits;
-		}
-
-		return result;
+		return bytesFile.readVarS64();
 	}
 
 	/**
@@ -83,8 +83,7 @@ public final class VarInt7 extends SInt8 {
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
-		return maxBytes;
+		return (maxBits() + 6) / 7;
 	}
 
 	@Override
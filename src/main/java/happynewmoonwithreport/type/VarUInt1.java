@@ -48,7 +48,7 @@ public final class VarUInt1 extends UInt8 {
 	}
 
 	public VarUInt1(BytesFile bytesFile) {
-		value = convert(bytesFile).longValue();
+		value = (long) bytesFile.readVarU1();
 	}
 
 	/**
@@ -67,23 +67,12 @@ public final class VarUInt32 extends UInt32
 
 	@Override
 	public Long convert(BytesFile bytesFile) {
-		Integer currentByte;
-		Integer count = 0;
-		Long result = 0L;
-
-		do {
-			currentByte = bytesFile.readByte() & 0xff;
-			result |= (currentByte & 0x7f) << (count * 7);
-			count++;
-		} while (((currentByte & 0x80) != 0) && count < maxBytes());
-
-		return result;
+		return bytesFile.readVarU32();
 	}
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
-		return maxBytes;
+		return (maxBits() + 6) / 7;
 	}
 
 	@Override
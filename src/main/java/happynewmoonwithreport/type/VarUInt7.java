@@ -50,7 +50,7 @@ public final class VarUInt7 extends UInt8 {
 	}
 
 	public VarUInt7(BytesFile bytesFile) {
-		value = convert(bytesFile).longValue();
+		value = (long) bytesFile.readVarU7();
 	}
 
 	/**
@@ -136,10 +136,9 @@ class F32_copysignTest extends Specification {
 		30    | "-0x0p+0"          | "inf"              || "0x0p+0"
 		31    | "0x0p+0"           | "-inf"             || "-0x0p+0"
 		32    | "0x0p+0"           | "inf"              || "0x0p+0"
-		// Negative Nan not supported.
-		// 33    | "-0x0p+0"          | "-nan"             || "-0x0p+0"
+		33    | "-0x0p+0"          | "-nan"             || "-0x0p+0"
 		34    | "-0x0p+0"          | "nan"              || "0x0p+0"
-		// 35    | "0x0p+0"           | "-nan"             || "-0x0p+0"
+		35    | "0x0p+0"           | "-nan"             || "-0x0p+0"
 		36    | "0x0p+0"           | "nan"              || "0x0p+0"
 		37    | "-0x1p-149"        | "-0x0p+0"          || "-0x1p-149"
 		38    | "-0x1p-149"        | "0x0p+0"           || "0x1p-149"
@@ -173,9 +172,9 @@ class F32_copysignTest extends Specification {
 		66    | "-0x1p-149"        | "inf"              || "0x1p-149"
 		67    | "0x1p-149"         | "-inf"             || "-0x1p-149"
 		68    | "0x1p-149"         | "inf"              || "0x1p-149"
-		//69    | "-0x1p-149"        | "-nan"             || "-0x1p-149"
+		69    | "-0x1p-149"        | "-nan"             || "-0x1p-149"
 		70    | "-0x1p-149"        | "nan"              || "0x1p-149"
-		//71    | "0x1p-149"         | "-nan"             || "-0x1p-149"
+		71    | "0x1p-149"         | "-nan"             || "-0x1p-149"
 		72    | "0x1p-149"         | "nan"              || "0x1p-149"
 		73    | "-0x1p-126"        | "-0x0p+0"          || "-0x1p-126"
 		74    | "-0x1p-126"        | "0x0p+0"           || "0x1p-126"
@@ -209,9 +208,9 @@ class F32_copysignTest extends Specification {
 		102   | "-0x1p-126"        | "inf"              || "0x1p-126"
 		103   | "0x1p-126"         | "-inf"             || "-0x1p-126"
 		104   | "0x1p-126"         | "inf"              || "0x1p-126"
-		// 105   | "-0x1p-126"        | "-nan"             || "-0x1p-126"
+		105   | "-0x1p-126"        | "-nan"             || "-0x1p-126"
 		106   | "-0x1p-126"        | "nan"              || "0x1p-126"
-		// 107   | "0x1p-126"         | "-nan"             || "-0x1p-126"
+		107   | "0x1p-126"         | "-nan"             || "-0x1p-126"
 		108   | "0x1p-126"         | "nan"              || "0x1p-126"
 		109   | "-0x1p-1"          | "-0x0p+0"          || "-0x1p-1"
 		110   | "-0x1p-1"          | "0x0p+0"           || "0x1p-1"
@@ -245,9 +244,9 @@ class F32_copysignTest extends Specification {
 		138   | "-0x1p-1"          | "inf"              || "0x1p-1"
 		139   | "0x1p-1"           | "-inf"             || "-0x1p-1"
 		140   | "0x1p-1"           | "inf"              || "0x1p-1"
-		// 141   | "-0x1p-1"          | "-nan"             || "-0x1p-1"
+		141   | "-0x1p-1"          | "-nan"             || "-0x1p-1"
 		142   | "-0x1p-1"          | "nan"              || "0x1p-1"
-		// 143   | "0x1p-1"           | "-nan"             || "-0x1p-1"
+		143   | "0x1p-1"           | "-nan"             || "-0x1p-1"
 		144   | "0x1p-1"           | "nan"              || "0x1p-1"
 		145   | "-0x1p+0"          | "-0x0p+0"          || "-0x1p+0"
 		146   | "-0x1p+0"          | "0x0p+0"           || "0x1p+0"
@@ -281,9 +280,9 @@ class F32_copysignTest extends Specification {
 		174   | "-0x1p+0"          | "inf"              || "0x1p+0"
 		175   | "0x1p+0"           | "-inf"             || "-0x1p+0"
 		176   | "0x1p+0"           | "inf"              || "0x1p+0"
-		//177   | "-0x1p+0"          | "-nan"             || "-0x1p+0"
+		177   | "-0x1p+0"          | "-nan"             || "-0x1p+0"
 		178   | "-0x1p+0"          | "nan"              || "0x1p+0"
-		//179   | "0x1p+0"           | "-nan"             || "-0x1p+0"
+		179   | "0x1p+0"           | "-nan"             || "-0x1p+0"
 		180   | "0x1p+0"           | "nan"              || "0x1p+0"
 		181   | "-0x1.921fb6p+2"   | "-0x0p+0"          || "-0x1.921fb6p+2"
 		182   | "-0x1.921fb6p+2"   | "0x0p+0"           || "0x1.921fb6p+2"
@@ -317,9 +316,9 @@ class F32_copysignTest extends Specification {
 		210   | "-0x1.921fb6p+2"   | "inf"              || "0x1.921fb6p+2"
 		211   | "0x1.921fb6p+2"    | "-inf"             || "-0x1.921fb6p+2"
 		212   | "0x1.921fb6p+2"    | "inf"              || "0x1.921fb6p+2"
-		// 213   | "-0x1.921fb6p+2"   | "-nan"             || "-0x1.921fb6p+2"
+		213   | "-0x1.921fb6p+2"   | "-nan"             || "-0x1.921fb6p+2"
 		214   | "-0x1.921fb6p+2"   | "nan"              || "0x1.921fb6p+2"
-		// 215   | "0x1.921fb6p+2"    | "-nan"             || "-0x1.921fb6p+2"
+		215   | "0x1.921fb6p+2"    | "-nan"             || "-0x1.921fb6p+2"
 		216   | "0x1.921fb6p+2"    | "nan"              || "0x1.921fb6p+2"
 		217   | "-0x1.fffffep+127" | "-0x0p+0"          || "-0x1.fffffep+127"
 		218   | "-0x1.fffffep+127" | "0x0p+0"           || "0x1.fffffep+127"
@@ -353,9 +352,9 @@ class F32_copysignTest extends Specification {
 		246   | "-0x1.fffffep+127" | "inf"              || "0x1.fffffep+127"
 		247   | "0x1.fffffep+127"  | "-inf"             || "-0x1.fffffep+127"
 		248   | "0x1.fffffep+127"  | "inf"              || "0x1.fffffep+127"
-		// 249   | "-0x1.fffffep+127" | "-nan"             || "-0x1.fffffep+127"
+		249   | "-0x1.fffffep+127" | "-nan"             || "-0x1.fffffep+127"
 		250   | "-0x1.fffffep+127" | "nan"              || "0x1.fffffep+127"
-		// 251   | "0x1.fffffep+127"  | "-nan"             || "-0x1.fffffep+127"
+		251   | "0x1.fffffep+127"  | "-nan"             || "-0x1.fffffep+127"
 		252   | "0x1.fffffep+127"  | "nan"              || "0x1.fffffep+127"
 		253   | "-inf"             | "-0x0p+0"          || "-inf"
 		254   | "-inf"             | "0x0p+0"           || "inf"
@@ -389,9 +388,9 @@ class F32_copysignTest extends Specification {
 		282   | "-inf"             | "inf"              || "inf"
 		283   | "inf"              | "-inf"             || "-inf"
 		284   | "inf"              | "inf"              || "inf"
-		// 285   | "-inf"             | "-nan"             || "-inf"
+		285   | "-inf"             | "-nan"             || "-inf"
 		286   | "-inf"             | "nan"              || "inf"
-		// 287   | "inf"              | "-nan"             || "-inf"
+		287   | "inf"              | "-nan"             || "-inf"
 		288   | "inf"              | "nan"              || "inf"
 		289   | "-nan"             | "-0x0p+0"          || "-nan"
 		290   | "-nan"             | "0x0p+0"           || "nan"
@@ -135,9 +135,9 @@ class F64_copysignTest extends Specification {
 		30    | "-0x0p+0"                  | "inf"                      || "0x0p+0"
 		31    | "0x0p+0"                   | "-inf"                     || "-0x0p+0"
 		32    | "0x0p+0"                   | "inf"                      || "0x0p+0"
-//		33    | "-0x0p+0"                  | "-nan"                     || "-0x0p+0"
+		33    | "-0x0p+0"                  | "-nan"                     || "-0x0p+0"
 		34    | "-0x0p+0"                  | "nan"                      || "0x0p+0"
-//		35    | "0x0p+0"                   | "-nan"                     || "-0x0p+0"
+		35    | "0x0p+0"                   | "-nan"                     || "-0x0p+0"
 		36    | "0x0p+0"                   | "nan"                      || "0x0p+0"
 		37    | "-0x0.0000000000001p-1022" | "-0x0p+0"                  || "-0x0.0000000000001p-1022"
 		38    | "-0x0.0000000000001p-1022" | "0x0p+0"                   || "0x0.0000000000001p-1022"
@@ -171,9 +171,9 @@ class F64_copysignTest extends Specification {
 		66    | "-0x0.0000000000001p-1022" | "inf"                      || "0x0.0000000000001p-1022"
 		67    | "0x0.0000000000001p-1022"  | "-inf"                     || "-0x0.0000000000001p-1022"
 		68    | "0x0.0000000000001p-1022"  | "inf"                      || "0x0.0000000000001p-1022"
-//		69    | "-0x0.0000000000001p-1022" | "-nan"                     || "-0x0.0000000000001p-1022"
+		69    | "-0x0.0000000000001p-1022" | "-nan"                     || "-0x0.0000000000001p-1022"
 		70    | "-0x0.0000000000001p-1022" | "nan"                      || "0x0.0000000000001p-1022"
-//		71    | "0x0.0000000000001p-1022"  | "-nan"                     || "-0x0.0000000000001p-1022"
+		71    | "0x0.0000000000001p-1022"  | "-nan"                     || "-0x0.0000000000001p-1022"
 		72    | "0x0.0000000000001p-1022"  | "nan"                      || "0x0.0000000000001p-1022"
 		73    | "-0x1p-1022"               | "-0x0p+0"                  || "-0x1p-1022"
 		74    | "-0x1p-1022"               | "0x0p+0"                   || "0x1p-1022"
@@ -207,9 +207,9 @@ class F64_copysignTest extends Specification {
 		102   | "-0x1p-1022"               | "inf"                      || "0x1p-1022"
 		103   | "0x1p-1022"                | "-inf"                     || "-0x1p-1022"
 		104   | "0x1p-1022"                | "inf"                      || "0x1p-1022"
-//		105   | "-0x1p-1022"               | "-nan"                     || "-0x1p-1022"
+		105   | "-0x1p-1022"               | "-nan"                     || "-0x1p-1022"
 		106   | "-0x1p-1022"               | "nan"                      || "0x1p-1022"
-//		107   | "0x1p-1022"                | "-nan"                     || "-0x1p-1022"
+		107   | "0x1p-1022"                | "-nan"                     || "-0x1p-1022"
 		108   | "0x1p-1022"                | "nan"                      || "0x1p-1022"
 		109   | "-0x1p-1"                  | "-0x0p+0"                  || "-0x1p-1"
 		110   | "-0x1p-1"                  | "0x0p+0"                   || "0x1p-1"
@@ -243,9 +243,9 @@ class F64_copysignTest extends Specification {
 		138   | "-0x1p-1"                  | "inf"                      || "0x1p-1"
 		139   | "0x1p-1"                   | "-inf"                     || "-0x1p-1"
 		140   | "0x1p-1"                   | "inf"                      || "0x1p-1"
-//		141   | "-0x1p-1"                  | "-nan"                     || "-0x1p-1"
+		141   | "-0x1p-1"                  | "-nan"                     || "-0x1p-1"
 		142   | "-0x1p-1"                  | "nan"                      || "0x1p-1"
-//		143   | "0x1p-1"                   | "-nan"                     || "-0x1p-1"
+		143   | "0x1p-1"                   | "-nan"                     || "-0x1p-1"
 		144   | "0x1p-1"                   | "nan"                      || "0x1p-1"
 		145   | "-0x1p+0"                  | "-0x0p+0"                  || "-0x1p+0"
 		146   | "-0x1p+0"                  | "0x0p+0"                   || "0x1p+0"
@@ -279,9 +279,9 @@ class F64_copysignTest extends Specification {
 		174   | "-0x1p+0"                  | "inf"                      || "0x1p+0"
 		175   | "0x1p+0"                   | "-inf"                     || "-0x1p+0"
 		176   | "0x1p+0"                   | "inf"                      || "0x1p+0"
-//		177   | "-0x1p+0"                  | "-nan"                     || "-0x1p+0"
+		177   | "-0x1p+0"                  | "-nan"                     || "-0x1p+0"
 		178   | "-0x1p+0"                  | "nan"                      || "0x1p+0"
-//		179   | "0x1p+0"                   | "-nan"                     || "-0x1p+0"
+		179   | "0x1p+0"                   | "-nan"                     || "-0x1p+0"
 		180   | "0x1p+0"                   | "nan"                      || "0x1p+0"
 		181   | "-0x1.921fb54442d18p+2"    | "-0x0p+0"                  || "-0x1.921fb54442d18p+2"
 		182   | "-0x1.921fb54442d18p+2"    | "0x0p+0"                   || "0x1.921fb54442d18p+2"
@@ -315,9 +315,9 @@ class F64_copysignTest extends Specification {
 		210   | "-0x1.921fb54442d18p+2"    | "inf"                      || "0x1.921fb54442d18p+2"
 		211   | "0x1.921fb54442d18p+2"     | "-inf"                     || "-0x1.921fb54442d18p+2"
 		212   | "0x1.921fb54442d18p+2"     | "inf"                      || "0x1.921fb54442d18p+2"
-//		213   | "-0x1.921fb54442d18p+2"    | "-nan"                     || "-0x1.921fb54442d18p+2"
+		213   | "-0x1.921fb54442d18p+2"    | "-nan"                     || "-0x1.921fb54442d18p+2"
 		214   | "-0x1.921fb54442d18p+2"    | "nan"                      || "0x1.921fb54442d18p+2"
-//		215   | "0x1.921fb54442d18p+2"     | "-nan"                     || "-0x1.921fb54442d18p+2"
+		215   | "0x1.921fb54442d18p+2"     | "-nan"                     || "-0x1.921fb54442d18p+2"
 		216   | "0x1.921fb54442d18p+2"     | "nan"                      || "0x1.921fb54442d18p+2"
 		217   | "-0x1.fffffffffffffp+1023" | "-0x0p+0"                  || "-0x1.fffffffffffffp+1023"
 		218   | "-0x1.fffffffffffffp+1023" | "0x0p+0"                   || "0x1.fffffffffffffp+1023"
@@ -351,9 +351,9 @@ class F64_copysignTest extends Specification {
 		246   | "-0x1.fffffffffffffp+1023" | "inf"                      || "0x1.fffffffffffffp+1023"
 		247   | "0x1.fffffffffffffp+1023"  | "-inf"                     || "-0x1.fffffffffffffp+1023"
 		248   | "0x1.fffffffffffffp+1023"  | "inf"                      || "0x1.fffffffffffffp+1023"
-//		249   | "-0x1.fffffffffffffp+1023" | "-nan"                     || "-0x1.fffffffffffffp+1023"
+		249   | "-0x1.fffffffffffffp+1023" | "-nan"                     || "-0x1.fffffffffffffp+1023"
 		250   | "-0x1.fffffffffffffp+1023" | "nan"                      || "0x1.fffffffffffffp+1023"
-//		251   | "0x1.fffffffffffffp+1023"  | "-nan"                     || "-0x1.fffffffffffffp+1023"
+		251   | "0x1.fffffffffffffp+1023"  | "-nan"                     || "-0x1.fffffffffffffp+1023"
 		252   | "0x1.fffffffffffffp+1023"  | "nan"                      || "0x1.fffffffffffffp+1023"
 		253   | "-inf"                     | "-0x0p+0"                  || "-inf"
 		254   | "-inf"                     | "0x0p+0"                   || "inf"
@@ -387,9 +387,9 @@ class F64_copysignTest extends Specification {
 		282   | "-inf"                     | "inf"                      || "inf"
 		283   | "inf"                      | "-inf"                     || "-inf"
 		284   | "inf"                      | "inf"                      || "inf"
-//		285   | "-inf"                     | "-nan"                     || "-inf"
+		285   | "-inf"                     | "-nan"                     || "-inf"
 		286   | "-inf"                     | "nan"                      || "inf"
-//		287   | "inf"                      | "-nan"                     || "-inf"
+		287   | "inf"                      | "-nan"                     || "-inf"
 		288   | "inf"                      | "nan"                      || "inf"
 		289   | "-nan"                     | "-0x0p+0"                  || "-nan"
 		290   | "-nan"                     | "0x0p+0"                   || "nan"
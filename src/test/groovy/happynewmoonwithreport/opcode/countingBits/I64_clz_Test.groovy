@@ -19,7 +19,6 @@ package happynewmoonwithreport.opcode.countingBits
 
 import happynewmoonwithreport.WasmInstanceInterface
 import happynewmoonwithreport.opcode.WasmInstanceStub
-import happynewmoonwithreport.type.I32
 import happynewmoonwithreport.type.I64
 import spock.lang.Specification
 
@@ -61,8 +60,8 @@ class I64_clz_Test extends Specification {
 
 		then:
 		// verify
-		I32 result = instance.stack().pop();
-		new I32(expected) == result;
+		I64 result = instance.stack().pop();
+		new I64(expected) == result;
 
 		where:
 		input  /* Long **/     || expected  /* Integer **/
@@ -19,7 +19,6 @@ package happynewmoonwithreport.opcode.countingBits
 
 import happynewmoonwithreport.WasmInstanceInterface
 import happynewmoonwithreport.opcode.WasmInstanceStub
-import happynewmoonwithreport.type.I32
 import happynewmoonwithreport.type.I64
 import spock.lang.Specification
 
@@ -63,9 +62,9 @@ class I64_popcnt_Test extends Specification {
 
 		then:
 		// verify
-		I32 result = instance.stack().pop();
-		result.integerValue() == expected;
-		result == new I32(expected);
+		I64 result = instance.stack().pop();
+		result.longValue() == expected;
+		result == new I64(expected);
 
 		where:
 		input                  || expected
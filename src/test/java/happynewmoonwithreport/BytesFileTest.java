@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class BytesFileTest {
+
+	private static BytesFile bytes(int... valueAll) {
+		byte[] byteAll = new byte[valueAll.length];
+		for (int i = 0; i < valueAll.length; i++) {
+			byteAll[i] = (byte) valueAll[i];
+		}
+		return new BytesFile(byteAll);
+	}
+
+	@Test
+	public void readVarU32() {
+		assertEquals(0x7FL, bytes(0x7F).readVarU32());
+		assertEquals(624485L, bytes(0xE5, 0x8E, 0x26).readVarU32());
+		assertEquals(0xFFFF_FFFFL, bytes(0xFF, 0xFF, 0xFF, 0xFF, 0x0F).readVarU32());
+		// padding up to the maximum length is allowed.
+		assertEquals(3L, bytes(0x83, 0x80, 0x80, 0x80, 0x00).readVarU32());
+
+		BytesFile bytesFile = bytes(0x80, 0x01, 0x05);
+		assertEquals(128L, bytesFile.readVarU32());
+		assertEquals(2, bytesFile.getIndex().intValue());
+	}
+
+	@Test
+	public void readVarS32() {
+		assertEquals(-1, bytes(0x7F).readVarS32());
+		assertEquals(63, bytes(0x3F).readVarS32());
+		assertEquals(-64, bytes(0x40).readVarS32());
+		assertEquals(-8192, bytes(0x80, 0x40).readVarS32());
+		assertEquals(-123456, bytes(0xC0, 0xBB, 0x78).readVarS32());
+		assertEquals(Integer.MIN_VALUE, bytes(0x80, 0x80, 0x80, 0x80, 0x78).readVarS32());
+		assertEquals(Integer.MAX_VALUE, bytes(0xFF, 0xFF, 0xFF, 0xFF, 0x07).readVarS32());
+	}
+
+	@Test
+	public void readVarS64() {
+		assertEquals(-1L, bytes(0x7F).readVarS64());
+		assertEquals(-129L, bytes(0xFF, 0x7E).readVarS64());
+		assertEquals(Long.MIN_VALUE,
+			bytes(0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x7F).readVarS64());
+		assertEquals(Long.MAX_VALUE,
+			bytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x00).readVarS64());
+		assertEquals(0x1_0000_0000L, bytes(0x80, 0x80, 0x80, 0x80, 0x10).readVarS64());
+	}
+
+	@Test
+	public void tooLong() {
+		assertThrows(WasmRuntimeException.class,
+			() -> bytes(0x80, 0x80, 0x80, 0x80, 0x80, 0x00).readVarU32());
+		assertThrows(WasmRuntimeException.class,
+			() -> bytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x7F).readVarS32());
+		assertThrows(WasmRuntimeException.class,
+			() -> bytes(0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x00)
+				.readVarS64());
+		assertThrows(WasmRuntimeException.class, () -> bytes(0x80, 0x00).readVarU7());
+	}
+
+	@Test
+	public void tooLarge() {
+		assertThrows(WasmRuntimeException.class,
+			() -> bytes(0xFF, 0xFF, 0xFF, 0xFF, 0x1F).readVarU32());
+		// the unused bits of the last byte must copy the sign bit.
+		assertThrows(WasmRuntimeException.class,
+			() -> bytes(0xFF, 0xFF, 0xFF, 0xFF, 0x4F).readVarS32());
+		assertThrows(WasmRuntimeException.class,
+			() -> bytes(0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x01).readVarS64());
+		assertThrows(WasmRuntimeException.class, () -> bytes(0x02).readVarU1());
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class DataSegmentTest {
+
+	@Test
+	public void active() {
+		// kind 0, i32.const 16 end, 2 bytes
+		BytesFile payload = new BytesFile(new byte[]{0x00, 0x41, 0x10, 0x0B, 0x02, 0x68, 0x69});
+
+		DataSegment segment = new DataSegment(payload);
+
+		assertTrue(segment.isActive());
+		assertEquals(0, segment.getMemoryIndex());
+		assertEquals(16, segment.getOffset());
+		assertArrayEquals(new byte[]{0x68, 0x69}, segment.getBytes());
+		assertTrue(payload.atEndOfFile());
+	}
+
+	@Test
+	public void passive() {
+		BytesFile payload = new BytesFile(new byte[]{0x01, 0x03, 0x01, 0x02, 0x03});
+
+		DataSegment segment = new DataSegment(payload);
+
+		assertFalse(segment.isActive());
+		assertArrayEquals(new byte[]{0x01, 0x02, 0x03}, segment.getBytes());
+	}
+
+	@Test
+	public void offsetMustBeConstant() {
+		// global.get 0 is not supported.
+		BytesFile payload = new BytesFile(new byte[]{0x00, 0x23, 0x00, 0x0B, 0x00});
+
+		assertThrows(WasmRuntimeException.class, () -> new DataSegment(payload));
+	}
+}
@@ -24,6 +24,7 @@ import happynewmoonwithreport.type.UInt32;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class FunctionBodyTest {
@@ -48,8 +49,8 @@ public class FunctionBodyTest {
 		byte[] byteAll = {
 			//Body Size
 			(byte) 0x09,
-			// Local Count
-			(byte) 0x02,
+			// Local Entry Count
+			(byte) 0x01,
 			// Local Entry
 			(byte) 0x02,    // count
 			(byte) 0x7F,    // int 32
@@ -67,8 +68,8 @@ public class FunctionBodyTest {
 		//** Body Size
 		assertEquals(new UInt32(9L), functionBody.getBodySize());
 
-		//** Local Count
-		assertEquals(new UInt32(2L), functionBody.getLocalCount());
+		//** Local Entry Count
+		assertEquals(new UInt32(1L), functionBody.getLocalCount());
 
 		//** Local Variables
 		assertEquals(2, functionBody.getLocalEntryAll().size());
@@ -83,4 +84,59 @@ public class FunctionBodyTest {
 		assertEquals(0x0B, functionBody.getEnd());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * (local i32 i32 i32) (local i64) is two entries, every entry must be read.
+	 */
+	@Test
+	public void entryWithCountAboveOneThenAnotherEntry() {
+		byte[] byteAll = {
+			//Body Size
+			(byte) 0x08,
+			// Local Entry Count
+			(byte) 0x02,
+			// Local Entries
+			(byte) 0x03, (byte) 0x7F,    // 3 int 32
+			(byte) 0x01, (byte) 0x7E,    // 1 int 64
+			// Code
+			(byte) 0x20, (byte) 0x03,
+			// End Byte
+			(byte) 0x0B
+		};
+		BytesFile payload = new BytesFile(byteAll);
+
+		functionBody = new FunctionBody(payload);
+
+		assertEquals(new UInt32(2L), functionBody.getLocalCount());
+		assertEquals(4, functionBody.getLocalEntryAll().size());
+		assertEquals(new ValueType("int32"), functionBody.getLocalEntryAll().get(2));
+		assertEquals(new ValueType("int64"), functionBody.getLocalEntryAll().get(3));
+		assertArrayEquals(new byte[]{(byte) 0x20, (byte) 0x03}, functionBody.getCode());
+		assertTrue(payload.atEndOfFile());
+	}
+
+	@Test
+	public void entryWithCountZero() {
+		byte[] byteAll = {
+			//Body Size
+			(byte) 0x07,
+			// Local Entry Count
+			(byte) 0x02,
+			// Local Entries
+			(byte) 0x00, (byte) 0x7F,    // 0 int 32
+			(byte) 0x01, (byte) 0x7E,    // 1 int 64
+			// Code
+			(byte) 0x01,
+			// End Byte
+			(byte) 0x0B
+		};
+		BytesFile payload = new BytesFile(byteAll);
+
+		functionBody = new FunctionBody(payload);
+
+		assertEquals(1, functionBody.getLocalEntryAll().size());
+		assertEquals(new ValueType("int64"), functionBody.getLocalEntryAll().get(0));
+		assertArrayEquals(new byte[]{(byte) 0x01}, functionBody.getCode());
+		assertTrue(payload.atEndOfFile());
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import happynewmoonwithreport.interpreter.ValueStack;
+import org.junit.jupiter.api.Test;
+
+public class WasmFrameTest {
+
+	private WasmFunction function(int paramCount, byte... slotTypeAll) {
+		WasmFunction function = new WasmFunction();
+		function.setParamCount(paramCount);
+		function.setSlotTypeAll(slotTypeAll);
+		return function;
+	}
+
+	@Test
+	public void enter() {
+		WasmFrame frame = new WasmFrame(null);
+		WasmFunction function = function(2, ValueStack.I32_TYPE, ValueStack.I64_TYPE,
+			ValueStack.F64_TYPE, ValueStack.I32_TYPE);
+		ValueStack stack = new ValueStack();
+		stack.pushI32(7);
+		stack.pushI32(-3);
+		stack.pushI64(1L << 40);
+
+		frame.enter(function, stack);
+
+		assertEquals(4, frame.slotCount());
+		assertEquals(-3L, frame.getSlot(0));
+		assertEquals(ValueStack.I32_TYPE, frame.getSlotType(0));
+		assertEquals(1L << 40, frame.getSlot(1));
+		assertEquals(ValueStack.I64_TYPE, frame.getSlotType(1));
+		assertEquals(0L, frame.getSlot(2));
+		assertEquals(ValueStack.F64_TYPE, frame.getSlotType(2));
+		assertEquals(0L, frame.getSlot(3));
+		assertEquals(ValueStack.I32_TYPE, frame.getSlotType(3));
+		// the arguments are popped, the stack base is above the values of the caller.
+		assertEquals(1, frame.getStackBase());
+		assertSame(function, frame.getFunction());
+	}
+
+	@Test
+	public void localsAreZeroedOnEveryCall() {
+		WasmFrame frame = new WasmFrame(null);
+		WasmFunction function = function(0, ValueStack.I64_TYPE);
+		ValueStack stack = new ValueStack();
+
+		frame.enter(function, stack);
+		frame.setSlot(0, 99L);
+		frame.enter(function, stack);
+
+		assertEquals(0L, frame.getSlot(0));
+	}
+}
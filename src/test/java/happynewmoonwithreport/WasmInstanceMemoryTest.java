@@ -0,0 +1,210 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.memory.DirectMemory;
+import happynewmoonwithreport.memory.HeapMemory;
+import happynewmoonwithreport.memory.MappedMemory;
+import happynewmoonwithreport.memory.TrackedMemory;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The host view of the memory of an instance.
+ */
+public class WasmInstanceMemoryTest {
+
+	private WasmInstance instance;
+
+	@BeforeEach
+	public void setUp() {
+		WasmModule module = new WasmModule();
+		module.addMemory(new MemoryType(new U32(0), new U32(1)));
+		instance = new WasmInstance(module, 100, DirectMemory::new);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		instance.close();
+	}
+
+	@Test
+	public void viewWritesTheMemory() {
+		IntBuffer view = instance.memoryIntView(64, 4);
+		view.put(2, 0x0403_0201);
+
+		assertEquals(0x0403_0201, instance.getMemory().getInt(72));
+		assertEquals(0x01, instance.getMemory().getByte(72));
+
+		ByteBuffer bytes = instance.memoryView(72, 4);
+		assertEquals(0x04, bytes.get(3));
+	}
+
+	@Test
+	public void readAndWriteArrays() {
+		double[] source = {1.5, -2.25, Math.PI};
+		instance.write(8, source);
+		double[] destination = new double[3];
+		instance.read(8, destination);
+		assertArrayEquals(source, destination);
+
+		int[] intAll = {1, -1, 7};
+		instance.write(100, intAll);
+		assertEquals(-1, instance.getMemory().getInt(104));
+		int[] intRead = new int[3];
+		instance.read(100, intRead);
+		assertArrayEquals(intAll, intRead);
+	}
+
+	@Test
+	public void outOfBounds() {
+		assertThrows(WasmRuntimeException.class, () -> instance.memoryView(65535, 2));
+		assertThrows(WasmRuntimeException.class, () -> instance.read(65532, new long[1]));
+		assertThrows(WasmRuntimeException.class, () -> instance.memoryIntView(-4, 1));
+		assertEquals(0, instance.memoryView(65536, 0).remaining());
+	}
+
+	@Test
+	public void cloneHasPagedView() {
+		WasmInstance clone = instance.cloneInstance();
+		clone.memoryIntView(0, 1).put(0, 42);
+
+		assertEquals(42, clone.getMemory().getInt(0));
+		assertEquals(0, instance.getMemory().getInt(0));
+	}
+
+	@Test
+	public void cloneViewAcrossPages() {
+		WasmModule module = new WasmModule();
+		module.addMemory(new MemoryType(new U32(0), new U32(2)));
+		try (WasmInstance template = new WasmInstance(module, 100)) {
+			WasmInstance clone = template.cloneInstance();
+			clone.write(MemoryType.pageSize - 4, new int[] {1, 2});
+			IntBuffer before = clone.memoryIntView(0, 1);
+
+			// the view moved the memory of the clone to one block, it writes the clone.
+			IntBuffer view = clone.memoryIntView(MemoryType.pageSize - 4, 2);
+			assertFalse(view.isReadOnly());
+			assertEquals(2, view.get(1));
+			view.put(0, 7);
+			assertEquals(7, clone.getMemory().getInt(MemoryType.pageSize - 4));
+			assertEquals(0, template.getMemory().getInt(MemoryType.pageSize - 4));
+
+			// the view in one page from before is cut off.
+			before.put(0, 9);
+			assertEquals(0, clone.getMemory().getInt(0));
+		}
+	}
+
+	@Test
+	public void cloneCutsOffEarlierView() {
+		IntBuffer before = instance.memoryIntView(0, 1);
+		WasmInstance clone = instance.cloneInstance();
+		IntBuffer after = instance.memoryIntView(0, 1);
+
+		// the first clone moved the memory to pages, the earlier view no longer writes it.
+		before.put(0, 5);
+		assertEquals(0, instance.getMemory().getInt(0));
+
+		// a view of the paged memory writes the template and not the clone, nor a later clone.
+		after.put(0, 6);
+		WasmInstance second = instance.cloneInstance();
+		after.put(0, 8);
+		assertEquals(8, instance.getMemory().getInt(0));
+		assertEquals(0, clone.getMemory().getInt(0));
+		assertEquals(6, second.getMemory().getInt(0));
+	}
+
+	@Test
+	public void reopenKeepsTheSavedBytes() throws IOException {
+		Path path = Files.createTempFile("memory", ".bin");
+		try {
+			try (WasmInstance first = new WasmInstance(moduleWithData(), 100,
+				MappedMemory.factory(path))) {
+				assertEquals(0x11, first.getMemory().getByte(16));
+				first.getMemory().putByte(16, (byte) 0x77);
+			}
+
+			// the data segment was written by the first instance, it does not overwrite the file.
+			try (WasmInstance second = new WasmInstance(moduleWithData(), 100,
+				MappedMemory.factory(path))) {
+				assertEquals(0x77, second.getMemory().getByte(16));
+				assertEquals(0x22, second.getMemory().getByte(17));
+			}
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void cloneOfTrackedMemoryIsRejected() {
+		try (WasmInstance template = new WasmInstance(moduleWithData(), 100,
+			TrackedMemory.factory(HeapMemory::new, 12))) {
+			assertThrows(WasmRuntimeException.class, template::cloneInstance);
+
+			// the template keeps its memory, the snapshots still work.
+			TrackedMemory.Snapshot snapshot = template.getMemory().fullSnapshot();
+			template.getMemory().putByte(16, (byte) 0x77);
+			template.getMemory().restore(snapshot);
+			assertEquals(0x11, template.getMemory().getByte(16));
+		}
+	}
+
+	@Test
+	public void cloneOfMappedMemoryIsRejected() throws IOException {
+		Path path = Files.createTempFile("memory", ".bin");
+		try {
+			try (WasmInstance template = new WasmInstance(moduleWithData(), 100,
+				MappedMemory.factory(path))) {
+				assertThrows(WasmRuntimeException.class, template::cloneInstance);
+				template.getMemory().putByte(16, (byte) 0x77);
+			}
+
+			// the template kept writing the file.
+			try (WasmInstance second = new WasmInstance(moduleWithData(), 100,
+				MappedMemory.factory(path))) {
+				assertEquals(0x77, second.getMemory().getByte(16));
+			}
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	/**
+	 * A module of one page with an active data segment of two bytes at 16.
+	 */
+	private static WasmModule moduleWithData() {
+		WasmModule module = new WasmModule();
+		module.addMemory(new MemoryType(new U32(0), new U32(1)));
+		byte[] segment = {0x00, 0x41, 0x10, 0x0B, 0x02, 0x11, 0x22};
+		module.getDataSegmentAll().add(new DataSegment(new BytesFile(segment)));
+		return module;
+	}
+}
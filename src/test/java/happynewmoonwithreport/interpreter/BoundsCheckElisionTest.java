@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class BoundsCheckElisionTest {
+
+	@Test
+	public void constantAddress() {
+		// i32.const 16, i32.load offset=4
+		byte[] byteAll = new byte[]{0x41, 0x10, 0x28, 0x02, 0x04};
+
+		InstructionStream stream = Decoder.decode(byteAll);
+		assertEquals(0, BoundsCheckElision.elide(stream, 23));
+		assertEquals(0x28, stream.getCode()[2]);
+
+		// the last four bytes of the memory.
+		stream = Decoder.decode(byteAll);
+		assertEquals(1, BoundsCheckElision.elide(stream, 24));
+		assertEquals(Opcode.unchecked(0x28), stream.getCode()[2]);
+		assertEquals(3, stream.instructionLength(2));
+		assertEquals(4, stream.getCode()[4]);
+	}
+
+	@Test
+	public void maskedAddress() {
+		// get_local 0, i32.const 60, i32.and, i64.store offset=0 (get_local 1)
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x41, 0x3C, 0x71, 0x20, 0x01, 0x37, 0x03, 0x00};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertEquals(1, BoundsCheckElision.elide(stream, 68));
+
+		assertEquals(Opcode.unchecked(0x37), stream.getCode()[7]);
+	}
+
+	@Test
+	public void guardedLocal() {
+		// get_local 0, i32.const 60, i32.lt_u, if
+		//   get_local 0, i32.load, drop
+		// end
+		// get_local 0, i32.load, drop
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x41, 0x3C, 0x49, 0x04, 0x40, 0x20, 0x00, 0x28,
+			0x02, 0x00, 0x1A, 0x0B, 0x20, 0x00, 0x28, 0x02, 0x00, 0x1A};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertEquals(1, BoundsCheckElision.elide(stream, 64));
+
+		assertEquals(Opcode.unchecked(0x28), stream.getCode()[9]);
+		// after the end the guard no longer holds.
+		assertEquals(0x28, stream.getCode()[16]);
+	}
+
+	@Test
+	public void localSetInLoop() {
+		// get_local 0, i32.const 60, i32.lt_u, if
+		//   loop
+		//     get_local 0, i32.load, drop
+		//     get_local 0, i32.const 4, i32.add, set_local 0
+		//     br 0
+		//   end
+		// end
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x41, 0x3C, 0x49, 0x04, 0x40, 0x03, 0x40, 0x20,
+			0x00, 0x28, 0x02, 0x00, 0x1A, 0x20, 0x00, 0x41, 0x04, 0x6A, 0x21, 0x00, 0x0C, 0x00,
+			0x0B, 0x0B};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertEquals(0, BoundsCheckElision.elide(stream, 64));
+
+		assertEquals(0x28, stream.getCode()[11]);
+	}
+}
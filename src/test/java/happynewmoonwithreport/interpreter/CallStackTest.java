@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmTrapException;
+import org.junit.jupiter.api.Test;
+
+public class CallStackTest {
+
+	@Test
+	public void framesAreReused() {
+		CallStack callStack = new CallStack(null, 100);
+
+		WasmFrame first = callStack.push();
+		WasmFrame second = callStack.push();
+		assertNotSame(first, second);
+		assertSame(second, callStack.top());
+		assertEquals(2, callStack.depth());
+
+		callStack.pop();
+		assertSame(first, callStack.top());
+		assertSame(second, callStack.push());
+	}
+
+	@Test
+	public void growsToMaxDepth() {
+		CallStack callStack = new CallStack(null, 200);
+
+		for (int i = 0; i < 200; i++) {
+			callStack.push();
+		}
+
+		assertEquals(200, callStack.depth());
+		assertThrows(WasmTrapException.class, callStack::push);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import org.junit.jupiter.api.Test;
+
+public class DecoderTest {
+
+	@Test
+	public void decodeAdd32() {
+		// get_local 0, get_local 1, i32.add
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x20, 0x01, 0x6A};
+
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertArrayEquals(new int[]{0x20, 0, 0x20, 1, 0x6A}, stream.getCode());
+		assertEquals(0, stream.byteOffset(0));
+		assertEquals(2, stream.byteOffset(3));
+		assertEquals(4, stream.byteOffset(4));
+	}
+
+	@Test
+	public void decodeConstants() {
+		byte[] byteAll = new byte[]{
+			0x41, (byte) 0x7F,                                      // i32.const -1
+			0x42, (byte) 0x80, 0x01,                                // i64.const 128
+			0x43, 0x00, 0x00, (byte) 0x80, 0x3F,                    // f32.const 1.0
+			0x44, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, (byte) 0xF0, 0x3F // f64.const 1.0
+		};
+
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertArrayEquals(new int[]{0x41, -1, 0x42, 0, 0x43, Float.floatToRawIntBits(1.0F), 0x44, 1},
+			stream.getCode());
+		assertArrayEquals(new long[]{128L, Double.doubleToRawLongBits(1.0D)},
+			stream.getConstantAll());
+	}
+
+	@Test
+	public void decodeMemoryArgument() {
+		// i32.load align=2 offset=200,  memory.size
+		byte[] byteAll = new byte[]{0x28, 0x02, (byte) 0xC8, 0x01, 0x3F, 0x00};
+
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertArrayEquals(new int[]{0x28, 2, 200, 0x3F}, stream.getCode());
+		assertEquals(3, stream.instructionLength(0));
+		assertEquals(1, stream.instructionLength(3));
+	}
+
+	@Test
+	public void decodeControl() {
+		// block (result i32), br_table 0 1 default 0, end
+		byte[] byteAll = new byte[]{0x02, 0x7F, 0x0E, 0x02, 0x00, 0x01, 0x00, 0x0B};
+
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertArrayEquals(new int[]{0x02, -0x01, 0x0E, 2, 0, 1, 0, 0x0B}, stream.getCode());
+		assertEquals(5, stream.instructionLength(2));
+	}
+
+	@Test
+	public void decodeMisc() {
+		// i32.trunc_sat_f32_s, memory.fill
+		byte[] byteAll = new byte[]{(byte) 0xFC, 0x00, (byte) 0xFC, 0x0B, 0x00};
+
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertArrayEquals(new int[]{Opcode.MISC_BASE, Opcode.MISC_BASE + 0x0B}, stream.getCode());
+	}
+
+	@Test
+	public void decodeUnknownOpcode() {
+		byte[] byteAll = new byte[]{0x01, (byte) 0xD0};
+
+		assertThrows(WasmRuntimeException.class, () -> Decoder.decode(byteAll));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import org.junit.jupiter.api.Test;
+
+public class DispatchTableTest {
+
+	@Test
+	public void handlerIsShared() {
+		assertSame(DispatchTable.get(0x6A), DispatchTable.get(0x6A));
+	}
+
+	@Test
+	public void everyOpcodeHasAHandler() {
+		for (int opcode = 0; opcode < Opcode.COUNT; opcode++) {
+			assertNotNull(DispatchTable.get(opcode));
+		}
+	}
+
+	@Test
+	public void unknownOpcode() {
+		InstructionStream stream = new InstructionStream(new int[]{0xD0}, new long[0], new int[]{7});
+
+		WasmRuntimeException exception = assertThrows(WasmRuntimeException.class,
+			() -> DispatchTable.get(0xD0).execute(null, stream, 0));
+		assertTrue(exception.getMessage().contains("byte number = 7"));
+	}
+
+	@Test
+	public void effectiveAddress() {
+		MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		// i32.load align 2 offset 8
+		InstructionStream stream = new InstructionStream(new int[]{0x28, 2, 8}, new long[0],
+			new int[]{0});
+
+		assertEquals(16, DispatchTable.effectiveAddress(memory, 8, stream, 0, 4));
+		assertEquals(65532, DispatchTable.effectiveAddress(memory, 65524, stream, 0, 4));
+		assertThrows(WasmRuntimeException.class,
+			() -> DispatchTable.effectiveAddress(memory, 65525, stream, 0, 4));
+		// the address is unsigned, -1 is 4 GiB - 1.
+		assertThrows(WasmRuntimeException.class,
+			() -> DispatchTable.effectiveAddress(memory, -1, stream, 0, 1));
+	}
+}
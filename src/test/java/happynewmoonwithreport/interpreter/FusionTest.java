@@ -0,0 +1,64 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class FusionTest {
+
+	@Test
+	public void fuseLocalLocalAdd() {
+		// get_local 0, get_local 1, i32.add
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x20, 0x01, 0x6A};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertEquals(1, Fusion.fuse(stream));
+
+		assertEquals(Opcode.LOCAL_LOCAL_I32_ADD, stream.getCode()[0]);
+		assertEquals(5, stream.instructionLength(0));
+		// the operands stay where they were.
+		assertEquals(0, stream.getCode()[1]);
+		assertEquals(1, stream.getCode()[3]);
+	}
+
+	@Test
+	public void longestMatchWins() {
+		// get_local 0, i32.eqz, br_if 0, i32.const 1, i32.add
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x45, 0x0D, 0x00, 0x41, 0x01, 0x6A};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertEquals(2, Fusion.fuse(stream));
+
+		assertEquals(Opcode.LOCAL_I32_EQZ_BR_IF, stream.getCode()[0]);
+		assertEquals(5, stream.instructionLength(0));
+		assertEquals(Opcode.I32_CONST_I32_ADD, stream.getCode()[5]);
+		assertEquals(3, stream.instructionLength(5));
+	}
+
+	@Test
+	public void partialSequenceIsNotFused() {
+		// get_local 0, get_local 1, i32.mul
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x20, 0x01, 0x6C};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertEquals(0, Fusion.fuse(stream));
+
+		assertEquals(0x20, stream.getCode()[0]);
+	}
+}
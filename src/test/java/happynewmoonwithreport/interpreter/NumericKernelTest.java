@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.WasmDivideByZeroException;
+import happynewmoonwithreport.WasmDivideOverflowException;
+import happynewmoonwithreport.WasmTrapException;
+import org.junit.jupiter.api.Test;
+
+public class NumericKernelTest {
+
+	@Test
+	public void unsignedCompare() {
+		assertEquals(1, NumericKernel.i32LtU(1, -1));
+		assertEquals(0, NumericKernel.i32LtS(1, -1));
+		assertEquals(1, NumericKernel.i64GeU(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(0, NumericKernel.i64GeS(Long.MIN_VALUE, Long.MAX_VALUE));
+	}
+
+	@Test
+	public void divisionTraps() {
+		assertThrows(WasmDivideByZeroException.class, () -> NumericKernel.i32DivU(1, 0));
+		assertThrows(WasmDivideByZeroException.class, () -> NumericKernel.i64RemS(1, 0));
+		assertThrows(WasmDivideOverflowException.class,
+			() -> NumericKernel.i32DivS(Integer.MIN_VALUE, -1));
+		// the remainder of the same division is defined.
+		assertEquals(0, NumericKernel.i32RemS(Integer.MIN_VALUE, -1));
+		assertEquals(0x7FFF_FFFF_FFFF_FFFFL, NumericKernel.i64DivU(-1L, 2));
+		assertEquals(-1, NumericKernel.i32RemS(-7, 2));
+	}
+
+	@Test
+	public void shiftCountModuloWidth() {
+		assertEquals(2, NumericKernel.i32Shl(1, 33));
+		assertEquals(0x8000_0000_0000_0001L, NumericKernel.i64Rotr(3, 65));
+		assertEquals(0x0000_0001_0000_0000L, NumericKernel.i64Rotl(1, -32));
+		assertEquals(-1, NumericKernel.i32ShrS(-1, 31));
+	}
+
+	@Test
+	public void floatCompareAndSign() {
+		assertEquals(1, NumericKernel.f32Eq(0.0F, -0.0F));
+		assertEquals(0, NumericKernel.f64Eq(Double.NaN, Double.NaN));
+		assertEquals(1, NumericKernel.f64Ne(Double.NaN, Double.NaN));
+		assertEquals(0, NumericKernel.f32Ge(Float.NaN, 1.0F));
+
+		// the payload of a NaN is kept.
+		int nan = 0x7FA0_0001;
+		assertEquals(0xFFA0_0001, NumericKernel.f32Neg(nan));
+		assertEquals(nan, NumericKernel.f32Abs(NumericKernel.f32Neg(nan)));
+		assertEquals(0x8000_0000_0000_0001L, NumericKernel.f64Copysign(1L, -1L));
+	}
+
+	@Test
+	public void floatArithmetic() {
+		// nearest rounds a tie to even.
+		assertEquals(2.0F, NumericKernel.f32Nearest(2.5F));
+		assertEquals(-4.0D, NumericKernel.f64Nearest(-3.5D));
+		assertEquals(-0.0F, NumericKernel.f32Nearest(-0.5F));
+		// trunc keeps the sign of a zero.
+		assertEquals(-0.0D, NumericKernel.f64Trunc(-0.75D));
+		assertEquals(-2.0F, NumericKernel.f32Trunc(-2.9F));
+		assertEquals(-0.0F, NumericKernel.f32Ceil(-0.5F));
+		assertEquals(-1.0D, NumericKernel.f64Floor(-0.5D));
+		assertEquals(Float.NaN, NumericKernel.f32Sqrt(-1.0F));
+		assertEquals(0.1F + 0.2F, NumericKernel.f32Add(0.1F, 0.2F));
+		assertEquals(Float.POSITIVE_INFINITY, NumericKernel.f32Mul(3.4e38F, 10.0F));
+		assertEquals(Double.NaN, NumericKernel.f64Div(0.0D, -0.0D));
+	}
+
+	@Test
+	public void floatMinMax() {
+		assertEquals(-0.0F, NumericKernel.f32Min(0.0F, -0.0F));
+		assertEquals(-0.0F, NumericKernel.f32Min(-0.0F, 0.0F));
+		assertEquals(0.0D, NumericKernel.f64Max(-0.0D, 0.0D));
+		assertEquals(0.0D, NumericKernel.f64Max(0.0D, -0.0D));
+		assertEquals(Float.NaN, NumericKernel.f32Max(Float.NaN, 1.0F));
+		assertEquals(Double.NaN, NumericKernel.f64Min(1.0D, Double.NaN));
+		assertEquals(Double.NEGATIVE_INFINITY,
+			NumericKernel.f64Min(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY));
+	}
+
+	@Test
+	public void extend() {
+		assertEquals(-128, NumericKernel.i32Extend8S(0x80));
+		assertEquals(0xFFFF_FFFFL, NumericKernel.i64ExtendI32U(-1));
+		assertEquals(-1L, NumericKernel.i64Extend32S(0xFFFF_FFFFL));
+	}
+
+	@Test
+	public void truncTraps() {
+		assertEquals(-2147483648, NumericKernel.i32TruncS(-2147483648.9D, "i32.trunc_f64_s"));
+		assertEquals(-1, NumericKernel.i32TruncU(4294967295.5D, "i32.trunc_f64_u"));
+		assertEquals(0, NumericKernel.i32TruncU(-0.9D, "i32.trunc_f64_u"));
+		assertEquals(-2048L, NumericKernel.i64TruncU(0x1p64 - 2048, "i64.trunc_f64_u"));
+		assertThrows(WasmTrapException.class,
+			() -> NumericKernel.i32TruncS(2147483648.0D, "i32.trunc_f64_s"));
+		assertThrows(WasmTrapException.class,
+			() -> NumericKernel.i32TruncU(-1.0D, "i32.trunc_f64_u"));
+		assertThrows(WasmTrapException.class,
+			() -> NumericKernel.i64TruncS(Float.NaN, "i64.trunc_f32_s"));
+		assertThrows(WasmTrapException.class,
+			() -> NumericKernel.i64TruncU(0x1p64, "i64.trunc_f64_u"));
+	}
+
+	@Test
+	public void truncSat() {
+		assertEquals(0, NumericKernel.i32TruncSatS(Double.NaN));
+		assertEquals(Integer.MAX_VALUE, NumericKernel.i32TruncSatS(1e10D));
+		assertEquals(0, NumericKernel.i32TruncSatU(-5.0D));
+		assertEquals(-1, NumericKernel.i32TruncSatU(Double.POSITIVE_INFINITY));
+		assertEquals(Long.MIN_VALUE, NumericKernel.i64TruncSatS(Double.NEGATIVE_INFINITY));
+		assertEquals(0L, NumericKernel.i64TruncSatU(Double.NaN));
+		assertEquals(Long.MIN_VALUE, NumericKernel.i64TruncSatU(0x1p63));
+		assertEquals(-1L, NumericKernel.i64TruncSatU(1e30D));
+	}
+
+	@Test
+	public void convert() {
+		assertEquals(4294967295.0D, NumericKernel.f64ConvertI32U(-1));
+		assertEquals(0x1p64F, NumericKernel.f32ConvertI64U(-1L));
+		assertEquals(18446744073709549568.0D, NumericKernel.f64ConvertI64U(-2049L));
+		// halving must not lose the bit that decides the rounding.
+		assertEquals(0x1.000002p63F, NumericKernel.f32ConvertI64U(0x8000_0080_0000_0001L));
+		assertEquals(-1, NumericKernel.i32WrapI64(0x1_FFFF_FFFFL));
+		assertEquals(Float.POSITIVE_INFINITY, NumericKernel.f32DemoteF64(1e39D));
+	}
+}
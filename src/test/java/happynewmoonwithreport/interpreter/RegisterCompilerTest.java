@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import org.junit.jupiter.api.Test;
+
+public class RegisterCompilerTest {
+
+	private static final byte[] I32_I32 = new byte[]{ValueStack.I32_TYPE, ValueStack.I32_TYPE};
+	private static final byte[] I32 = new byte[]{ValueStack.I32_TYPE};
+
+	@Test
+	public void localsAreReadInPlace() {
+		// get_local 0, get_local 1, i32.add
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x20, 0x01, 0x6A};
+
+		RegisterCode registerCode = RegisterCompiler.compile(Decoder.decode(byteAll), 2, I32_I32,
+			I32);
+
+		// r2 = r0 + r1
+		assertArrayEquals(new int[]{0x6A, 2, 0, 1}, registerCode.getCode());
+		assertEquals(3, registerCode.getRegisterCount());
+	}
+
+	@Test
+	public void setLocalWritesTheLocal() {
+		// get_local 0, i32.const 1, i32.add, set_local 0, get_local 0
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x41, 0x01, 0x6A, 0x21, 0x00, 0x20, 0x00};
+
+		RegisterCode registerCode = RegisterCompiler.compile(Decoder.decode(byteAll), 1, I32, I32);
+
+		// r2 = 1, r0 = r0 + r2, r1 = r0
+		assertArrayEquals(new int[]{RegisterCode.I32_CONST, 2, 1, 0x6A, 0, 0, 2,
+			RegisterCode.MOV, 1, 0}, registerCode.getCode());
+	}
+
+	@Test
+	public void callIsNotTranslated() {
+		// get_local 0, call 0
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x10, 0x00};
+
+		assertNull(RegisterCompiler.compile(Decoder.decode(byteAll), 1, I32, I32));
+	}
+
+	@Test
+	public void storeThenLoad() {
+		// get_local 0, get_local 1, i32.store offset 8, get_local 0, i32.load offset 8
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x20, 0x01, 0x36, 0x02, 0x08, 0x20, 0x00, 0x28,
+			0x02, 0x08};
+		RegisterCode registerCode = RegisterCompiler.compile(Decoder.decode(byteAll), 2, I32_I32,
+			I32);
+
+		// memory[r0 + 8] = r1, r2 = memory[r0 + 8]
+		assertArrayEquals(new int[]{0x36, 0, 1, 8, 0x28, 2, 0, 8}, registerCode.getCode());
+		assertTrue(registerCode.isMemoryUsed());
+
+		MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		ValueStack stack = new ValueStack();
+		stack.pushI32(100);
+		stack.pushI32(-7);
+		new RegisterInterpreter().call(registerCode, stack, memory);
+
+		assertEquals(-7, stack.popI32());
+		assertEquals(-7, memory.getInt(108));
+	}
+
+	@Test
+	public void loop() {
+		// sum of 1 .. n
+		// block
+		//   loop
+		//     get_local 0, i32.eqz, br_if 1
+		//     get_local 1, get_local 0, i32.add, set_local 1
+		//     get_local 0, i32.const 1, i32.sub, set_local 0
+		//     br 0
+		//   end
+		// end
+		// get_local 1
+		byte[] byteAll = new byte[]{0x02, 0x40, 0x03, 0x40, 0x20, 0x00, 0x45, 0x0D, 0x01, 0x20,
+			0x01, 0x20, 0x00, 0x6A, 0x21, 0x01, 0x20, 0x00, 0x41, 0x01, 0x6B, 0x21, 0x00, 0x0C, 0x00,
+			0x0B, 0x0B, 0x20, 0x01};
+		RegisterCode registerCode = RegisterCompiler.compile(Decoder.decode(byteAll), 1, I32_I32,
+			I32);
+		RegisterInterpreter interpreter = new RegisterInterpreter();
+		ValueStack stack = new ValueStack();
+
+		stack.pushI32(10);
+		interpreter.call(registerCode, stack, new MemoryType(new U32(0), new U32(0)));
+
+		assertEquals(1, stack.size());
+		assertEquals(ValueStack.I32_TYPE, stack.peekType());
+		assertEquals(55, stack.popI32());
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import org.junit.jupiter.api.Test;
+
+public class SideTableTest {
+
+	@Test
+	public void branchOutOfBlockWithResult() {
+		// i32.const 1, block (result i32), i32.const 2, i32.const 3, br 0, end
+		byte[] byteAll = new byte[]{0x41, 0x01, 0x02, 0x7F, 0x41, 0x02, 0x41, 0x03, 0x0C, 0x00,
+			0x0B};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		SideTable sideTable = SideTable.build(stream, 2, null);
+
+		// br is at 8, its label index at 9.  The end is at 10.
+		assertEquals(11, sideTable.target(9));
+		assertEquals(1, sideTable.arity(9));
+		assertEquals(1, sideTable.height(9));
+	}
+
+	@Test
+	public void branchToLoop() {
+		// loop, br_if 0, end, return
+		byte[] byteAll = new byte[]{0x03, 0x40, 0x41, 0x00, 0x0D, 0x00, 0x0B, 0x0F};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		SideTable sideTable = SideTable.build(stream, 0, null);
+
+		assertEquals(2, sideTable.target(5));
+		assertEquals(0, sideTable.arity(5));
+		assertEquals(0, sideTable.height(5));
+		// return continues after the last instruction.
+		assertEquals(8, sideTable.target(7));
+	}
+
+	@Test
+	public void ifElse() {
+		// i32.const 0, if (result i32), i32.const 1, else, i32.const 2, end
+		byte[] byteAll = new byte[]{0x41, 0x00, 0x04, 0x7F, 0x41, 0x01, 0x05, 0x41, 0x02, 0x0B};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		SideTable sideTable = SideTable.build(stream, 1, null);
+
+		// false goes to the first instruction after the else.
+		assertEquals(7, sideTable.target(3));
+		// the then branch skips the else branch.
+		assertEquals(10, sideTable.target(6));
+	}
+
+	@Test
+	public void branchTable() {
+		// block, block, i32.const 0, br_table 0 1 default 1, end, end
+		byte[] byteAll = new byte[]{0x02, 0x40, 0x02, 0x40, 0x41, 0x00, 0x0E, 0x02, 0x00, 0x01,
+			0x01, 0x0B, 0x0B};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		SideTable sideTable = SideTable.build(stream, 0, null);
+
+		// br_table is at 6, the labels at 8, 9 and 10.  The ends are at 11 and 12.
+		assertEquals(12, sideTable.target(8));
+		assertEquals(13, sideTable.target(9));
+		assertEquals(13, sideTable.target(10));
+	}
+
+	@Test
+	public void branchToMissingLabel() {
+		// br 1
+		byte[] byteAll = new byte[]{0x0C, 0x01};
+		InstructionStream stream = Decoder.decode(byteAll);
+
+		assertThrows(WasmRuntimeException.class, () -> SideTable.build(stream, 0, null));
+	}
+}
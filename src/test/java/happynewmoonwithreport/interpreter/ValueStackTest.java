@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.type.F32;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import org.junit.jupiter.api.Test;
+
+public class ValueStackTest {
+
+	@Test
+	public void pushPopTyped() {
+		ValueStack stack = new ValueStack();
+		stack.pushI32(-7);
+		stack.pushI64(Long.MIN_VALUE);
+		stack.pushF32(1.5F);
+		stack.pushF64(-2.25D);
+
+		assertEquals(4, stack.size());
+		assertEquals(-2.25D, stack.popF64());
+		assertEquals(1.5F, stack.popF32());
+		assertEquals(Long.MIN_VALUE, stack.popI64());
+		assertEquals(-7, stack.popI32());
+		assertTrue(stack.isEmpty());
+	}
+
+	@Test
+	public void nanPayloadIsKept() {
+		ValueStack stack = new ValueStack();
+		int negativeNaN = 0xFFC0_0001;
+		stack.pushF32Bits(negativeNaN);
+
+		assertEquals(negativeNaN, stack.popF32Bits());
+	}
+
+	@Test
+	public void retypeKeepsTheBits() {
+		ValueStack stack = new ValueStack();
+		stack.pushF32(-1.5F);
+		stack.retype(ValueStack.I32_TYPE);
+
+		assertEquals(ValueStack.I32_TYPE, stack.peekType());
+		assertEquals(Float.floatToRawIntBits(-1.5F), stack.popI32());
+	}
+
+	@Test
+	public void grow() {
+		ValueStack stack = new ValueStack();
+		for (int i = 0; i < 5000; i++) {
+			stack.pushI32(i);
+		}
+		for (int i = 4999; 0 <= i; i--) {
+			assertEquals(i, stack.popI32());
+		}
+	}
+
+	@Test
+	public void boxed() {
+		ValueStack stack = new ValueStack();
+		stack.push(new I32(3));
+		stack.push(new I64(4L));
+		stack.push(new F32(5.0F));
+
+		assertEquals(ValueStack.F32_TYPE, stack.peekType());
+		assertEquals(new F32(5.0F), stack.pop());
+		assertEquals(new I64(4L), stack.pop());
+		assertEquals(new I32(3), stack.pop());
+	}
+
+	@Test
+	public void unwind() {
+		ValueStack stack = new ValueStack();
+		stack.pushI32(1);
+		stack.pushI32(2);
+		stack.pushI32(3);
+		stack.pushI64(4L);
+
+		stack.unwind(1, 1);
+
+		assertEquals(2, stack.size());
+		assertEquals(ValueStack.I64_TYPE, stack.peekType());
+		assertEquals(4L, stack.popI64());
+		assertEquals(1, stack.popI32());
+	}
+}
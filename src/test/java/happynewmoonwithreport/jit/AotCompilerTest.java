@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.jit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class AotCompilerTest {
+
+	@Test
+	public void compileExportedFunction() throws Exception {
+		Wasm wasm = new Wasm("./src/test/resources/add32/add32.wasm");
+		WasmModule module = wasm.instantiate();
+		assertTrue(wasm.validate());
+		List<String> skippedAll = new ArrayList<>();
+
+		byte[] classFile = AotCompiler.compile(module, "test.Add32", skippedAll);
+
+		assertTrue(skippedAll.isEmpty());
+		Class<?> compiled = new JitClassLoader(getClass().getClassLoader()).define("test.Add32",
+			classFile);
+		Method add32 = compiled.getMethod("add32", int.class, int.class);
+		assertEquals(7, add32.invoke(null, 3, 4));
+		assertEquals(Integer.MIN_VALUE, add32.invoke(null, Integer.MAX_VALUE, 1));
+	}
+
+	@Test
+	public void memoryIsTheFirstArgument() throws Exception {
+		Wasm wasm = new Wasm("./src/test/resources/loadStore/loadStore.wasm");
+		WasmModule module = wasm.instantiate();
+		assertTrue(wasm.validate());
+		List<String> skippedAll = new ArrayList<>();
+
+		byte[] classFile = AotCompiler.compile(module, "test.LoadStore", skippedAll);
+
+		assertTrue(skippedAll.isEmpty());
+		Class<?> compiled = new JitClassLoader(getClass().getClassLoader()).define(
+			"test.LoadStore", classFile);
+		MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		memory.putInt(16, 42);
+		Method swap = compiled.getMethod("swap", MemoryType.class, int.class, int.class);
+		assertEquals(42, swap.invoke(null, memory, 16, 7));
+		assertEquals(7, memory.getInt(16));
+		// a function without loads or stores takes no memory.
+		Method add32 = compiled.getMethod("add32", int.class, int.class);
+		assertEquals(3, add32.invoke(null, 1, 2));
+	}
+
+	@Test
+	public void nothingTranslatedFails() {
+		assertThrows(WasmRuntimeException.class,
+			() -> AotCompiler.compile(new WasmModule(), "test.Empty", new ArrayList<>()));
+	}
+
+	@Test
+	public void methodName() {
+		assertEquals("add32", AotCompiler.methodName("add32"));
+		assertEquals("a_b_c_", AotCompiler.methodName("a.b/c<"));
+		assertEquals("_", AotCompiler.methodName(""));
+	}
+}
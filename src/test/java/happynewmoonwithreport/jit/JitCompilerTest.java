@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.jit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.WasmDivideByZeroException;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmTrapException;
+import happynewmoonwithreport.interpreter.Decoder;
+import happynewmoonwithreport.interpreter.RegisterCode;
+import happynewmoonwithreport.interpreter.RegisterCompiler;
+import happynewmoonwithreport.interpreter.ValueStack;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import java.lang.invoke.MethodHandle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JitCompilerTest {
+
+	private static final byte[] I32 = new byte[]{ValueStack.I32_TYPE};
+	private static final byte[] I32_I32 = new byte[]{ValueStack.I32_TYPE, ValueStack.I32_TYPE};
+	private static final byte[] I64 = new byte[]{ValueStack.I64_TYPE};
+
+	private JitCompiler jitCompiler;
+	private ValueStack stack;
+	private MemoryType memory;
+
+	@BeforeEach
+	public void setUp() {
+		jitCompiler = new JitCompiler();
+		stack = new ValueStack();
+		memory = new MemoryType(new U32(0), new U32(1));
+	}
+
+	@Test
+	public void loop() {
+		// sum of 1 .. n, see RegisterCompilerTest
+		byte[] byteAll = new byte[]{0x02, 0x40, 0x03, 0x40, 0x20, 0x00, 0x45, 0x0D, 0x01, 0x20,
+			0x01, 0x20, 0x00, 0x6A, 0x21, 0x01, 0x20, 0x00, 0x41, 0x01, 0x6B, 0x21, 0x00, 0x0C, 0x00,
+			0x0B, 0x0B, 0x20, 0x01};
+		MethodHandle compiledCode = compile(byteAll, 1, I32_I32, I32);
+
+		stack.pushI32(10);
+		JitCompiler.invoke(compiledCode, stack, memory);
+
+		assertEquals(1, stack.size());
+		assertEquals(ValueStack.I32_TYPE, stack.peekType());
+		assertEquals(55, stack.popI32());
+	}
+
+	@Test
+	public void i64WithBranchTable() {
+		// block i64
+		//   block
+		//     get_local 0, br_table 0 1
+		//   end
+		//   i64.const -1, i64.const 3, i64.mul, br 0
+		// end
+		byte[] byteAll = new byte[]{0x02, 0x7E, 0x02, 0x40, 0x20, 0x00, 0x0E, 0x01, 0x00, 0x01, 0x0B,
+			0x42, 0x7F, 0x42, 0x03, 0x7E, 0x0C, 0x00, 0x0B};
+		MethodHandle compiledCode = compile(byteAll, 1, I32, I64);
+
+		stack.pushI32(0);
+		JitCompiler.invoke(compiledCode, stack, memory);
+
+		assertEquals(ValueStack.I64_TYPE, stack.peekType());
+		assertEquals(-3L, stack.popI64());
+	}
+
+	@Test
+	public void divideByZeroTraps() {
+		// get_local 0, get_local 1, i32.div_s
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x20, 0x01, 0x6D};
+		MethodHandle compiledCode = compile(byteAll, 2, I32_I32, I32);
+
+		stack.pushI32(7);
+		stack.pushI32(0);
+
+		assertThrows(WasmDivideByZeroException.class,
+			() -> JitCompiler.invoke(compiledCode, stack, memory));
+	}
+
+	@Test
+	public void unreachableTraps() {
+		// unreachable
+		byte[] byteAll = new byte[]{0x00};
+		MethodHandle compiledCode = compile(byteAll, 0, new byte[0], I32);
+
+		assertThrows(WasmTrapException.class, () -> JitCompiler.invoke(compiledCode, stack, memory));
+	}
+
+	@Test
+	public void loadAndStore() {
+		// get_local 0, i32.const -2, i32.store16 offset 4
+		// get_local 0, i64.load16_u offset 4
+		// get_local 0, i32.load16_s offset 4, i64.extend_i32_s, i64.add
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x41, 0x7E, 0x3B, 0x01, 0x04, 0x20, 0x00, 0x33,
+			0x01, 0x04, 0x20, 0x00, 0x2E, 0x01, 0x04, (byte) 0xAC, 0x7C};
+		MethodHandle compiledCode = compile(byteAll, 1, I32, I64);
+
+		stack.pushI32(1000);
+		JitCompiler.invoke(compiledCode, stack, memory);
+
+		assertEquals(-2, memory.getShort(1004));
+		assertEquals(ValueStack.I64_TYPE, stack.peekType());
+		// 0xFFFE + -2
+		assertEquals(65532L, stack.popI64());
+	}
+
+	@Test
+	public void loadOutOfBoundsTraps() {
+		// get_local 0, i32.load offset 0
+		byte[] byteAll = new byte[]{0x20, 0x00, 0x28, 0x02, 0x00};
+		MethodHandle compiledCode = compile(byteAll, 1, I32, I32);
+
+		stack.pushI32(MemoryType.pageSize - 3);
+
+		assertThrows(WasmRuntimeException.class,
+			() -> JitCompiler.invoke(compiledCode, stack, memory));
+	}
+
+	@Test
+	public void wrapKeepsTheLowBits() {
+		// get_local 0, i32.wrap_i64, i32.const 1, i32.add
+		byte[] byteAll = new byte[]{0x20, 0x00, (byte) 0xA7, 0x41, 0x01, 0x6A};
+		MethodHandle compiledCode = compile(byteAll, 1, I64, I32);
+
+		stack.pushI64(0x1_7FFF_FFFFL);
+		JitCompiler.invoke(compiledCode, stack, memory);
+
+		assertEquals(ValueStack.I32_TYPE, stack.peekType());
+		assertEquals(Integer.MIN_VALUE, stack.popI32());
+	}
+
+	private MethodHandle compile(byte[] byteAll, int paramCount, byte[] slotTypeAll,
+								 byte[] resultTypeAll) {
+		RegisterCode registerCode = RegisterCompiler.compile(Decoder.decode(byteAll), paramCount,
+			slotTypeAll, resultTypeAll);
+		MethodHandle compiledCode = jitCompiler.compile(registerCode);
+		assertNotNull(compiledCode);
+		return compiledCode;
+	}
+}
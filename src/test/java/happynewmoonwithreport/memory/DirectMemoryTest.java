@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+public class DirectMemoryTest {
+
+	@Test
+	public void littleEndian() {
+		try (DirectMemory memory = new DirectMemory(1024)) {
+			memory.putInt(4, 0x0403_0201);
+			memory.putLong(16, -2L);
+
+			assertEquals(1024, memory.size());
+			assertEquals(0x01, memory.getByte(4));
+			assertEquals(0x04, memory.getByte(7));
+			assertEquals(0x0403_0201, memory.getInt(4));
+			assertEquals(-2L, memory.getLong(16));
+		}
+	}
+
+	@Test
+	public void copyFrom() {
+		HeapMemory heap = new HeapMemory(100_000);
+		heap.putInt(99_996, 42);
+		try (DirectMemory memory = new DirectMemory(100_000)) {
+			memory.copyFrom(heap);
+
+			assertEquals(42, memory.getInt(99_996));
+		}
+	}
+
+	@Test
+	public void grow() {
+		try (DirectMemory memory = new DirectMemory(1024)) {
+			memory.putInt(1020, 42);
+			memory.grow(2048);
+
+			assertEquals(2048, memory.size());
+			assertEquals(42, memory.getInt(1020));
+			assertEquals(0, memory.getInt(2044));
+		}
+	}
+
+	@Test
+	public void viewSurvivesGrow() {
+		try (DirectMemory memory = new DirectMemory(1024)) {
+			memory.putInt(8, 42);
+			ByteBuffer view = memory.view(8, 4);
+			memory.grow(2048);
+
+			// the old buffer is still there: the view keeps its bytes but is cut off from memory.
+			assertEquals(42, view.getInt(0));
+			view.putInt(0, 7);
+			assertEquals(42, memory.getInt(8));
+		}
+	}
+
+	@Test
+	public void closedMemoryTraps() {
+		DirectMemory memory = new DirectMemory(1024);
+		memory.close();
+
+		assertThrows(IndexOutOfBoundsException.class, () -> memory.getInt(0));
+		// closing twice does nothing.
+		memory.close();
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MappedMemoryTest {
+
+	private Path path;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		path = Files.createTempFile("memory", ".bin");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(path);
+	}
+
+	@Test
+	public void bytesPersist() throws IOException {
+		try (MappedMemory memory = new MappedMemory(path, 65536)) {
+			memory.putLong(65528, 0x0102_0304_0506_0708L);
+		}
+		assertEquals(65536, Files.size(path));
+
+		try (MappedMemory memory = new MappedMemory(path, 65536)) {
+			assertEquals(0x0102_0304_0506_0708L, memory.getLong(65528));
+			assertEquals(0x08, memory.getByte(65528));
+		}
+	}
+
+	@Test
+	public void growExtendsTheFile() throws IOException {
+		try (MappedMemory memory = new MappedMemory(path, 65536)) {
+			memory.putInt(100, 42);
+			memory.grow(2 * 65536);
+			memory.putInt(2 * 65536 - 4, 7);
+
+			assertEquals(42, memory.getInt(100));
+			assertEquals(0, memory.getInt(65536));
+			assertEquals(2 * 65536, memory.size());
+		}
+
+		// the file is longer than asked for, the memory keeps its grown size.
+		try (MappedMemory memory = new MappedMemory(path, 65536)) {
+			assertEquals(2 * 65536, memory.size());
+			assertEquals(7, memory.getInt(2 * 65536 - 4));
+		}
+	}
+
+	@Test
+	public void closedMemoryTraps() {
+		MappedMemory memory = new MappedMemory(path, 1024);
+		memory.close();
+
+		assertThrows(IndexOutOfBoundsException.class, () -> memory.getInt(0));
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import org.junit.jupiter.api.Test;
+
+public class PagedMemoryTest {
+
+	private static final int PAGE_SIZE = PagedMemory.PAGE_SIZE;
+
+	@Test
+	public void copyOnWrite() {
+		PagedMemory template = new PagedMemory(4 * PAGE_SIZE);
+		template.putInt(8, 42);
+		template.putInt(PAGE_SIZE + 8, 43);
+
+		PagedMemory copy = template.copy();
+		assertEquals(0, copy.ownedPageCount());
+		assertEquals(42, copy.getInt(8));
+
+		copy.putInt(8, 7);
+		assertEquals(1, copy.ownedPageCount());
+		assertEquals(7, copy.getInt(8));
+		assertEquals(42, template.getInt(8));
+
+		template.putInt(PAGE_SIZE + 8, 44);
+		assertEquals(43, copy.getInt(PAGE_SIZE + 8));
+		assertEquals(44, template.getInt(PAGE_SIZE + 8));
+	}
+
+	@Test
+	public void viewedPageIsNotShared() {
+		PagedMemory template = new PagedMemory(2 * PAGE_SIZE);
+		template.putInt(8, 42);
+		ByteBuffer view = template.view(0, 16);
+
+		PagedMemory copy = template.copy();
+		assertEquals(1, copy.ownedPageCount());
+		view.putInt(8, 7);
+
+		// the view still writes the template, the copy kept the bytes it was made with.
+		assertEquals(7, template.getInt(8));
+		assertEquals(42, copy.getInt(8));
+		copy.putInt(8, 9);
+		assertEquals(7, view.getInt(8));
+	}
+
+	@Test
+	public void viewAcrossPagesIsReadOnlyCopy() {
+		PagedMemory memory = new PagedMemory(3 * PAGE_SIZE);
+		memory.putInt(PAGE_SIZE - 2, 0x0403_0201);
+		memory.putInt(2 * PAGE_SIZE + 4, 9);
+
+		ByteBuffer view = memory.view(PAGE_SIZE - 8, 2 * PAGE_SIZE);
+		assertTrue(view.isReadOnly());
+		assertEquals(0x0403_0201, view.getInt(6));
+		assertEquals(9, view.getInt(PAGE_SIZE + 12));
+		assertThrows(ReadOnlyBufferException.class, () -> view.putInt(0, 1));
+		// no page was marked for the view, a copy still shares them all.
+		assertEquals(0, memory.copy().ownedPageCount());
+	}
+
+	@Test
+	public void valueSplitOverTwoPages() {
+		PagedMemory memory = new PagedMemory(2 * PAGE_SIZE);
+		memory.putLong(PAGE_SIZE - 3, 0x0102_0304_0506_0708L);
+
+		assertEquals(0x0102_0304_0506_0708L, memory.getLong(PAGE_SIZE - 3));
+		assertEquals(0x08, memory.getByte(PAGE_SIZE - 3));
+		assertEquals(0x01, memory.getByte(PAGE_SIZE + 4));
+
+		byte[] byteAll = new byte[8];
+		memory.getBytes(PAGE_SIZE - 3, byteAll, 0, 8);
+		assertEquals(0x08, byteAll[0]);
+		assertEquals(0x01, byteAll[7]);
+	}
+
+	@Test
+	public void ofCopiesOnlyPagesThatAreNotZero() {
+		HeapMemory heap = new HeapMemory(3 * PAGE_SIZE);
+		heap.putShort(2 * PAGE_SIZE + 2, (short) -2);
+
+		PagedMemory memory = PagedMemory.of(heap);
+
+		assertEquals(1, memory.ownedPageCount());
+		assertEquals(-2, memory.getShort(2 * PAGE_SIZE + 2));
+		assertEquals(0, memory.getLong(0));
+	}
+
+	@Test
+	public void growAndBounds() {
+		PagedMemory memory = new PagedMemory(1024);
+		assertThrows(IndexOutOfBoundsException.class, () -> memory.getInt(1022));
+
+		memory.grow(PAGE_SIZE + 1024);
+		memory.putInt(PAGE_SIZE + 1020, 5);
+		assertEquals(5, memory.getInt(PAGE_SIZE + 1020));
+		assertThrows(IndexOutOfBoundsException.class,
+			() -> memory.putByte(PAGE_SIZE + 1024, (byte) 1));
+	}
+
+	@Test
+	public void copyWithinAndFill() {
+		PagedMemory memory = new PagedMemory(2 * PAGE_SIZE);
+		memory.fill(PAGE_SIZE - 2, 4, (byte) 7);
+		assertEquals(0x0707_0707, memory.getInt(PAGE_SIZE - 2));
+		assertEquals(0, memory.getByte(PAGE_SIZE + 2));
+
+		// overlapping ranges, both directions.
+		memory.putInt(0, 0x0403_0201);
+		memory.copyWithin(1, 0, 4);
+		assertEquals(0x0302_0101, memory.getInt(0));
+		assertEquals(0x04, memory.getByte(4));
+		memory.copyWithin(0, 1, 4);
+		assertEquals(0x0403_0201, memory.getInt(0));
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import org.junit.jupiter.api.Test;
+
+public class TrackedMemoryTest {
+
+	private static final int PAGE_SIZE = PagedMemory.PAGE_SIZE;
+
+	@Test
+	public void snapshotCopiesOnlyPagesWritten() {
+		TrackedMemory memory = new TrackedMemory(new HeapMemory(8 * PAGE_SIZE));
+		memory.putInt(8, 42);
+
+		TrackedMemory.Snapshot base = memory.snapshot();
+		assertTrue(base.isFull());
+		assertEquals(8, base.granuleCount());
+		// only the page that is not zero holds bytes.
+		assertEquals(PAGE_SIZE, base.byteCount());
+
+		memory.putLong(3 * PAGE_SIZE + 16, -1L);
+		memory.fill(5 * PAGE_SIZE, 4, (byte) 7);
+		assertEquals(2, memory.dirtyCount(memory.size()));
+
+		TrackedMemory.Snapshot delta = memory.snapshot();
+		assertFalse(delta.isFull());
+		assertEquals(2, delta.granuleCount());
+		assertEquals(0, memory.snapshot().granuleCount());
+
+		TrackedMemory restored = new TrackedMemory(new HeapMemory(8 * PAGE_SIZE));
+		restored.restore(base, delta);
+		assertEquals(42, restored.getInt(8));
+		assertEquals(-1L, restored.getLong(3 * PAGE_SIZE + 16));
+		assertEquals(0x0707_0707, restored.getInt(5 * PAGE_SIZE));
+
+		assertThrows(IllegalArgumentException.class, () -> restored.restore(delta));
+	}
+
+	@Test
+	public void smallGranule() {
+		TrackedMemory memory = new TrackedMemory(new HeapMemory(PAGE_SIZE), 12);
+		memory.snapshot();
+
+		// a value split over two granules marks both.
+		memory.putInt(4096 - 2, 0x0102_0304);
+		memory.putByte(5 * 4096, (byte) 1);
+
+		TrackedMemory.Snapshot delta = memory.snapshot();
+		assertEquals(3, delta.granuleCount());
+		assertEquals(3 * 4096, delta.byteCount());
+	}
+
+	@Test
+	public void restoreMemoryThatGrew() {
+		MemoryType memoryType = new MemoryType(new U32(0), new U32(1));
+		memoryType.setLinearMemory(new TrackedMemory(new HeapMemory(PAGE_SIZE)));
+		memoryType.putInt(0, 1);
+		TrackedMemory.Snapshot base = memoryType.snapshot();
+
+		assertEquals(1, memoryType.grow(2, MemoryType.MAX_PAGES));
+		memoryType.putInt(2 * PAGE_SIZE, 3);
+		TrackedMemory.Snapshot delta = memoryType.snapshot();
+		// the pages added by grow are in the snapshot even if they were not written.
+		assertEquals(2, delta.granuleCount());
+
+		MemoryType restored = new MemoryType(new U32(0), new U32(1));
+		restored.setLinearMemory(new TrackedMemory(new HeapMemory(PAGE_SIZE)));
+		restored.restore(base, delta);
+		assertEquals(3, restored.pageCount());
+		assertEquals(1, restored.getInt(0));
+		assertEquals(3, restored.getInt(2 * PAGE_SIZE));
+	}
+}
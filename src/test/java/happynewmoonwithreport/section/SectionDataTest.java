@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.section;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.DataSegment;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Test;
+
+
+public class SectionDataTest {
+
+	/**
+	 * An active and a passive segment.
+	 */
+	@Test
+	public void instantiate() {
+		byte[] byteAll = {(byte) 0x02,    // count
+			(byte) 0x00,    // active, memory zero
+			(byte) 0x41, (byte) 0x08, (byte) 0x0B,    // i32.const 8 end
+			(byte) 0x01, (byte) 0x2A,    // one byte
+			(byte) 0x01,    // passive
+			(byte) 0x00    // no bytes
+		};
+		SectionData sectionData = new SectionData();
+
+		// run
+		sectionData.instantiate(new BytesFile(byteAll));
+
+		// verify
+		assertEquals(new UInt32(2), sectionData.getCount());
+		WasmVector<DataSegment> segmentAll = sectionData.getDataSegmentAll();
+		assertTrue(segmentAll.get(0).isActive());
+		assertEquals(8, segmentAll.get(0).getOffset());
+		assertEquals(0x2A, segmentAll.get(0).getBytes()[0]);
+		assertFalse(segmentAll.get(1).isActive());
+		assertEquals(0, segmentAll.get(1).getBytes().length);
+	}
+}
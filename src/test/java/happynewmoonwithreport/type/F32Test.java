@@ -54,6 +54,20 @@ class F32Test {
 		assertEquals(F32.ZERO_NEGATIVE,F32.valueOf("-0x0p+0"));
 	}
 
+	@Test
+	void testNanKeepsSignAndPayload() {
+		assertEquals(0x7FC0_0000, F32.valueOf("nan").getBits());
+		assertEquals(0xFFC0_0000, F32.valueOf("-nan").getBits());
+		assertEquals(0x7FA0_0000, F32.valueOf("nan:0x200000").getBits());
+
+		F32 payload = F32.valueOf("nan:0x200000");
+		assertEquals(0x7FA0_0000, F32.fromBits(payload.getBits()).getBits());
+		assertEquals(0xFFA0_0000, payload.negWasm().getBits());
+		assertEquals(0x7FA0_0000, payload.negWasm().absWasm().getBits());
+		assertEquals(0xFFA0_0000, payload.copysign(F32.ZERO_NEGATIVE).getBits());
+		assertEquals(0x7FA0_0000, new F32(payload.getBytes()).getBits());
+	}
+
 	@Test
 	void valueOf() {
 	}
@@ -51,6 +51,20 @@ class F64Test {
 		assertEquals(F64.ZERO_NEGATIVE,F64.valueOf("-0x0p+0"));
 	}
 
+	@Test
+	void testNanKeepsSignAndPayload() {
+		assertEquals(0x7FF8_0000_0000_0000L, F64.valueOf("nan").getBits());
+		assertEquals(0xFFF8_0000_0000_0000L, F64.valueOf("-nan").getBits());
+		assertEquals(0x7FF4_0000_0000_0000L, F64.valueOf("nan:0x4000000000000").getBits());
+
+		F64 payload = F64.valueOf("nan:0x4000000000000");
+		assertEquals(0x7FF4_0000_0000_0000L, F64.fromBits(payload.getBits()).getBits());
+		assertEquals(0xFFF4_0000_0000_0000L, payload.negWasm().getBits());
+		assertEquals(0x7FF4_0000_0000_0000L, payload.negWasm().absWasm().getBits());
+		assertEquals(0xFFF4_0000_0000_0000L, payload.copysign(F64.ZERO_NEGATIVE).getBits());
+		assertEquals(0x7FF4_0000_0000_0000L, new F64(payload.getBytes()).getBits());
+	}
+
 	@Test
 	void valueOf() {
 	}
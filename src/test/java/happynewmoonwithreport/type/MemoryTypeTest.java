@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2017 - 2020 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.memory.HeapMemory;
+import happynewmoonwithreport.memory.MappedMemory;
+import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MemoryTypeTest {
+
+	private MemoryType memory;
+
+	@BeforeEach
+	public void setUp() {
+		memory = new MemoryType(new U32(0), new U32(1));
+	}
+
+	@Test
+	public void size() {
+		assertEquals(MemoryType.pageSize.intValue(), memory.size());
+		assertEquals(new U32(MemoryType.pageSize), memory.getSize());
+	}
+
+	@Test
+	public void littleEndian() {
+		memory.putInt(4, 0x0403_0201);
+
+		assertEquals(0x01, memory.getByte(4));
+		assertEquals(0x04, memory.getByte(7));
+		assertEquals(0x0201, memory.getShort(4));
+		assertEquals(0x0403_0201, memory.getInt(4));
+	}
+
+	@Test
+	public void longAndDouble() {
+		memory.putLong(8, 0x0807_0605_0403_0201L);
+		assertEquals(0x0807_0605_0403_0201L, memory.getLong(8));
+		assertEquals(0x0403_0201, memory.getInt(8));
+
+		memory.putDouble(16, -1.5);
+		assertEquals(-1.5, memory.getDouble(16));
+		memory.putFloat(24, 2.25F);
+		assertEquals(2.25F, memory.getFloat(24));
+	}
+
+	@Test
+	public void byteUnsignedView() {
+		// memory starts as zero.
+		assertEquals(new ByteUnsigned(0), memory.get(100));
+
+		memory.set(100, new ByteUnsigned(0xC6));
+
+		assertEquals((byte) 0xC6, memory.getByte(100));
+		assertSame(memory.get(100), memory.get(100));
+	}
+
+	@Test
+	public void growReservesCapacity() {
+		memory.putInt(100, 42);
+
+		assertEquals(1, memory.grow(1, MemoryType.MAX_PAGES));
+		assertEquals(2, memory.pageCount());
+		assertEquals(42, memory.getInt(100));
+		assertEquals(0, memory.getInt(2 * MemoryType.pageSize - 4));
+
+		// the reserve was doubled, growing to four pages does not replace the bytes.
+		assertEquals(2, memory.grow(1, MemoryType.MAX_PAGES));
+		final int capacity = memory.getLinearMemory().size();
+		assertEquals(3, memory.grow(1, MemoryType.MAX_PAGES));
+		assertEquals(capacity, memory.getLinearMemory().size());
+		assertEquals(4 * MemoryType.pageSize, memory.size());
+	}
+
+	@Test
+	public void growFailsPastTheLimit() {
+		MemoryType limited = new MemoryType(new UInt8(1), new UInt32(1), new UInt32(3));
+
+		assertEquals(-1, limited.grow(3, MemoryType.MAX_PAGES));
+		assertEquals(1, limited.grow(2, MemoryType.MAX_PAGES));
+		assertEquals(3, limited.grow(0, MemoryType.MAX_PAGES));
+		assertEquals(-1, limited.grow(1, MemoryType.MAX_PAGES));
+		// the reserve never exceeds the maximum.
+		assertEquals(3 * MemoryType.pageSize, limited.getLinearMemory().size());
+
+		// the instance limit.
+		assertEquals(-1, memory.grow(2, 2));
+		// the delta is unsigned.
+		assertEquals(-1, memory.grow(-1, MemoryType.MAX_PAGES));
+	}
+
+	@Test
+	public void persistentMemoryHasNoReserve() throws IOException {
+		Path path = Files.createTempFile("memory", ".bin");
+		try {
+			try (MappedMemory mapped = new MappedMemory(path, MemoryType.pageSize)) {
+				memory.setLinearMemory(mapped);
+				assertEquals(1, memory.grow(1, MemoryType.MAX_PAGES));
+				assertEquals(2, memory.grow(1, MemoryType.MAX_PAGES));
+			}
+			assertEquals(3L * MemoryType.pageSize, Files.size(path));
+
+			// reopened, memory.size is the page count the module grew to.
+			MemoryType reopened = new MemoryType(new U32(0), new U32(1));
+			try (MappedMemory mapped = new MappedMemory(path, MemoryType.pageSize)) {
+				reopened.setLinearMemory(mapped);
+				assertEquals(3, reopened.pageCount());
+			}
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void setLinearMemoryChecksTheSize() {
+		assertThrows(WasmRuntimeException.class,
+			() -> memory.setLinearMemory(new HeapMemory(MemoryType.pageSize + 1)));
+
+		MemoryType limited = new MemoryType(new UInt8(1), new UInt32(1), new UInt32(2));
+		assertThrows(WasmRuntimeException.class,
+			() -> limited.setLinearMemory(new HeapMemory(3 * MemoryType.pageSize)));
+		limited.setLinearMemory(new HeapMemory(2 * MemoryType.pageSize));
+		assertEquals(2, limited.pageCount());
+	}
+}
@@ -37,7 +37,7 @@ public class VarUInt32Test {
 	@Test
 	public void testMaxBytes() {
 		byte[] bytesAll =
-			new byte[]{(byte) 0x87, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80};
+			new byte[]{(byte) 0x87, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x00};
 		BytesFile payload = new BytesFile(bytesAll);
 		assertEquals(new Integer(5), new VarUInt32(payload).maxBytes());
 	}
@@ -0,0 +1,25 @@
+(module
+  (memory $0 1)
+  (export "memory" (memory $0))
+  (export "swap" (func $swap))
+  (export "add32" (func $add32))
+  (func $swap (param $0 i32) (param $1 i32) (result i32)
+    (local $2 i32)
+    (set_local $2
+      (i32.load
+        (get_local $0)
+      )
+    )
+    (i32.store
+      (get_local $0)
+      (get_local $1)
+    )
+    (get_local $2)
+  )
+  (func $add32 (param $0 i32) (param $1 i32) (result i32)
+    (i32.add
+      (get_local $1)
+      (get_local $0)
+    )
+  )
+)